@@ -17,6 +17,7 @@
 
 package discord4j.common;
 
+import discord4j.common.annotations.Experimental;
 import org.jspecify.annotations.Nullable;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
@@ -43,6 +44,16 @@ public class ReactorResources {
     public static final Supplier<Scheduler> DEFAULT_TIMER_TASK_SCHEDULER = () ->
             Schedulers.newParallel("d4j-parallel-" + ID.incrementAndGet(), Schedulers.DEFAULT_POOL_SIZE, true);
     public static final Supplier<Scheduler> DEFAULT_BLOCKING_TASK_SCHEDULER = Schedulers::boundedElastic;
+    /**
+     * Creates a {@link Scheduler} for blocking tasks that runs each task on its own virtual thread on JDK 21 or later,
+     * falling back to {@link #DEFAULT_BLOCKING_TASK_SCHEDULER} on earlier versions.
+     *
+     * @see VirtualThreadSchedulers
+     */
+    @Experimental
+    public static final Supplier<Scheduler> VIRTUAL_THREAD_BLOCKING_TASK_SCHEDULER = () ->
+            VirtualThreadSchedulers.newSchedulerOrElse("d4j-blocking-vt-" + ID.incrementAndGet(),
+                    DEFAULT_BLOCKING_TASK_SCHEDULER);
 
     private final HttpClient httpClient;
     private final Scheduler timerTaskScheduler;
@@ -128,6 +139,18 @@ public class ReactorResources {
             return this;
         }
 
+        /**
+         * Sets the {@link Scheduler} to use for potentially blocking tasks to one running each task on its own
+         * virtual thread, if the running JDK supports them. Created from
+         * {@link ReactorResources#VIRTUAL_THREAD_BLOCKING_TASK_SCHEDULER}.
+         *
+         * @return This builder, for chaining.
+         */
+        @Experimental
+        public Builder virtualThreadBlockingTaskScheduler() {
+            return blockingTaskScheduler(VIRTUAL_THREAD_BLOCKING_TASK_SCHEDULER.get());
+        }
+
         /**
          * Create the {@link ReactorResources}.
          *
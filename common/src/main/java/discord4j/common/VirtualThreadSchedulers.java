@@ -0,0 +1,73 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.annotations.Experimental;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Supplier;
+
+/**
+ * Factories for {@link Scheduler} instances running each task on a new virtual thread, available when running on
+ * JDK 21 or later through the multi-release jar of this module.
+ * <p>
+ * These schedulers suit blocking work, like JDBC calls inside event handlers: a blocked task parks its virtual thread
+ * instead of holding one of a bounded pool of platform threads, so concurrency is not capped by a thread count.
+ * Sequential operators like {@code publishOn} still run the tasks of each subscriber one at a time. These schedulers
+ * are not time-capable: delays and periodic tasks must use a timer scheduler like
+ * {@link ReactorResources#getTimerTaskScheduler()}.
+ */
+@Experimental
+public final class VirtualThreadSchedulers {
+
+    private VirtualThreadSchedulers() {
+    }
+
+    /**
+     * Return whether virtual threads are available on the running JDK.
+     *
+     * @return {@code true} if {@link #newScheduler(String)} can be used
+     */
+    public static boolean isSupported() {
+        return VirtualThreadSupport.isAvailable();
+    }
+
+    /**
+     * Create a {@link Scheduler} starting a new virtual thread for each task.
+     *
+     * @param name the scheduler name, also used as prefix for its thread names
+     * @return a new virtual thread {@link Scheduler}
+     * @throws UnsupportedOperationException if virtual threads are not available on the running JDK
+     */
+    public static Scheduler newScheduler(String name) {
+        return Schedulers.fromExecutorService(VirtualThreadSupport.newThreadPerTaskExecutor(name), name);
+    }
+
+    /**
+     * Create a {@link Scheduler} starting a new virtual thread for each task if they are available, or use the given
+     * fallback otherwise.
+     *
+     * @param name the scheduler name, also used as prefix for its thread names
+     * @param fallback the {@link Scheduler} factory to use if virtual threads are not available
+     * @return a new virtual thread {@link Scheduler}, or the fallback one
+     */
+    public static Scheduler newSchedulerOrElse(String name, Supplier<Scheduler> fallback) {
+        return isSupported() ? newScheduler(name) : fallback.get();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads, which are unavailable on this JDK. A replacement of this class for JDK 21 and later is
+ * packaged under {@code META-INF/versions/21} of the multi-release jar.
+ */
+final class VirtualThreadSupport {
+
+    private VirtualThreadSupport() {
+    }
+
+    static boolean isAvailable() {
+        return false;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require JDK 21 or later");
+    }
+}
@@ -26,6 +26,7 @@ import discord4j.common.store.api.StoreFlag;
 import discord4j.common.store.api.layout.DataAccessor;
 import discord4j.common.store.api.layout.GatewayDataUpdater;
 import discord4j.common.store.api.layout.StoreLayout;
+import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 
@@ -46,6 +47,11 @@ import java.util.stream.Collectors;
  * actions, whether they are Discord4J-specific or user-defined. The layout interface allows to enforce support for a
  * minimal set of actions in order to fulfill the caching expectations of the Discord client.
  *
+ * <p>
+ * Layouts whose operations never block may additionally declare synchronous handlers through
+ * {@link StoreLayout#getSynchronousActionMapper()}. Such actions can be run on the calling thread using
+ * {@link Store#executeSync(StoreAction)}, avoiding the cost of subscribing to a {@link Publisher} on hot paths.
+ *
  * @see Store#fromLayout(StoreLayout)
  */
 public final class Store {
@@ -96,7 +102,8 @@ public final class Store {
         ActionMapper dataAccessorMapper = dataAccessorToMapper(layout.getDataAccessor(), layout.getEnabledFlags());
         ActionMapper gatewayDataUpdaterMapper = gatewayDataUpdaterToMapper(layout.getGatewayDataUpdater(), layout.getEnabledFlags());
         ActionMapper customMapper = layout.getCustomActionMapper();
-        return ActionMapper.aggregate(dataAccessorMapper, gatewayDataUpdaterMapper, customMapper);
+        return ActionMapper.aggregate(dataAccessorMapper, gatewayDataUpdaterMapper, customMapper)
+                .withSynchronousHandlers(layout.getSynchronousActionMapper());
     }
 
     private static ActionMapper dataAccessorToMapper(DataAccessor dataAccessor, EnumSet<StoreFlag> enabled) {
@@ -189,7 +196,9 @@ public final class Store {
                     .map(GetMembersAction.class, action -> dataAccessor.getMembers())
                     .map(GetMembersInGuildAction.class, action -> dataAccessor.getMembersInGuild(action.getGuildId()))
                     .map(GetExactMembersInGuildAction.class, action -> dataAccessor.getExactMembersInGuild(action.getGuildId()))
-                    .map(GetMemberByIdAction.class, action -> dataAccessor.getMemberById(action.getGuildId(), action.getUserId()));
+                    .map(GetMemberByIdAction.class, action -> dataAccessor.getMemberById(action.getGuildId(), action.getUserId()))
+                    .map(GetMembersWithRoleAction.class, action -> dataAccessor.getMembersWithRole(action.getGuildId(), action.getRoleId()))
+                    .map(GetMembersByNamePrefixAction.class, action -> dataAccessor.getMembersByNamePrefix(action.getGuildId(), action.getPrefix(), action.getLimit()));
         }
 
         if (enabled.contains(StoreFlag.MESSAGE)) {
@@ -274,7 +283,10 @@ public final class Store {
 
         ActionMapper.Builder builder = ActionMapper.builder()
                 .map(ReadyAction.class, action -> gatewayDataUpdater.onReady(action.getReady()))
-                .map(InvalidateShardAction.class, action -> gatewayDataUpdater.onShardInvalidation(action.getShardIndex(), action.getCause()));
+                .map(InvalidateShardAction.class, action -> gatewayDataUpdater.onShardInvalidation(action.getShardIndex(),
+                        action.getShardCount(), action.getCause()))
+                .map(CompleteReshardingAction.class, action -> gatewayDataUpdater.onReshardingCompletion(action.getShardCount()))
+                .map(AbortReshardingAction.class, action -> gatewayDataUpdater.onReshardingAbort(action.getShardCount()));
 
         if (enabled.contains(StoreFlag.CHANNEL)) {
             builder = builder
@@ -387,4 +399,32 @@ public final class Store {
                 .<Publisher<R>>map(h -> h.apply(action))
                 .orElse(Flux.empty());
     }
+
+    /**
+     * Returns whether the given action can be executed through {@link #executeSync(StoreAction)}, that is, if the
+     * layout handling it declared a synchronous handler for its concrete type.
+     *
+     * @param action the action to check
+     * @return {@code true} if the action can be executed synchronously, {@code false} otherwise
+     */
+    public boolean canExecuteSync(StoreAction<?> action) {
+        return actionMapper.findSyncHandlerForAction(action).isPresent();
+    }
+
+    /**
+     * Executes the given action synchronously on the calling thread, bypassing the creation of a {@link Publisher}.
+     * This is only supported for actions where {@link #canExecuteSync(StoreAction)} returns {@code true}. Any error
+     * thrown by the handler is propagated to the caller.
+     *
+     * @param action the action to execute
+     * @param <R>    the type of data returned by the action
+     * @return the result produced by the execution of the action, or {@code null} if there is none
+     * @throws UnsupportedOperationException if the action has no synchronous handler
+     */
+    public <R> @Nullable R executeSync(StoreAction<R> action) {
+        return actionMapper.findSyncHandlerForAction(action)
+                .orElseThrow(() -> new UnsupportedOperationException("Action " + action.getClass().getSimpleName()
+                        + " cannot be executed synchronously"))
+                .apply(action);
+    }
 }
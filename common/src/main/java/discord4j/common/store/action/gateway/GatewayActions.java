@@ -262,7 +262,21 @@ public class GatewayActions {
      * @return a new {@link InvalidateShardAction}
      */
     public static InvalidateShardAction invalidateShard(int shardIndex, InvalidationCause cause) {
-        return new InvalidateShardAction(shardIndex, cause);
+        return new InvalidateShardAction(shardIndex, 0, cause);
+    }
+
+    /**
+     * Creates an action to execute when a shard should be invalidated, specifying the total number of shards it was
+     * connected with. This allows the store to tell apart two shards with the same index while the shard count of a
+     * group is changing.
+     *
+     * @param shardIndex the index of the shard where the dispatch comes from
+     * @param shardCount the total number of shards of the invalidated shard
+     * @param cause      the cause of the invalidation
+     * @return a new {@link InvalidateShardAction}
+     */
+    public static InvalidateShardAction invalidateShard(int shardIndex, int shardCount, InvalidationCause cause) {
+        return new InvalidateShardAction(shardIndex, shardCount, cause);
     }
 
     /**
@@ -409,6 +423,28 @@ public class GatewayActions {
         return new CompleteGuildMembersAction(guildId);
     }
 
+    /**
+     * Creates an action that allows to signal that the shards connected with the given shard count replaced the
+     * previous ones, so guilds are now owned according to the new shard count.
+     *
+     * @param shardCount the new total number of shards
+     * @return a new {@link CompleteReshardingAction}
+     */
+    public static CompleteReshardingAction completeResharding(int shardCount) {
+        return new CompleteReshardingAction(shardCount);
+    }
+
+    /**
+     * Creates an action that allows to signal that the shards connected with the given shard count were discarded
+     * before replacing the current ones.
+     *
+     * @param shardCount the total number of shards of the discarded shards
+     * @return a new {@link AbortReshardingAction}
+     */
+    public static AbortReshardingAction abortResharding(int shardCount) {
+        return new AbortReshardingAction(shardCount);
+    }
+
     /**
      * Creates an action to execute when a {@link ThreadCreate} is received from the gateway.
      *
@@ -21,13 +21,25 @@ import discord4j.common.store.api.object.InvalidationCause;
 
 public class InvalidateShardAction extends ShardAwareAction<Void> {
 
+    private final int shardCount;
     private final InvalidationCause cause;
 
-    InvalidateShardAction(int shardIndex, InvalidationCause cause) {
+    InvalidateShardAction(int shardIndex, int shardCount, InvalidationCause cause) {
         super(shardIndex);
+        this.shardCount = shardCount;
         this.cause = cause;
     }
 
+    /**
+     * Returns the total number of shards of the invalidated shard, or 0 if unknown, in which case the shard is assumed
+     * to be part of the current shard set.
+     *
+     * @return the shard count of the invalidated shard, or 0 if unknown
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
     public InvalidationCause getCause() {
         return cause;
     }
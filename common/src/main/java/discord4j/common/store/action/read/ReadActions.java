@@ -356,6 +356,34 @@ public class ReadActions {
         return new GetExactMembersInGuildAction(guildId);
     }
 
+    /**
+     * Creates an action to retrieve data for all members present in a store for the given guild ID that have the
+     * given role.
+     *
+     * @param guildId the guild ID
+     * @param roleId  the role ID
+     * @return a new {@link GetMembersWithRoleAction}
+     */
+    public static GetMembersWithRoleAction getMembersWithRole(long guildId, long roleId) {
+        return new GetMembersWithRoleAction(guildId, roleId);
+    }
+
+    /**
+     * Creates an action to retrieve data for members present in a store for the given guild ID whose username or
+     * nickname start with the given prefix, ignoring case.
+     *
+     * @param guildId the guild ID
+     * @param prefix  the name prefix
+     * @param limit   the maximum number of members to retrieve, must be positive
+     * @return a new {@link GetMembersByNamePrefixAction}
+     */
+    public static GetMembersByNamePrefixAction getMembersByNamePrefix(long guildId, String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return new GetMembersByNamePrefixAction(guildId, prefix, limit);
+    }
+
     /**
      * Creates an action to retrieve data for the member corresponding to the given guild ID and user ID.
      *
@@ -18,7 +18,9 @@
 package discord4j.common.store.api;
 
 import discord4j.common.annotations.Experimental;
+import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
 
 import java.util.*;
 import java.util.function.Function;
@@ -26,15 +28,22 @@ import java.util.stream.Collectors;
 
 /**
  * Holds mappings between concrete {@link StoreAction} types and the code to execute when they are invoked.
+ * <p>
+ * Mappings can optionally be declared as synchronous through {@link Builder#mapSync(Class, Function)}, meaning the
+ * handler never blocks and produces its result directly on the calling thread. Synchronous handlers are also exposed
+ * as a regular {@link Publisher} based handler, so they can be used interchangeably.
  */
 public class ActionMapper {
 
-    private static final ActionMapper EMPTY = new ActionMapper(Collections.emptyMap());
+    private static final ActionMapper EMPTY = new ActionMapper(Collections.emptyMap(), Collections.emptyMap());
 
     private final Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> mappings;
+    private final Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ?>> syncMappings;
 
-    private ActionMapper(Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> mappings) {
+    private ActionMapper(Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> mappings,
+                         Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ?>> syncMappings) {
         this.mappings = mappings;
+        this.syncMappings = syncMappings;
     }
 
     /**
@@ -70,7 +79,10 @@ public class ActionMapper {
         if (mappers.length == 1) return mappers[0];
         return new ActionMapper(Arrays.stream(mappers)
                 .flatMap(mapper -> mapper.mappings.entrySet().stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))); // throws ISE if duplicates
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)), // throws ISE if duplicates
+                Arrays.stream(mappers)
+                        .flatMap(mapper -> mapper.syncMappings.entrySet().stream())
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
     }
 
     /**
@@ -84,9 +96,43 @@ public class ActionMapper {
     @Experimental
     public static ActionMapper mergeFirst(Collection<ActionMapper> mappers) {
         Objects.requireNonNull(mappers);
-        return new ActionMapper(mappers.stream()
-                .flatMap(mapper -> mapper.mappings.entrySet().stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a)));
+        Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> merged = new HashMap<>();
+        Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ?>> mergedSync = new HashMap<>();
+        for (ActionMapper mapper : mappers) {
+            mapper.mappings.forEach((actionType, handler) -> {
+                // a synchronous handler is only kept if it belongs to the mapper that won the merge
+                if (merged.putIfAbsent(actionType, handler) == null && mapper.syncMappings.containsKey(actionType)) {
+                    mergedSync.put(actionType, mapper.syncMappings.get(actionType));
+                }
+            });
+        }
+        return new ActionMapper(merged, mergedSync);
+    }
+
+    /**
+     * Creates a new {@link ActionMapper} holding the mappings of this instance, enriched with the synchronous handlers
+     * declared by the given mapper. Only action types already mapped by this instance are considered, so the given
+     * mapper cannot enable actions that were not present before.
+     *
+     * @param synchronousMapper the mapper holding synchronous handlers
+     * @return a new {@link ActionMapper} combining both mappers
+     */
+    @Experimental
+    public ActionMapper withSynchronousHandlers(ActionMapper synchronousMapper) {
+        Objects.requireNonNull(synchronousMapper);
+        if (synchronousMapper.syncMappings.isEmpty()) {
+            return this;
+        }
+        Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> newMappings =
+                new HashMap<>(mappings);
+        Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ?>> newSyncMappings = new HashMap<>(syncMappings);
+        synchronousMapper.syncMappings.forEach((actionType, handler) -> {
+            if (mappings.containsKey(actionType)) {
+                newMappings.put(actionType, synchronousMapper.mappings.get(actionType));
+                newSyncMappings.put(actionType, handler);
+            }
+        });
+        return new ActionMapper(newMappings, newSyncMappings);
     }
 
     /**
@@ -103,12 +149,30 @@ public class ActionMapper {
                 .map(handler -> a -> (Publisher<R>) handler.apply(a));
     }
 
+    /**
+     * Retrieves the synchronous handler associated to the given action based on its concrete type. A synchronous
+     * handler returns the result of the action directly, or {@code null} if the action produced no result.
+     *
+     * @param action the action to retrieve the synchronous handler for
+     * @param <R> the return type of the action, to ensure type safety
+     * @return the synchronous handler for the given action, or {@link Optional#empty()} if the action is not mapped
+     * or was not declared as synchronous
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Optional<Function<StoreAction<R>, @Nullable R>> findSyncHandlerForAction(StoreAction<R> action) {
+        Objects.requireNonNull(action);
+        return Optional.ofNullable(syncMappings.get(action.getClass()))
+                .map(handler -> a -> (R) handler.apply(a));
+    }
+
     public static class Builder {
 
         private final Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ? extends Publisher<?>>> mappings;
+        private final Map<Class<? extends StoreAction<?>>, Function<StoreAction<?>, ?>> syncMappings;
 
         private Builder() {
             this.mappings = new HashMap<>();
+            this.syncMappings = new HashMap<>();
         }
 
         /**
@@ -126,6 +190,29 @@ public class ActionMapper {
             Objects.requireNonNull(actionType);
             Objects.requireNonNull(handler);
             mappings.put(actionType, action -> handler.apply((S) action));
+            syncMappings.remove(actionType);
+            return this;
+        }
+
+        /**
+         * Maps a specific action type to a synchronous handler function to execute. The handler must not block and
+         * must produce the result of the action on the calling thread, returning {@code null} if there is no result.
+         * The handler is also registered as a regular mapping, lazily evaluated upon subscription.
+         *
+         * @param actionType the type of the action
+         * @param handler    the synchronous handler to execute when an action of the specified type is received
+         * @param <R>        the return type of the action
+         * @param <S>        the type of the action itself
+         * @return this {@link Builder} enriched with the added mapping
+         */
+        @SuppressWarnings("unchecked")
+        public <R, S extends StoreAction<R>> Builder mapSync(Class<S> actionType,
+                                                             Function<? super S, ? extends @Nullable R> handler) {
+            Objects.requireNonNull(actionType);
+            Objects.requireNonNull(handler);
+            Function<StoreAction<?>, ?> syncHandler = action -> handler.apply((S) action);
+            mappings.put(actionType, action -> Mono.fromSupplier(() -> syncHandler.apply(action)));
+            syncMappings.put(actionType, syncHandler);
             return this;
         }
 
@@ -135,7 +222,7 @@ public class ActionMapper {
          * @return a new {@link ActionMapper}
          */
         public ActionMapper build() {
-            return new ActionMapper(mappings);
+            return new ActionMapper(mappings, syncMappings);
         }
     }
 }
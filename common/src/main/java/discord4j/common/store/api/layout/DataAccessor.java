@@ -20,9 +20,12 @@ package discord4j.common.store.api.layout;
 import discord4j.common.store.api.object.ExactResultNotAvailableException;
 import discord4j.discordjson.Id;
 import discord4j.discordjson.json.*;
+import discord4j.discordjson.possible.Possible;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Locale;
+
 /**
  * Defines methods to handle read operations on a store.
  */
@@ -331,6 +334,40 @@ public interface DataAccessor {
      */
     Flux<MemberData> getExactMembersInGuild(long guildId);
 
+    /**
+     * Retrieves data for all members present in the store for the given guild ID that have the given role. The
+     * default implementation filters the result of {@link #getMembersInGuild(long)}, implementations are encouraged
+     * to maintain an index instead.
+     *
+     * @param guildId the guild ID
+     * @param roleId the role ID
+     * @return A {@link Flux} emitting the members, or empty if none is present
+     */
+    default Flux<MemberData> getMembersWithRole(long guildId, long roleId) {
+        Id role = Id.of(roleId);
+        return getMembersInGuild(guildId).filter(member -> member.roles().contains(role));
+    }
+
+    /**
+     * Retrieves data for members present in the store for the given guild ID whose username or nickname start with
+     * the given prefix, ignoring case. The default implementation filters the result of
+     * {@link #getMembersInGuild(long)}, implementations are encouraged to maintain an index instead.
+     *
+     * @param guildId the guild ID
+     * @param prefix the name prefix
+     * @param limit the maximum number of members to emit
+     * @return A {@link Flux} emitting at most {@code limit} members, or empty if none is present
+     */
+    default Flux<MemberData> getMembersByNamePrefix(long guildId, String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return getMembersInGuild(guildId)
+                .filter(member -> member.user().username().toLowerCase(Locale.ROOT).startsWith(lowerPrefix)
+                        || Possible.flatOpt(member.nick())
+                        .map(nick -> nick.toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                        .orElse(false))
+                .take(limit);
+    }
+
     /**
      * Retrieves data for the member corresponding to the given guild ID and user ID.
      *
@@ -272,6 +272,21 @@ public interface GatewayDataUpdater {
      */
     Mono<Void> onShardInvalidation(int shardIndex, InvalidationCause cause);
 
+    /**
+     * Handles the invalidation of a specific shard connected with the given shard count. During a live resharding,
+     * two shards can share the same index while being connected with different shard counts, and only the shard
+     * belonging to the current shard count owns guilds. By default, delegates to
+     * {@link #onShardInvalidation(int, InvalidationCause)}.
+     *
+     * @param shardIndex the index of the shard to invalidate
+     * @param shardCount the total number of shards the invalidated shard was connected with, or 0 if unknown
+     * @param cause      the cause of the invalidation
+     * @return a {@link Mono} completing when the operation is done
+     */
+    default Mono<Void> onShardInvalidation(int shardIndex, int shardCount, InvalidationCause cause) {
+        return onShardInvalidation(shardIndex, cause);
+    }
+
     /**
      * Updates the internal state of the store according to the given {@link MessageCreate} gateway dispatch. This
      * will typically perform an insert operation on the related {@link MessageData}, and update the
@@ -451,6 +466,29 @@ public interface GatewayDataUpdater {
      */
     Mono<Void> onGuildMembersCompletion(long guildId);
 
+    /**
+     * Invoked to indicate that the shards connected with the given shard count replaced the previous shards of the
+     * group. Guilds are owned by shards according to this shard count from now on, including when handling
+     * {@link #onShardInvalidation(int, int, InvalidationCause)}. By default, does nothing.
+     *
+     * @param shardCount the new total number of shards
+     * @return a {@link Mono} completing when the operation is done
+     */
+    default Mono<Void> onReshardingCompletion(int shardCount) {
+        return Mono.empty();
+    }
+
+    /**
+     * Invoked to indicate that the shards connected with the given shard count were closed without replacing the
+     * current ones, which keep owning their guilds. By default, does nothing.
+     *
+     * @param shardCount the total number of shards of the discarded shards
+     * @return a {@link Mono} completing when the operation is done
+     */
+    default Mono<Void> onReshardingAbort(int shardCount) {
+        return Mono.empty();
+    }
+
     /**
      * Updates the internal state of the store according to the given {@link ThreadCreate} gateway dispatch. This
      * will typically perform an insert operation on the related {@link ChannelData}.
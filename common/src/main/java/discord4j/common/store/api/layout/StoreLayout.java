@@ -53,6 +53,19 @@ public interface StoreLayout {
         return ActionMapper.empty();
     }
 
+    /**
+     * Defines synchronous handlers for actions this layout can complete on the calling thread without blocking, using
+     * {@link ActionMapper.Builder#mapSync(Class, java.util.function.Function)}. Synchronous handlers are only used for
+     * action types that are also enabled through {@link #getDataAccessor()}, {@link #getGatewayDataUpdater()} or
+     * {@link #getCustomActionMapper()}, and take precedence over them. By default, returns an empty
+     * {@link ActionMapper}, meaning every action is executed through its {@link org.reactivestreams.Publisher}.
+     *
+     * @return an {@link ActionMapper} holding synchronous handlers
+     */
+    default ActionMapper getSynchronousActionMapper() {
+        return ActionMapper.empty();
+    }
+
     /**
      * Return a set of {@link StoreFlag} values to selectively enable store actions. By default, it returns all values,
      * meaning this layout will enable all available store actions.
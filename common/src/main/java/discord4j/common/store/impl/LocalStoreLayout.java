@@ -18,6 +18,9 @@
 package discord4j.common.store.impl;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import discord4j.common.store.action.gateway.*;
+import discord4j.common.store.action.read.*;
+import discord4j.common.store.api.ActionMapper;
 import discord4j.common.store.api.layout.DataAccessor;
 import discord4j.common.store.api.layout.GatewayDataUpdater;
 import discord4j.common.store.api.layout.StoreLayout;
@@ -79,8 +82,7 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
     private final ConcurrentMap<Long, GuildScheduledEventData> scheduledEvents = new ConcurrentHashMap<>();
     private final ConcurrentMap<Long2, List<Long>> scheduledEventsUsers = new ConcurrentHashMap<>();
 
-    private final ConcurrentMap<Long, AtomicReference<ImmutableUserData>> users =
-            StorageBackend.caffeine(Caffeine::weakValues).newMap();
+    private final ConcurrentMap<Long, AtomicReference<ImmutableUserData>> users;
 
     private final ConcurrentMap<Long2, ImmutableVoiceStateData> voiceStates =
             new ConcurrentHashMap<>();
@@ -88,11 +90,13 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
     private final ConcurrentMap<Long2, ImmutableThreadMemberData> threadMembers =
             new ConcurrentHashMap<>();
 
-    private final Set<Integer> shardsConnected = new HashSet<>();
+    // connected shard indexes by shard count, a live resharding connects a second shard set next to the current one
+    private final ConcurrentMap<Integer, Set<Integer>> shardsConnected = new ConcurrentHashMap<>();
     private volatile @Nullable AtomicReference<ImmutableUserData> selfUser;
     private volatile int shardCount;
 
-    private LocalStoreLayout(StorageConfig config) {
+    private LocalStoreLayout(StorageConfig config, ConcurrentMap<Long, AtomicReference<ImmutableUserData>> users) {
+        this.users = users;
         this.messages = config.getMessageBackend().newMap((k, v, reason) -> {
             if (k != null && reason.wasEvicted()) {
                 ifNonNullDo(contentByChannel.get(k.a), content -> content.messageIds.remove(k));
@@ -102,7 +106,24 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
     }
 
     public static LocalStoreLayout create(StorageConfig config) {
-        return new LocalStoreLayout(config);
+        return new LocalStoreLayout(config, newUserMap());
+    }
+
+    /**
+     * Create a {@link LocalStoreLayout} reading and writing users to the given map, allowing several layouts to share
+     * a single copy of each user. The map should come from {@link #newUserMap()}.
+     *
+     * @param config the storage configuration
+     * @param users the user map shared with other layouts
+     * @return a new layout using the given user map
+     */
+    static LocalStoreLayout create(StorageConfig config,
+                                   ConcurrentMap<Long, AtomicReference<ImmutableUserData>> users) {
+        return new LocalStoreLayout(config, users);
+    }
+
+    static ConcurrentMap<Long, AtomicReference<ImmutableUserData>> newUserMap() {
+        return StorageBackend.caffeine(Caffeine::weakValues).newMap();
     }
 
     public static LocalStoreLayout create() {
@@ -329,6 +350,28 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
                 .map(WithUser::get);
     }
 
+    @Override
+    public Flux<MemberData> getMembersWithRole(long guildId, long roleId) {
+        if (!config.isMemberIndexEnabled()) {
+            return DataAccessor.super.getMembersWithRole(guildId, roleId);
+        }
+        return Mono.justOrEmpty(contentByGuild.get(guildId))
+                .flatMapIterable(content -> content.memberIndex().getMembersWithRole(roleId))
+                .flatMap(userId -> Mono.justOrEmpty(members.get(new Long2(guildId, userId))))
+                .map(WithUser::get);
+    }
+
+    @Override
+    public Flux<MemberData> getMembersByNamePrefix(long guildId, String prefix, int limit) {
+        if (!config.isMemberIndexEnabled()) {
+            return DataAccessor.super.getMembersByNamePrefix(guildId, prefix, limit);
+        }
+        return Mono.justOrEmpty(contentByGuild.get(guildId))
+                .flatMapIterable(content -> content.memberIndex().getMembersByNamePrefix(prefix, limit))
+                .flatMap(userId -> Mono.justOrEmpty(members.get(new Long2(guildId, userId))))
+                .map(WithUser::get);
+    }
+
     @Override
     public Mono<MemberData> getMemberById(long guildId, long userId) {
         return Mono.justOrEmpty(members.get(new Long2(guildId, userId)))
@@ -430,407 +473,177 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
 
     @Override
     public Mono<Void> onChannelCreate(int shardIndex, ChannelCreate dispatch) {
-        return Mono.fromRunnable(() -> dispatch.channel().guildId().toOptional()
-                .ifPresent(guildId -> saveChannel(guildId.asLong(), dispatch.channel())));
+        return Mono.fromRunnable(() -> handleChannelCreate(dispatch));
     }
 
     @Override
     public Mono<ChannelData> onChannelDelete(int shardIndex, ChannelDelete dispatch) {
-        ChannelData data = dispatch.channel();
-        return Mono.fromRunnable(() -> data.guildId().toOptional()
-                .map(Id::asLong)
-                .ifPresent(guildId -> {
-                    Id channelId = data.id();
-                    GuildContent guildContent = computeGuildContent(guildId);
-                    guildContent.channelIds.remove(channelId.asLong());
-                    ifNonNullDo(contentByChannel.get(channelId.asLong()), ChannelContent::dispose);
-                    ifNonNullDo(guilds.get(guildId), guild -> guild.getChannels().remove(channelId));
-                })).thenReturn(data);
+        return Mono.fromCallable(() -> handleChannelDelete(dispatch));
     }
 
     @Override
     public Mono<ChannelData> onChannelUpdate(int shardIndex, ChannelUpdate dispatch) {
-        return Mono.fromCallable(() -> dispatch.channel().guildId().toOptional()
-                .map(guildId -> saveChannel(guildId.asLong(), dispatch.channel()))
-                .orElse(null));
+        return Mono.fromCallable(() -> handleChannelUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildCreate(int shardIndex, GuildCreate dispatch) {
-        return Mono.fromRunnable(() -> {
-            long guildId = dispatch.guild().id().asLong();
-            GuildCreateData createData = dispatch.guild();
-            List<RoleData> roles = createData.roles();
-            List<EmojiData> emojis = createData.emojis();
-            List<MemberData> members = createData.members();
-            List<ChannelData> channels = createData.channels();
-            List<ChannelData> threads = createData.threads();
-            List<PresenceData> presences = createData.presences();
-            List<VoiceStateData> voiceStates = createData.voiceStates();
-            ImmutableGuildData guild = ImmutableGuildData.builder()
-                    .from(createData)
-                    .roles(Collections.emptyList())
-                    .emojis(Collections.emptyList())
-                    .members(Collections.emptyList())
-                    .channels(Collections.emptyList())
-                    .build();
-            guilds.put(guildId, new WrappedGuildData(guild));
-            roles.forEach(role -> saveRole(guildId, role));
-            emojis.forEach(emoji -> saveEmoji(guildId, emoji));
-            members.forEach(member -> saveMember(guildId, member));
-            channels.forEach(channel -> saveChannel(guildId, channel));
-            threads.forEach(channel -> this.channels.put(channel.id().asLong(), ImmutableChannelData.copyOf(channel)));
-            presences.forEach(presence -> savePresence(guildId, presence));
-            voiceStates.forEach(voiceState -> saveOrRemoveVoiceState(guildId, voiceState));
-        });
+        return Mono.fromRunnable(() -> handleGuildCreate(dispatch));
     }
 
     @Override
     public Mono<GuildData> onGuildDelete(int shardIndex, GuildDelete dispatch) {
-        long guildId = dispatch.guild().id().asLong();
-        return Mono.fromCallable(() -> ifNonNullMap(contentByGuild.get(guildId), GuildContent::dispose));
+        return Mono.fromCallable(() -> handleGuildDelete(dispatch));
     }
 
     @Override
     public Mono<Set<StickerData>> onGuildStickersUpdate(int shardIndex, GuildStickersUpdate dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        return Mono.fromCallable(() -> {
-            GuildContent content = computeGuildContent(guildId);
-            Set<StickerData> old = content.stickerIds.stream()
-                .map(stickers::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-            stickers.keySet().removeAll(content.stickerIds);
-            ifNonNullDo(guilds.get(guildId), guild -> guild.getStickers().clear());
-            content.stickerIds.clear();
-            dispatch.stickers().forEach(sticker -> saveSticker(guildId, sticker));
-            return old;
-        });
+        return Mono.fromCallable(() -> handleGuildStickersUpdate(dispatch));
     }
 
     @Override
     public Mono<Set<EmojiData>> onGuildEmojisUpdate(int shardIndex, GuildEmojisUpdate dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        return Mono.fromCallable(() -> {
-            GuildContent content = computeGuildContent(guildId);
-            Set<EmojiData> old = content.emojiIds.stream()
-                    .map(emojis::get)
-                    .filter(Objects::nonNull)
-                    .map(WithUser::get)
-                    .collect(Collectors.toSet());
-            emojis.keySet().removeAll(content.emojiIds);
-            ifNonNullDo(guilds.get(guildId), guild -> guild.getEmojis().clear());
-            content.emojiIds.clear();
-            dispatch.emojis().forEach(emoji -> saveEmoji(guildId, emoji));
-            return old;
-        });
+        return Mono.fromCallable(() -> handleGuildEmojisUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildMemberAdd(int shardIndex, GuildMemberAdd dispatch) {
-        return Mono.fromRunnable(() -> saveMember(dispatch.guildId().asLong(), dispatch.member()));
+        return Mono.fromRunnable(() -> handleGuildMemberAdd(dispatch));
     }
 
     @Override
     public Mono<MemberData> onGuildMemberRemove(int shardIndex, GuildMemberRemove dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        long userId = dispatch.user().id().asLong();
-        return Mono.fromCallable(() -> {
-            Long2 memberId = new Long2(guildId, userId);
-            GuildContent guildContent = computeGuildContent(guildId);
-            guildContent.memberIds.remove(memberId);
-            ifNonNullDo(guilds.get(guildId), guild -> guild.getMembers().remove(Id.of(memberId.b)));
-            return ifNonNullMap(members.remove(memberId), WithUser::get);
-        });
+        return Mono.fromCallable(() -> handleGuildMemberRemove(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildMembersChunk(int shardIndex, GuildMembersChunk dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        return Mono.fromRunnable(() -> dispatch.members()
-                .forEach(member -> saveMember(guildId, member)));
+        return Mono.fromRunnable(() -> handleGuildMembersChunk(dispatch));
     }
 
     @Override
     public Mono<MemberData> onGuildMemberUpdate(int shardIndex, GuildMemberUpdate dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        long userId = dispatch.user().id().asLong();
-        Long2 id = new Long2(guildId, userId);
-        return Mono.fromCallable(() -> {
-            MemberData oldData = ifNonNullMap(members.get(id), WithUser::get);
-            members.computeIfPresent(id, (k, old) -> {
-                AtomicReference<ImmutableUserData> ref = old.userRef();
-                if (ref != null) {
-                    ref.set(ImmutableUserData.copyOf(dispatch.user()));
-                }
-                return new WithUser<>(ImmutableMemberData.builder()
-                        .from(old.get())
-                        .avatar(dispatch.avatar())
-                        .avatarDecoration(dispatch.avatarDecoration())
-                        .banner(Possible.of(dispatch.banner()))
-                        .communicationDisabledUntil(dispatch.communicationDisabledUntil())
-                        .nick(dispatch.nick())
-                        .roles(dispatch.roles().stream().map(Id::of).collect(Collectors.toList()))
-                        .joinedAt(dispatch.joinedAt())
-                        .premiumSince(dispatch.premiumSince())
-                        .pending(dispatch.pending())
-                        .build(), ref, ImmutableMemberData::withUser);
-            });
-            return oldData;
-        });
+        return Mono.fromCallable(() -> handleGuildMemberUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildRoleCreate(int shardIndex, GuildRoleCreate dispatch) {
-        return Mono.fromRunnable(() -> saveRole(dispatch.guildId().asLong(), dispatch.role()));
+        return Mono.fromRunnable(() -> handleGuildRoleCreate(dispatch));
     }
 
     @Override
     public Mono<RoleData> onGuildRoleDelete(int shardIndex, GuildRoleDelete dispatch) {
-        long guildId = dispatch.guildId().asLong();
-        Id roleId = dispatch.roleId();
-        return Mono.fromCallable(() -> {
-            GuildContent guildContent = computeGuildContent(guildId);
-            guildContent.roleIds.remove(roleId.asLong());
-            ifNonNullDo(guilds.get(guildId), guild -> guild.getRoles().remove(roleId));
-            guildContent.memberIds.forEach(id2 -> members.computeIfPresent(id2,
-                    (k, member) -> member.update(m -> m.withRoles(remove(m.roles(), roleId)))));
-            return roles.remove(roleId.asLong());
-        });
+        return Mono.fromCallable(() -> handleGuildRoleDelete(dispatch));
     }
 
     @Override
     public Mono<RoleData> onGuildRoleUpdate(int shardIndex, GuildRoleUpdate dispatch) {
-        return Mono.fromCallable(() -> saveRole(dispatch.guildId().asLong(), dispatch.role()));
+        return Mono.fromCallable(() -> handleGuildRoleUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildScheduledEventCreate(int shardIndex, GuildScheduledEventCreate dispatch) {
-        final long eventId = dispatch.scheduledEvent().id().asLong();
-
-        // Add event to guild->events index
-        GuildContent guildContent = computeGuildContent(dispatch.scheduledEvent().guildId().asLong());
-        guildContent.eventIds.add(eventId);
-
-        // Store the event
-        return Mono.fromRunnable(() -> scheduledEvents.put(eventId, ImmutableGuildScheduledEventData.copyOf(dispatch.scheduledEvent())));
+        return Mono.fromRunnable(() -> handleGuildScheduledEventCreate(dispatch));
     }
 
     @Override
     public Mono<GuildScheduledEventData> onGuildScheduledEventUpdate(int shardIndex, GuildScheduledEventUpdate dispatch) {
-        final long eventId = dispatch.scheduledEvent().id().asLong();
-
-        // Update the event
-        return Mono.fromCallable(() -> scheduledEvents.replace(eventId, ImmutableGuildScheduledEventData.copyOf(dispatch.scheduledEvent())));
+        return Mono.fromCallable(() -> handleGuildScheduledEventUpdate(dispatch));
     }
 
     @Override
     public Mono<GuildScheduledEventData> onGuildScheduledEventDelete(int shardIndex, GuildScheduledEventDelete dispatch) {
-        final long eventId = dispatch.scheduledEvent().id().asLong();
-
-        // Remove event from guild->events index
-        GuildContent guildContent = computeGuildContent(dispatch.scheduledEvent().guildId().asLong());
-        guildContent.eventIds.remove(eventId);
-
-        // Remove the event
-        return Mono.fromRunnable(() -> {
-            scheduledEvents.remove(eventId);
-            scheduledEventsUsers.remove(new Long2(dispatch.scheduledEvent().guildId().asLong(), eventId));
-        });
+        return Mono.fromRunnable(() -> handleGuildScheduledEventDelete(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildScheduledEventUserAdd(int shardIndex, GuildScheduledEventUserAdd dispatch) {
-        final Long2 key = new Long2(dispatch.guildId().asLong(), dispatch.scheduledEventId().asLong());
-
-        return Mono.fromRunnable(() -> scheduledEventsUsers.computeIfAbsent(key, ignored -> new ArrayList<>()).add(dispatch.userId().asLong()));
+        return Mono.fromRunnable(() -> handleGuildScheduledEventUserAdd(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildScheduledEventUserRemove(int shardIndex, GuildScheduledEventUserRemove dispatch) {
-        final Long2 key = new Long2(dispatch.guildId().asLong(), dispatch.scheduledEventId().asLong());
-
-        return Mono.fromRunnable(() -> scheduledEventsUsers.computeIfAbsent(key, ignored -> new ArrayList<>()).remove(dispatch.userId().asLong()));
+        return Mono.fromRunnable(() -> handleGuildScheduledEventUserRemove(dispatch));
     }
 
     @Override
     public Mono<GuildData> onGuildUpdate(int shardIndex, GuildUpdate dispatch) {
-        long guildId = dispatch.guild().id().asLong();
-        return Mono.fromCallable(() -> {
-            WrappedGuildData old = guilds.get(guildId);
-            guilds.computeIfPresent(guildId, (k, oldGuild) -> new WrappedGuildData(GuildData.builder()
-                    .from(oldGuild.unwrap())
-                    .from(dispatch.guild())
-                    .build()));
-            return ifNonNullMap(old, WrappedGuildData::unwrap);
-        });
+        return Mono.fromCallable(() -> handleGuildUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onShardInvalidation(int shardIndex, InvalidationCause cause) {
-        return Mono.fromRunnable(() -> {
-            shardsConnected.remove(shardIndex);
-            if (config.getInvalidationFilter().contains(cause)) {
-                contentByGuild.entrySet().stream()
-                        .filter(entry -> ((entry.getKey() >> 22) % shardCount) == shardIndex)
-                        .map(Map.Entry::getValue)
-                        .forEach(GuildContent::dispose);
-            }
-            if (shardsConnected.isEmpty()) {
-                shardCount = 0;
-            }
-        });
+        return Mono.fromRunnable(() -> handleShardInvalidation(shardIndex, 0, cause));
+    }
+
+    @Override
+    public Mono<Void> onShardInvalidation(int shardIndex, int shardCount, InvalidationCause cause) {
+        return Mono.fromRunnable(() -> handleShardInvalidation(shardIndex, shardCount, cause));
     }
 
     @Override
     public Mono<Void> onMessageCreate(int shardIndex, MessageCreate dispatch) {
-        ImmutableMessageData message = ImmutableMessageData.copyOf(dispatch.message());
-        long channelId = message.channelId().asLong();
-        long messageId = message.id().asLong();
-        Long2 id = new Long2(channelId, messageId);
-        return Mono.fromRunnable(() -> {
-            ChannelContent channelContent = computeChannelContent(id.a);
-            channels.computeIfPresent(id.a, (k, channel) -> channel.withLastMessageIdOrNull(id.b));
-            channelContent.messageIds.add(id);
-            AtomicReference<ImmutableUserData> userRef = computeUserRef(message.author().id().asLong(), message,
-                    (m, old) -> ImmutableUserData.copyOf(m.author()));
-            messages.put(id, new WithUser<>(message.withAuthor(EmptyUser.INSTANCE), userRef,
-                    ImmutableMessageData::withAuthor));
-        });
+        return Mono.fromRunnable(() -> handleMessageCreate(dispatch));
     }
 
     @Override
     public Mono<MessageData> onMessageDelete(int shardIndex, MessageDelete dispatch) {
-        long messageId = dispatch.id().asLong();
-        long channelId = dispatch.channelId().asLong();
-        return Mono.fromCallable(() -> deleteMessage(channelId, messageId));
+        return Mono.fromCallable(() -> handleMessageDelete(dispatch));
     }
 
     @Override
     public Mono<Set<MessageData>> onMessageDeleteBulk(int shardIndex, MessageDeleteBulk dispatch) {
-        final long channelId = dispatch.channelId().asLong();
-        return Mono.fromCallable(() -> {
-            Set<MessageData> deletedMessages = new HashSet<>();
-            for (Id id : dispatch.ids()) {
-                MessageData deleted = deleteMessage(channelId, id.asLong());
-                if (deleted != null) {
-                    deletedMessages.add(deleted);
-                }
-            }
-            return deletedMessages;
-        });
+        return Mono.fromCallable(() -> handleMessageDeleteBulk(dispatch));
     }
 
     @Override
     public Mono<Void> onMessageReactionAdd(int shardIndex, MessageReactionAdd dispatch) {
-        long channelId = dispatch.channelId().asLong();
-        long messageId = dispatch.messageId().asLong();
-        return Mono.fromRunnable(() -> messages.computeIfPresent(new Long2(channelId, messageId),
-                (k, message) -> message.update(m -> addReaction(m, dispatch))));
+        return Mono.fromRunnable(() -> handleMessageReactionAdd(dispatch));
     }
 
     @Override
     public Mono<Void> onMessageReactionRemove(int shardIndex, MessageReactionRemove dispatch) {
-        long channelId = dispatch.channelId().asLong();
-        long messageId = dispatch.messageId().asLong();
-        return Mono.fromRunnable(() -> messages.computeIfPresent(new Long2(channelId, messageId),
-                (k, message) -> message.update(m -> removeReaction(m, dispatch))));
+        return Mono.fromRunnable(() -> handleMessageReactionRemove(dispatch));
     }
 
     @Override
     public Mono<Void> onMessageReactionRemoveAll(int shardIndex, MessageReactionRemoveAll dispatch) {
-        long channelId = dispatch.channelId().asLong();
-        long messageId = dispatch.messageId().asLong();
-        return Mono.fromRunnable(() -> messages.computeIfPresent(new Long2(channelId, messageId),
-                (k, message) -> message.update(m -> m.withReactions(Possible.absent()))));
+        return Mono.fromRunnable(() -> handleMessageReactionRemoveAll(dispatch));
     }
 
     @Override
     public Mono<Void> onMessageReactionRemoveEmoji(int shardIndex, MessageReactionRemoveEmoji dispatch) {
-        long channelId = dispatch.channelId().asLong();
-        long messageId = dispatch.messageId().asLong();
-        return Mono.fromRunnable(() -> messages.computeIfPresent(new Long2(channelId, messageId),
-                (k, message) -> message.update(m -> m.withReactions(Possible.of(m.reactions()
-                        .toOptional()
-                        .orElse(Collections.emptyList())
-                        .stream()
-                        .filter(r -> !EmojiKey.predicateEquals(dispatch.emoji()).test(r))
-                        .collect(Collectors.toList()))))));
+        return Mono.fromRunnable(() -> handleMessageReactionRemoveEmoji(dispatch));
     }
 
     @Override
     public Mono<MessageData> onMessageUpdate(int shardIndex, MessageUpdate dispatch) {
-        ImmutablePartialMessageUpdateData edited = ImmutablePartialMessageUpdateData.copyOf(dispatch.message());
-        long channelId = edited.channelId().asLong();
-        long messageId = edited.id().asLong();
-        Long2 id = new Long2(channelId, messageId);
-        return Mono.fromCallable(() -> {
-            MessageData old = ifNonNullMap(messages.get(id), WithUser::get);
-            messages.computeIfPresent(id, (k, message) ->
-                    message.update(m -> ImmutableMessageData.builder()
-                            .from(m)
-                            .channelId(edited.channelId())
-                            .guildId(edited.guildId())
-                            .content(edited.contentOrElse(m.content()))
-                            .timestamp(edited.timestampOrElse(m.timestamp()))
-                            .editedTimestamp(edited.editedTimestamp())
-                            .tts(edited.ttsOrElse(m.tts()))
-                            .mentionEveryone(edited.mentionEveryoneOrElse(m.mentionEveryone()))
-                            .mentions(edited.mentions())
-                            .mentionRoles(edited.mentionRoles())
-                            .mentionChannels(edited.mentionChannels())
-                            .attachments(edited.attachments())
-                            .embeds(edited.embeds())
-                            .nonce(edited.isNoncePresent() ? edited.nonce() : m.nonce())
-                            .pinned(edited.pinnedOrElse(m.pinned()))
-                            .webhookId(edited.isWebhookIdPresent() ? edited.webhookId() : m.webhookId())
-                            .type(edited.typeOrElse(m.type()))
-                            .activity(edited.isActivityPresent() ? edited.activity() : m.activity())
-                            .application(edited.isApplicationPresent() ? edited.application() : m.application())
-                            .messageReference(edited.isMessageReferencePresent()
-                                    ? edited.messageReference() : m.messageReference())
-                            .flags(edited.isFlagsPresent() ? edited.flags() : m.flags())
-                            .reactions(edited.isReactionsPresent() ? edited.reactions() : m.reactions())
-                            .build()));
-            return old;
-        });
+        return Mono.fromCallable(() -> handleMessageUpdate(dispatch));
     }
 
     @Override
     public Mono<PresenceAndUserData> onPresenceUpdate(int shardIndex, PresenceUpdate dispatch) {
-        return Mono.fromCallable(() -> savePresence(dispatch.guildId().asLong(), createPresence(dispatch)));
+        return Mono.fromCallable(() -> handlePresenceUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onReady(Ready dispatch) {
-        return Mono.fromRunnable(() -> {
-            int[] shardInfo = dispatch.shard().toOptional().orElseGet(() -> new int[]{0, 1});
-            if (this.selfUser == null) {
-                ImmutableUserData userData = ImmutableUserData.copyOf(dispatch.user());
-                AtomicReference<ImmutableUserData> immutableUserDataAtomicReference = new AtomicReference<>(userData);
-                this.selfUser = immutableUserDataAtomicReference;
-                users.put(userData.id().asLong(), immutableUserDataAtomicReference);
-            }
-            if (shardCount == 0) {
-                shardCount = shardInfo[1];
-            }
-            shardsConnected.add(shardInfo[0]);
-        });
+        return Mono.fromRunnable(() -> handleReady(dispatch));
     }
 
     @Override
     public Mono<Void> onStageInstanceCreate(int shardIndex, StageInstanceCreate dispatch) {
-        return Mono.fromRunnable(() -> stageInstances.put(dispatch.stageInstance().channelId().asLong(), dispatch.stageInstance()));
+        return Mono.fromRunnable(() -> handleStageInstanceCreate(dispatch));
     }
 
     @Override
     public Mono<StageInstanceData> onStageInstanceUpdate(int shardIndex, StageInstanceUpdate dispatch) {
-        return Mono.fromRunnable(() -> stageInstances.replace(dispatch.stageInstance().channelId().asLong(), dispatch.stageInstance()));
+        return Mono.fromRunnable(() -> handleStageInstanceUpdate(dispatch));
     }
 
     @Override
     public Mono<StageInstanceData> onStageInstanceDelete(int shardIndex, StageInstanceDelete dispatch) {
-        return Mono.fromRunnable(() -> stageInstances.remove(dispatch.stageInstance().channelId().asLong()));
+        return Mono.fromRunnable(() -> handleStageInstanceDelete(dispatch));
     }
 
     @Override
@@ -852,79 +665,57 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
 
     @Override
     public Mono<UserData> onUserUpdate(int shardIndex, UserUpdate dispatch) {
-        return Mono.fromCallable(() -> ifNonNullMap(
-                users.get(dispatch.user().id().asLong()),
-                userRef -> userRef.getAndSet(ImmutableUserData.copyOf(dispatch.user()))));
+        return Mono.fromCallable(() -> handleUserUpdate(dispatch));
     }
 
     @Override
     public Mono<VoiceStateData> onVoiceStateUpdateDispatch(int shardIndex, VoiceStateUpdateDispatch dispatch) {
-        VoiceStateData voiceState = dispatch.voiceState();
-        return Mono.justOrEmpty(voiceState.guildId().toOptional())
-                .map(Id::asLong)
-                .flatMap(guildId -> Mono.fromCallable(() -> saveOrRemoveVoiceState(guildId, voiceState)));
+        return Mono.fromCallable(() -> handleVoiceStateUpdateDispatch(dispatch));
     }
 
     @Override
     public Mono<Void> onGuildMembersCompletion(long guildId) {
-        return Mono.fromRunnable(() -> ifNonNullDo(contentByGuild.get(guildId), GuildContent::completeMemberList));
+        return Mono.fromRunnable(() -> handleGuildMembersCompletion(guildId));
+    }
+
+    @Override
+    public Mono<Void> onReshardingCompletion(int shardCount) {
+        return Mono.fromRunnable(() -> handleReshardingCompletion(shardCount));
+    }
+
+    @Override
+    public Mono<Void> onReshardingAbort(int shardCount) {
+        return Mono.fromRunnable(() -> handleReshardingAbort(shardCount));
     }
 
     @Override
     public Mono<Void> onThreadCreate(int shardIndex, ThreadCreate dispatch) {
-        long channelId = dispatch.thread().id().asLong();
-        return Mono.fromRunnable(() -> channels.put(channelId, ImmutableChannelData.copyOf(dispatch.thread())));
+        return Mono.fromRunnable(() -> handleThreadCreate(dispatch));
     }
 
     @Override
     public Mono<ChannelData> onThreadUpdate(int shardIndex, ThreadUpdate dispatch) {
-        long channelId = dispatch.thread().id().asLong();
-        return Mono.justOrEmpty(channels.put(channelId, ImmutableChannelData.copyOf(dispatch.thread())));
+        return Mono.fromCallable(() -> handleThreadUpdate(dispatch));
     }
 
     @Override
     public Mono<Void> onThreadDelete(int shardIndex, ThreadDelete dispatch) {
-        long channelId = dispatch.thread().id().asLong();
-        return Mono.fromRunnable(() -> ifNonNullDo(contentByChannel.get(channelId), ChannelContent::dispose));
+        return Mono.fromRunnable(() -> handleThreadDelete(dispatch));
     }
 
     @Override
     public Mono<Void> onThreadListSync(int shardIndex, ThreadListSync dispatch) {
-        return Mono.fromRunnable(() -> {
-            dispatch.threads().forEach(thread -> this.channels.put(thread.id().asLong(), ImmutableChannelData.copyOf(thread)));
-            dispatch.members().forEach(this::saveThreadMember);
-        });
+        return Mono.fromRunnable(() -> handleThreadListSync(dispatch));
     }
 
     @Override
     public Mono<ThreadMemberData> onThreadMemberUpdate(int shardIndex, ThreadMemberUpdate dispatch) {
-        return Mono.fromCallable(() -> this.saveThreadMember(dispatch.member()));
+        return Mono.fromCallable(() -> handleThreadMemberUpdate(dispatch));
     }
 
     @Override
     public Mono<List<ThreadMemberData>> onThreadMembersUpdate(int shardIndex, ThreadMembersUpdate dispatch) {
-        long threadId = dispatch.id().asLong();
-        return Mono.fromCallable(() -> {
-            ChannelContent content = computeChannelContent(threadId);
-            List<ThreadMemberData> old = content.threadMembersIds.stream()
-                    .map(threadMembers::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            dispatch.addedMembers().toOptional().orElse(Collections.emptyList()).forEach(threadMember -> {
-                Long2 id = new Long2(threadId, threadMember.userId().get().asLong());
-                content.threadMembersIds.add(id);
-                threadMembers.put(id, ImmutableThreadMemberData.copyOf(threadMember));
-            });
-
-            dispatch.removedMemberIds().toOptional().orElse(Collections.emptyList()).forEach(id -> {
-                Long2 key = new Long2(threadId, id.asLong());
-                content.threadMembersIds.remove(key);
-                threadMembers.remove(key);
-            });
-
-            return old;
-        });
+        return Mono.fromCallable(() -> handleThreadMembersUpdate(dispatch));
     }
 
     @Override
@@ -937,6 +728,524 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
         return this;
     }
 
+    /**
+     * Returns synchronous handlers for every gateway update and for lookups of single entities by ID. All operations
+     * in this layout are performed in memory and never block, so they can be safely executed on the calling thread.
+     * Handlers apply updates directly instead of going through the {@link GatewayDataUpdater} methods, so subclasses
+     * get an empty {@link ActionMapper} and every action goes through the methods they may override.
+     *
+     * @return an {@link ActionMapper} holding synchronous handlers
+     */
+    @Override
+    public ActionMapper getSynchronousActionMapper() {
+        if (getClass() != LocalStoreLayout.class) {
+            return ActionMapper.empty();
+        }
+        return ActionMapper.builder()
+                .mapSync(GetChannelByIdAction.class, action -> channels.get(action.getChannelId()))
+                .mapSync(GetStickerByIdAction.class, action -> stickers.get(action.getStickerId()))
+                .mapSync(GetEmojiByIdAction.class, action -> ifNonNullMap(emojis.get(action.getEmojiId()), WithUser::get))
+                .mapSync(GetGuildByIdAction.class, action -> ifNonNullMap(guilds.get(action.getGuildId()), WrappedGuildData::unwrap))
+                .mapSync(GetMemberByIdAction.class, action -> ifNonNullMap(members.get(new Long2(action.getGuildId(), action.getUserId())), WithUser::get))
+                .mapSync(GetMessageByIdAction.class, action -> ifNonNullMap(messages.get(new Long2(action.getChannelId(), action.getMessageId())), WithUser::get))
+                .mapSync(GetPresenceByIdAction.class, action -> ifNonNullMap(presences.get(new Long2(action.getGuildId(), action.getUserId())), WithUser::get))
+                .mapSync(GetRoleByIdAction.class, action -> roles.get(action.getRoleId()))
+                .mapSync(GetUserByIdAction.class, action -> ifNonNullMap(users.get(action.getUserId()), AtomicReference::get))
+                .mapSync(GetVoiceStateByIdAction.class, action -> voiceStates.get(new Long2(action.getGuildId(), action.getUserId())))
+                .mapSync(GetThreadMemberByIdAction.class, action -> threadMembers.get(new Long2(action.getThreadId(), action.getUserId())))
+                .mapSync(GetStageInstanceByChannelIdAction.class, action -> stageInstances.get(action.getChannelId()))
+                .mapSync(ReadyAction.class, action -> run(() -> handleReady(action.getReady())))
+                .mapSync(InvalidateShardAction.class, action -> run(() -> handleShardInvalidation(action.getShardIndex(), action.getShardCount(), action.getCause())))
+                .mapSync(CompleteReshardingAction.class, action -> run(() -> handleReshardingCompletion(action.getShardCount())))
+                .mapSync(AbortReshardingAction.class, action -> run(() -> handleReshardingAbort(action.getShardCount())))
+                .mapSync(ChannelCreateAction.class, action -> run(() -> handleChannelCreate(action.getChannelCreate())))
+                .mapSync(ChannelDeleteAction.class, action -> handleChannelDelete(action.getChannelDelete()))
+                .mapSync(ChannelUpdateAction.class, action -> handleChannelUpdate(action.getChannelUpdate()))
+                .mapSync(GuildEmojisUpdateAction.class, action -> handleGuildEmojisUpdate(action.getGuildEmojisUpdate()))
+                .mapSync(GuildCreateAction.class, action -> run(() -> handleGuildCreate(action.getGuildCreate())))
+                .mapSync(GuildDeleteAction.class, action -> handleGuildDelete(action.getGuildDelete()))
+                .mapSync(GuildUpdateAction.class, action -> handleGuildUpdate(action.getGuildUpdate()))
+                .mapSync(GuildMemberAddAction.class, action -> run(() -> handleGuildMemberAdd(action.getGuildMemberAdd())))
+                .mapSync(GuildMemberRemoveAction.class, action -> handleGuildMemberRemove(action.getGuildMemberRemove()))
+                .mapSync(GuildMembersChunkAction.class, action -> run(() -> handleGuildMembersChunk(action.getGuildMembersChunk())))
+                .mapSync(GuildMemberUpdateAction.class, action -> handleGuildMemberUpdate(action.getGuildMemberUpdate()))
+                .mapSync(CompleteGuildMembersAction.class, action -> run(() -> handleGuildMembersCompletion(action.getGuildId())))
+                .mapSync(MessageCreateAction.class, action -> run(() -> handleMessageCreate(action.getMessageCreate())))
+                .mapSync(MessageDeleteAction.class, action -> handleMessageDelete(action.getMessageDelete()))
+                .mapSync(MessageDeleteBulkAction.class, action -> handleMessageDeleteBulk(action.getMessageDeleteBulk()))
+                .mapSync(MessageReactionAddAction.class, action -> run(() -> handleMessageReactionAdd(action.getMessageReactionAdd())))
+                .mapSync(MessageReactionRemoveAction.class, action -> run(() -> handleMessageReactionRemove(action.getMessageReactionRemove())))
+                .mapSync(MessageReactionRemoveAllAction.class, action -> run(() -> handleMessageReactionRemoveAll(action.getMessageReactionRemoveAll())))
+                .mapSync(MessageReactionRemoveEmojiAction.class, action -> run(() -> handleMessageReactionRemoveEmoji(action.getMessageReactionRemoveEmoji())))
+                .mapSync(MessageUpdateAction.class, action -> handleMessageUpdate(action.getMessageUpdate()))
+                .mapSync(PresenceUpdateAction.class, action -> handlePresenceUpdate(action.getPresenceUpdate()))
+                .mapSync(GuildRoleCreateAction.class, action -> run(() -> handleGuildRoleCreate(action.getGuildRoleCreate())))
+                .mapSync(GuildRoleDeleteAction.class, action -> handleGuildRoleDelete(action.getGuildRoleDelete()))
+                .mapSync(GuildRoleUpdateAction.class, action -> handleGuildRoleUpdate(action.getGuildRoleUpdate()))
+                .mapSync(UserUpdateAction.class, action -> handleUserUpdate(action.getUserUpdate()))
+                .mapSync(VoiceStateUpdateDispatchAction.class, action -> handleVoiceStateUpdateDispatch(action.getVoiceStateUpdateDispatch()))
+                .mapSync(GuildStickersUpdateAction.class, action -> handleGuildStickersUpdate(action.getGuildStickersUpdate()))
+                .mapSync(GuildScheduledEventCreateAction.class, action -> run(() -> handleGuildScheduledEventCreate(action.getGuildScheduledEventCreate())))
+                .mapSync(GuildScheduledEventUpdateAction.class, action -> handleGuildScheduledEventUpdate(action.getGuildScheduledEventUpdate()))
+                .mapSync(GuildScheduledEventDeleteAction.class, action -> run(() -> handleGuildScheduledEventDelete(action.getGuildScheduledEventDelete())))
+                .mapSync(GuildScheduledEventUserAddAction.class, action -> run(() -> handleGuildScheduledEventUserAdd(action.getUserAdd())))
+                .mapSync(GuildScheduledEventUserRemoveAction.class, action -> run(() -> handleGuildScheduledEventUserRemove(action.getUserRemove())))
+                .mapSync(ThreadCreateAction.class, action -> run(() -> handleThreadCreate(action.getThreadCreate())))
+                .mapSync(ThreadUpdateAction.class, action -> handleThreadUpdate(action.getThreadUpdate()))
+                .mapSync(ThreadDeleteAction.class, action -> run(() -> handleThreadDelete(action.getThreadDelete())))
+                .mapSync(ThreadListSyncAction.class, action -> run(() -> handleThreadListSync(action.getThreadListSync())))
+                .mapSync(ThreadMemberUpdateAction.class, action -> handleThreadMemberUpdate(action.getThreadMemberUpdate()))
+                .mapSync(ThreadMembersUpdateAction.class, action -> handleThreadMembersUpdate(action.getThreadMembersUpdate()))
+                .mapSync(StageInstanceCreateAction.class, action -> run(() -> handleStageInstanceCreate(action.getStageInstanceCreate())))
+                .mapSync(StageInstanceUpdateAction.class, action -> run(() -> handleStageInstanceUpdate(action.getStageInstanceUpdate())))
+                .mapSync(StageInstanceDeleteAction.class, action -> run(() -> handleStageInstanceDelete(action.getStageInstanceDelete())))
+                .build();
+    }
+
+    // ------------ Synchronous handlers ------------
+
+    private void handleChannelCreate(ChannelCreate dispatch) {
+        dispatch.channel().guildId().toOptional()
+                .ifPresent(guildId -> saveChannel(guildId.asLong(), dispatch.channel()));
+    }
+
+    private ChannelData handleChannelDelete(ChannelDelete dispatch) {
+        ChannelData data = dispatch.channel();
+        data.guildId().toOptional()
+                .map(Id::asLong)
+                .ifPresent(guildId -> {
+                    Id channelId = data.id();
+                    GuildContent guildContent = computeGuildContent(guildId);
+                    guildContent.channelIds.remove(channelId.asLong());
+                    ifNonNullDo(contentByChannel.get(channelId.asLong()), ChannelContent::dispose);
+                    ifNonNullDo(guilds.get(guildId), guild -> guild.getChannels().remove(channelId));
+                });
+        return data;
+    }
+
+    private @Nullable ChannelData handleChannelUpdate(ChannelUpdate dispatch) {
+        return dispatch.channel().guildId().toOptional()
+                .map(guildId -> saveChannel(guildId.asLong(), dispatch.channel()))
+                .orElse(null);
+    }
+
+    private void handleGuildCreate(GuildCreate dispatch) {
+        long guildId = dispatch.guild().id().asLong();
+        GuildCreateData createData = dispatch.guild();
+        List<RoleData> roles = createData.roles();
+        List<EmojiData> emojis = createData.emojis();
+        List<MemberData> members = createData.members();
+        List<ChannelData> channels = createData.channels();
+        List<ChannelData> threads = createData.threads();
+        List<PresenceData> presences = createData.presences();
+        List<VoiceStateData> voiceStates = createData.voiceStates();
+        ImmutableGuildData guild = ImmutableGuildData.builder()
+                .from(createData)
+                .roles(Collections.emptyList())
+                .emojis(Collections.emptyList())
+                .members(Collections.emptyList())
+                .channels(Collections.emptyList())
+                .build();
+        guilds.put(guildId, new WrappedGuildData(guild));
+        roles.forEach(role -> saveRole(guildId, role));
+        emojis.forEach(emoji -> saveEmoji(guildId, emoji));
+        members.forEach(member -> saveMember(guildId, member));
+        channels.forEach(channel -> saveChannel(guildId, channel));
+        threads.forEach(channel -> this.channels.put(channel.id().asLong(), ImmutableChannelData.copyOf(channel)));
+        presences.forEach(presence -> savePresence(guildId, presence));
+        voiceStates.forEach(voiceState -> saveOrRemoveVoiceState(guildId, voiceState));
+    }
+
+    private @Nullable GuildData handleGuildDelete(GuildDelete dispatch) {
+        long guildId = dispatch.guild().id().asLong();
+        return ifNonNullMap(contentByGuild.get(guildId), GuildContent::dispose);
+    }
+
+    private Set<StickerData> handleGuildStickersUpdate(GuildStickersUpdate dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        GuildContent content = computeGuildContent(guildId);
+        Set<StickerData> old = content.stickerIds.stream()
+            .map(stickers::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        stickers.keySet().removeAll(content.stickerIds);
+        ifNonNullDo(guilds.get(guildId), guild -> guild.getStickers().clear());
+        content.stickerIds.clear();
+        dispatch.stickers().forEach(sticker -> saveSticker(guildId, sticker));
+        return old;
+    }
+
+    private Set<EmojiData> handleGuildEmojisUpdate(GuildEmojisUpdate dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        GuildContent content = computeGuildContent(guildId);
+        Set<EmojiData> old = content.emojiIds.stream()
+                .map(emojis::get)
+                .filter(Objects::nonNull)
+                .map(WithUser::get)
+                .collect(Collectors.toSet());
+        emojis.keySet().removeAll(content.emojiIds);
+        ifNonNullDo(guilds.get(guildId), guild -> guild.getEmojis().clear());
+        content.emojiIds.clear();
+        dispatch.emojis().forEach(emoji -> saveEmoji(guildId, emoji));
+        return old;
+    }
+
+    private void handleGuildMemberAdd(GuildMemberAdd dispatch) {
+        saveMember(dispatch.guildId().asLong(), dispatch.member());
+    }
+
+    private @Nullable MemberData handleGuildMemberRemove(GuildMemberRemove dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        long userId = dispatch.user().id().asLong();
+        Long2 memberId = new Long2(guildId, userId);
+        GuildContent guildContent = computeGuildContent(guildId);
+        guildContent.memberIds.remove(memberId);
+        ifNonNullDo(guildContent.memberIndex, index -> index.remove(userId));
+        ifNonNullDo(guilds.get(guildId), guild -> guild.getMembers().remove(Id.of(memberId.b)));
+        return ifNonNullMap(members.remove(memberId), WithUser::get);
+    }
+
+    private void handleGuildMembersChunk(GuildMembersChunk dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        dispatch.members().forEach(member -> saveMember(guildId, member));
+    }
+
+    private @Nullable MemberData handleGuildMemberUpdate(GuildMemberUpdate dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        long userId = dispatch.user().id().asLong();
+        Long2 id = new Long2(guildId, userId);
+        MemberData oldData = ifNonNullMap(members.get(id), WithUser::get);
+        WithUser<ImmutableMemberData> newData = members.computeIfPresent(id, (k, old) -> {
+            AtomicReference<ImmutableUserData> ref = old.userRef();
+            if (ref != null) {
+                ref.set(ImmutableUserData.copyOf(dispatch.user()));
+            }
+            return new WithUser<>(ImmutableMemberData.builder()
+                    .from(old.get())
+                    .avatar(dispatch.avatar())
+                    .avatarDecoration(dispatch.avatarDecoration())
+                    .banner(Possible.of(dispatch.banner()))
+                    .communicationDisabledUntil(dispatch.communicationDisabledUntil())
+                    .nick(dispatch.nick())
+                    .roles(dispatch.roles().stream().map(Id::of).collect(Collectors.toList()))
+                    .joinedAt(dispatch.joinedAt())
+                    .premiumSince(dispatch.premiumSince())
+                    .pending(dispatch.pending())
+                    .build(), ref, ImmutableMemberData::withUser);
+        });
+        if (newData != null) {
+            ifNonNullDo(computeGuildContent(guildId).memberIndex, index -> indexMember(index, newData.get()));
+            reindexIfRenamed(ifNonNullMap(oldData, MemberData::user), dispatch.user());
+        }
+        return oldData;
+    }
+
+    private void handleGuildRoleCreate(GuildRoleCreate dispatch) {
+        saveRole(dispatch.guildId().asLong(), dispatch.role());
+    }
+
+    private @Nullable RoleData handleGuildRoleDelete(GuildRoleDelete dispatch) {
+        long guildId = dispatch.guildId().asLong();
+        Id roleId = dispatch.roleId();
+        GuildContent guildContent = computeGuildContent(guildId);
+        guildContent.roleIds.remove(roleId.asLong());
+        ifNonNullDo(guildContent.memberIndex, index -> index.removeRole(roleId.asLong()));
+        ifNonNullDo(guilds.get(guildId), guild -> guild.getRoles().remove(roleId));
+        guildContent.memberIds.forEach(id2 -> members.computeIfPresent(id2,
+                (k, member) -> member.update(m -> m.withRoles(remove(m.roles(), roleId)))));
+        return roles.remove(roleId.asLong());
+    }
+
+    private @Nullable RoleData handleGuildRoleUpdate(GuildRoleUpdate dispatch) {
+        return saveRole(dispatch.guildId().asLong(), dispatch.role());
+    }
+
+    private void handleGuildScheduledEventCreate(GuildScheduledEventCreate dispatch) {
+        final long eventId = dispatch.scheduledEvent().id().asLong();
+
+        // Add event to guild->events index
+        GuildContent guildContent = computeGuildContent(dispatch.scheduledEvent().guildId().asLong());
+        guildContent.eventIds.add(eventId);
+
+        // Store the event
+        scheduledEvents.put(eventId, ImmutableGuildScheduledEventData.copyOf(dispatch.scheduledEvent()));
+    }
+
+    private @Nullable GuildScheduledEventData handleGuildScheduledEventUpdate(GuildScheduledEventUpdate dispatch) {
+        final long eventId = dispatch.scheduledEvent().id().asLong();
+
+        // Update the event
+        return scheduledEvents.replace(eventId, ImmutableGuildScheduledEventData.copyOf(dispatch.scheduledEvent()));
+    }
+
+    private void handleGuildScheduledEventDelete(GuildScheduledEventDelete dispatch) {
+        final long eventId = dispatch.scheduledEvent().id().asLong();
+
+        // Remove event from guild->events index
+        GuildContent guildContent = computeGuildContent(dispatch.scheduledEvent().guildId().asLong());
+        guildContent.eventIds.remove(eventId);
+
+        // Remove the event
+        scheduledEvents.remove(eventId);
+        scheduledEventsUsers.remove(new Long2(dispatch.scheduledEvent().guildId().asLong(), eventId));
+    }
+
+    private void handleGuildScheduledEventUserAdd(GuildScheduledEventUserAdd dispatch) {
+        final Long2 key = new Long2(dispatch.guildId().asLong(), dispatch.scheduledEventId().asLong());
+
+        scheduledEventsUsers.computeIfAbsent(key, ignored -> new ArrayList<>()).add(dispatch.userId().asLong());
+    }
+
+    private void handleGuildScheduledEventUserRemove(GuildScheduledEventUserRemove dispatch) {
+        final Long2 key = new Long2(dispatch.guildId().asLong(), dispatch.scheduledEventId().asLong());
+
+        scheduledEventsUsers.computeIfAbsent(key, ignored -> new ArrayList<>()).remove(dispatch.userId().asLong());
+    }
+
+    private @Nullable GuildData handleGuildUpdate(GuildUpdate dispatch) {
+        long guildId = dispatch.guild().id().asLong();
+        WrappedGuildData old = guilds.get(guildId);
+        guilds.computeIfPresent(guildId, (k, oldGuild) -> new WrappedGuildData(GuildData.builder()
+                .from(oldGuild.unwrap())
+                .from(dispatch.guild())
+                .build()));
+        return ifNonNullMap(old, WrappedGuildData::unwrap);
+    }
+
+    private void handleShardInvalidation(int shardIndex, int invalidatedShardCount, InvalidationCause cause) {
+        int currentShardCount = shardCount;
+        int count = invalidatedShardCount == 0 ? currentShardCount : invalidatedShardCount;
+        Set<Integer> connected = shardsConnected.get(count);
+        if (connected != null) {
+            connected.remove(shardIndex);
+            if (connected.isEmpty()) {
+                shardsConnected.remove(count, connected);
+            }
+        }
+        // guilds are only owned by the current shard set, the other one is still connecting during a resharding
+        if (count == currentShardCount && currentShardCount != 0
+                && config.getInvalidationFilter().contains(cause)) {
+            disposeGuilds(shardIndex, currentShardCount);
+        }
+        if (shardsConnected.isEmpty()) {
+            shardCount = 0;
+        }
+    }
+
+    private void handleReshardingCompletion(int newShardCount) {
+        // the previous shards are closed without being invalidated, the guilds they owned now belong to the new ones
+        shardsConnected.keySet().removeIf(count -> count != newShardCount);
+        shardCount = newShardCount;
+    }
+
+    private void handleReshardingAbort(int abortedShardCount) {
+        // the discarded shards are closed without being invalidated, the current ones keep their guilds
+        if (abortedShardCount != shardCount) {
+            shardsConnected.remove(abortedShardCount);
+        }
+    }
+
+    private void handleMessageCreate(MessageCreate dispatch) {
+        ImmutableMessageData message = ImmutableMessageData.copyOf(dispatch.message());
+        long channelId = message.channelId().asLong();
+        long messageId = message.id().asLong();
+        Long2 id = new Long2(channelId, messageId);
+        ChannelContent channelContent = computeChannelContent(id.a);
+        channels.computeIfPresent(id.a, (k, channel) -> channel.withLastMessageIdOrNull(id.b));
+        channelContent.messageIds.add(id);
+        AtomicReference<ImmutableUserData> userRef = computeUserRef(message.author().id().asLong(), message,
+                (m, old) -> ImmutableUserData.copyOf(m.author()));
+        messages.put(id, new WithUser<>(message.withAuthor(EmptyUser.INSTANCE), userRef,
+                ImmutableMessageData::withAuthor));
+    }
+
+    private @Nullable MessageData handleMessageDelete(MessageDelete dispatch) {
+        long messageId = dispatch.id().asLong();
+        long channelId = dispatch.channelId().asLong();
+        return deleteMessage(channelId, messageId);
+    }
+
+    private Set<MessageData> handleMessageDeleteBulk(MessageDeleteBulk dispatch) {
+        final long channelId = dispatch.channelId().asLong();
+        Set<MessageData> deletedMessages = new HashSet<>();
+        for (Id id : dispatch.ids()) {
+            MessageData deleted = deleteMessage(channelId, id.asLong());
+            if (deleted != null) {
+                deletedMessages.add(deleted);
+            }
+        }
+        return deletedMessages;
+    }
+
+    private void handleMessageReactionAdd(MessageReactionAdd dispatch) {
+        long channelId = dispatch.channelId().asLong();
+        long messageId = dispatch.messageId().asLong();
+        messages.computeIfPresent(new Long2(channelId, messageId),
+                (k, message) -> message.update(m -> addReaction(m, dispatch)));
+    }
+
+    private void handleMessageReactionRemove(MessageReactionRemove dispatch) {
+        long channelId = dispatch.channelId().asLong();
+        long messageId = dispatch.messageId().asLong();
+        messages.computeIfPresent(new Long2(channelId, messageId),
+                (k, message) -> message.update(m -> removeReaction(m, dispatch)));
+    }
+
+    private void handleMessageReactionRemoveAll(MessageReactionRemoveAll dispatch) {
+        long channelId = dispatch.channelId().asLong();
+        long messageId = dispatch.messageId().asLong();
+        messages.computeIfPresent(new Long2(channelId, messageId),
+                (k, message) -> message.update(m -> m.withReactions(Possible.absent())));
+    }
+
+    private void handleMessageReactionRemoveEmoji(MessageReactionRemoveEmoji dispatch) {
+        long channelId = dispatch.channelId().asLong();
+        long messageId = dispatch.messageId().asLong();
+        messages.computeIfPresent(new Long2(channelId, messageId),
+                (k, message) -> message.update(m -> m.withReactions(Possible.of(m.reactions()
+                        .toOptional()
+                        .orElse(Collections.emptyList())
+                        .stream()
+                        .filter(r -> !EmojiKey.predicateEquals(dispatch.emoji()).test(r))
+                        .collect(Collectors.toList())))));
+    }
+
+    private @Nullable MessageData handleMessageUpdate(MessageUpdate dispatch) {
+        ImmutablePartialMessageUpdateData edited = ImmutablePartialMessageUpdateData.copyOf(dispatch.message());
+        long channelId = edited.channelId().asLong();
+        long messageId = edited.id().asLong();
+        Long2 id = new Long2(channelId, messageId);
+        MessageData old = ifNonNullMap(messages.get(id), WithUser::get);
+        messages.computeIfPresent(id, (k, message) ->
+                message.update(m -> ImmutableMessageData.builder()
+                        .from(m)
+                        .channelId(edited.channelId())
+                        .guildId(edited.guildId())
+                        .content(edited.contentOrElse(m.content()))
+                        .timestamp(edited.timestampOrElse(m.timestamp()))
+                        .editedTimestamp(edited.editedTimestamp())
+                        .tts(edited.ttsOrElse(m.tts()))
+                        .mentionEveryone(edited.mentionEveryoneOrElse(m.mentionEveryone()))
+                        .mentions(edited.mentions())
+                        .mentionRoles(edited.mentionRoles())
+                        .mentionChannels(edited.mentionChannels())
+                        .attachments(edited.attachments())
+                        .embeds(edited.embeds())
+                        .nonce(edited.isNoncePresent() ? edited.nonce() : m.nonce())
+                        .pinned(edited.pinnedOrElse(m.pinned()))
+                        .webhookId(edited.isWebhookIdPresent() ? edited.webhookId() : m.webhookId())
+                        .type(edited.typeOrElse(m.type()))
+                        .activity(edited.isActivityPresent() ? edited.activity() : m.activity())
+                        .application(edited.isApplicationPresent() ? edited.application() : m.application())
+                        .messageReference(edited.isMessageReferencePresent()
+                                ? edited.messageReference() : m.messageReference())
+                        .flags(edited.isFlagsPresent() ? edited.flags() : m.flags())
+                        .reactions(edited.isReactionsPresent() ? edited.reactions() : m.reactions())
+                        .build()));
+        return old;
+    }
+
+    private @Nullable PresenceAndUserData handlePresenceUpdate(PresenceUpdate dispatch) {
+        return savePresence(dispatch.guildId().asLong(), createPresence(dispatch));
+    }
+
+    private void handleReady(Ready dispatch) {
+        int[] shardInfo = dispatch.shard().toOptional().orElseGet(() -> new int[]{0, 1});
+        if (this.selfUser == null) {
+            // reuse the reference if another layout sharing the user map already cached the self user
+            this.selfUser = computeUserRef(dispatch.user().id().asLong(), dispatch.user(),
+                    (u, old) -> ImmutableUserData.copyOf(u));
+        }
+        shardsConnected.computeIfAbsent(shardInfo[1], count -> ConcurrentHashMap.newKeySet()).add(shardInfo[0]);
+        if (shardCount == 0) {
+            // shards connected for a live resharding only own their guilds once it completes
+            shardCount = shardInfo[1];
+        }
+    }
+
+    private void handleStageInstanceCreate(StageInstanceCreate dispatch) {
+        stageInstances.put(dispatch.stageInstance().channelId().asLong(), dispatch.stageInstance());
+    }
+
+    private void handleStageInstanceUpdate(StageInstanceUpdate dispatch) {
+        stageInstances.replace(dispatch.stageInstance().channelId().asLong(), dispatch.stageInstance());
+    }
+
+    private void handleStageInstanceDelete(StageInstanceDelete dispatch) {
+        stageInstances.remove(dispatch.stageInstance().channelId().asLong());
+    }
+
+    private @Nullable UserData handleUserUpdate(UserUpdate dispatch) {
+        ImmutableUserData oldUser = ifNonNullMap(
+                users.get(dispatch.user().id().asLong()),
+                userRef -> userRef.getAndSet(ImmutableUserData.copyOf(dispatch.user())));
+        reindexIfRenamed(oldUser, dispatch.user());
+        return oldUser;
+    }
+
+    private @Nullable VoiceStateData handleVoiceStateUpdateDispatch(VoiceStateUpdateDispatch dispatch) {
+        VoiceStateData voiceState = dispatch.voiceState();
+        return voiceState.guildId().toOptional()
+                .map(guildId -> saveOrRemoveVoiceState(guildId.asLong(), voiceState))
+                .orElse(null);
+    }
+
+    private void handleGuildMembersCompletion(long guildId) {
+        ifNonNullDo(contentByGuild.get(guildId), GuildContent::completeMemberList);
+    }
+
+    private void handleThreadCreate(ThreadCreate dispatch) {
+        long channelId = dispatch.thread().id().asLong();
+        channels.put(channelId, ImmutableChannelData.copyOf(dispatch.thread()));
+    }
+
+    private @Nullable ChannelData handleThreadUpdate(ThreadUpdate dispatch) {
+        long channelId = dispatch.thread().id().asLong();
+        return channels.put(channelId, ImmutableChannelData.copyOf(dispatch.thread()));
+    }
+
+    private void handleThreadDelete(ThreadDelete dispatch) {
+        long channelId = dispatch.thread().id().asLong();
+        ifNonNullDo(contentByChannel.get(channelId), ChannelContent::dispose);
+    }
+
+    private void handleThreadListSync(ThreadListSync dispatch) {
+        dispatch.threads().forEach(thread -> this.channels.put(thread.id().asLong(), ImmutableChannelData.copyOf(thread)));
+        dispatch.members().forEach(this::saveThreadMember);
+    }
+
+    private @Nullable ThreadMemberData handleThreadMemberUpdate(ThreadMemberUpdate dispatch) {
+        return saveThreadMember(dispatch.member());
+    }
+
+    private List<ThreadMemberData> handleThreadMembersUpdate(ThreadMembersUpdate dispatch) {
+        long threadId = dispatch.id().asLong();
+        ChannelContent content = computeChannelContent(threadId);
+        List<ThreadMemberData> old = content.threadMembersIds.stream()
+                .map(threadMembers::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        dispatch.addedMembers().toOptional().orElse(Collections.emptyList()).forEach(threadMember -> {
+            Long2 id = new Long2(threadId, threadMember.userId().get().asLong());
+            content.threadMembersIds.add(id);
+            threadMembers.put(id, ImmutableThreadMemberData.copyOf(threadMember));
+        });
+
+        dispatch.removedMemberIds().toOptional().orElse(Collections.emptyList()).forEach(id -> {
+            Long2 key = new Long2(threadId, id.asLong());
+            content.threadMembersIds.remove(key);
+            threadMembers.remove(key);
+        });
+
+        return old;
+    }
+
+    private static @Nullable Void run(Runnable runnable) {
+        runnable.run();
+        return null;
+    }
+
     // ------------ Private methods ------------
 
     private GuildContent computeGuildContent(long guildId) {
@@ -993,6 +1302,47 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
                 (m, u) -> ImmutableUserData.copyOf(m.user()));
         members.put(memberId, new WithUser<>(ImmutableMemberData.copyOf(member).withUser(EmptyUser.INSTANCE), userRef,
                 ImmutableMemberData::withUser));
+        ifNonNullDo(guildContent.memberIndex, index -> indexMember(index, member));
+    }
+
+    /**
+     * Remove every guild owned by the given shard, along with its content.
+     *
+     * @param shardIndex the index of the shard owning the guilds
+     * @param shardCount the shard count used to compute guild ownership
+     */
+    void disposeGuilds(int shardIndex, int shardCount) {
+        contentByGuild.entrySet().stream()
+                .filter(entry -> ((entry.getKey() >> 22) % shardCount) == shardIndex)
+                .map(Map.Entry::getValue)
+                .forEach(GuildContent::dispose);
+    }
+
+    /**
+     * Reindex the members of a user in every guild of this layout, usually because their username changed. Does
+     * nothing if the member index is disabled.
+     *
+     * @param userId the user ID
+     */
+    void reindexUser(long userId) {
+        if (!config.isMemberIndexEnabled()) {
+            return;
+        }
+        contentByGuild.forEach((guildId, content) -> ifNonNullDo(members.get(new Long2(guildId, userId)),
+                member -> indexMember(content.memberIndex(), member.get())));
+    }
+
+    private void reindexIfRenamed(@Nullable UserData oldUser, UserData newUser) {
+        // renames are rare, so scanning the guilds is cheaper than keeping a reverse index per user
+        if (oldUser != null && !oldUser.username().equals(newUser.username())) {
+            reindexUser(newUser.id().asLong());
+        }
+    }
+
+    private static void indexMember(MemberIndex index, MemberData member) {
+        long[] roleIds = member.roles().stream().mapToLong(Id::asLong).toArray();
+        index.put(member.user().id().asLong(), roleIds, member.user().username(),
+                Possible.flatOpt(member.nick()).orElse(null));
     }
 
     @Nullable
@@ -1020,6 +1370,7 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
                             .username(u.username())
                             .discriminator(Possible.ofNullable(u.discriminator()))
                             .build())));
+            reindexIfRenamed(oldUser, userRef.get());
             if (oldPresence == null && oldUser == null) {
                 return null;
             }
@@ -1133,7 +1484,7 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
 
     // ------------ Internal classes ------------
 
-    private static class Long2 {
+    private static class Long2 implements PartitionedKey {
         private final long a, b;
 
         private Long2(long a, long b) {
@@ -1141,6 +1492,11 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
             this.b = b;
         }
 
+        @Override
+        public long getPartition() {
+            return a;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -1195,10 +1551,16 @@ public class LocalStoreLayout implements StoreLayout, DataAccessor, GatewayDataU
         private final Set<Long2> presenceIds = new HashSet<>();
         private final Set<Long> roleIds = new HashSet<>();
         private final Set<Long2> voiceStateIds = new HashSet<>();
+        private final @Nullable MemberIndex memberIndex;
         private volatile boolean memberListComplete;
 
         public GuildContent(long guildId) {
             this.guildId = guildId;
+            this.memberIndex = config.isMemberIndexEnabled() ? new MemberIndex() : null;
+        }
+
+        private MemberIndex memberIndex() {
+            return Objects.requireNonNull(memberIndex, "member index is not enabled");
         }
 
         private void completeMemberList() {
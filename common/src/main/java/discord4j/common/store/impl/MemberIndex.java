@@ -0,0 +1,251 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common.store.impl;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes over the members of a single guild, allowing to look up members by role and by name prefix
+ * without iterating over the whole member list. Names are indexed in lowercase, using both the username and the
+ * guild nickname of each member.
+ */
+class MemberIndex {
+
+    private final ConcurrentMap<Long, Set<Long>> membersByRole = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedMember> indexedMembers = new HashMap<>();
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes a member, replacing any previously indexed roles and names for the same user.
+     *
+     * @param userId the user ID of the member
+     * @param roleIds the IDs of the roles the member has
+     * @param username the username of the member
+     * @param nick the guild nickname of the member, if any
+     */
+    void put(long userId, long[] roleIds, String username, @Nullable String nick) {
+        IndexedMember member = new IndexedMember(roleIds, names(username, nick));
+        lock.writeLock().lock();
+        try {
+            IndexedMember old = indexedMembers.put(userId, member);
+            if (old != null) {
+                unindex(userId, old);
+            }
+            for (long roleId : roleIds) {
+                membersByRole.computeIfAbsent(roleId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+            }
+            for (String name : member.names) {
+                insert(name, userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param userId the user ID of the member
+     */
+    void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            IndexedMember old = indexedMembers.remove(userId);
+            if (old != null) {
+                unindex(userId, old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a role from the index, usually because it has been deleted from the guild.
+     *
+     * @param roleId the role ID
+     */
+    void removeRole(long roleId) {
+        membersByRole.remove(roleId);
+    }
+
+    /**
+     * Returns the user IDs of the members having the given role. The returned collection is a live view that is
+     * weakly consistent with concurrent updates.
+     *
+     * @param roleId the role ID
+     * @return the user IDs of the members having the role
+     */
+    Collection<Long> getMembersWithRole(long roleId) {
+        Set<Long> userIds = membersByRole.get(roleId);
+        return userIds == null ? Collections.emptySet() : userIds;
+    }
+
+    /**
+     * Returns the user IDs of the members whose username or nickname start with the given prefix, ignoring case.
+     *
+     * @param prefix the name prefix
+     * @param limit the maximum amount of user IDs to return
+     * @return the user IDs of the matching members, at most {@code limit}
+     */
+    List<Long> getMembersByNamePrefix(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Set<Long> result = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node != null) {
+                collect(node, result, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static String[] names(String username, @Nullable String nick) {
+        String lowerUsername = username.toLowerCase(Locale.ROOT);
+        if (nick == null) {
+            return new String[]{lowerUsername};
+        }
+        String lowerNick = nick.toLowerCase(Locale.ROOT);
+        return lowerNick.equals(lowerUsername) ? new String[]{lowerUsername} : new String[]{lowerUsername, lowerNick};
+    }
+
+    private void unindex(long userId, IndexedMember member) {
+        for (long roleId : member.roleIds) {
+            membersByRole.computeIfPresent(roleId, (k, userIds) -> {
+                userIds.remove(userId);
+                return userIds.isEmpty() ? null : userIds;
+            });
+        }
+        for (String name : member.names) {
+            delete(name, userId);
+        }
+    }
+
+    private void insert(String name, long userId) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.computeChild(name.charAt(i));
+        }
+        node.add(userId);
+    }
+
+    private void delete(String name, long userId) {
+        Node[] path = new Node[name.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < name.length(); i++) {
+            Node next = path[i].child(name.charAt(i));
+            if (next == null) {
+                return;
+            }
+            path[i + 1] = next;
+        }
+        path[name.length()].remove(userId);
+        // prune nodes that no longer lead to any member
+        for (int i = name.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(name.charAt(i - 1));
+        }
+    }
+
+    private static void collect(Node node, Set<Long> result, int limit) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && result.size() < limit) {
+            Node current = stack.pop();
+            if (current.userIds != null) {
+                for (Long userId : current.userIds) {
+                    if (result.size() >= limit) {
+                        return;
+                    }
+                    result.add(userId);
+                }
+            }
+            if (current.children != null) {
+                current.children.values().forEach(stack::push);
+            }
+        }
+    }
+
+    private static class IndexedMember {
+
+        private final long[] roleIds;
+        private final String[] names;
+
+        private IndexedMember(long[] roleIds, String[] names) {
+            this.roleIds = roleIds;
+            this.names = names;
+        }
+    }
+
+    private static class Node {
+
+        private @Nullable Map<Character, Node> children;
+        private @Nullable Set<Long> userIds;
+
+        private @Nullable Node child(char c) {
+            return children == null ? null : children.get(c);
+        }
+
+        private Node computeChild(char c) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        private void removeChild(char c) {
+            if (children != null) {
+                children.remove(c);
+                if (children.isEmpty()) {
+                    children = null;
+                }
+            }
+        }
+
+        private void add(long userId) {
+            if (userIds == null) {
+                userIds = new HashSet<>(2);
+            }
+            userIds.add(userId);
+        }
+
+        private void remove(long userId) {
+            if (userIds != null) {
+                userIds.remove(userId);
+                if (userIds.isEmpty()) {
+                    userIds = null;
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return children == null && userIds == null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common.store.impl;
+
+/**
+ * A key that belongs to a partition, such as a message ID belonging to a channel. Partitioned backends like
+ * {@link PerChannelStorageBackend} use it to group entries together, keys not implementing this interface are all
+ * assigned to the same partition.
+ */
+public interface PartitionedKey {
+
+    /**
+     * Returns the ID of the partition this key belongs to.
+     *
+     * @return the partition ID
+     */
+    long getPartition();
+}
@@ -0,0 +1,422 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common.store.impl;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ConcurrentMap} holding a bounded ring of entries for each partition, with a global bound enforced by
+ * evicting from the least recently used partitions. Mutations of a partition are serialized, while operations on
+ * distinct partitions can run concurrently.
+ *
+ * @param <K> the type of keys, should implement {@link PartitionedKey}
+ * @param <V> the type of values
+ */
+class PartitionedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    private final int maxPerPartition;
+    private final long maxTotal;
+    private final long maxAgeNanos;
+    private final Ticker ticker;
+    private final @Nullable RemovalListener<K, V> removalListener;
+
+    private final ConcurrentHashMap<K, Node<V>> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Partition<K>> partitions = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Long, Partition<K>> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong size = new AtomicLong();
+
+    PartitionedMap(int maxPerPartition, long maxTotal, long maxAgeNanos, Ticker ticker,
+                   @Nullable RemovalListener<K, V> removalListener) {
+        this.maxPerPartition = maxPerPartition;
+        this.maxTotal = maxTotal;
+        this.maxAgeNanos = maxAgeNanos;
+        this.ticker = ticker;
+        this.removalListener = removalListener;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(size.get(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public @Nullable V get(Object key) {
+        Node<V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (isExpired(node)) {
+            remove(key, node.value, RemovalCause.EXPIRED);
+            return null;
+        }
+        touch(partitionOf(key), null);
+        return node.value;
+    }
+
+    @Override
+    public @Nullable V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public @Nullable V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    @Override
+    public @Nullable V remove(Object key) {
+        return remove(key, null, RemovalCause.EXPLICIT);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(value);
+        return remove(key, value, RemovalCause.EXPLICIT) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        return replace(key, oldValue, newValue, true) != null;
+    }
+
+    @Override
+    public @Nullable V replace(K key, V value) {
+        return replace(key, null, value, false);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private @Nullable V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        long partitionId = partitionOf(key);
+        List<Removal<K, V>> removals = new ArrayList<>(1);
+        Object[] previous = new Object[1];
+        Partition<K> result = partitions.compute(partitionId, (id, partition) -> {
+            Partition<K> target = partition == null ? new Partition<>() : partition;
+            Node<V> old = data.get(key);
+            if (old != null && isExpired(old)) {
+                removeFromPartition(target, key, old, RemovalCause.EXPIRED, removals);
+                old = null;
+            }
+            if (old != null) {
+                previous[0] = old.value;
+                if (!onlyIfAbsent) {
+                    // keep the original insertion time so the ring stays ordered by age
+                    data.put(key, new Node<>(value, old.insertedAt));
+                }
+            } else {
+                data.put(key, new Node<>(value, ticker.read()));
+                target.keys.addLast(key);
+                size.incrementAndGet();
+            }
+            expireOldest(target, removals);
+            while (target.keys.size() > maxPerPartition) {
+                evictOldest(target, RemovalCause.SIZE, removals);
+            }
+            return target.keys.isEmpty() ? null : target;
+        });
+        if (result != null) {
+            touch(partitionId, result);
+        }
+        enforceMaxTotal(removals);
+        notifyRemovals(removals);
+        @SuppressWarnings("unchecked")
+        V previousValue = (V) previous[0];
+        return previousValue;
+    }
+
+    private @Nullable V remove(Object key, @Nullable Object expectedValue, RemovalCause cause) {
+        long partitionId = partitionOf(key);
+        List<Removal<K, V>> removals = new ArrayList<>(1);
+        Partition<K> result = partitions.computeIfPresent(partitionId, (id, partition) -> {
+            Node<V> node = data.get(key);
+            if (node != null && (expectedValue == null || expectedValue.equals(node.value))) {
+                @SuppressWarnings("unchecked")
+                K actualKey = (K) key;
+                removeFromPartition(partition, actualKey, node, cause, removals);
+            }
+            return partition.keys.isEmpty() ? null : partition;
+        });
+        if (result == null) {
+            forget(partitionId);
+        }
+        notifyRemovals(removals);
+        return removals.isEmpty() || cause != RemovalCause.EXPLICIT ? null : removals.get(0).value;
+    }
+
+    private @Nullable V replace(K key, @Nullable V expectedValue, V newValue, boolean checkValue) {
+        Objects.requireNonNull(newValue);
+        long partitionId = partitionOf(key);
+        List<Removal<K, V>> removals = new ArrayList<>(1);
+        Object[] previous = new Object[1];
+        Partition<K> result = partitions.computeIfPresent(partitionId, (id, partition) -> {
+            Node<V> node = data.get(key);
+            if (node != null && isExpired(node)) {
+                removeFromPartition(partition, key, node, RemovalCause.EXPIRED, removals);
+            } else if (node != null && (!checkValue || node.value.equals(expectedValue))) {
+                data.put(key, new Node<>(newValue, node.insertedAt));
+                previous[0] = node.value;
+            }
+            return partition.keys.isEmpty() ? null : partition;
+        });
+        if (result == null) {
+            forget(partitionId);
+        }
+        notifyRemovals(removals);
+        @SuppressWarnings("unchecked")
+        V previousValue = (V) previous[0];
+        return previousValue;
+    }
+
+    private void enforceMaxTotal(List<Removal<K, V>> removals) {
+        while (size.get() > maxTotal) {
+            Map.Entry<Long, Partition<K>> eldest;
+            synchronized (accessOrder) {
+                Iterator<Map.Entry<Long, Partition<K>>> it = accessOrder.entrySet().iterator();
+                if (!it.hasNext()) {
+                    return;
+                }
+                eldest = it.next();
+            }
+            Partition<K> result = partitions.computeIfPresent(eldest.getKey(), (id, partition) -> {
+                evictOldest(partition, RemovalCause.SIZE, removals);
+                return partition.keys.isEmpty() ? null : partition;
+            });
+            if (result == null) {
+                forget(eldest.getKey());
+            }
+        }
+    }
+
+    private void expireOldest(Partition<K> partition, List<Removal<K, V>> removals) {
+        if (maxAgeNanos < 0) {
+            return;
+        }
+        K first;
+        while ((first = partition.keys.peekFirst()) != null) {
+            Node<V> node = data.get(first);
+            if (node != null && !isExpired(node)) {
+                return;
+            }
+            evictOldest(partition, RemovalCause.EXPIRED, removals);
+        }
+    }
+
+    private void evictOldest(Partition<K> partition, RemovalCause cause, List<Removal<K, V>> removals) {
+        K oldest = partition.keys.pollFirst();
+        if (oldest != null) {
+            Node<V> node = data.remove(oldest);
+            if (node != null) {
+                size.decrementAndGet();
+                removals.add(new Removal<>(oldest, node.value, cause));
+            }
+        }
+    }
+
+    private void removeFromPartition(Partition<K> partition, K key, Node<V> node, RemovalCause cause,
+                                     List<Removal<K, V>> removals) {
+        if (data.remove(key, node)) {
+            partition.keys.remove(key);
+            size.decrementAndGet();
+            removals.add(new Removal<>(key, node.value, cause));
+        }
+    }
+
+    private void touch(long partitionId, @Nullable Partition<K> partition) {
+        synchronized (accessOrder) {
+            if (partition == null) {
+                accessOrder.get(partitionId);
+            } else {
+                accessOrder.put(partitionId, partition);
+            }
+        }
+    }
+
+    private void forget(long partitionId) {
+        synchronized (accessOrder) {
+            Partition<K> current = partitions.get(partitionId);
+            if (current == null) {
+                accessOrder.remove(partitionId);
+            }
+        }
+    }
+
+    private void notifyRemovals(List<Removal<K, V>> removals) {
+        if (removalListener == null) {
+            return;
+        }
+        for (Removal<K, V> removal : removals) {
+            removalListener.onRemoval(removal.key, removal.value, removal.cause);
+        }
+    }
+
+    private boolean isExpired(Node<V> node) {
+        return maxAgeNanos >= 0 && ticker.read() - node.insertedAt > maxAgeNanos;
+    }
+
+    private static long partitionOf(Object key) {
+        return key instanceof PartitionedKey ? ((PartitionedKey) key).getPartition() : 0L;
+    }
+
+    private static class Node<V> {
+
+        private final V value;
+        private final long insertedAt;
+
+        private Node(V value, long insertedAt) {
+            this.value = value;
+            this.insertedAt = insertedAt;
+        }
+    }
+
+    private static class Partition<K> {
+
+        // insertion order, oldest first
+        private final ArrayDeque<K> keys = new ArrayDeque<>();
+    }
+
+    private static class Removal<K, V> {
+
+        private final K key;
+        private final V value;
+        private final RemovalCause cause;
+
+        private Removal(K key, V value, RemovalCause cause) {
+            this.key = key;
+            this.value = value;
+            this.cause = cause;
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final Iterator<Entry<K, Node<V>>> delegate = data.entrySet().iterator();
+        private @Nullable Entry<K, V> next;
+        private @Nullable Entry<K, V> last;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && delegate.hasNext()) {
+                Entry<K, Node<V>> entry = delegate.next();
+                if (!isExpired(entry.getValue())) {
+                    next = new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            PartitionedMap.this.remove(last.getKey());
+            last = null;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return PartitionedMap.this.size();
+        }
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            EntryIterator it = new EntryIterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return it.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return PartitionedMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return PartitionedMap.this.remove(o) != null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common.store.impl;
+
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link StorageBackend} suited for message caching that keeps a bounded ring of the most recent entries for each
+ * channel, so a few busy channels cannot evict the messages of every other channel. Entries are grouped by their
+ * {@link PartitionedKey#getPartition() partition}, which is the channel ID for the message keys of a
+ * {@link LocalStoreLayout}. The following eviction policies are applied:
+ * <ul>
+ *     <li>each channel keeps at most the last {@code maxPerChannel} inserted entries</li>
+ *     <li>the whole map holds at most {@code maxTotal} entries, when exceeded, the oldest entries of the least recently
+ *     used channel are evicted first</li>
+ *     <li>optionally, entries older than {@code maxAge} since their insertion are expired upon access</li>
+ * </ul>
+ * Evicted entries are reported to the removal listener given to {@link #newMap(RemovalListener)}.
+ */
+public class PerChannelStorageBackend implements StorageBackend {
+
+    private final int maxPerChannel;
+    private final long maxTotal;
+    private final @Nullable Duration maxAge;
+    private final Ticker ticker;
+
+    private PerChannelStorageBackend(Builder builder) {
+        this.maxPerChannel = builder.maxPerChannel;
+        this.maxTotal = builder.maxTotal;
+        this.maxAge = builder.maxAge;
+        this.ticker = builder.ticker;
+    }
+
+    /**
+     * Creates a new builder to customize a {@link PerChannelStorageBackend}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public <K, V> ConcurrentMap<K, V> newMap(@Nullable RemovalListener<K, V> removalListener) {
+        return new PartitionedMap<>(maxPerChannel, maxTotal, maxAge == null ? -1 : maxAge.toNanos(), ticker,
+                removalListener);
+    }
+
+    public static class Builder {
+
+        private int maxPerChannel = 100;
+        private long maxTotal = 10_000L;
+        private @Nullable Duration maxAge;
+        private Ticker ticker = Ticker.systemTicker();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of entries kept for each channel. Once reached, inserting a new entry in a channel
+         * evicts its oldest one. Defaults to 100.
+         *
+         * @param maxPerChannel the maximum number of entries per channel
+         * @return this builder
+         */
+        public Builder setMaxPerChannel(int maxPerChannel) {
+            if (maxPerChannel <= 0) {
+                throw new IllegalArgumentException("maxPerChannel must be positive");
+            }
+            this.maxPerChannel = maxPerChannel;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of entries kept across all channels. Once exceeded, entries from the least recently
+         * used channels are evicted, oldest first. Defaults to 10000.
+         *
+         * @param maxTotal the maximum number of entries across all channels
+         * @return this builder
+         */
+        public Builder setMaxTotal(long maxTotal) {
+            if (maxTotal <= 0) {
+                throw new IllegalArgumentException("maxTotal must be positive");
+            }
+            this.maxTotal = maxTotal;
+            return this;
+        }
+
+        /**
+         * Sets the maximum age of an entry since it was first inserted, after which it is expired. By default, entries
+         * do not expire.
+         *
+         * @param maxAge the maximum age of an entry, or null to disable expiration
+         * @return this builder
+         */
+        public Builder setMaxAge(@Nullable Duration maxAge) {
+            if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+                throw new IllegalArgumentException("maxAge must be positive");
+            }
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Sets the time source used to compute the age of entries. Defaults to {@link Ticker#systemTicker()}.
+         *
+         * @param ticker the time source, in nanoseconds
+         * @return this builder
+         */
+        public Builder setTicker(Ticker ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        /**
+         * Builds the {@link PerChannelStorageBackend}.
+         *
+         * @return a new {@link PerChannelStorageBackend}
+         */
+        public PerChannelStorageBackend build() {
+            return new PerChannelStorageBackend(this);
+        }
+    }
+}
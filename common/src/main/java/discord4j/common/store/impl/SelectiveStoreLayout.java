@@ -18,6 +18,7 @@
 package discord4j.common.store.impl;
 
 import discord4j.common.annotations.Experimental;
+import discord4j.common.store.api.ActionMapper;
 import discord4j.common.store.api.StoreFlag;
 import discord4j.common.store.api.layout.DataAccessor;
 import discord4j.common.store.api.layout.GatewayDataUpdater;
@@ -34,6 +35,7 @@ public class SelectiveStoreLayout implements StoreLayout {
     private final EnumSet<StoreFlag> enabledFlags;
     private final DataAccessor dataAccessor;
     private final GatewayDataUpdater gatewayDataUpdater;
+    private final ActionMapper synchronousActionMapper;
 
     /**
      * Create a new store layout that can partially enable entity stores depending on passed {@code enabledStoreFlags}.
@@ -43,7 +45,9 @@ public class SelectiveStoreLayout implements StoreLayout {
      * @param delegate a delegate for store queries and updates
      */
     public static <U extends DataAccessor & GatewayDataUpdater> StoreLayout create(EnumSet<StoreFlag> enabledStoreFlags, U delegate) {
-        return new SelectiveStoreLayout(enabledStoreFlags, delegate, delegate);
+        ActionMapper synchronousActionMapper = delegate instanceof StoreLayout ?
+                ((StoreLayout) delegate).getSynchronousActionMapper() : ActionMapper.empty();
+        return new SelectiveStoreLayout(enabledStoreFlags, delegate, delegate, synchronousActionMapper);
     }
 
     /**
@@ -57,15 +61,17 @@ public class SelectiveStoreLayout implements StoreLayout {
     public static StoreLayout create(EnumSet<StoreFlag> enabledFlags,
                                      DataAccessor dataAccessor,
                                      GatewayDataUpdater gatewayDataUpdater) {
-        return new SelectiveStoreLayout(enabledFlags, dataAccessor, gatewayDataUpdater);
+        return new SelectiveStoreLayout(enabledFlags, dataAccessor, gatewayDataUpdater, ActionMapper.empty());
     }
 
     private SelectiveStoreLayout(EnumSet<StoreFlag> enabledFlags,
                                  DataAccessor dataAccessor,
-                                 GatewayDataUpdater gatewayDataUpdater) {
+                                 GatewayDataUpdater gatewayDataUpdater,
+                                 ActionMapper synchronousActionMapper) {
         this.enabledFlags = enabledFlags;
         this.dataAccessor = dataAccessor;
         this.gatewayDataUpdater = gatewayDataUpdater;
+        this.synchronousActionMapper = synchronousActionMapper;
     }
 
     @Override
@@ -78,6 +84,11 @@ public class SelectiveStoreLayout implements StoreLayout {
         return gatewayDataUpdater;
     }
 
+    @Override
+    public ActionMapper getSynchronousActionMapper() {
+        return synchronousActionMapper;
+    }
+
     @Override
     public EnumSet<StoreFlag> getEnabledFlags() {
         return enabledFlags;
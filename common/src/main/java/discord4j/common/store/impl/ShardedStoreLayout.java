@@ -0,0 +1,797 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common.store.impl;
+
+import discord4j.common.store.api.layout.DataAccessor;
+import discord4j.common.store.api.layout.GatewayDataUpdater;
+import discord4j.common.store.api.layout.StoreLayout;
+import discord4j.common.store.api.object.InvalidationCause;
+import discord4j.common.store.api.object.PresenceAndUserData;
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.*;
+import discord4j.discordjson.json.gateway.*;
+import discord4j.discordjson.possible.Possible;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A {@link StoreLayout} that partitions entities by shard, keeping one {@link LocalStoreLayout} per shard. Updates
+ * concerning a guild are only applied to the partition of the shard owning that guild, so shards never contend with
+ * each other when writing to the store, and invalidating a shard simply drops its partition instead of looking up every
+ * entity belonging to it.
+ * <p>
+ * Partitions are assigned using the shard count of the first connected shards and keep it for the lifetime of the
+ * layout. Updates are routed by guild rather than by the shard delivering them, so during a live resharding both shard
+ * sets update the same copy of a guild, and once the new shards take over the existing partitions keep serving their
+ * guilds. From then on, partitions no longer match shards and invalidating a shard removes its guilds from every
+ * partition instead.
+ * <p>
+ * Reads scoped to a guild are routed to the partition holding that guild, and reads scoped to a channel or a thread to
+ * the partition recorded for it when it was cached. Global reads like {@link #getGuilds()} or {@link #countMembers()}
+ * aggregate results across partitions. Users are the exception: a user can be a member of guilds held by different partitions, so every partition reads and writes
+ * users through a single shared map, and an update received from any shard refreshes the user for all of them. Each
+ * partition is created using the same {@link StorageConfig}, which means bounds like the message backend size apply
+ * per partition.
+ */
+public class ShardedStoreLayout implements StoreLayout, DataAccessor, GatewayDataUpdater {
+
+    private final StorageConfig config;
+    private final ConcurrentMap<Long, AtomicReference<ImmutableUserData>> users = LocalStoreLayout.newUserMap();
+    private final ConcurrentMap<Integer, LocalStoreLayout> partitions = new ConcurrentHashMap<>();
+    // channels and threads by the partition holding them, so updates and reads scoped to a channel reach it directly
+    private final ConcurrentMap<Long, Integer> channelPartitions = new ConcurrentHashMap<>();
+    // connected shard indexes by shard count, a live resharding connects a second shard set next to the current one
+    private final ConcurrentMap<Integer, Set<Integer>> shardsConnected = new ConcurrentHashMap<>();
+    private final LocalStoreLayout emptyPartition;
+    private volatile @Nullable Ready ready;
+    private volatile int partitionCount;
+    private volatile int shardCount;
+
+    private ShardedStoreLayout(StorageConfig config) {
+        this.config = config;
+        this.emptyPartition = LocalStoreLayout.create(config, users);
+    }
+
+    public static ShardedStoreLayout create(StorageConfig config) {
+        return new ShardedStoreLayout(config);
+    }
+
+    public static ShardedStoreLayout create() {
+        return create(StorageConfig.builder().build());
+    }
+
+    // ------------ DataAccessor countX methods ------------
+
+    @Override
+    public Mono<Long> countChannels() {
+        return sum(DataAccessor::countChannels);
+    }
+
+    @Override
+    public Mono<Long> countChannelsInGuild(long guildId) {
+        return forGuild(guildId).countChannelsInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countStickers() {
+        return sum(DataAccessor::countStickers);
+    }
+
+    @Override
+    public Mono<Long> countStickersInGuild(long guildId) {
+        return forGuild(guildId).countStickersInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countEmojis() {
+        return sum(DataAccessor::countEmojis);
+    }
+
+    @Override
+    public Mono<Long> countEmojisInGuild(long guildId) {
+        return forGuild(guildId).countEmojisInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countGuilds() {
+        return sum(DataAccessor::countGuilds);
+    }
+
+    @Override
+    public Mono<Long> countMembers() {
+        return sum(DataAccessor::countMembers);
+    }
+
+    @Override
+    public Mono<Long> countMembersInGuild(long guildId) {
+        return forGuild(guildId).countMembersInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countExactMembersInGuild(long guildId) {
+        return forGuild(guildId).countExactMembersInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countMessages() {
+        return sum(DataAccessor::countMessages);
+    }
+
+    @Override
+    public Mono<Long> countMessagesInChannel(long channelId) {
+        return forChannel(channelId).countMessagesInChannel(channelId);
+    }
+
+    @Override
+    public Mono<Long> countPresences() {
+        return sum(DataAccessor::countPresences);
+    }
+
+    @Override
+    public Mono<Long> countPresencesInGuild(long guildId) {
+        return forGuild(guildId).countPresencesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countRoles() {
+        return sum(DataAccessor::countRoles);
+    }
+
+    @Override
+    public Mono<Long> countRolesInGuild(long guildId) {
+        return forGuild(guildId).countRolesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countUsers() {
+        return emptyPartition.countUsers();
+    }
+
+    @Override
+    public Mono<Long> countVoiceStates() {
+        return sum(DataAccessor::countVoiceStates);
+    }
+
+    @Override
+    public Mono<Long> countVoiceStatesInGuild(long guildId) {
+        return forGuild(guildId).countVoiceStatesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<Long> countVoiceStatesInChannel(long guildId, long channelId) {
+        return forGuild(guildId).countVoiceStatesInChannel(guildId, channelId);
+    }
+
+    // ------------ DataAccessor getX methods ------------
+
+    @Override
+    public Flux<ChannelData> getChannels() {
+        return all(DataAccessor::getChannels);
+    }
+
+    @Override
+    public Flux<ChannelData> getChannelsInGuild(long guildId) {
+        return forGuild(guildId).getChannelsInGuild(guildId);
+    }
+
+    @Override
+    public Mono<ChannelData> getChannelById(long channelId) {
+        return forChannel(channelId).getChannelById(channelId);
+    }
+
+    @Override
+    public Flux<StickerData> getStickers() {
+        return all(DataAccessor::getStickers);
+    }
+
+    @Override
+    public Flux<StickerData> getStickersInGuild(long guildId) {
+        return forGuild(guildId).getStickersInGuild(guildId);
+    }
+
+    @Override
+    public Mono<StickerData> getStickerById(long guildId, long stickerId) {
+        return forGuild(guildId).getStickerById(guildId, stickerId);
+    }
+
+    @Override
+    public Flux<EmojiData> getEmojis() {
+        return all(DataAccessor::getEmojis);
+    }
+
+    @Override
+    public Flux<EmojiData> getEmojisInGuild(long guildId) {
+        return forGuild(guildId).getEmojisInGuild(guildId);
+    }
+
+    @Override
+    public Mono<EmojiData> getEmojiById(long guildId, long emojiId) {
+        return forGuild(guildId).getEmojiById(guildId, emojiId);
+    }
+
+    @Override
+    public Flux<GuildData> getGuilds() {
+        return all(DataAccessor::getGuilds);
+    }
+
+    @Override
+    public Mono<GuildData> getGuildById(long guildId) {
+        return forGuild(guildId).getGuildById(guildId);
+    }
+
+    @Override
+    public Flux<GuildScheduledEventData> getScheduledEventsInGuild(long guildId) {
+        return forGuild(guildId).getScheduledEventsInGuild(guildId);
+    }
+
+    @Override
+    public Mono<GuildScheduledEventData> getScheduledEventById(long guildId, long eventId) {
+        return forGuild(guildId).getScheduledEventById(guildId, eventId);
+    }
+
+    @Override
+    public Flux<Id> getScheduledEventUsersInEvent(long guildId, long eventId) {
+        return forGuild(guildId).getScheduledEventUsersInEvent(guildId, eventId);
+    }
+
+    @Override
+    public Flux<MemberData> getMembers() {
+        return all(DataAccessor::getMembers);
+    }
+
+    @Override
+    public Flux<MemberData> getMembersInGuild(long guildId) {
+        return forGuild(guildId).getMembersInGuild(guildId);
+    }
+
+    @Override
+    public Flux<MemberData> getExactMembersInGuild(long guildId) {
+        return forGuild(guildId).getExactMembersInGuild(guildId);
+    }
+
+    @Override
+    public Flux<MemberData> getMembersWithRole(long guildId, long roleId) {
+        return forGuild(guildId).getMembersWithRole(guildId, roleId);
+    }
+
+    @Override
+    public Flux<MemberData> getMembersByNamePrefix(long guildId, String prefix, int limit) {
+        return forGuild(guildId).getMembersByNamePrefix(guildId, prefix, limit);
+    }
+
+    @Override
+    public Mono<MemberData> getMemberById(long guildId, long userId) {
+        return forGuild(guildId).getMemberById(guildId, userId);
+    }
+
+    @Override
+    public Flux<MessageData> getMessages() {
+        return all(DataAccessor::getMessages);
+    }
+
+    @Override
+    public Flux<MessageData> getMessagesInChannel(long channelId) {
+        return forChannel(channelId).getMessagesInChannel(channelId);
+    }
+
+    @Override
+    public Mono<MessageData> getMessageById(long channelId, long messageId) {
+        return forChannel(channelId).getMessageById(channelId, messageId);
+    }
+
+    @Override
+    public Flux<PresenceData> getPresences() {
+        return all(DataAccessor::getPresences);
+    }
+
+    @Override
+    public Flux<PresenceData> getPresencesInGuild(long guildId) {
+        return forGuild(guildId).getPresencesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<PresenceData> getPresenceById(long guildId, long userId) {
+        return forGuild(guildId).getPresenceById(guildId, userId);
+    }
+
+    @Override
+    public Flux<RoleData> getRoles() {
+        return all(DataAccessor::getRoles);
+    }
+
+    @Override
+    public Flux<RoleData> getRolesInGuild(long guildId) {
+        return forGuild(guildId).getRolesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<RoleData> getRoleById(long guildId, long roleId) {
+        return forGuild(guildId).getRoleById(guildId, roleId);
+    }
+
+    @Override
+    public Flux<UserData> getUsers() {
+        return emptyPartition.getUsers();
+    }
+
+    @Override
+    public Mono<UserData> getUserById(long userId) {
+        return emptyPartition.getUserById(userId);
+    }
+
+    @Override
+    public Flux<VoiceStateData> getVoiceStates() {
+        return all(DataAccessor::getVoiceStates);
+    }
+
+    @Override
+    public Flux<VoiceStateData> getVoiceStatesInChannel(long guildId, long channelId) {
+        return forGuild(guildId).getVoiceStatesInChannel(guildId, channelId);
+    }
+
+    @Override
+    public Flux<VoiceStateData> getVoiceStatesInGuild(long guildId) {
+        return forGuild(guildId).getVoiceStatesInGuild(guildId);
+    }
+
+    @Override
+    public Mono<VoiceStateData> getVoiceStateById(long guildId, long userId) {
+        return forGuild(guildId).getVoiceStateById(guildId, userId);
+    }
+
+    @Override
+    public Mono<StageInstanceData> getStageInstanceByChannelId(long channelId) {
+        return forChannel(channelId).getStageInstanceByChannelId(channelId);
+    }
+
+    @Override
+    public Mono<ThreadMemberData> getThreadMemberById(long threadId, long userId) {
+        return forChannel(threadId).getThreadMemberById(threadId, userId);
+    }
+
+    @Override
+    public Flux<ThreadMemberData> getMembersInThread(long threadId) {
+        return forChannel(threadId).getMembersInThread(threadId);
+    }
+
+    // ------------ GatewayDataUpdater methods ------------
+
+    @Override
+    public Mono<Void> onChannelCreate(int shardIndex, ChannelCreate dispatch) {
+        int index = savedChannelPartition(shardIndex, dispatch.channel());
+        return partition(index).onChannelCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<ChannelData> onChannelDelete(int shardIndex, ChannelDelete dispatch) {
+        long channelId = dispatch.channel().id().asLong();
+        return forChannel(shardIndex, channelId).onChannelDelete(shardIndex, dispatch)
+                .doFinally(signal -> channelPartitions.remove(channelId));
+    }
+
+    @Override
+    public Mono<ChannelData> onChannelUpdate(int shardIndex, ChannelUpdate dispatch) {
+        int index = savedChannelPartition(shardIndex, dispatch.channel());
+        return partition(index).onChannelUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildCreate(int shardIndex, GuildCreate dispatch) {
+        GuildCreateData guild = dispatch.guild();
+        int index = guildPartition(shardIndex, guild.id().asLong());
+        guild.channels().forEach(channel -> channelPartitions.put(channel.id().asLong(), index));
+        guild.threads().forEach(thread -> channelPartitions.put(thread.id().asLong(), index));
+        return partition(index).onGuildCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<GuildData> onGuildDelete(int shardIndex, GuildDelete dispatch) {
+        return forGuild(shardIndex, dispatch.guild().id().asLong()).onGuildDelete(shardIndex, dispatch)
+                .doOnNext(old -> old.channels().forEach(channelId -> channelPartitions.remove(channelId.asLong())));
+    }
+
+    @Override
+    public Mono<Set<StickerData>> onGuildStickersUpdate(int shardIndex, GuildStickersUpdate dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildStickersUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Set<EmojiData>> onGuildEmojisUpdate(int shardIndex, GuildEmojisUpdate dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildEmojisUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildMemberAdd(int shardIndex, GuildMemberAdd dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildMemberAdd(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<MemberData> onGuildMemberRemove(int shardIndex, GuildMemberRemove dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildMemberRemove(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildMembersChunk(int shardIndex, GuildMembersChunk dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildMembersChunk(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<MemberData> onGuildMemberUpdate(int shardIndex, GuildMemberUpdate dispatch) {
+        LocalStoreLayout partition = forGuild(shardIndex, dispatch.guildId().asLong());
+        return partition.onGuildMemberUpdate(shardIndex, dispatch)
+                .doOnNext(old -> reindexOtherPartitions(partition, old.user(), dispatch.user()));
+    }
+
+    @Override
+    public Mono<Void> onGuildRoleCreate(int shardIndex, GuildRoleCreate dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildRoleCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<RoleData> onGuildRoleDelete(int shardIndex, GuildRoleDelete dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildRoleDelete(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<RoleData> onGuildRoleUpdate(int shardIndex, GuildRoleUpdate dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildRoleUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildScheduledEventCreate(int shardIndex, GuildScheduledEventCreate dispatch) {
+        return forGuild(shardIndex, dispatch.scheduledEvent().guildId().asLong())
+                .onGuildScheduledEventCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<GuildScheduledEventData> onGuildScheduledEventUpdate(int shardIndex, GuildScheduledEventUpdate dispatch) {
+        return forGuild(shardIndex, dispatch.scheduledEvent().guildId().asLong())
+                .onGuildScheduledEventUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<GuildScheduledEventData> onGuildScheduledEventDelete(int shardIndex, GuildScheduledEventDelete dispatch) {
+        return forGuild(shardIndex, dispatch.scheduledEvent().guildId().asLong())
+                .onGuildScheduledEventDelete(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildScheduledEventUserAdd(int shardIndex, GuildScheduledEventUserAdd dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildScheduledEventUserAdd(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildScheduledEventUserRemove(int shardIndex, GuildScheduledEventUserRemove dispatch) {
+        return forGuild(shardIndex, dispatch.guildId().asLong()).onGuildScheduledEventUserRemove(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<GuildData> onGuildUpdate(int shardIndex, GuildUpdate dispatch) {
+        return forGuild(shardIndex, dispatch.guild().id().asLong()).onGuildUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onShardInvalidation(int shardIndex, InvalidationCause cause) {
+        return onShardInvalidation(shardIndex, 0, cause);
+    }
+
+    @Override
+    public Mono<Void> onShardInvalidation(int shardIndex, int shardCount, InvalidationCause cause) {
+        return Mono.fromRunnable(() -> {
+            int currentShardCount = this.shardCount;
+            int count = shardCount == 0 ? currentShardCount : shardCount;
+            Set<Integer> connected = shardsConnected.get(count);
+            if (connected != null) {
+                connected.remove(shardIndex);
+                if (connected.isEmpty()) {
+                    shardsConnected.remove(count, connected);
+                }
+            }
+            // guilds are only owned by the current shard set, the other one is still connecting during a resharding
+            if (count == currentShardCount && currentShardCount != 0
+                    && config.getInvalidationFilter().contains(cause)) {
+                if (currentShardCount == partitionCount) {
+                    // partitions still match shards, so the partition only holds guilds owned by this shard
+                    partitions.remove(shardIndex);
+                    channelPartitions.values().removeIf(index -> index == shardIndex);
+                } else {
+                    partitions.values().forEach(partition -> partition.disposeGuilds(shardIndex, currentShardCount));
+                }
+            }
+            if (shardsConnected.isEmpty()) {
+                this.shardCount = 0;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> onMessageCreate(int shardIndex, MessageCreate dispatch) {
+        MessageData message = dispatch.message();
+        long channelId = message.channelId().asLong();
+        Integer index = channelPartitions.get(channelId);
+        if (index == null) {
+            // the channel was not cached, remember where its messages are
+            index = message.guildId().isAbsent() ? shardPartition(shardIndex)
+                    : guildPartition(shardIndex, message.guildId().get().asLong());
+            channelPartitions.putIfAbsent(channelId, index);
+        }
+        return partition(index).onMessageCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<MessageData> onMessageDelete(int shardIndex, MessageDelete dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong()).onMessageDelete(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Set<MessageData>> onMessageDeleteBulk(int shardIndex, MessageDeleteBulk dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong()).onMessageDeleteBulk(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onMessageReactionAdd(int shardIndex, MessageReactionAdd dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong()).onMessageReactionAdd(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onMessageReactionRemove(int shardIndex, MessageReactionRemove dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong()).onMessageReactionRemove(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onMessageReactionRemoveAll(int shardIndex, MessageReactionRemoveAll dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong()).onMessageReactionRemoveAll(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onMessageReactionRemoveEmoji(int shardIndex, MessageReactionRemoveEmoji dispatch) {
+        return forChannel(shardIndex, dispatch.channelId().asLong())
+                .onMessageReactionRemoveEmoji(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<MessageData> onMessageUpdate(int shardIndex, MessageUpdate dispatch) {
+        return forChannel(shardIndex, dispatch.message().channelId().asLong()).onMessageUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<PresenceAndUserData> onPresenceUpdate(int shardIndex, PresenceUpdate dispatch) {
+        LocalStoreLayout partition = forGuild(shardIndex, dispatch.guildId().asLong());
+        return partition.onPresenceUpdate(shardIndex, dispatch)
+                .doOnNext(old -> old.getUserData().ifPresent(oldUser -> {
+                    AtomicReference<ImmutableUserData> newUser = users.get(oldUser.id().asLong());
+                    if (newUser != null) {
+                        reindexOtherPartitions(partition, oldUser, newUser.get());
+                    }
+                }));
+    }
+
+    @Override
+    public Mono<Void> onReady(Ready dispatch) {
+        int[] shardInfo = dispatch.shard().toOptional().orElseGet(() -> new int[]{0, 1});
+        return Mono.fromRunnable(() -> {
+            if (ready == null) {
+                ready = dispatch;
+            }
+            shardsConnected.computeIfAbsent(shardInfo[1], count -> ConcurrentHashMap.newKeySet()).add(shardInfo[0]);
+            if (shardCount == 0) {
+                // shards connected for a live resharding only own their guilds once it completes
+                shardCount = shardInfo[1];
+            }
+            if (partitionCount == 0) {
+                partitionCount = shardInfo[1];
+            }
+            forShard(shardInfo[0]);
+        });
+    }
+
+    @Override
+    public Mono<Void> onStageInstanceCreate(int shardIndex, StageInstanceCreate dispatch) {
+        return forChannel(shardIndex, dispatch.stageInstance().channelId().asLong())
+                .onStageInstanceCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<StageInstanceData> onStageInstanceUpdate(int shardIndex, StageInstanceUpdate dispatch) {
+        return forChannel(shardIndex, dispatch.stageInstance().channelId().asLong())
+                .onStageInstanceUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<StageInstanceData> onStageInstanceDelete(int shardIndex, StageInstanceDelete dispatch) {
+        return forChannel(shardIndex, dispatch.stageInstance().channelId().asLong())
+                .onStageInstanceDelete(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<UserData> onUserUpdate(int shardIndex, UserUpdate dispatch) {
+        LocalStoreLayout partition = forShard(shardIndex);
+        return partition.onUserUpdate(shardIndex, dispatch)
+                .doOnNext(old -> reindexOtherPartitions(partition, old, dispatch.user()));
+    }
+
+    @Override
+    public Mono<VoiceStateData> onVoiceStateUpdateDispatch(int shardIndex, VoiceStateUpdateDispatch dispatch) {
+        Possible<Id> guildId = dispatch.voiceState().guildId();
+        LocalStoreLayout partition = guildId.isAbsent() ? forShard(shardIndex)
+                : forGuild(shardIndex, guildId.get().asLong());
+        return partition.onVoiceStateUpdateDispatch(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onGuildMembersCompletion(long guildId) {
+        return forGuild(guildId).onGuildMembersCompletion(guildId);
+    }
+
+    @Override
+    public Mono<Void> onReshardingCompletion(int shardCount) {
+        return Mono.fromRunnable(() -> {
+            // the previous shards are closed without being invalidated, the guilds they owned now belong to the new
+            // ones, partitions are kept as they are since they don't depend on the current shard count
+            shardsConnected.keySet().removeIf(count -> count != shardCount);
+            this.shardCount = shardCount;
+        });
+    }
+
+    @Override
+    public Mono<Void> onReshardingAbort(int shardCount) {
+        return Mono.fromRunnable(() -> {
+            // the discarded shards are closed without being invalidated, the current ones keep their guilds
+            if (shardCount != this.shardCount) {
+                shardsConnected.remove(shardCount);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> onThreadCreate(int shardIndex, ThreadCreate dispatch) {
+        int index = savedChannelPartition(shardIndex, dispatch.thread());
+        return partition(index).onThreadCreate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<ChannelData> onThreadUpdate(int shardIndex, ThreadUpdate dispatch) {
+        int index = savedChannelPartition(shardIndex, dispatch.thread());
+        return partition(index).onThreadUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<Void> onThreadDelete(int shardIndex, ThreadDelete dispatch) {
+        long threadId = dispatch.thread().id().asLong();
+        return forChannel(shardIndex, threadId).onThreadDelete(shardIndex, dispatch)
+                .doFinally(signal -> channelPartitions.remove(threadId));
+    }
+
+    @Override
+    public Mono<Void> onThreadListSync(int shardIndex, ThreadListSync dispatch) {
+        int index = guildPartition(shardIndex, Snowflake.asLong(dispatch.guildId()));
+        dispatch.threads().forEach(thread -> channelPartitions.put(thread.id().asLong(), index));
+        return partition(index).onThreadListSync(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<ThreadMemberData> onThreadMemberUpdate(int shardIndex, ThreadMemberUpdate dispatch) {
+        Possible<Id> threadId = dispatch.member().id();
+        LocalStoreLayout partition = threadId.isAbsent() ? forShard(shardIndex)
+                : forChannel(shardIndex, threadId.get().asLong());
+        return partition.onThreadMemberUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public Mono<List<ThreadMemberData>> onThreadMembersUpdate(int shardIndex, ThreadMembersUpdate dispatch) {
+        return forChannel(shardIndex, dispatch.id().asLong()).onThreadMembersUpdate(shardIndex, dispatch);
+    }
+
+    @Override
+    public DataAccessor getDataAccessor() {
+        return this;
+    }
+
+    @Override
+    public GatewayDataUpdater getGatewayDataUpdater() {
+        return this;
+    }
+
+    // ------------ Private methods ------------
+
+    private LocalStoreLayout partition(int index) {
+        return partitions.computeIfAbsent(index, k -> {
+            LocalStoreLayout partition = LocalStoreLayout.create(config, users);
+            Ready ready = this.ready;
+            if (ready != null) {
+                // reactions need the self user, which is only received on READY
+                partition.onReady(ready).subscribe();
+            }
+            return partition;
+        });
+    }
+
+    private int guildPartition(int shardIndex, long guildId) {
+        int partitionCount = this.partitionCount;
+        return partitionCount == 0 ? shardIndex : (int) ((guildId >> 22) % partitionCount);
+    }
+
+    private int shardPartition(int shardIndex) {
+        int partitionCount = this.partitionCount;
+        return partitionCount == 0 ? shardIndex : shardIndex % partitionCount;
+    }
+
+    private LocalStoreLayout forShard(int shardIndex) {
+        // only used for updates without a guild, users are shared and private channels are not cached
+        return partition(shardPartition(shardIndex));
+    }
+
+    private LocalStoreLayout forGuild(int shardIndex, long guildId) {
+        return partition(guildPartition(shardIndex, guildId));
+    }
+
+    private LocalStoreLayout forChannel(int shardIndex, long channelId) {
+        Integer index = channelPartitions.get(channelId);
+        return index == null ? forShard(shardIndex) : partition(index);
+    }
+
+    private int savedChannelPartition(int shardIndex, ChannelData channel) {
+        int index = channel.guildId().isAbsent() ? shardPartition(shardIndex)
+                : guildPartition(shardIndex, channel.guildId().get().asLong());
+        channelPartitions.put(channel.id().asLong(), index);
+        return index;
+    }
+
+    private void reindexOtherPartitions(LocalStoreLayout updated, UserData oldUser, UserData newUser) {
+        // the partition handling the update already reindexed its own members
+        if (!oldUser.username().equals(newUser.username())) {
+            partitions.values().forEach(partition -> {
+                if (partition != updated) {
+                    partition.reindexUser(newUser.id().asLong());
+                }
+            });
+        }
+    }
+
+    private LocalStoreLayout forGuild(long guildId) {
+        int partitionCount = this.partitionCount;
+        if (partitionCount == 0) {
+            return emptyPartition;
+        }
+        LocalStoreLayout partition = partitions.get((int) ((guildId >> 22) % partitionCount));
+        return partition == null ? emptyPartition : partition;
+    }
+
+    private LocalStoreLayout forChannel(long channelId) {
+        Integer index = channelPartitions.get(channelId);
+        LocalStoreLayout partition = index == null ? null : partitions.get(index);
+        return partition == null ? emptyPartition : partition;
+    }
+
+    private <T> Flux<T> all(Function<LocalStoreLayout, ? extends Flux<T>> query) {
+        return Flux.fromIterable(partitions.values()).concatMap(query);
+    }
+
+    private Mono<Long> sum(Function<LocalStoreLayout, Mono<Long>> count) {
+        return Flux.fromIterable(partitions.values()).concatMap(count).reduce(0L, Long::sum);
+    }
+}
@@ -78,6 +78,16 @@ public interface StorageBackend {
         };
     }
 
+    /**
+     * Represents a backend keeping a bounded ring of the most recent entries for each channel, suited for message
+     * caching. Use {@link PerChannelStorageBackend#builder()} to customize the bounds and expiration.
+     *
+     * @return a {@link StorageBackend}
+     */
+    static StorageBackend perChannel() {
+        return PerChannelStorageBackend.builder().build();
+    }
+
     default <K, V> ConcurrentMap<K, V> newMap() {
         return newMap(null);
     }
@@ -30,10 +30,12 @@ public class StorageConfig {
 
     private final StorageBackend messageBackend;
     private final EnumSet<InvalidationCause> invalidationFilter;
+    private final boolean memberIndexEnabled;
 
     private StorageConfig(Builder b) {
         this.messageBackend = b.messageBackend == null ? defaultMessageBackend() : b.messageBackend;
         this.invalidationFilter = b.invalidationFilter == null ? defaultInvalidationFilter() : b.invalidationFilter;
+        this.memberIndexEnabled = b.memberIndexEnabled;
     }
 
     /**
@@ -71,17 +73,29 @@ public class StorageConfig {
         return invalidationFilter;
     }
 
+    /**
+     * Returns whether members should be indexed by role and by name prefix.
+     *
+     * @return true if member indexes are enabled
+     */
+    public boolean isMemberIndexEnabled() {
+        return memberIndexEnabled;
+    }
+
     public static class Builder {
 
         private @Nullable StorageBackend messageBackend;
         private @Nullable EnumSet<InvalidationCause> invalidationFilter;
+        private boolean memberIndexEnabled;
 
         private Builder() {
         }
 
         /**
          * Sets the {@link StorageBackend} to use for message caching. By default it uses a backend based on Caffeine
-         * that keeps only the last 1000 messages.
+         * that keeps only the last 1000 messages. Use {@link StorageBackend#perChannel()} or
+         * {@link PerChannelStorageBackend#builder()} to bound the cache per channel instead, so busy channels cannot
+         * evict every other one.
          *
          * @param messageBackend the {@link StorageBackend}, or null to use default
          * @return this builder
@@ -105,6 +119,20 @@ public class StorageConfig {
             return this;
         }
 
+        /**
+         * Sets whether members should be indexed by role and by lowercase username and nickname prefix, to serve
+         * role lookups and name autocompletion without iterating over every member of a guild. Indexes are kept up to
+         * date on member add, update, remove and chunk events, at the cost of extra memory and slightly slower member
+         * updates. Disabled by default.
+         *
+         * @param memberIndexEnabled true to maintain member indexes
+         * @return this builder
+         */
+        public Builder setMemberIndexEnabled(boolean memberIndexEnabled) {
+            this.memberIndexEnabled = memberIndexEnabled;
+            return this;
+        }
+
         /**
          * Builds the {@link StorageConfig}.
          *
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.store.api.layout.DataAccessor;
+import discord4j.common.store.impl.LocalStoreLayout;
+import discord4j.common.store.impl.ShardedStoreLayout;
+import discord4j.common.store.impl.StorageConfig;
+import discord4j.discordjson.json.MemberData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static discord4j.common.TestDispatches.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberIndexTest {
+
+    private static final long GUILD_ID = 1L << 22;
+    private static final long ROLE_ID = 10;
+
+    private final StorageConfig config = StorageConfig.builder()
+            .setMemberIndexEnabled(true)
+            .build();
+
+    @Test
+    public void findsMembersByUsernameAndNickPrefix() {
+        LocalStoreLayout layout = LocalStoreLayout.create(config);
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 100, "Alice", null)).block();
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 101, "bob", "Alfred")).block();
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 102, "carol", null)).block();
+
+        assertEquals(Arrays.asList(100L, 101L), sorted(byPrefix(layout, "al")));
+        assertEquals(Collections.singletonList(101L), byPrefix(layout, "BOB"));
+        assertEquals(1, byPrefix(layout, "a", 1).size());
+        assertTrue(byPrefix(layout, "dave").isEmpty());
+    }
+
+    @Test
+    public void findsMembersByRole() {
+        LocalStoreLayout layout = LocalStoreLayout.create(config);
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 100, "alice", null, ROLE_ID)).block();
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 101, "bob", null)).block();
+
+        assertEquals(Collections.singletonList(100L), byRole(layout, ROLE_ID));
+
+        layout.onGuildMemberUpdate(0, memberUpdate(GUILD_ID, 100, "alice", null)).block();
+        layout.onGuildMemberUpdate(0, memberUpdate(GUILD_ID, 101, "bob", null, ROLE_ID)).block();
+
+        assertEquals(Collections.singletonList(101L), byRole(layout, ROLE_ID));
+    }
+
+    @Test
+    public void removedMembersAreUnindexed() {
+        LocalStoreLayout layout = LocalStoreLayout.create(config);
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 100, "alice", null, ROLE_ID)).block();
+        layout.onGuildMemberRemove(0, memberRemove(GUILD_ID, 100, "alice")).block();
+
+        assertTrue(byPrefix(layout, "alice").isEmpty());
+        assertTrue(byRole(layout, ROLE_ID).isEmpty());
+    }
+
+    @Test
+    public void userUpdateReindexesRenamedMember() {
+        LocalStoreLayout layout = LocalStoreLayout.create(config);
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 100, "alice", null)).block();
+        layout.onUserUpdate(0, userUpdate(100, "zoe")).block();
+
+        assertTrue(byPrefix(layout, "alice").isEmpty());
+        assertEquals(Collections.singletonList(100L), byPrefix(layout, "zo"));
+    }
+
+    @Test
+    public void presenceUpdateReindexesRenamedMember() {
+        LocalStoreLayout layout = LocalStoreLayout.create(config);
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_ID, 100, "alice", null)).block();
+        layout.onPresenceUpdate(0, presenceUpdate(GUILD_ID, 100, "zoe")).block();
+
+        assertTrue(byPrefix(layout, "alice").isEmpty());
+        assertEquals(Collections.singletonList(100L), byPrefix(layout, "zo"));
+    }
+
+    @Test
+    public void renameReindexesMembersOnEveryShard() {
+        long otherGuildId = 2L << 22;
+        ShardedStoreLayout layout = ShardedStoreLayout.create(config);
+        layout.onReady(ready(1, 0, 2)).block();
+        layout.onReady(ready(1, 1, 2)).block();
+        layout.onGuildMemberAdd(1, memberAdd(GUILD_ID, 100, "alice", null)).block();
+        layout.onGuildMemberAdd(0, memberAdd(otherGuildId, 100, "alice", null)).block();
+        layout.onPresenceUpdate(1, presenceUpdate(GUILD_ID, 100, "zoe")).block();
+
+        assertEquals(1L, layout.getMembersByNamePrefix(otherGuildId, "zo", 10).count().block());
+        assertEquals(0L, layout.getMembersByNamePrefix(otherGuildId, "alice", 10).count().block());
+    }
+
+    private static List<Long> byPrefix(DataAccessor layout, String prefix) {
+        return byPrefix(layout, prefix, 10);
+    }
+
+    private static List<Long> byPrefix(DataAccessor layout, String prefix, int limit) {
+        return ids(layout.getMembersByNamePrefix(GUILD_ID, prefix, limit).collectList().block());
+    }
+
+    private static List<Long> byRole(DataAccessor layout, long roleId) {
+        return ids(layout.getMembersWithRole(GUILD_ID, roleId).collectList().block());
+    }
+
+    private static List<Long> ids(List<MemberData> members) {
+        return members.stream().map(member -> member.user().id().asLong()).collect(Collectors.toList());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+}
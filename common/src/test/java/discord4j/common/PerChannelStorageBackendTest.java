@@ -0,0 +1,160 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import discord4j.common.store.impl.PartitionedKey;
+import discord4j.common.store.impl.PerChannelStorageBackend;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerChannelStorageBackendTest {
+
+    @Test
+    public void evictsOldestInChannel() {
+        List<MessageKey> evicted = new ArrayList<>();
+        ConcurrentMap<MessageKey, String> map = PerChannelStorageBackend.builder()
+                .setMaxPerChannel(2)
+                .build()
+                .newMap((k, v, cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evicted.add(k);
+                    }
+                });
+
+        map.put(new MessageKey(1, 1), "a");
+        map.put(new MessageKey(2, 1), "b");
+        map.put(new MessageKey(1, 2), "c");
+        map.put(new MessageKey(1, 3), "d");
+
+        assertNull(map.get(new MessageKey(1, 1)));
+        assertEquals("b", map.get(new MessageKey(2, 1)));
+        assertEquals("d", map.get(new MessageKey(1, 3)));
+        assertEquals(3, map.size());
+        assertEquals(1, evicted.size());
+        assertEquals(new MessageKey(1, 1), evicted.get(0));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedChannel() {
+        ConcurrentMap<MessageKey, String> map = PerChannelStorageBackend.builder()
+                .setMaxPerChannel(10)
+                .setMaxTotal(3)
+                .build()
+                .newMap();
+
+        map.put(new MessageKey(1, 1), "a");
+        map.put(new MessageKey(2, 1), "b");
+        map.put(new MessageKey(3, 1), "c");
+        map.get(new MessageKey(1, 1));
+        map.put(new MessageKey(3, 2), "d");
+
+        assertEquals(3, map.size());
+        assertNull(map.get(new MessageKey(2, 1)));
+        assertEquals("a", map.get(new MessageKey(1, 1)));
+    }
+
+    @Test
+    public void replaceKeepsPosition() {
+        ConcurrentMap<MessageKey, String> map = PerChannelStorageBackend.builder()
+                .setMaxPerChannel(2)
+                .build()
+                .newMap();
+
+        map.put(new MessageKey(1, 1), "a");
+        map.put(new MessageKey(1, 2), "b");
+        map.computeIfPresent(new MessageKey(1, 1), (k, v) -> v + "-edited");
+        map.put(new MessageKey(1, 3), "c");
+
+        assertNull(map.get(new MessageKey(1, 1)));
+        assertEquals("b", map.get(new MessageKey(1, 2)));
+        assertEquals(2, map.size());
+        assertTrue(map.keySet().remove(new MessageKey(1, 2)));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void expiresEntriesOlderThanMaxAge() {
+        AtomicLong nanos = new AtomicLong();
+        List<MessageKey> expired = new ArrayList<>();
+        ConcurrentMap<MessageKey, String> map = PerChannelStorageBackend.builder()
+                .setMaxAge(Duration.ofSeconds(10))
+                .setTicker(nanos::get)
+                .build()
+                .newMap((k, v, cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expired.add(k);
+                    }
+                });
+
+        map.put(new MessageKey(1, 1), "a");
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        map.put(new MessageKey(1, 2), "b");
+        map.put(new MessageKey(2, 1), "c");
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        // replacing a value keeps its insertion time
+        map.replace(new MessageKey(1, 2), "b-edited");
+        assertNull(map.get(new MessageKey(1, 1)));
+        assertEquals("b-edited", map.get(new MessageKey(1, 2)));
+        assertEquals(1, expired.size());
+        assertEquals(new MessageKey(1, 1), expired.get(0));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertNull(map.get(new MessageKey(1, 2)));
+        assertFalse(map.containsKey(new MessageKey(2, 1)));
+        assertTrue(map.isEmpty());
+    }
+
+    private static class MessageKey implements PartitionedKey {
+
+        private final long channelId;
+        private final long messageId;
+
+        private MessageKey(long channelId, long messageId) {
+            this.channelId = channelId;
+            this.messageId = messageId;
+        }
+
+        @Override
+        public long getPartition() {
+            return channelId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MessageKey)) return false;
+            MessageKey that = (MessageKey) o;
+            return channelId == that.channelId && messageId == that.messageId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(channelId, messageId);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.store.Store;
+import discord4j.common.store.action.gateway.GatewayActions;
+import discord4j.common.store.api.StoreAction;
+import discord4j.common.store.api.layout.StoreLayout;
+import discord4j.common.store.api.object.InvalidationCause;
+import discord4j.common.store.impl.LocalStoreLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static discord4j.common.TestDispatches.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReshardingStoreTest {
+
+    protected static final long SELF_ID = 1;
+    // owned by shard 0 with 1 or 2 shards
+    protected static final long GUILD_A = 2L << 22;
+    // owned by shard 0 with 1 shard, shard 1 with 2 shards
+    protected static final long GUILD_B = 3L << 22;
+
+    protected StoreLayout layout;
+    protected Store store;
+
+    protected StoreLayout createLayout() {
+        return LocalStoreLayout.create();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        layout = createLayout();
+        store = Store.fromLayout(layout);
+        execute(GatewayActions.ready(ready(SELF_ID, 0, 1)));
+        execute(GatewayActions.guildMemberAdd(0, memberAdd(GUILD_A, 100, "alice", null)));
+        execute(GatewayActions.guildMemberAdd(0, memberAdd(GUILD_B, 101, "bob", null)));
+        // the new shard set connects next to the current one
+        execute(GatewayActions.ready(ready(SELF_ID, 0, 2)));
+        execute(GatewayActions.ready(ready(SELF_ID, 1, 2)));
+    }
+
+    @Test
+    public void keepsCurrentShardCountDuringOverlap() {
+        invalidate(1, 2);
+        invalidate(0, 2);
+
+        assertTrue(hasMember(GUILD_A, 100));
+        assertTrue(hasMember(GUILD_B, 101));
+
+        invalidate(0, 1);
+
+        assertFalse(hasMember(GUILD_A, 100));
+        assertFalse(hasMember(GUILD_B, 101));
+    }
+
+    @Test
+    public void mapsGuildsToNewShardsOnCutover() {
+        execute(GatewayActions.completeResharding(2));
+        // retired shards are closed without being invalidated
+        invalidate(1, 2);
+
+        assertTrue(hasMember(GUILD_A, 100));
+        assertFalse(hasMember(GUILD_B, 101));
+    }
+
+    @Test
+    public void keepsCurrentShardCountOnAbort() {
+        execute(GatewayActions.abortResharding(2));
+        invalidate(0, 1);
+
+        assertFalse(hasMember(GUILD_A, 100));
+        assertFalse(hasMember(GUILD_B, 101));
+    }
+
+    protected void invalidate(int shardIndex, int shardCount) {
+        execute(GatewayActions.invalidateShard(shardIndex, shardCount, InvalidationCause.LOGOUT));
+    }
+
+    protected boolean hasMember(long guildId, long userId) {
+        return layout.getDataAccessor().getMemberById(guildId, userId).blockOptional().isPresent();
+    }
+
+    protected <R> void execute(StoreAction<R> action) {
+        Mono.from(store.execute(action)).block();
+    }
+}
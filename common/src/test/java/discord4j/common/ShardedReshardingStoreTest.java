@@ -0,0 +1,59 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.store.action.gateway.GatewayActions;
+import discord4j.common.store.api.layout.StoreLayout;
+import discord4j.common.store.impl.ShardedStoreLayout;
+import discord4j.discordjson.json.MemberData;
+import discord4j.discordjson.possible.Possible;
+import org.junit.jupiter.api.Test;
+
+import static discord4j.common.TestDispatches.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedReshardingStoreTest extends ReshardingStoreTest {
+
+    @Override
+    protected StoreLayout createLayout() {
+        return ShardedStoreLayout.create();
+    }
+
+    @Test
+    public void keepsSingleCopyOfGuildsAcrossShardSets() {
+        // GUILD_B is owned by the new shard 1, which shares its index with no current shard
+        execute(GatewayActions.guildMemberAdd(1, memberAdd(GUILD_B, 102, "carol", null)));
+        execute(GatewayActions.completeResharding(2));
+        execute(GatewayActions.guildMemberUpdate(1, memberUpdate(GUILD_B, 101, "bob", "robert")));
+
+        assertEquals(3L, layout.getDataAccessor().countMembers().block());
+        assertEquals(2L, layout.getDataAccessor().countMembersInGuild(GUILD_B).block());
+        MemberData member = layout.getDataAccessor().getMemberById(GUILD_B, 101).block();
+        assertNotNull(member);
+        assertEquals("robert", Possible.flatOpt(member.nick()).orElse(null));
+    }
+
+    @Test
+    public void invalidatesOnlyCurrentShardSetDuringOverlap() {
+        // the new shard 0 shares its index with the current shard 0
+        invalidate(0, 2);
+
+        assertTrue(hasMember(GUILD_A, 100));
+        assertEquals(2L, layout.getDataAccessor().countMembers().block());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.store.impl.ShardedStoreLayout;
+import discord4j.discordjson.json.MemberData;
+import discord4j.discordjson.json.UserData;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static discord4j.common.TestDispatches.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedStoreLayoutTest {
+
+    // guild ids owned by shard 0 and shard 1 out of 2
+    private static final long GUILD_0 = 2L << 22;
+    private static final long GUILD_1 = 1L << 22;
+    private static final long SELF_ID = 1;
+    private static final long USER_ID = 100;
+
+    private ShardedStoreLayout layout;
+
+    @BeforeEach
+    public void setUp() {
+        layout = ShardedStoreLayout.create();
+        layout.onReady(ready(SELF_ID, 0, 2)).block();
+        layout.onReady(ready(SELF_ID, 1, 2)).block();
+        layout.onGuildMemberAdd(0, memberAdd(GUILD_0, USER_ID, "user", null)).block();
+        layout.onGuildMemberAdd(1, memberAdd(GUILD_1, USER_ID, "user", null)).block();
+    }
+
+    @Test
+    public void routesGuildReadsToOwningShard() {
+        assertNotNull(layout.getMemberById(GUILD_0, USER_ID).block());
+        assertNotNull(layout.getMemberById(GUILD_1, USER_ID).block());
+        assertEquals(1L, layout.countMembersInGuild(GUILD_0).block());
+        assertEquals(1L, layout.countMembersInGuild(GUILD_1).block());
+        assertEquals(2L, layout.countMembers().block());
+    }
+
+    @Test
+    public void usersAreNotDuplicatedAcrossShards() {
+        assertEquals(2L, layout.countUsers().block());
+        assertEquals(2L, layout.getUsers().count().block());
+        assertEquals("self", username(layout.getUserById(SELF_ID).block()));
+    }
+
+    @Test
+    public void presenceUpdateRefreshesUserOnEveryShard() {
+        layout.onPresenceUpdate(0, presenceUpdate(GUILD_0, USER_ID, "renamed")).block();
+
+        assertEquals("renamed", username(layout.getUserById(USER_ID).block()));
+        assertEquals("renamed", memberUsername(GUILD_0));
+        assertEquals("renamed", memberUsername(GUILD_1));
+    }
+
+    @Test
+    public void memberUpdateRefreshesUserOnEveryShard() {
+        layout.onGuildMemberUpdate(1, memberUpdate(GUILD_1, USER_ID, "renamed", null)).block();
+
+        assertEquals("renamed", username(layout.getUserById(USER_ID).block()));
+        assertEquals("renamed", memberUsername(GUILD_0));
+        assertEquals("renamed", memberUsername(GUILD_1));
+    }
+
+    @Test
+    public void routesChannelReadsToOwningShard() {
+        long channelId = 10;
+        long privateChannelId = 11;
+        layout.onChannelCreate(1, channelCreate(GUILD_1, channelId)).block();
+        layout.onMessageCreate(1, messageCreate(GUILD_1, channelId, 20, USER_ID)).block();
+        layout.onMessageCreate(0, messageCreate(null, privateChannelId, 21, USER_ID)).block();
+
+        assertNotNull(layout.getChannelById(channelId).block());
+        assertNotNull(layout.getMessageById(channelId, 20).block());
+        assertEquals(1L, layout.countMessagesInChannel(channelId).block());
+        assertEquals(1L, layout.getMessagesInChannel(channelId).count().block());
+        assertNotNull(layout.getMessageById(privateChannelId, 21).block());
+        assertNull(layout.getChannelById(12).block());
+        assertNull(layout.countMessagesInChannel(12).block());
+    }
+
+    private String memberUsername(long guildId) {
+        MemberData member = layout.getMemberById(guildId, USER_ID).block();
+        assertNotNull(member);
+        return member.user().username();
+    }
+
+    private static String username(@Nullable UserData user) {
+        assertNotNull(user);
+        return user.username();
+    }
+}
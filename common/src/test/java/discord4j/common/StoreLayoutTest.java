@@ -18,7 +18,9 @@
 package discord4j.common;
 
 import discord4j.common.store.Store;
+import discord4j.common.store.action.read.GetChannelByIdAction;
 import discord4j.common.store.action.read.ReadActions;
+import discord4j.common.store.api.ActionMapper;
 import discord4j.common.store.api.StoreFlag;
 import discord4j.common.store.api.layout.StoreLayout;
 import discord4j.common.store.impl.SelectiveStoreLayout;
@@ -30,6 +32,8 @@ import reactor.test.StepVerifier;
 
 import java.util.EnumSet;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 public class StoreLayoutTest {
 
     @Test
@@ -59,4 +63,57 @@ public class StoreLayoutTest {
                 .expectNextMatches(it -> it.name().get().equals("first-channel"))
                 .verifyComplete();
     }
+
+    @Test
+    public void synchronousHandlersAreUsedWhenEnabled() {
+        StoreLayout layout = SelectiveStoreLayout.create(
+                EnumSet.of(StoreFlag.CHANNEL),
+                new TestStoreLayout("sync") {
+                    @Override
+                    public ActionMapper getSynchronousActionMapper() {
+                        return ActionMapper.builder()
+                                .mapSync(GetChannelByIdAction.class, action -> ImmutableChannelData.builder()
+                                        .id(action.getChannelId())
+                                        .type(1)
+                                        .name("sync-channel")
+                                        .build())
+                                .build();
+                    }
+                }
+        );
+
+        Store store = Store.fromLayout(layout);
+
+        assertTrue(store.canExecuteSync(ReadActions.getChannelById(1L)));
+        assertFalse(store.canExecuteSync(ReadActions.getChannels()));
+        assertEquals("sync-channel", store.executeSync(ReadActions.getChannelById(1L)).name().get());
+        assertThrows(UnsupportedOperationException.class, () -> store.executeSync(ReadActions.getChannels()));
+        StepVerifier.create(store.execute(ReadActions.getChannelById(1L)))
+                .expectNextMatches(it -> it.name().get().equals("sync-channel"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void synchronousHandlersIgnoreDisabledActions() {
+        StoreLayout layout = SelectiveStoreLayout.create(
+                EnumSet.of(StoreFlag.MEMBER),
+                new TestStoreLayout("sync") {
+                    @Override
+                    public ActionMapper getSynchronousActionMapper() {
+                        return ActionMapper.builder()
+                                .mapSync(GetChannelByIdAction.class, action -> ImmutableChannelData.builder()
+                                        .id(action.getChannelId())
+                                        .type(1)
+                                        .build())
+                                .build();
+                    }
+                }
+        );
+
+        Store store = Store.fromLayout(layout);
+
+        assertFalse(store.canExecuteSync(ReadActions.getChannelById(1L)));
+        StepVerifier.create(store.execute(ReadActions.getChannelById(1L)))
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import discord4j.common.store.Store;
+import discord4j.common.store.action.gateway.GatewayActions;
+import discord4j.common.store.api.StoreAction;
+import discord4j.common.store.impl.LocalStoreLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static discord4j.common.TestDispatches.*;
+
+/**
+ * Compares the rate at which a single shard can apply dispatches to a {@link LocalStoreLayout}, between the reactive
+ * {@link Store#execute(StoreAction)} path and the synchronous {@link Store#executeSync(StoreAction)} one. Set
+ * {@code D4J_STORE_BENCHMARK} to {@code true} to run it.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_STORE_BENCHMARK", matches = "true")
+public class SynchronousStoreBenchmarkTest {
+
+    private static final Logger log = Loggers.getLogger(SynchronousStoreBenchmarkTest.class);
+
+    private static final long SELF_ID = 1;
+    private static final long GUILD_ID = 2L << 22;
+    private static final int USERS = 10_000;
+    private static final int ROUNDS = 10;
+
+    @Test
+    public void dispatchesPerSecond() {
+        List<StoreAction<?>> actions = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            actions.add(GatewayActions.guildMemberAdd(0, memberAdd(GUILD_ID, 100 + i, "user" + i, null)));
+            actions.add(GatewayActions.presenceUpdate(0, presenceUpdate(GUILD_ID, 100 + i, "user" + i)));
+        }
+        // warm up both paths before measuring
+        runReactive(actions);
+        runSynchronous(actions);
+
+        long reactive = 0;
+        long synchronous = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            reactive += runReactive(actions);
+            synchronous += runSynchronous(actions);
+        }
+        report("reactive execute", actions.size() * ROUNDS, reactive);
+        report("synchronous executeSync", actions.size() * ROUNDS, synchronous);
+    }
+
+    private static long runReactive(List<StoreAction<?>> actions) {
+        Store store = newStore();
+        long start = System.nanoTime();
+        // mirrors how the gateway applies dispatches, one after the other for a given shard
+        Flux.fromIterable(actions)
+                .concatMap(action -> Mono.from(store.execute(action)))
+                .blockLast();
+        return System.nanoTime() - start;
+    }
+
+    private static long runSynchronous(List<StoreAction<?>> actions) {
+        Store store = newStore();
+        long start = System.nanoTime();
+        for (StoreAction<?> action : actions) {
+            store.executeSync(action);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Store newStore() {
+        Store store = Store.fromLayout(LocalStoreLayout.create());
+        store.executeSync(GatewayActions.ready(ready(SELF_ID, 0, 1)));
+        return store;
+    }
+
+    private static void report(String name, int dispatches, long elapsedNanos) {
+        log.info("{}: {} dispatches in {} ms ({} dispatches/s)", name, dispatches, elapsedNanos / 1_000_000,
+                dispatches * 1_000_000_000L / Math.max(1, elapsedNanos));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.discordjson.json.gateway.*;
+import org.jspecify.annotations.Nullable;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Gateway dispatches for store layout tests, read from their JSON representation.
+ */
+final class TestDispatches {
+
+    private static final ObjectMapper MAPPER = JacksonResources.create()
+            .withMapperFunction(JacksonResources.HANDLE_UNKNOWN_PROPERTIES)
+            .getObjectMapper();
+
+    private TestDispatches() {
+    }
+
+    static Ready ready(long selfId, int shardIndex, int shardCount) {
+        return read(Ready.class, "{\"v\":10,\"user\":" + user(selfId, "self") + ",\"guilds\":[]," +
+                "\"session_id\":\"s" + shardIndex + "\",\"resume_gateway_url\":\"wss://localhost\"," +
+                "\"shard\":[" + shardIndex + "," + shardCount + "],\"application\":{\"id\":\"" + selfId + "\"," +
+                "\"flags\":0}}");
+    }
+
+    static GuildMemberAdd memberAdd(long guildId, long userId, String username, @Nullable String nick,
+                                    long... roleIds) {
+        return read(GuildMemberAdd.class, member(guildId, userId, username, nick, roleIds));
+    }
+
+    static GuildMemberUpdate memberUpdate(long guildId, long userId, String username, @Nullable String nick,
+                                          long... roleIds) {
+        return read(GuildMemberUpdate.class, member(guildId, userId, username, nick, roleIds));
+    }
+
+    static GuildMemberRemove memberRemove(long guildId, long userId, String username) {
+        return read(GuildMemberRemove.class, "{\"guild_id\":\"" + guildId + "\",\"user\":" +
+                user(userId, username) + "}");
+    }
+
+    static PresenceUpdate presenceUpdate(long guildId, long userId, String username) {
+        return read(PresenceUpdate.class, "{\"guild_id\":\"" + guildId + "\",\"user\":{\"id\":\"" + userId + "\"," +
+                "\"username\":\"" + username + "\"},\"status\":\"online\",\"activities\":[],\"client_status\":{}}");
+    }
+
+    static UserUpdate userUpdate(long userId, String username) {
+        return read(UserUpdate.class, user(userId, username));
+    }
+
+    static ChannelCreate channelCreate(long guildId, long channelId) {
+        return read(ChannelCreate.class, "{\"id\":\"" + channelId + "\",\"type\":0,\"guild_id\":\"" + guildId + "\"," +
+                "\"name\":\"channel\",\"position\":0,\"permission_overwrites\":[],\"nsfw\":false," +
+                "\"parent_id\":null}");
+    }
+
+    static MessageCreate messageCreate(@Nullable Long guildId, long channelId, long messageId, long authorId) {
+        return read(MessageCreate.class, "{\"id\":\"" + messageId + "\",\"channel_id\":\"" + channelId + "\"," +
+                (guildId == null ? "" : "\"guild_id\":\"" + guildId + "\",") + "\"author\":" +
+                user(authorId, "author") + ",\"content\":\"hello\"," +
+                "\"timestamp\":\"2020-01-01T00:00:00.000000+00:00\",\"edited_timestamp\":null,\"tts\":false," +
+                "\"mention_everyone\":false,\"mentions\":[],\"mention_roles\":[],\"attachments\":[]," +
+                "\"embeds\":[],\"pinned\":false,\"type\":0}");
+    }
+
+    private static String member(long guildId, long userId, String username, @Nullable String nick,
+                                 long... roleIds) {
+        String roles = Arrays.stream(roleIds)
+                .mapToObj(id -> "\"" + id + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+        return "{\"guild_id\":\"" + guildId + "\",\"user\":" + user(userId, username) + ",\"roles\":" + roles +
+                ",\"nick\":" + (nick == null ? "null" : "\"" + nick + "\"") + ",\"avatar\":null," +
+                "\"joined_at\":\"2020-01-01T00:00:00.000000+00:00\",\"premium_since\":null,\"deaf\":false," +
+                "\"mute\":false,\"pending\":false,\"flags\":0,\"communication_disabled_until\":null}";
+    }
+
+    private static String user(long id, String username) {
+        return "{\"id\":\"" + id + "\",\"username\":\"" + username + "\",\"discriminator\":\"0\"," +
+                "\"global_name\":null,\"avatar\":null}";
+    }
+
+    private static <T> T read(Class<T> type, String json) {
+        try {
+            return MAPPER.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -46,6 +46,7 @@ import discord4j.core.object.presence.Presence;
 import discord4j.core.retriever.EntityRetrievalStrategy;
 import discord4j.core.retriever.EntityRetriever;
 import discord4j.core.shard.GatewayBootstrap;
+import discord4j.core.shard.ShardingStrategy;
 import discord4j.core.spec.CreateTestEntitlementMono;
 import discord4j.core.spec.EntitlementListRequestFlux;
 import discord4j.core.spec.GuildCreateMono;
@@ -76,7 +77,6 @@ import discord4j.voice.LocalVoiceConnectionRegistry;
 import discord4j.voice.VoiceConnection;
 import discord4j.voice.VoiceConnectionFactory;
 import discord4j.voice.VoiceConnectionRegistry;
-import io.netty.handler.timeout.TimeoutException;
 import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -88,9 +88,11 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static discord4j.common.LogUtil.format;
@@ -120,12 +122,25 @@ public class GatewayDiscordClient implements EntityRetriever {
     private final VoiceConnectionRegistry voiceConnectionRegistry;
     private final EntityRetriever entityRetriever;
     private final Set<String> completingChunkNonces;
+    private final Map<Integer, MemberChunkRouter> memberChunkRouters = new ConcurrentHashMap<>();
+    private final MemberRequestCoalescer memberRequestCoalescer;
+    private final IntFunction<Mono<Void>> resharder;
 
     public GatewayDiscordClient(DiscordClient discordClient, GatewayResources gatewayResources,
                                 Mono<Void> onDisconnect, GatewayClientGroup gatewayClientGroup,
                                 VoiceConnectionFactory voiceConnectionFactory,
                                 EntityRetrievalStrategy entityRetrievalStrategy,
                                 Set<String> completingChunkNonces) {
+        this(discordClient, gatewayResources, onDisconnect, gatewayClientGroup, voiceConnectionFactory,
+                entityRetrievalStrategy, completingChunkNonces,
+                shardCount -> Mono.error(new UnsupportedOperationException("Resharding is not supported")));
+    }
+
+    public GatewayDiscordClient(DiscordClient discordClient, GatewayResources gatewayResources,
+                                Mono<Void> onDisconnect, GatewayClientGroup gatewayClientGroup,
+                                VoiceConnectionFactory voiceConnectionFactory,
+                                EntityRetrievalStrategy entityRetrievalStrategy,
+                                Set<String> completingChunkNonces, IntFunction<Mono<Void>> resharder) {
         this.discordClient = discordClient;
         this.gatewayResources = gatewayResources;
         this.onDisconnect = onDisconnect;
@@ -134,6 +149,10 @@ public class GatewayDiscordClient implements EntityRetriever {
         this.voiceConnectionRegistry = new LocalVoiceConnectionRegistry();
         this.entityRetriever = entityRetrievalStrategy.apply(this);
         this.completingChunkNonces = completingChunkNonces;
+        this.memberRequestCoalescer = new MemberRequestCoalescer(this::requestMemberChunks,
+                gatewayResources.getMemberRequestCoalescing(),
+                gatewayResources.getGatewayReactorResources().getTimerTaskScheduler());
+        this.resharder = resharder;
     }
 
     /**
@@ -689,6 +708,9 @@ public class GatewayDiscordClient implements EntityRetriever {
      * Return a set of {@link Member members} from the given {@link Guild guildId} using the current Gateway connection.
      * This method performs a check to validate whether the given guild's data can be obtained from this
      * {@link GatewayDiscordClient}.
+     * <p>
+     * If {@link GatewayResources#getMemberRequestCoalescing() member request coalescing} is enabled, the lookup is
+     * merged with other lookups for the same guild made within the configured window.
      *
      * @param guildId the {@link Snowflake} of the guild to obtain members from
      * @param userIds the {@link Snowflake} set of users to request
@@ -696,6 +718,10 @@ public class GatewayDiscordClient implements EntityRetriever {
      * the {@link Flux}.
      */
     public Flux<Member> requestMembers(Snowflake guildId, Set<Snowflake> userIds) {
+        if (gatewayResources.getMemberRequestCoalescing().isEnabled()) {
+            return memberRequestCoalescer.request(guildId, userIds)
+                    .map(data -> new Member(this, data, guildId.asLong()));
+        }
         return Flux.fromIterable(userIds)
                 .map(Snowflake::asString)
                 .buffer(100)
@@ -728,16 +754,32 @@ public class GatewayDiscordClient implements EntityRetriever {
      * delivering raw {@link GuildMembersChunk} elements asynchronously through a {@link Flux}. This method performs a
      * check to validate whether the given guild's data can be obtained from this {@link GatewayDiscordClient}.
      * <p>
-     * A timeout given by is used to fail this request if the operation is unable to complete due to disallowed or
-     * disabled members intent. This is particularly relevant when requesting a complete member list. If the timeout is
-     * triggered, a {@link TimeoutException} is forwarded through the {@link Flux}.
+     * Use {@link #requestMemberChunks(RequestGuildMembers, Duration)} to fail the request if chunks stop arriving.
      *
      * @param request the member request to submit. Create one using {@link RequestGuildMembers#builder()}.
-     * {@link Flux#timeout(Duration)}
      * @return a {@link Flux} of {@link GuildMembersChunk} for the given {@link Guild}. If an error occurs, it is
      * emitted through the {@link Flux}.
      */
     public Flux<GuildMembersChunk> requestMemberChunks(RequestGuildMembers request) {
+        return requestMemberChunks(request, null);
+    }
+
+    /**
+     * Submit a {@link RequestGuildMembers} payload using the current Gateway connection and wait for its completion,
+     * delivering raw {@link GuildMembersChunk} elements asynchronously through a {@link Flux}. This method performs a
+     * check to validate whether the given guild's data can be obtained from this {@link GatewayDiscordClient}.
+     * <p>
+     * A timeout is used to fail this request if the operation is unable to complete, for example due to the shard
+     * reconnecting while chunks are being received. This is particularly relevant when requesting a complete member
+     * list. If no chunk is received within the timeout, a {@link TimeoutException} is forwarded through the
+     * {@link Flux}. The timeout is checked about once per second.
+     *
+     * @param request the member request to submit. Create one using {@link RequestGuildMembers#builder()}.
+     * @param timeout the maximum time to wait for each chunk, or {@code null} to wait indefinitely
+     * @return a {@link Flux} of {@link GuildMembersChunk} for the given {@link Guild}. If an error occurs, it is
+     * emitted through the {@link Flux}.
+     */
+    public Flux<GuildMembersChunk> requestMemberChunks(RequestGuildMembers request, @Nullable Duration timeout) {
         try {
             // client-side validation is required to avoid indefinitely waiting for a response
             ValidationUtil.validateRequestGuildMembers(request, Possible.of(gatewayResources.getIntents()));
@@ -746,30 +788,66 @@ public class GatewayDiscordClient implements EntityRetriever {
         }
         Snowflake guildId = Snowflake.of(request.guildId());
         int shardId = gatewayClientGroup.computeShardIndex(guildId);
-        String nonce = String.valueOf(System.nanoTime());
-        Supplier<Flux<GuildMembersChunk>> incomingMembers = () -> gatewayClientGroup.find(shardId)
-                .map(gatewayClient -> gatewayClient.dispatch()
-                        .ofType(GuildMembersChunk.class)
-                        .takeUntilOther(onDisconnect)
-                        .filter(chunk -> chunk.nonce().toOptional()
-                                .map(s -> s.equals(nonce))
-                                .orElse(false))
-                        .takeUntil(chunk -> chunk.chunkIndex() + 1 == chunk.chunkCount()))
+        String nonce = MemberChunkRouter.nextNonce();
+        return Flux.deferContextual(ctx -> {
+            MemberChunkRouter router;
+            try {
+                router = getMemberChunkRouter(shardId);
+            } catch (IllegalStateException e) {
+                return Flux.error(e);
+            }
+            // register before sending the request so no chunk can be missed
+            Flux<GuildMembersChunk> incomingMembers = router.register(nonce, timeout);
+            return getGuildById(guildId)
+                    .then(gatewayClientGroup.unicast(ShardGatewayPayload.requestGuildMembers(
+                            RequestGuildMembers.builder()
+                                    .from(request)
+                                    .nonce(nonce)
+                                    .build(), shardId))
+                            .then(Mono.fromRunnable(() -> {
+                                if (request.query().toOptional().map(String::isEmpty).orElse(false)
+                                        && request.limit() == 0) {
+                                    completingChunkNonces.add(nonce);
+                                }
+                            })))
+                    .thenMany(incomingMembers)
+                    .doOnComplete(() -> log.debug(format(ctx, "Member request completed: {}"), request))
+                    .doFinally(signal -> router.unregister(nonce));
+        });
+    }
+
+    private MemberChunkRouter getMemberChunkRouter(int shardId) {
+        GatewayClient gatewayClient = gatewayClientGroup.find(shardId)
                 .orElseThrow(() -> new IllegalStateException("Unable to find gateway client"));
-        return Flux.deferContextual(ctx -> getGuildById(guildId)
-                .then(gatewayClientGroup.unicast(ShardGatewayPayload.requestGuildMembers(
-                        RequestGuildMembers.builder()
-                                .from(request)
-                                .nonce(nonce)
-                                .build(), shardId))
-                        .then(Mono.fromRunnable(() -> {
-                            if (request.query().toOptional().map(String::isEmpty).orElse(false)
-                                    && request.limit() == 0) {
-                                completingChunkNonces.add(nonce);
-                            }
-                        })))
-                .thenMany(Flux.defer(incomingMembers))
-                .doOnComplete(() -> log.debug(format(ctx, "Member request completed: {}"), request)));
+        return memberChunkRouters.compute(shardId, (id, router) -> {
+            // the client of a shard index changes after resharding
+            if (router != null && !router.isDisposed() && router.getGatewayClient() == gatewayClient) {
+                return router;
+            }
+            if (router != null) {
+                router.dispose();
+            }
+            return new MemberChunkRouter(gatewayClient, onDisconnect,
+                    gatewayResources.getGatewayReactorResources().getTimerTaskScheduler());
+        });
+    }
+
+    /**
+     * Change the number of shards of this client without downtime. The new shards are connected next to the current
+     * ones, respecting IDENTIFY concurrency, and take over once they received their guilds, after which the current
+     * shards are closed. Events received by both shard sets in the meantime are published once, and READY and
+     * GUILD_CREATE events of the new shards for guilds already known are not published.
+     * <p>
+     * Only supported by the sharding strategies creating a group of shards, like {@link ShardingStrategy#fixed(int)}
+     * and {@link ShardingStrategy#recommended()}, and only to grow the shard count.
+     *
+     * @param newShardCount the new total number of shards, greater than the current one
+     * @return a {@link Mono} completing once the previous shards are closed. If an error occurs, the new shards are
+     * closed, the current ones keep running, and the error is emitted through the {@link Mono}.
+     */
+    @Experimental
+    public Mono<Void> reshard(int newShardCount) {
+        return resharder.apply(newShardCount);
     }
 
     /**
@@ -21,8 +21,10 @@ import discord4j.common.retry.ReconnectOptions;
 import discord4j.common.store.Store;
 import discord4j.core.event.EventDispatcher;
 import discord4j.core.event.domain.Event;
+import discord4j.core.shard.MemberRequestCoalescing;
 import discord4j.core.shard.MemberRequestFilter;
 import discord4j.core.shard.ShardCoordinator;
+import discord4j.core.state.PermissionCache;
 import discord4j.gateway.GatewayClient;
 import discord4j.gateway.GatewayReactorResources;
 import discord4j.gateway.intent.IntentSet;
@@ -41,6 +43,8 @@ public class GatewayResources {
     private final VoiceReactorResources voiceReactorResources;
     private final ReconnectOptions voiceReconnectOptions;
     private final IntentSet intents;
+    private final PermissionCache permissionCache;
+    private final MemberRequestCoalescing memberRequestCoalescing;
 
     /**
      * Create a new {@link GatewayResources} with the given parameters.
@@ -59,6 +63,54 @@ public class GatewayResources {
                             GatewayReactorResources gatewayReactorResources,
                             VoiceReactorResources voiceReactorResources,
                             ReconnectOptions voiceReconnectOptions, IntentSet intents) {
+        this(store, eventDispatcher, shardCoordinator, memberRequestFilter, gatewayReactorResources,
+                voiceReactorResources, voiceReconnectOptions, intents, PermissionCache.disabled());
+    }
+
+    /**
+     * Create a new {@link GatewayResources} with the given parameters.
+     *
+     * @param store an entity cache
+     * @param eventDispatcher an event bus dedicated to distribute {@link Event} instances
+     * @param shardCoordinator a middleware component to coordinate multiple shard-connecting efforts
+     * @param memberRequestFilter a strategy to determine whether guild members should be requested
+     * @param gatewayReactorResources a custom set of Reactor resources targeting Gateway operations
+     * @param voiceReactorResources a set of Reactor resources targeting Voice Gateway operations
+     * @param voiceReconnectOptions a reconnection policy for Voice Gateway connections
+     * @param intents a set of events to subscribe when connecting to the Gateway
+     * @param permissionCache a cache of computed member permissions
+     */
+    public GatewayResources(Store store, EventDispatcher eventDispatcher,
+                            ShardCoordinator shardCoordinator, MemberRequestFilter memberRequestFilter,
+                            GatewayReactorResources gatewayReactorResources,
+                            VoiceReactorResources voiceReactorResources,
+                            ReconnectOptions voiceReconnectOptions, IntentSet intents,
+                            PermissionCache permissionCache) {
+        this(store, eventDispatcher, shardCoordinator, memberRequestFilter, gatewayReactorResources,
+                voiceReactorResources, voiceReconnectOptions, intents, permissionCache,
+                MemberRequestCoalescing.disabled());
+    }
+
+    /**
+     * Create a new {@link GatewayResources} with the given parameters.
+     *
+     * @param store an entity cache
+     * @param eventDispatcher an event bus dedicated to distribute {@link Event} instances
+     * @param shardCoordinator a middleware component to coordinate multiple shard-connecting efforts
+     * @param memberRequestFilter a strategy to determine whether guild members should be requested
+     * @param gatewayReactorResources a custom set of Reactor resources targeting Gateway operations
+     * @param voiceReactorResources a set of Reactor resources targeting Voice Gateway operations
+     * @param voiceReconnectOptions a reconnection policy for Voice Gateway connections
+     * @param intents a set of events to subscribe when connecting to the Gateway
+     * @param permissionCache a cache of computed member permissions
+     * @param memberRequestCoalescing a policy to merge member lookups by user ID into fewer requests
+     */
+    public GatewayResources(Store store, EventDispatcher eventDispatcher,
+                            ShardCoordinator shardCoordinator, MemberRequestFilter memberRequestFilter,
+                            GatewayReactorResources gatewayReactorResources,
+                            VoiceReactorResources voiceReactorResources,
+                            ReconnectOptions voiceReconnectOptions, IntentSet intents,
+                            PermissionCache permissionCache, MemberRequestCoalescing memberRequestCoalescing) {
         this.store = store;
         this.eventDispatcher = eventDispatcher;
         this.shardCoordinator = shardCoordinator;
@@ -67,6 +119,8 @@ public class GatewayResources {
         this.voiceReactorResources = voiceReactorResources;
         this.voiceReconnectOptions = voiceReconnectOptions;
         this.intents = intents;
+        this.permissionCache = permissionCache;
+        this.memberRequestCoalescing = memberRequestCoalescing;
     }
 
     /**
@@ -87,6 +141,15 @@ public class GatewayResources {
         return store;
     }
 
+    /**
+     * Returns the {@link PermissionCache} used to store computed member permissions.
+     *
+     * @return the {@link PermissionCache} instance
+     */
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
     /**
      * Distributes events to subscribers. Starting from v3.1, the {@link EventDispatcher} is capable of distributing
      * events from all {@link GatewayClient} connections (shards) that were specified when this
@@ -116,6 +179,15 @@ public class GatewayResources {
         return memberRequestFilter;
     }
 
+    /**
+     * Return the {@link MemberRequestCoalescing} policy used to merge member lookups by user ID.
+     *
+     * @return the {@link MemberRequestCoalescing} tied to this {@link GatewayResources}
+     */
+    public MemberRequestCoalescing getMemberRequestCoalescing() {
+        return memberRequestCoalescing;
+    }
+
     /**
      * Return the {@link GatewayReactorResources} used to perform Gateway-related operations.
      *
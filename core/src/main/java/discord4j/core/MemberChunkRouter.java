@@ -0,0 +1,224 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core;
+
+import discord4j.discordjson.json.gateway.GuildMembersChunk;
+import discord4j.gateway.GatewayClient;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes {@link GuildMembersChunk} dispatches of a single shard to the member request that asked for them. Pending
+ * requests are indexed by nonce, so each chunk costs one map lookup regardless of how many requests are in flight,
+ * and request timeouts are checked by one periodic task instead of one timer per request.
+ */
+class MemberChunkRouter implements Disposable {
+
+    private static final Logger log = Loggers.getLogger(MemberChunkRouter.class);
+
+    private static final long SWEEP_MILLIS = 1000;
+
+    // shared by every router of the process so nonces stay unique across shards and clients
+    private static final AtomicLong NONCES = new AtomicLong();
+
+    private final ConcurrentMap<String, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final AtomicReference<@Nullable Disposable> sweeper = new AtomicReference<>();
+    private final GatewayClient gatewayClient;
+    private final Scheduler timerScheduler;
+    private final Disposable subscription;
+
+    MemberChunkRouter(GatewayClient gatewayClient, Mono<Void> onDisconnect, Scheduler timerScheduler) {
+        this.gatewayClient = gatewayClient;
+        this.timerScheduler = timerScheduler;
+        this.subscription = gatewayClient.dispatch()
+                .ofType(GuildMembersChunk.class)
+                .takeUntilOther(onDisconnect)
+                .subscribe(this::route,
+                t -> log.warn("Member chunk routing terminated with an error", t),
+                this::dispose);
+    }
+
+    GatewayClient getGatewayClient() {
+        return gatewayClient;
+    }
+
+    /**
+     * Return a new nonce, unique within this process. Discord limits nonces to 32 characters.
+     *
+     * @return a compact nonce
+     */
+    static String nextNonce() {
+        return Long.toString(NONCES.incrementAndGet(), Character.MAX_RADIX);
+    }
+
+    /**
+     * Register a pending member request. This must be called before the request is sent so no chunk is missed.
+     *
+     * @param nonce the nonce of the request
+     * @param timeout the maximum time to wait for the next chunk, or {@code null} to wait indefinitely
+     * @return a {@link Flux} of the chunks for this request, completing after the last chunk is received
+     */
+    Flux<GuildMembersChunk> register(String nonce, @Nullable Duration timeout) {
+        PendingRequest request = new PendingRequest(timeout == null ? 0 : timeout.toNanos());
+        pending.put(nonce, request);
+        if (isDisposed()) {
+            pending.remove(nonce);
+            request.complete();
+        } else if (timeout != null) {
+            startSweeper();
+        }
+        return request.sink.asFlux();
+    }
+
+    /**
+     * Stop routing chunks for a request, once it terminated or was cancelled.
+     *
+     * @param nonce the nonce of the request
+     */
+    void unregister(String nonce) {
+        pending.remove(nonce);
+    }
+
+    void route(GuildMembersChunk chunk) {
+        String nonce = chunk.nonce().toOptional().orElse(null);
+        if (nonce == null) {
+            return;
+        }
+        PendingRequest request = pending.get(nonce);
+        if (request == null) {
+            return;
+        }
+        request.lastActivityNanos = System.nanoTime();
+        if (request.next(chunk)) {
+            pending.remove(nonce, request);
+            request.complete();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        subscription.dispose();
+        Disposable task = sweeper.getAndSet(null);
+        if (task != null) {
+            task.dispose();
+        }
+        // requests complete like the dispatch stream they were waiting on
+        for (String nonce : pending.keySet()) {
+            PendingRequest request = pending.remove(nonce);
+            if (request != null) {
+                request.complete();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return subscription.isDisposed();
+    }
+
+    private void startSweeper() {
+        if (sweeper.get() != null) {
+            return;
+        }
+        Disposable task = timerScheduler.schedulePeriodically(this::sweep, SWEEP_MILLIS, SWEEP_MILLIS,
+                TimeUnit.MILLISECONDS);
+        if (!sweeper.compareAndSet(null, task)) {
+            task.dispose();
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        boolean timed = false;
+        for (String nonce : pending.keySet()) {
+            PendingRequest request = pending.get(nonce);
+            if (request == null || request.timeoutNanos == 0) {
+                continue;
+            }
+            if (now - request.lastActivityNanos < request.timeoutNanos) {
+                timed = true;
+            } else if (pending.remove(nonce, request)) {
+                request.error(new TimeoutException("Did not receive a member chunk within " +
+                        Duration.ofNanos(request.timeoutNanos) + " for request " + nonce));
+            }
+        }
+        if (!timed) {
+            Disposable task = sweeper.getAndSet(null);
+            if (task != null) {
+                task.dispose();
+            }
+            // a request with a timeout may have been registered while the task was still set
+            for (PendingRequest request : pending.values()) {
+                if (request.timeoutNanos != 0) {
+                    startSweeper();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * A request waiting for chunks. Chunks are emitted from the dispatch thread while timeouts and disposal may
+     * terminate the request from other threads, so every emission happens under the request monitor: a concurrent
+     * emission would otherwise fail as non-serialized and be dropped, leaving the request waiting forever.
+     */
+    private static class PendingRequest {
+
+        private final Sinks.Many<GuildMembersChunk> sink = Sinks.many().unicast().onBackpressureBuffer();
+        private final long timeoutNanos;
+        private volatile long lastActivityNanos = System.nanoTime();
+        private int received; // guarded by this
+
+        PendingRequest(long timeoutNanos) {
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        /**
+         * Emit a chunk of this request.
+         *
+         * @param chunk the received chunk
+         * @return {@code true} if this was the last chunk of the request
+         */
+        synchronized boolean next(GuildMembersChunk chunk) {
+            sink.tryEmitNext(chunk);
+            return ++received >= chunk.chunkCount();
+        }
+
+        synchronized void complete() {
+            sink.tryEmitComplete();
+        }
+
+        synchronized void error(Throwable t) {
+            sink.tryEmitError(t);
+        }
+    }
+}
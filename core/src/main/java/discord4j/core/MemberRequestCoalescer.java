@@ -0,0 +1,158 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.shard.MemberRequestCoalescing;
+import discord4j.discordjson.json.MemberData;
+import discord4j.discordjson.json.gateway.GuildMembersChunk;
+import discord4j.discordjson.json.gateway.RequestGuildMembers;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges member lookups by user ID for the same guild into batched REQUEST_GUILD_MEMBERS payloads, according to a
+ * {@link MemberRequestCoalescing} policy. Each returned member is delivered to every caller that asked for it, and
+ * callers asking for users that were not found complete empty.
+ */
+class MemberRequestCoalescer {
+
+    private static final Logger log = Loggers.getLogger(MemberRequestCoalescer.class);
+
+    private final Function<RequestGuildMembers, Flux<GuildMembersChunk>> requester;
+    private final MemberRequestCoalescing policy;
+    private final Scheduler timerScheduler;
+    private final Map<Long, Batch> openBatches = new HashMap<>(); // guarded by this
+
+    /**
+     * Create a coalescer sending its batches through the given function, usually
+     * {@link GatewayDiscordClient#requestMemberChunks(RequestGuildMembers)}.
+     *
+     * @param requester the function sending a member request and returning its chunks
+     * @param policy the batching policy
+     * @param timerScheduler the scheduler used to close batches once their window elapses
+     */
+    MemberRequestCoalescer(Function<RequestGuildMembers, Flux<GuildMembersChunk>> requester,
+                           MemberRequestCoalescing policy, Scheduler timerScheduler) {
+        this.requester = requester;
+        this.policy = policy;
+        this.timerScheduler = timerScheduler;
+    }
+
+    Flux<MemberData> request(Snowflake guildId, Set<Snowflake> userIds) {
+        return Flux.defer(() -> {
+            List<Mono<MemberData>> results = new ArrayList<>(userIds.size());
+            List<Batch> ready = new ArrayList<>(1);
+            synchronized (this) {
+                for (Snowflake userId : userIds) {
+                    Batch batch = openBatches.get(guildId.asLong());
+                    if (batch == null) {
+                        batch = new Batch(guildId);
+                        openBatches.put(guildId.asLong(), batch);
+                        Batch scheduled = batch;
+                        batch.timer = timerScheduler.schedule(() -> flush(scheduled),
+                                policy.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+                    }
+                    results.add(batch.join(userId.asLong()));
+                    if (batch.size() >= policy.getMaxBatchSize()) {
+                        openBatches.remove(guildId.asLong());
+                        ready.add(batch);
+                    }
+                }
+            }
+            ready.forEach(this::send);
+            return Flux.merge(results);
+        });
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (!openBatches.remove(batch.guildId.asLong(), batch)) {
+                // already sent because it was full
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        Disposable timer = batch.timer;
+        if (timer != null) {
+            timer.dispose();
+        }
+        RequestGuildMembers request = RequestGuildMembers.builder()
+                .guildId(batch.guildId.asString())
+                .userIds(batch.waiters.keySet().stream().map(Snowflake::asString).collect(Collectors.toList()))
+                .limit(0)
+                .build();
+        log.debug("Sending coalesced member request for {} users in guild {}", batch.size(), batch.guildId.asString());
+        requester.apply(request)
+                .flatMapIterable(GuildMembersChunk::members)
+                .subscribe(batch::complete, batch::error, batch::completeRemaining);
+    }
+
+    private static class Batch {
+
+        private final Snowflake guildId;
+        // mutated while open under the coalescer lock, only read once sent
+        private final Map<Long, Sinks.One<MemberData>> waiters = new HashMap<>();
+        private volatile @Nullable Disposable timer;
+
+        Batch(Snowflake guildId) {
+            this.guildId = guildId;
+        }
+
+        Mono<MemberData> join(long userId) {
+            return waiters.computeIfAbsent(userId, id -> Sinks.one()).asMono();
+        }
+
+        int size() {
+            return waiters.size();
+        }
+
+        void complete(MemberData data) {
+            Sinks.One<MemberData> sink = waiters.get(Snowflake.asLong(data.user().id()));
+            if (sink != null) {
+                sink.tryEmitValue(data);
+            }
+        }
+
+        void error(Throwable t) {
+            waiters.values().forEach(sink -> sink.tryEmitError(t));
+        }
+
+        void completeRemaining() {
+            waiters.values().forEach(Sinks.Empty::tryEmitEmpty);
+        }
+    }
+}
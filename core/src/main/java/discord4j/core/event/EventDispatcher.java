@@ -18,6 +18,8 @@
 package discord4j.core.event;
 
 import discord4j.common.LogUtil;
+import discord4j.common.VirtualThreadSchedulers;
+import discord4j.common.annotations.Experimental;
 import discord4j.core.event.domain.Event;
 import discord4j.core.event.domain.guild.GuildCreateEvent;
 import discord4j.core.event.domain.lifecycle.GatewayLifecycleEvent;
@@ -58,6 +60,17 @@ public interface EventDispatcher {
     Logger log = Loggers.getLogger(EventDispatcher.class);
     Supplier<Scheduler> DEFAULT_EVENT_SCHEDULER = () -> ForkJoinPoolScheduler.create("d4j-events");
 
+    /**
+     * Creates a {@link Scheduler} publishing events on virtual threads on JDK 21 or later, falling back to
+     * {@link #DEFAULT_EVENT_SCHEDULER} on earlier versions. Each subscriber still receives its events one at a time,
+     * but a subscriber blocking in its handler only parks its own virtual thread instead of a shared pool thread.
+     *
+     * @see VirtualThreadSchedulers
+     */
+    @Experimental
+    Supplier<Scheduler> VIRTUAL_THREAD_EVENT_SCHEDULER = () ->
+            VirtualThreadSchedulers.newSchedulerOrElse("d4j-events-vt", DEFAULT_EVENT_SCHEDULER);
+
     /**
      * Retrieves a {@link Flux} with elements of the given {@link Event} type. This {@link Flux} has to be subscribed to
      * in order to start processing. See {@link Event} class for the list of possible event classes.
@@ -348,6 +361,17 @@ public interface EventDispatcher {
          */
         DefaultEventDispatcher.Builder eventScheduler(Scheduler eventScheduler);
 
+        /**
+         * Set this dispatcher to publish events to its subscribers on virtual threads, if the running JDK supports
+         * them, using {@link #VIRTUAL_THREAD_EVENT_SCHEDULER}. Recommended when subscribers run blocking code.
+         *
+         * @return this builder
+         */
+        @Experimental
+        default DefaultEventDispatcher.Builder virtualThreadEventScheduler() {
+            return eventScheduler(VIRTUAL_THREAD_EVENT_SCHEDULER.get());
+        }
+
         /**
          * Create the {@link EventDispatcher}
          *
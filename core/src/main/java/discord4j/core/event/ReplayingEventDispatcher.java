@@ -218,6 +218,11 @@ public class ReplayingEventDispatcher implements EventDispatcher {
             return this;
         }
 
+        @Override
+        public Builder virtualThreadEventScheduler() {
+            return eventScheduler(VIRTUAL_THREAD_EVENT_SCHEDULER.get());
+        }
+
         /**
          * Set a processor used to store events while no subscribers are connected and will be forwarded to all late
          * subscribers.
@@ -155,6 +155,16 @@ public class SinksEventDispatcher implements EventDispatcher {
             return this;
         }
 
+        /**
+         * Set this dispatcher to publish events to its subscribers on virtual threads, if the running JDK supports
+         * them, using {@link EventDispatcher#VIRTUAL_THREAD_EVENT_SCHEDULER}.
+         *
+         * @return this builder
+         */
+        public Builder virtualThreadEventScheduler() {
+            return eventScheduler(VIRTUAL_THREAD_EVENT_SCHEDULER.get());
+        }
+
         public EventDispatcher build() {
             if (this.eventSinkFactory == null) {
                 this.eventSinkFactory = spec -> spec.multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
@@ -28,6 +28,7 @@ import discord4j.core.spec.GuildMemberEditSpec;
 import discord4j.core.spec.MemberBanQueryMono;
 import discord4j.core.spec.legacy.LegacyBanQuerySpec;
 import discord4j.core.spec.legacy.LegacyGuildMemberEditSpec;
+import discord4j.core.state.PermissionCache;
 import discord4j.core.util.ImageUtil;
 import discord4j.core.util.OrderUtil;
 import discord4j.core.util.PermissionUtil;
@@ -531,7 +532,9 @@ public class PartialMember extends User {
     }
 
     /**
-     * Requests to calculate the permissions granted to this member by his roles in the guild.
+     * Requests to calculate the permissions granted to this member by his roles in the guild. If a
+     * {@link PermissionCache} is enabled, a previously computed result is reused until the roles of this member, the
+     * roles of the guild or the guild owner change.
      *
      * @return The permissions granted to this member by his roles in the guild.
      */
@@ -540,9 +543,12 @@ public class PartialMember extends User {
         Mono<PermissionSet> getEveryonePerms = getGuild().flatMap(Guild::getEveryoneRole).map(Role::getPermissions);
         Mono<List<PermissionSet>> getRolePerms = getRoles().map(Role::getPermissions).collectList();
 
-        return getIsOwner.filter(Predicate.isEqual(Boolean.TRUE))
+        Mono<PermissionSet> computation = getIsOwner.filter(Predicate.isEqual(Boolean.TRUE))
             .flatMap(ignored -> Mono.just(PermissionSet.all()))
             .switchIfEmpty(Mono.zip(getEveryonePerms, getRolePerms, PermissionUtil::computeBasePermissions));
+
+        return getClient().getGatewayResources().getPermissionCache()
+            .getBasePermissions(getGuildId(), getId(), getRoleIds(), computation);
     }
 
     /**
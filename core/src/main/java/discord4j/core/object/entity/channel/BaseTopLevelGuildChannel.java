@@ -43,7 +43,7 @@ public class BaseTopLevelGuildChannel extends BaseChannel implements TopLevelGui
 
     @Override
     public Mono<PermissionSet> getEffectivePermissions(Member member) {
-        return member.getBasePermissions().map(basePerms -> {
+        Mono<PermissionSet> computation = member.getBasePermissions().map(basePerms -> {
             PermissionOverwrite everyoneOverwrite = getOverwriteForRole(getGuildId()).orElse(null);
 
             List<PermissionOverwrite> roleOverwrites = member.getRoleIds().stream()
@@ -54,5 +54,8 @@ public class BaseTopLevelGuildChannel extends BaseChannel implements TopLevelGui
 
             return PermissionUtil.computePermissions(basePerms, everyoneOverwrite, roleOverwrites, memberOverwrite);
         });
+
+        return getClient().getGatewayResources().getPermissionCache()
+                .getEffectivePermissions(getGuildId(), getId(), member.getId(), member.getRoleIds(), computation);
     }
 }
\ No newline at end of file
@@ -59,7 +59,9 @@ public interface GuildChannel extends Channel {
     }
 
     /**
-     * Gets the permissions for the given member, taking into account permission overwrites in this channel.
+     * Gets the permissions for the given member, taking into account permission overwrites in this channel. If a
+     * {@link discord4j.core.state.PermissionCache} is enabled, a previously computed result is reused until it is
+     * invalidated by a relevant gateway update.
      *
      * @param memberId The ID of the member to get permissions for.
      * @return The permissions for the given member.
@@ -67,7 +69,9 @@ public interface GuildChannel extends Channel {
     Mono<PermissionSet> getEffectivePermissions(Snowflake memberId);
 
     /**
-     * Gets the permissions for the given member, taking into account permission overwrites in this channel.
+     * Gets the permissions for the given member, taking into account permission overwrites in this channel. If a
+     * {@link discord4j.core.state.PermissionCache} is enabled, a previously computed result is reused until it is
+     * invalidated by a relevant gateway update.
      *
      * @param member The member to get permissions for.
      * @return The permissions for the given member.
@@ -0,0 +1,210 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.gateway.SessionInfo;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A {@link ShardCoordinationState} stored in a directory and guarded by file locks, sharing state between processes
+ * running on the same host.
+ * <p>
+ * Each IDENTIFY bucket holds its next free slot in its own file, connected shards are kept in a bitset file, and
+ * resumable sessions are written to one file per shard. Timestamps use the system clock, which every process on the
+ * host shares. Shards marked as connected by a process that crashed remain counted until they connect and disconnect
+ * again, so the directory should be cleared before a cold start of the whole cluster.
+ */
+@Experimental
+public class FileShardCoordinationState implements ShardCoordinationState {
+
+    private static final String CONNECTED_FILE = "connected";
+
+    // file locks are held by the whole JVM, threads of this process must be serialized separately, including across
+    // instances sharing a directory
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Scheduler scheduler;
+
+    private FileShardCoordinationState(Path directory, Scheduler scheduler) {
+        this.directory = directory;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Create a new {@link FileShardCoordinationState} in the given directory, creating it if needed. Every process
+     * coordinating the same shard group must use the same directory.
+     *
+     * @param directory the directory holding the shared state
+     * @return a new {@link FileShardCoordinationState}
+     */
+    public static FileShardCoordinationState create(Path directory) {
+        return create(directory, Schedulers.boundedElastic());
+    }
+
+    /**
+     * Create a new {@link FileShardCoordinationState} in the given directory, creating it if needed. Every process
+     * coordinating the same shard group must use the same directory.
+     *
+     * @param directory the directory holding the shared state
+     * @param scheduler the {@link Scheduler} running blocking file operations
+     * @return a new {@link FileShardCoordinationState}
+     */
+    public static FileShardCoordinationState create(Path directory, Scheduler scheduler) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new FileShardCoordinationState(directory, scheduler);
+    }
+
+    @Override
+    public Mono<Duration> reserveIdentify(int bucket, Duration interval) {
+        return Mono.fromCallable(() -> withLock(directory.resolve("identify-" + bucket), false, channel -> {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            long now = System.currentTimeMillis();
+            long last = readFully(channel, buffer) == Long.BYTES ? buffer.getLong(0) : 0;
+            long slot = last == 0 ? now : Math.max(now, last + interval.toMillis());
+            buffer.clear();
+            buffer.putLong(0, slot);
+            channel.write(buffer, 0);
+            return Duration.ofMillis(slot - now);
+        })).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> setConnected(int shardIndex, boolean connected) {
+        return Mono.<Void>fromCallable(() -> withLock(directory.resolve(CONNECTED_FILE), false, channel -> {
+            int length = Math.max((int) channel.size(), shardIndex / 8 + 1);
+            ByteBuffer bits = ByteBuffer.allocate(length);
+            readFully(channel, bits);
+            int index = shardIndex / 8;
+            byte mask = (byte) (1 << (shardIndex % 8));
+            bits.put(index, (byte) (connected ? bits.get(index) | mask : bits.get(index) & ~mask));
+            bits.clear();
+            channel.write(bits, 0);
+            return null;
+        })).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Integer> getConnectedCount() {
+        return Mono.fromCallable(() -> withLock(directory.resolve(CONNECTED_FILE), true, channel -> {
+            ByteBuffer bits = ByteBuffer.allocate((int) channel.size());
+            readFully(channel, bits);
+            int count = 0;
+            for (int i = 0; i < bits.capacity(); i++) {
+                count += Integer.bitCount(bits.get(i) & 0xFF);
+            }
+            return count;
+        })).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> putSession(int shardIndex, @Nullable SessionInfo sessionInfo) {
+        return Mono.<Void>fromCallable(() -> {
+            Path file = sessionFile(shardIndex);
+            if (sessionInfo == null) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            // write then move, so readers never see a partial session
+            Path temp = Files.createTempFile(directory, "session-", ".tmp");
+            try {
+                String content = sessionInfo.getId() + '\n' + sessionInfo.getSequence();
+                Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return null;
+        }).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<SessionInfo> getSession(int shardIndex) {
+        return Mono.fromCallable(() -> {
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(sessionFile(shardIndex), StandardCharsets.UTF_8);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+            if (lines.size() < 2) {
+                return null;
+            }
+            return SessionInfo.create(lines.get(0), Integer.parseInt(lines.get(1)));
+        }).subscribeOn(scheduler);
+    }
+
+    private Path sessionFile(int shardIndex) {
+        return directory.resolve("session-" + shardIndex);
+    }
+
+    private <T> T withLock(Path file, boolean shared, LockedOperation<T> operation) throws IOException {
+        Object monitor = MONITORS.computeIfAbsent(file.toAbsolutePath().normalize(), k -> new Object());
+        synchronized (monitor) {
+            try (FileChannel channel = FileChannel.open(file, READ, WRITE, CREATE);
+                 FileLock ignored = channel.lock(0, Long.MAX_VALUE, shared)) {
+                return operation.apply(channel);
+            }
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface LockedOperation<T> {
+
+        T apply(FileChannel channel) throws IOException;
+    }
+}
@@ -21,6 +21,7 @@ import discord4j.common.LogUtil;
 import discord4j.common.ReactorResources;
 import discord4j.common.annotations.Experimental;
 import discord4j.common.retry.ReconnectOptions;
+import discord4j.common.sinks.EmissionStrategy;
 import discord4j.common.store.Store;
 import discord4j.common.store.action.gateway.GatewayActions;
 import discord4j.common.store.impl.LocalStoreLayout;
@@ -35,8 +36,11 @@ import discord4j.core.event.dispatch.DispatchEventMapper;
 import discord4j.core.event.domain.Event;
 import discord4j.core.object.entity.Guild;
 import discord4j.core.object.entity.Member;
+import discord4j.core.object.entity.channel.GuildChannel;
 import discord4j.core.object.presence.ClientPresence;
 import discord4j.core.retriever.EntityRetrievalStrategy;
+import discord4j.core.state.PermissionCache;
+import discord4j.discordjson.json.GatewayData;
 import discord4j.discordjson.json.gateway.GuildMembersChunk;
 import discord4j.discordjson.json.gateway.StatusUpdate;
 import discord4j.gateway.*;
@@ -48,6 +52,8 @@ import discord4j.gateway.payload.JacksonPayloadReader;
 import discord4j.gateway.payload.JacksonPayloadWriter;
 import discord4j.gateway.payload.PayloadReader;
 import discord4j.gateway.payload.PayloadWriter;
+import discord4j.gateway.metrics.GatewayMetrics;
+import discord4j.gateway.replay.GatewayRecorder;
 import discord4j.gateway.retry.GatewayStateChange;
 import discord4j.gateway.state.DispatchStoreLayer;
 import discord4j.gateway.state.StatefulDispatch;
@@ -71,6 +77,7 @@ import reactor.netty.resources.ConnectionProvider;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
@@ -79,6 +86,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import static discord4j.common.LogUtil.format;
@@ -121,7 +129,9 @@ public class GatewayBootstrap<O extends GatewayOptions> {
     private @Nullable ShardCoordinator shardCoordinator = null;
     private @Nullable EventDispatcher eventDispatcher = null;
     private @Nullable Store store = null;
+    private @Nullable PermissionCache permissionCache = null;
     private @Nullable MemberRequestFilter memberRequestFilter = null;
+    private MemberRequestCoalescing memberRequestCoalescing = MemberRequestCoalescing.disabled();
     private Function<ShardInfo, @Nullable ClientPresence> initialPresence = shard -> null;
     private Function<ShardInfo, @Nullable SessionInfo> resumeOptions = shard -> null;
     private IntentSet intents = IntentSet.nonPrivileged();
@@ -139,6 +149,9 @@ public class GatewayBootstrap<O extends GatewayOptions> {
     private @Nullable DispatchEventMapper dispatchEventMapper = null;
     private int maxMissedHeartbeatAck = 1;
     private @Nullable Function<EventDispatcher, Publisher<?>> dispatcherFunction;
+    private Function<ShardInfo, GatewayRecorder> gatewayRecorder = shard -> GatewayRecorder.NOOP;
+    private Function<ShardInfo, GatewayMetrics> gatewayMetrics = shard -> GatewayMetrics.NOOP;
+    private @Nullable String gatewayUrl = null;
 
     /**
      * Create a default {@link GatewayBootstrap} based off the given {@link DiscordClient} that provides an instance
@@ -165,7 +178,9 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         this.shardCoordinator = source.shardCoordinator;
         this.eventDispatcher = source.eventDispatcher;
         this.store = source.store;
+        this.permissionCache = source.permissionCache;
         this.memberRequestFilter = source.memberRequestFilter;
+        this.memberRequestCoalescing = source.memberRequestCoalescing;
         this.initialPresence = source.initialPresence;
         this.resumeOptions = source.resumeOptions;
         this.intents = source.intents;
@@ -183,6 +198,9 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         this.dispatchEventMapper = source.dispatchEventMapper;
         this.maxMissedHeartbeatAck = source.maxMissedHeartbeatAck;
         this.dispatcherFunction = source.dispatcherFunction;
+        this.gatewayRecorder = source.gatewayRecorder;
+        this.gatewayMetrics = source.gatewayMetrics;
+        this.gatewayUrl = source.gatewayUrl;
     }
 
     /**
@@ -272,6 +290,35 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         return this;
     }
 
+    /**
+     * Set a {@link PermissionCache} to reuse computed member permissions across calls to
+     * {@link Member#getBasePermissions()} and {@link GuildChannel#getEffectivePermissions(Member)}. The cache is
+     * invalidated as role, member, channel and guild updates are received. Defaults to
+     * {@link PermissionCache#disabled()}.
+     *
+     * @param permissionCache the {@link PermissionCache} to use, or {@code null} to disable caching
+     * @return this builder
+     */
+    @Experimental
+    public GatewayBootstrap<O> setPermissionCache(@Nullable PermissionCache permissionCache) {
+        this.permissionCache = permissionCache;
+        return this;
+    }
+
+    /**
+     * Set a {@link MemberRequestCoalescing} policy to merge lookups made through
+     * {@link GatewayDiscordClient#requestMembers(Snowflake, Set)} for the same guild into fewer gateway payloads.
+     * Defaults to {@link MemberRequestCoalescing#disabled()}.
+     *
+     * @param memberRequestCoalescing the coalescing policy, trading lookup latency for gateway send budget
+     * @return this builder
+     */
+    @Experimental
+    public GatewayBootstrap<O> setMemberRequestCoalescing(MemberRequestCoalescing memberRequestCoalescing) {
+        this.memberRequestCoalescing = Objects.requireNonNull(memberRequestCoalescing);
+        return this;
+    }
+
     /**
      * Set a {@link MemberRequestFilter} to determine how this shard group should request guild members. The provided
      * filter is applied on each GUILD_CREATE payload and if returns {@code true}, members will be requested for the
@@ -540,6 +587,47 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         return this;
     }
 
+    /**
+     * Set a {@link GatewayRecorder} for each joining shard, receiving the raw compressed frames of its Gateway
+     * connection. Use {@link discord4j.gateway.replay.FileGatewayRecorder} to capture traffic that can be later fed
+     * through {@link discord4j.gateway.replay.ReplayGatewayClient}. Defaults to not recording.
+     *
+     * @param gatewayRecorder a {@link Function} to derive a {@link GatewayRecorder} for each shard
+     * @return this builder
+     */
+    @Experimental
+    public GatewayBootstrap<O> setGatewayRecorder(Function<ShardInfo, GatewayRecorder> gatewayRecorder) {
+        this.gatewayRecorder = Objects.requireNonNull(gatewayRecorder);
+        return this;
+    }
+
+    /**
+     * Set a {@link GatewayMetrics} for each joining shard, receiving sizes, timings and counters of its Gateway
+     * connection. Use {@link discord4j.gateway.metrics.InMemoryGatewayMetrics} for a reference implementation
+     * keeping latency histograms in memory. Defaults to {@link GatewayMetrics#NOOP}, skipping all measurements.
+     *
+     * @param gatewayMetrics a {@link Function} to derive a {@link GatewayMetrics} for each shard
+     * @return this builder
+     */
+    @Experimental
+    public GatewayBootstrap<O> setGatewayMetrics(Function<ShardInfo, GatewayMetrics> gatewayMetrics) {
+        this.gatewayMetrics = Objects.requireNonNull(gatewayMetrics);
+        return this;
+    }
+
+    /**
+     * Set a fixed Gateway URL to connect to, skipping the REST request to retrieve it. Query parameters for encoding
+     * and compression are appended automatically. Defaults to {@code null}, retrieving the URL from Discord.
+     *
+     * @param gatewayUrl the base Gateway URL, or {@code null} to retrieve it from Discord
+     * @return this builder
+     */
+    @Experimental
+    public GatewayBootstrap<O> setGatewayUrl(@Nullable String gatewayUrl) {
+        this.gatewayUrl = gatewayUrl;
+        return this;
+    }
+
     /**
      * Set an initial subscriber to the bootstrapped {@link EventDispatcher} to gain access to early startup events. The
      * subscriber is derived from the given {@link Function} which returns a {@link Publisher} that is subscribed early
@@ -624,7 +712,8 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                     GatewayResources resources = new GatewayResources(store, eventDispatcher, shardCoordinator,
                             b.initMemberRequestFilter(b.intents), gatewayReactorResources,
                             b.initVoiceReactorResources(),
-                            b.initReconnectOptions(voiceReactorResources), b.intents);
+                            b.initReconnectOptions(voiceReactorResources), b.intents, b.initPermissionCache(),
+                            b.memberRequestCoalescing);
                     Sinks.Empty<Void> onCloseSink = Sinks.empty();
                     AtomicReference<@Nullable Throwable> dispatcherFunctionError = new AtomicReference<>();
                     EntityRetrievalStrategy entityRetrievalStrategy = b.initEntityRetrievalStrategy();
@@ -632,8 +721,10 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                     Set<String> completingChunkNonces = ConcurrentHashMap.newKeySet();
 
                     GatewayClientGroupManager clientGroup = b.shardingStrategy.getGroupManager(count);
+                    LiveResharding resharding = new LiveResharding(clientGroup, store);
                     GatewayDiscordClient gateway = new GatewayDiscordClient(b.client, resources, onCloseSink.asMono(),
-                            clientGroup, b.voiceConnectionFactory, entityRetrievalStrategy, completingChunkNonces);
+                            clientGroup, b.voiceConnectionFactory, entityRetrievalStrategy, completingChunkNonces,
+                            resharding::reshard);
                     Mono<Void> destroySequence = Mono.deferContextual(ctx -> b.destroyHandler.apply(gateway)
                             .doFinally(s -> {
                                 log.info(format(ctx, "All shards disconnected"));
@@ -646,13 +737,17 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                             }))
                             .cache();
 
-                    Flux<ShardInfo> connections = b.shardingStrategy.getMaxConcurrency(b.client)
-                            .flatMapMany(maxConcurrency -> b.shardingStrategy.getShards(count)
-                                .groupBy(shard -> shard.getIndex() % maxConcurrency)
-                                .flatMap(group -> group.concatMap(shard -> acquireConnection(b, shard, clientFactory,
-                                        gateway, shardCoordinator, store, eventDispatcher, clientGroup,
-                                        onCloseSink, dispatchMapper, completingChunkNonces,
-                                        destroySequence.contextWrite(buildContext(gateway, shard)), maxConcurrency))));
+                    IntFunction<Flux<ShardInfo>> connector = shardCount ->
+                            b.shardingStrategy.getMaxConcurrency(b.client)
+                                    .flatMapMany(maxConcurrency -> b.shardingStrategy.getShards(shardCount)
+                                        .groupBy(shard -> shard.getIndex() % maxConcurrency)
+                                        .flatMap(group -> group.concatMap(shard -> acquireConnection(b, shard,
+                                                clientFactory, gateway, shardCoordinator, store, eventDispatcher,
+                                                clientGroup, onCloseSink, dispatchMapper, completingChunkNonces,
+                                                resharding, destroySequence.contextWrite(buildContext(gateway, shard)),
+                                                maxConcurrency))));
+                    resharding.setConnector(connector);
+                    Flux<ShardInfo> connections = connector.apply(count);
 
                     Supplier<Mono<Void>> withEventDispatcherFunction = () ->
                             Flux.from(Objects.requireNonNull(b.dispatcherFunction).apply(eventDispatcher))
@@ -723,6 +818,7 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                                               Sinks.Empty<Void> onCloseSink,
                                               DispatchEventMapper dispatchMapper,
                                               Set<String> completingChunkNonces,
+                                              LiveResharding resharding,
                                               Mono<Void> destroySequence,
                                               int maxConcurrency) {
         return Mono.deferContextual(ctx ->
@@ -740,18 +836,23 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                     ReconnectOptions reconnectOptions = initReconnectOptions(resources);
                     GatewayOptions options = new GatewayOptions(client.getCoreResources().getToken(),
                             resources, initPayloadReader(), initPayloadWriter(), reconnectOptions,
-                            identify, gatewayObserver, limiter, maxMissedHeartbeatAck);
+                            identify, gatewayObserver, limiter, maxMissedHeartbeatAck, false,
+                            EmissionStrategy.park(Duration.ofMillis(10)), gatewayRecorder.apply(shard),
+                            gatewayMetrics.apply(shard));
                     GatewayClient gatewayClient = clientFactory.apply(this.optionsModifier.apply(options));
-                    clientGroup.add(shard.getIndex(), gatewayClient);
+                    clientGroup.add(shard, gatewayClient);
                     DispatchStoreLayer dispatchStoreLayer = DispatchStoreLayer.create(store, shard);
+                    PermissionCache permissionCache = gateway.getGatewayResources().getPermissionCache();
 
                     // wire gateway events to EventDispatcher
                     Disposable.Composite forCleanup = Disposables.composite();
                     forCleanup.add(gatewayClient.dispatch()
                             .takeUntilOther(onCloseSink.asMono())
                             .checkpoint("Read payload from gateway")
+                            .filter(dispatch -> resharding.accept(shard, dispatch))
                             .flatMap(dispatchStoreLayer::store)
                             .checkpoint("Write gateway update to the store")
+                            .doOnNext(statefulDispatch -> permissionCache.invalidate(statefulDispatch.getDispatch()))
                             .flatMap(statefulDispatch -> {
                                 if (!(statefulDispatch.getDispatch() instanceof GuildMembersChunk)) {
                                     return Mono.just(statefulDispatch);
@@ -768,6 +869,7 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                                             return Mono.just(statefulDispatch);
                                         });
                             })
+                            .filter(statefulDispatch -> resharding.shouldPublish(shard, statefulDispatch.getDispatch()))
                             .flatMap(statefulDispatch -> {
                                 DispatchContext<?, ?> context = DispatchContext.of(statefulDispatch, gateway);
                                 return dispatchMapper.handle(context)
@@ -803,8 +905,12 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                                         session = SessionInfo.create(gatewayClient.getSessionId(),
                                                 gatewayClient.getSequence());
                                     case DISCONNECTED:
+                                        if (resharding.isRetired(shard)) {
+                                            // replaced by a new shard count, which now owns this index
+                                            return Mono.empty();
+                                        }
                                         return shardCoordinator.publishDisconnected(shard, session)
-                                                .then(Mono.fromRunnable(() -> clientGroup.remove(shard.getIndex())))
+                                                .then(Mono.fromRunnable(() -> clientGroup.remove(shard)))
                                                 .then(shardCoordinator.getConnectedCount()
                                                         .filter(count -> count == 0)
                                                         .flatMap(__ -> destroySequence))
@@ -822,18 +928,15 @@ public class GatewayBootstrap<O extends GatewayOptions> {
                                     t -> log.error(format(ctx, "Lifecycle listener terminated with an error"), t),
                                     () -> log.debug(format(ctx, "Lifecycle listener completed"))));
 
-                    forCleanup.add(b.client.getGatewayService()
-                            .getGateway()
-                            .doOnSubscribe(s -> log.debug(format(ctx, "Acquiring gateway endpoint")))
-                            .retryWhen(Retry.backoff(
-                                    reconnectOptions.getMaxRetries(), reconnectOptions.getFirstBackoff())
-                                    .maxBackoff(reconnectOptions.getMaxBackoffInterval()))
-                            .flatMap(response -> gatewayClient.execute(
-                                    RouteUtils.expandQuery(response.url(), getGatewayParameters())))
+                    forCleanup.add(initGatewayUrl(ctx, reconnectOptions)
+                            .flatMap(url -> gatewayClient.execute(
+                                    RouteUtils.expandQuery(url, getGatewayParameters())))
                             .doOnError(sink::error) // only useful for startup errors
                             .doFinally(__ -> {
                                 sink.success(); // no-op if we completed it before
-                                onCloseSink.emitEmpty(OPTIMISTIC);
+                                if (!resharding.isRetired(shard)) {
+                                    onCloseSink.emitEmpty(OPTIMISTIC);
+                                }
                             })
                             .contextWrite(buildContext(gateway, shard))
                             .subscribe(null,
@@ -936,6 +1039,13 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         return Store.fromLayout(LocalStoreLayout.create());
     }
 
+    private PermissionCache initPermissionCache() {
+        if (this.permissionCache != null) {
+            return this.permissionCache;
+        }
+        return PermissionCache.disabled();
+    }
+
     private MemberRequestFilter initMemberRequestFilter(IntentSet intents) {
         if (this.memberRequestFilter != null) {
             return this.memberRequestFilter;
@@ -946,6 +1056,19 @@ public class GatewayBootstrap<O extends GatewayOptions> {
         }
     }
 
+    private Mono<String> initGatewayUrl(ContextView ctx, ReconnectOptions reconnectOptions) {
+        if (gatewayUrl != null) {
+            return Mono.just(gatewayUrl);
+        }
+        return client.getGatewayService()
+                .getGateway()
+                .doOnSubscribe(s -> log.debug(format(ctx, "Acquiring gateway endpoint")))
+                .retryWhen(Retry.backoff(
+                        reconnectOptions.getMaxRetries(), reconnectOptions.getFirstBackoff())
+                        .maxBackoff(reconnectOptions.getMaxBackoffInterval()))
+                .map(GatewayData::url);
+    }
+
     private Multimap<String, Object> getGatewayParameters() {
         final Multimap<String, Object> parameters = new Multimap<>(3);
         parameters.add("compress", "zlib-stream");
@@ -19,6 +19,10 @@ package discord4j.core.shard;
 
 import discord4j.gateway.GatewayClient;
 import discord4j.gateway.GatewayClientGroup;
+import discord4j.gateway.ShardInfo;
+
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * A {@link GatewayClientGroup} that allows adding or removing {@link GatewayClient}
@@ -41,4 +45,52 @@ interface GatewayClientGroupManager extends GatewayClientGroup {
      */
     void remove(int key);
 
+    /**
+     * Add a {@link GatewayClient} connected as the given shard. While resharding, clients of the new shard count are
+     * kept apart from the clients currently serving requests.
+     *
+     * @param shard the shard the client is connected as
+     * @param client the client to be managed
+     */
+    default void add(ShardInfo shard, GatewayClient client) {
+        add(shard.getIndex(), client);
+    }
+
+    /**
+     * Remove the {@link GatewayClient} connected as the given shard.
+     *
+     * @param shard the shard the client is connected as
+     */
+    default void remove(ShardInfo shard) {
+        remove(shard.getIndex());
+    }
+
+    /**
+     * Start accepting clients for a new shard count, next to the current ones.
+     *
+     * @param newShardCount the new total number of shards
+     * @throws UnsupportedOperationException if this group does not support resharding
+     */
+    default void beginResharding(int newShardCount) {
+        throw new UnsupportedOperationException("Resharding is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Make the clients added for the new shard count the current ones, used for requests and shard routing.
+     *
+     * @return the previously current clients, by shard index, to be drained by the caller
+     */
+    default Map<Integer, GatewayClient> completeResharding() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Discard the clients added for the new shard count, keeping the current ones.
+     *
+     * @return the clients added for the new shard count, by shard index, to be closed by the caller
+     */
+    default Map<Integer, GatewayClient> abortResharding() {
+        return Collections.emptyMap();
+    }
+
 }
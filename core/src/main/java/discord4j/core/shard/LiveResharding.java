@@ -0,0 +1,317 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.common.store.Store;
+import discord4j.common.store.action.gateway.GatewayActions;
+import discord4j.common.store.api.StoreAction;
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.json.gateway.*;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.ShardInfo;
+import discord4j.gateway.retry.GatewayStateChange;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Coordinates a live change of the shard count of a group: the new shards connect next to the current ones, and once
+ * they received their guilds, they take over routing and the previous shards are closed.
+ * <p>
+ * While both shard sets are connected, every event is received twice. Dispatches are deduplicated across the two
+ * shard sets before reaching the store by comparing their content, counting copies so identical events received
+ * several times by the same shard set are all kept, and each update is applied and published once. GUILD_CREATE
+ * payloads are deduplicated by guild, except the initial ones of the new shards, which refresh the store without
+ * being published again. The
+ * store keeps mapping guilds to the previous shards until the new ones take over, then anything received from the
+ * previous shards is dropped, including their disconnection, so closing them does not invalidate guilds now owned by
+ * the new shards.
+ */
+class LiveResharding {
+
+    private static final Logger log = Loggers.getLogger(LiveResharding.class);
+
+    private static final long DEDUPLICATION_WINDOW_NANOS = Duration.ofSeconds(30).toNanos();
+    private static final long PURGE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final Duration HANDOVER_TIMEOUT = Duration.ofMinutes(2);
+
+    private final GatewayClientGroupManager group;
+    private final Store store;
+    // shards replaced by a resharding, ShardInfo instances are cached so identity and count uniquely define them
+    private final Set<ShardInfo> retired = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable IntFunction<Flux<ShardInfo>> connector;
+    private volatile @Nullable Migration migration;
+
+    LiveResharding(GatewayClientGroupManager group, Store store) {
+        this.group = group;
+        this.store = store;
+    }
+
+    /**
+     * Set the function connecting every shard of a given shard count, emitting each shard once connected.
+     */
+    void setConnector(IntFunction<Flux<ShardInfo>> connector) {
+        this.connector = connector;
+    }
+
+    Mono<Void> reshard(int newShardCount) {
+        return Mono.defer(() -> {
+            IntFunction<Flux<ShardInfo>> connector = this.connector;
+            if (connector == null) {
+                return Mono.error(new IllegalStateException("Shards are not connected yet"));
+            }
+            int currentShardCount = group.getShardCount();
+            if (newShardCount <= currentShardCount) {
+                return Mono.error(new IllegalArgumentException("New shard count " + newShardCount +
+                        " must be greater than the current shard count " + currentShardCount));
+            }
+            Migration current;
+            synchronized (this) {
+                if (migration != null) {
+                    return Mono.error(new IllegalStateException("Resharding is already in progress"));
+                }
+                try {
+                    group.beginResharding(newShardCount);
+                } catch (RuntimeException e) {
+                    return Mono.error(e);
+                }
+                current = new Migration(currentShardCount, newShardCount);
+                migration = current;
+                // shards of a previously aborted attempt with the same count are closed by now
+                retired.removeIf(shard -> shard.getCount() == newShardCount);
+            }
+            log.info("Resharding from {} to {} shards", currentShardCount, newShardCount);
+            return connector.apply(newShardCount)
+                    .then(current.handover.asMono()
+                            .timeout(HANDOVER_TIMEOUT)
+                            .onErrorResume(TimeoutException.class, e -> {
+                                log.warn("Not every guild was received by the new shards within {}, " +
+                                        "continuing the handover", HANDOVER_TIMEOUT);
+                                return Mono.empty();
+                            }))
+                    .onErrorResume(t -> {
+                        log.warn("Resharding to {} shards failed, closing the new shards", newShardCount, t);
+                        return abort(current).then(Mono.error(t));
+                    })
+                    .then(Mono.defer(() -> complete(current)))
+                    .doOnSuccess(__ -> log.info("Resharding to {} shards completed", newShardCount))
+                    .doFinally(__ -> migration = null);
+        });
+    }
+
+    private Mono<Void> complete(Migration current) {
+        Map<Integer, GatewayClient> previous = group.completeResharding();
+        retire(current.oldShardCount);
+        return updateStore(GatewayActions.completeResharding(current.newShardCount))
+                .then(close(previous));
+    }
+
+    private Mono<Void> abort(Migration current) {
+        Map<Integer, GatewayClient> discarded = group.abortResharding();
+        retire(current.newShardCount);
+        return updateStore(GatewayActions.abortResharding(current.newShardCount))
+                .then(close(discarded));
+    }
+
+    private void retire(int shardCount) {
+        for (int index = 0; index < shardCount; index++) {
+            retired.add(ShardInfo.create(index, shardCount));
+        }
+    }
+
+    private Mono<Void> updateStore(StoreAction<Void> action) {
+        return Mono.from(store.execute(action))
+                .onErrorResume(t -> {
+                    log.warn("Unable to update the store for resharding", t);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static Mono<Void> close(Map<Integer, GatewayClient> clients) {
+        return Mono.whenDelayError(clients.values().stream()
+                .map(client -> client.close(false))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Return whether the given shard was replaced by a resharding and is, or will be, closed as part of it.
+     */
+    boolean isRetired(ShardInfo shard) {
+        return retired.contains(shard);
+    }
+
+    /**
+     * Return whether a dispatch received by the given shard should be applied to the store.
+     */
+    boolean accept(ShardInfo shard, Dispatch dispatch) {
+        if (retired.contains(shard)) {
+            return false;
+        }
+        Migration current = migration;
+        if (current == null || dispatch instanceof GatewayStateChange) {
+            return true;
+        }
+        boolean fromNewShards = shard.getCount() == current.newShardCount;
+        if (dispatch instanceof Ready) {
+            if (fromNewShards) {
+                current.onReady(shard, (Ready) dispatch);
+            }
+            return true;
+        }
+        if (dispatch instanceof GuildCreate) {
+            GuildCreate guildCreate = (GuildCreate) dispatch;
+            if (fromNewShards) {
+                current.onGuildCreate(shard, guildCreate);
+                if (current.isInitialGuild(shard, guildCreate)) {
+                    // the new shards take ownership of the guild, their copy refreshes the store
+                    return true;
+                }
+            }
+            // guilds joined or becoming available during the resharding are received by both shard sets
+            return current.firstSeen(current.guildCreates, guildCreate.guild().id().asLong(), shard.getCount());
+        }
+        return current.firstSeen(current.dispatches, dispatch, shard.getCount());
+    }
+
+    /**
+     * Return whether a dispatch received by the given shard should be published as an event.
+     */
+    boolean shouldPublish(ShardInfo shard, Dispatch dispatch) {
+        Migration current = migration;
+        if (current == null || shard.getCount() != current.newShardCount) {
+            return true;
+        }
+        if (dispatch instanceof Ready) {
+            return false;
+        }
+        if (dispatch instanceof GuildCreate) {
+            return !current.isInitialGuild(shard, (GuildCreate) dispatch);
+        }
+        return true;
+    }
+
+    private static class Migration {
+
+        private final int oldShardCount;
+        private final int newShardCount;
+        private final Sinks.Empty<Void> handover = Sinks.empty();
+        private final Map<Integer, Set<Long>> initialGuilds = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<Long>> pendingGuilds = new ConcurrentHashMap<>();
+        // dispatches received by one shard set and not yet by the other, retained for the deduplication window
+        private final Map<Dispatch, Pending> dispatches = new ConcurrentHashMap<>();
+        private final Map<Long, Pending> guildCreates = new ConcurrentHashMap<>();
+        private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+
+        Migration(int oldShardCount, int newShardCount) {
+            this.oldShardCount = oldShardCount;
+            this.newShardCount = newShardCount;
+        }
+
+        void onReady(ShardInfo shard, Ready ready) {
+            Set<Long> guildIds = ready.guilds().stream()
+                    .map(guild -> Snowflake.asLong(guild.id()))
+                    .collect(Collectors.toSet());
+            initialGuilds.put(shard.getIndex(), guildIds);
+            Set<Long> pending = ConcurrentHashMap.newKeySet();
+            pending.addAll(guildIds);
+            pendingGuilds.put(shard.getIndex(), pending);
+            checkHandover();
+        }
+
+        void onGuildCreate(ShardInfo shard, GuildCreate guildCreate) {
+            Set<Long> pending = pendingGuilds.get(shard.getIndex());
+            if (pending != null && pending.remove(guildCreate.guild().id().asLong()) && pending.isEmpty()) {
+                checkHandover();
+            }
+        }
+
+        boolean isInitialGuild(ShardInfo shard, GuildCreate guildCreate) {
+            Set<Long> guildIds = initialGuilds.get(shard.getIndex());
+            return guildIds != null && guildIds.contains(guildCreate.guild().id().asLong());
+        }
+
+        private void checkHandover() {
+            if (pendingGuilds.size() == newShardCount
+                    && pendingGuilds.values().stream().allMatch(Set::isEmpty)) {
+                handover.tryEmitEmpty();
+            }
+        }
+
+        <K> boolean firstSeen(Map<K, Pending> seen, K key, int shardCount) {
+            long now = System.nanoTime();
+            purge(now);
+            boolean[] first = new boolean[1];
+            seen.compute(key, (k, pending) -> {
+                if (pending == null || pending.shardCount == shardCount) {
+                    // another copy of an identical event, like a repeated typing start or reaction toggle
+                    first[0] = true;
+                    return pending == null ? new Pending(shardCount, 1, now) : pending.add(now);
+                }
+                // each event is received once per shard set, this copy matches one received by the other set
+                return pending.remove();
+            });
+            return first[0];
+        }
+
+        private void purge(long now) {
+            long last = lastPurge.get();
+            if (now - last > PURGE_INTERVAL_NANOS && lastPurge.compareAndSet(last, now)) {
+                dispatches.values().removeIf(entry -> now - entry.nanos > DEDUPLICATION_WINDOW_NANOS);
+                guildCreates.values().removeIf(entry -> now - entry.nanos > DEDUPLICATION_WINDOW_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Copies of an event received by one shard set and not yet matched by the other. Both copies of an event have the
+     * same content, and the sequence number differing between the two connections is not part of the dispatch.
+     */
+    private static class Pending {
+
+        private final int shardCount;
+        private final int copies;
+        private final long nanos;
+
+        Pending(int shardCount, int copies, long nanos) {
+            this.shardCount = shardCount;
+            this.copies = copies;
+            this.nanos = nanos;
+        }
+
+        Pending add(long now) {
+            return new Pending(shardCount, copies + 1, now);
+        }
+
+        @Nullable Pending remove() {
+            return copies == 1 ? null : new Pending(shardCount, copies - 1, nanos);
+        }
+    }
+}
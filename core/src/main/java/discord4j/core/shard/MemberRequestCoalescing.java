@@ -0,0 +1,128 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuration for coalescing member lookups by user ID. When enabled, calls to
+ * {@link GatewayDiscordClient#requestMembers(Snowflake, Set)} for the same guild made within a short window are
+ * merged into a single REQUEST_GUILD_MEMBERS payload of up to {@value #MAX_USER_IDS} user IDs. This saves gateway
+ * send budget, limited to 120 payloads per minute per shard, at the cost of added latency for each lookup.
+ * <p>
+ * A batch is sent once it reaches the maximum batch size or once the window elapses since its first lookup,
+ * whichever happens first.
+ */
+@Experimental
+public final class MemberRequestCoalescing {
+
+    /**
+     * The maximum number of user IDs Discord accepts in a single member request.
+     */
+    public static final int MAX_USER_IDS = 100;
+
+    /**
+     * The default coalescing window.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(50);
+
+    private static final MemberRequestCoalescing DISABLED = new MemberRequestCoalescing(Duration.ZERO, 1);
+
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private MemberRequestCoalescing(Duration window, int maxBatchSize) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Return a configuration sending each member lookup as its own request.
+     *
+     * @return a disabled coalescing configuration
+     */
+    public static MemberRequestCoalescing disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Return a configuration coalescing lookups over {@link #DEFAULT_WINDOW} into batches of up to
+     * {@value #MAX_USER_IDS} user IDs.
+     *
+     * @return a default coalescing configuration
+     */
+    public static MemberRequestCoalescing create() {
+        return create(DEFAULT_WINDOW, MAX_USER_IDS);
+    }
+
+    /**
+     * Return a configuration coalescing lookups with the given trade-off. A longer window and larger batches save more
+     * payloads, while a shorter window and smaller batches reduce the latency of each lookup.
+     *
+     * @param window the maximum time a lookup waits for other lookups to join its batch
+     * @param maxBatchSize the maximum number of user IDs in a batch, between 1 and {@value #MAX_USER_IDS}
+     * @return a coalescing configuration
+     */
+    public static MemberRequestCoalescing create(Duration window, int maxBatchSize) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        if (maxBatchSize < 1 || maxBatchSize > MAX_USER_IDS) {
+            throw new IllegalArgumentException("maxBatchSize must be between 1 and " + MAX_USER_IDS);
+        }
+        return new MemberRequestCoalescing(window, maxBatchSize);
+    }
+
+    /**
+     * Return whether member lookups are coalesced.
+     *
+     * @return {@code true} if lookups are coalesced, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * Return the maximum time a lookup waits for other lookups to join its batch.
+     *
+     * @return the coalescing window
+     */
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Return the maximum number of user IDs in a batch.
+     *
+     * @return the maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public String toString() {
+        return isEnabled() ? "MemberRequestCoalescing{window=" + window + ", maxBatchSize=" + maxBatchSize + '}'
+                : "MemberRequestCoalescing{disabled}";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.gateway.SessionInfo;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared state backing a {@link SharedShardCoordinator}, allowing shards connected from multiple processes to share
+ * IDENTIFY buckets, connected shard counts and resumable sessions. Implementations must apply each operation
+ * atomically with respect to every process using the same state.
+ *
+ * @see FileShardCoordinationState
+ */
+@Experimental
+public interface ShardCoordinationState {
+
+    /**
+     * Reserve the next IDENTIFY slot of a bucket. Slots of the same bucket are at least {@code interval} apart, and
+     * the reservation is returned as the delay to wait before identifying. Reserving slots instead of polling a
+     * token allows every waiting shard to identify at the earliest allowed time.
+     *
+     * @param bucket the IDENTIFY bucket, given by {@code shardIndex % maxConcurrency}
+     * @param interval the minimum time between two IDENTIFY payloads of the same bucket
+     * @return a {@link Mono} with the delay to wait before identifying, {@link Duration#ZERO} if it can be done now
+     */
+    Mono<Duration> reserveIdentify(int bucket, Duration interval);
+
+    /**
+     * Mark a shard as connected or disconnected.
+     *
+     * @param shardIndex the shard index
+     * @param connected whether the shard is now connected
+     * @return a {@link Mono} indicating when this operation has completed
+     */
+    Mono<Void> setConnected(int shardIndex, boolean connected);
+
+    /**
+     * Return the number of shards marked as connected, across every process.
+     *
+     * @return a {@link Mono} with the number of connected shards
+     */
+    Mono<Integer> getConnectedCount();
+
+    /**
+     * Store the resumable session of a shard, so that the process taking over the shard can resume it.
+     *
+     * @param shardIndex the shard index
+     * @param sessionInfo the session to store, or {@code null} to clear it
+     * @return a {@link Mono} indicating when this operation has completed
+     */
+    Mono<Void> putSession(int shardIndex, @Nullable SessionInfo sessionInfo);
+
+    /**
+     * Return the stored resumable session of a shard.
+     *
+     * @param shardIndex the shard index
+     * @return a {@link Mono} with the stored session, or empty if there is none
+     */
+    Mono<SessionInfo> getSession(int shardIndex);
+}
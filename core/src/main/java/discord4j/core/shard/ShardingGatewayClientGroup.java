@@ -18,20 +18,26 @@
 package discord4j.core.shard;
 
 import discord4j.gateway.GatewayClient;
+import discord4j.gateway.ShardInfo;
 import discord4j.gateway.json.GatewayPayload;
 import discord4j.gateway.json.ShardGatewayPayload;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class ShardingGatewayClientGroup implements GatewayClientGroupManager {
 
-    private final Map<Integer, GatewayClient> map = new ConcurrentHashMap<>();
-    private final int shardCount;
+    private volatile Map<Integer, GatewayClient> map = new ConcurrentHashMap<>();
+    private volatile int shardCount;
+    // clients of the new shard count while resharding, empty otherwise
+    private volatile Map<Integer, GatewayClient> next = Collections.emptyMap();
+    private volatile int nextShardCount;
 
     ShardingGatewayClientGroup(int shardCount) {
         this.shardCount = shardCount;
@@ -47,6 +53,51 @@ class ShardingGatewayClientGroup implements GatewayClientGroupManager {
         map.remove(key);
     }
 
+    @Override
+    public void add(ShardInfo shard, GatewayClient client) {
+        if (shard.getCount() == nextShardCount) {
+            next.put(shard.getIndex(), client);
+        } else {
+            map.put(shard.getIndex(), client);
+        }
+    }
+
+    @Override
+    public void remove(ShardInfo shard) {
+        if (shard.getCount() == nextShardCount) {
+            next.remove(shard.getIndex());
+        } else {
+            map.remove(shard.getIndex());
+        }
+    }
+
+    @Override
+    public synchronized void beginResharding(int newShardCount) {
+        if (nextShardCount != 0) {
+            throw new IllegalStateException("Resharding to " + nextShardCount + " shards is already in progress");
+        }
+        next = new ConcurrentHashMap<>();
+        nextShardCount = newShardCount;
+    }
+
+    @Override
+    public synchronized Map<Integer, GatewayClient> completeResharding() {
+        Map<Integer, GatewayClient> previous = map;
+        map = next;
+        shardCount = nextShardCount;
+        next = Collections.emptyMap();
+        nextShardCount = 0;
+        return previous;
+    }
+
+    @Override
+    public synchronized Map<Integer, GatewayClient> abortResharding() {
+        Map<Integer, GatewayClient> discarded = next;
+        next = Collections.emptyMap();
+        nextShardCount = 0;
+        return discarded;
+    }
+
     @Override
     public Optional<GatewayClient> find(int index) {
         return Optional.ofNullable(map.get(index));
@@ -59,8 +110,8 @@ class ShardingGatewayClientGroup implements GatewayClientGroupManager {
 
     @Override
     public Mono<Void> multicast(GatewayPayload<?> payload) {
-        return Flux.fromIterable(map.values())
-            
+        // while resharding, the new shards must receive the same updates, like presence changes
+        return Flux.concat(Flux.fromIterable(map.values()), Flux.fromIterable(next.values()))
                 .flatMap(client -> client.send(Mono.just(payload)))
                 .then();
     }
@@ -73,7 +124,7 @@ class ShardingGatewayClientGroup implements GatewayClientGroupManager {
 
     @Override
     public Mono<Void> logout() {
-        return Mono.whenDelayError(map.values().stream()
+        return Mono.whenDelayError(Stream.concat(map.values().stream(), next.values().stream())
                 .map(client -> client.close(false))
                 .collect(Collectors.toList()));
     }
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.gateway.SessionInfo;
+import discord4j.gateway.ShardInfo;
+import discord4j.gateway.limiter.PayloadTransformer;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static discord4j.common.LogUtil.format;
+
+/**
+ * A {@link ShardCoordinator} sharing its state across processes through a {@link ShardCoordinationState}, allowing
+ * shards of a single bot to be split over multiple processes while respecting IDENTIFY limits.
+ * <p>
+ * IDENTIFY payloads are limited per {@code shardIndex % maxConcurrency} bucket, across every process using the same
+ * state, by reserving slots one identify interval apart. A cold start of the whole cluster then takes the minimum
+ * time allowed by Discord, one interval per {@code maxConcurrency} shards, regardless of how shards are distributed.
+ * <p>
+ * Disconnecting shards store their resumable session, which a process taking over a shard can retrieve with
+ * {@link #getSession(int)} before logging in and supply through {@link GatewayBootstrap#setResumeOptions}.
+ */
+@Experimental
+public class SharedShardCoordinator implements ShardCoordinator {
+
+    private static final Logger log = Loggers.getLogger(SharedShardCoordinator.class);
+
+    /**
+     * The default minimum time between two IDENTIFY payloads of a bucket.
+     */
+    public static final Duration DEFAULT_IDENTIFY_INTERVAL = Duration.ofSeconds(6);
+
+    private final ShardCoordinationState state;
+    private final Duration identifyInterval;
+    private final Scheduler delayScheduler;
+
+    private SharedShardCoordinator(ShardCoordinationState state, Duration identifyInterval,
+                                   Scheduler delayScheduler) {
+        this.state = state;
+        this.identifyInterval = identifyInterval;
+        this.delayScheduler = delayScheduler;
+    }
+
+    /**
+     * Create a new {@link SharedShardCoordinator} backed by the given state, using
+     * {@link #DEFAULT_IDENTIFY_INTERVAL}.
+     *
+     * @param state the state shared with other processes
+     * @return a new {@link SharedShardCoordinator}
+     */
+    public static SharedShardCoordinator create(ShardCoordinationState state) {
+        return create(state, DEFAULT_IDENTIFY_INTERVAL, Schedulers.parallel());
+    }
+
+    /**
+     * Create a new {@link SharedShardCoordinator} backed by the given state.
+     *
+     * @param state the state shared with other processes
+     * @param identifyInterval the minimum time between two IDENTIFY payloads of a bucket
+     * @param delayScheduler the {@link Scheduler} used to delay IDENTIFY payloads
+     * @return a new {@link SharedShardCoordinator}
+     */
+    public static SharedShardCoordinator create(ShardCoordinationState state, Duration identifyInterval,
+                                                Scheduler delayScheduler) {
+        return new SharedShardCoordinator(Objects.requireNonNull(state), Objects.requireNonNull(identifyInterval),
+                Objects.requireNonNull(delayScheduler));
+    }
+
+    @Override
+    public PayloadTransformer getIdentifyLimiter(ShardInfo shardInfo, int maxConcurrency) {
+        int bucket = shardInfo.getIndex() % maxConcurrency;
+        return sequence -> Flux.from(sequence)
+                .concatMap(payload -> state.reserveIdentify(bucket, identifyInterval)
+                        .onErrorResume(t -> {
+                            // without shared state, waiting a whole interval is the only safe choice
+                            log.warn("Unable to reserve IDENTIFY slot for bucket {}: {}", bucket, t.toString());
+                            return Mono.just(identifyInterval);
+                        })
+                        .flatMap(delay -> delay.isZero() ? Mono.just(payload)
+                                : Mono.delay(delay, delayScheduler).thenReturn(payload)))
+                .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease);
+    }
+
+    @Override
+    public Mono<Void> publishConnected(ShardInfo shardInfo) {
+        return Mono.deferContextual(ctx -> state.setConnected(shardInfo.getIndex(), true)
+                // the live session supersedes any session stored for a handoff
+                .then(state.putSession(shardInfo.getIndex(), null))
+                .doOnSuccess(__ -> log.info(format(ctx, "Shard connected"))));
+    }
+
+    @Override
+    public Mono<Void> publishDisconnected(ShardInfo shardInfo, @Nullable SessionInfo sessionInfo) {
+        return Mono.deferContextual(ctx -> state.setConnected(shardInfo.getIndex(), false)
+                .then(state.putSession(shardInfo.getIndex(), sessionInfo))
+                .doOnSuccess(__ -> log.info(format(ctx, "Shard disconnected"))));
+    }
+
+    @Override
+    public Mono<Integer> getConnectedCount() {
+        return state.getConnectedCount();
+    }
+
+    /**
+     * Return the resumable session stored by the last process that disconnected the given shard.
+     *
+     * @param shardIndex the index of the shard to take over
+     * @return a {@link Mono} with the stored session, or empty if there is none
+     */
+    public Mono<SessionInfo> getSession(int shardIndex) {
+        return state.getSession(shardIndex);
+    }
+}
@@ -28,6 +28,7 @@ import discord4j.discordjson.json.gateway.VoiceStateUpdate;
 import discord4j.gateway.GatewayClientGroup;
 import discord4j.gateway.intent.Intent;
 import discord4j.gateway.json.ShardGatewayPayload;
+import discord4j.voice.AudioPacketReceiver;
 import discord4j.voice.AudioProvider;
 import discord4j.voice.AudioReceiver;
 import discord4j.voice.LocalVoiceReceiveTaskFactory;
@@ -103,6 +104,16 @@ interface AudioChannelJoinSpecGenerator extends Spec<Function<AudioChannel, Mono
         return AudioReceiver.NO_OP;
     }
 
+    /**
+     * Receiver of parsed audio packets, used instead of {@link #receiver()} when set.
+     *
+     * @return the {@link AudioPacketReceiver} for the created connection
+     */
+    @Value.Default
+    default AudioPacketReceiver packetReceiver() {
+        return AudioPacketReceiver.NO_OP;
+    }
+
     @Value.Default
     default VoiceSendTaskFactory sendTaskFactory() {
         return new LocalVoiceSendTaskFactory();
@@ -181,8 +192,8 @@ interface AudioChannelJoinSpecGenerator extends Spec<Function<AudioChannel, Mono
                                 gateway.getCoreResources().getJacksonResources(),
                                 gateway.getGatewayResources().getVoiceReactorResources(),
                                 gateway.getGatewayResources().getVoiceReconnectOptions(),
-                                provider(), receiver(), sendTaskFactory(), receiveTaskFactory(), disconnectTask,
-                                serverUpdateTask, stateUpdateTask, channelRetrieveTask,
+                                provider(), receiver(), packetReceiver(), sendTaskFactory(), receiveTaskFactory(),
+                                disconnectTask, serverUpdateTask, stateUpdateTask, channelRetrieveTask,
                                 ipDiscoveryTimeout(), ipDiscoveryRetrySpec());
 
                         return gateway.getVoiceConnectionFactory()
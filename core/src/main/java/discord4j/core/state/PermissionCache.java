@@ -0,0 +1,287 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.state;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import discord4j.common.annotations.Experimental;
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.json.gateway.*;
+import discord4j.rest.util.PermissionSet;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * A cache of computed member permissions, keyed by guild, channel and member.
+ * <p>
+ * Entries are invalidated as gateway updates are applied to the store: role updates and deletions drop the entries
+ * of members holding that role (or the whole guild for the everyone role), member updates and removals drop the
+ * entries of that member, channel updates and deletions drop the entries of that channel, and guild creates, updates
+ * and deletions drop the whole guild, covering ownership changes. Results computed concurrently with an invalidation
+ * are not cached. The number of entries is bounded, the least recently used ones being evicted first.
+ * <p>
+ * Each entry also records the role IDs it was computed for. Callers may hold a member snapshot taken before the
+ * latest member update, so a cached entry is only used when its roles match the roles given by the caller, and two
+ * computations for different roles never leave either result cached.
+ * <p>
+ * Since invalidation relies on gateway updates, the cache should only be enabled when the
+ * {@link discord4j.gateway.intent.Intent#GUILDS} and {@link discord4j.gateway.intent.Intent#GUILD_MEMBERS} intents
+ * are enabled.
+ */
+@Experimental
+public class PermissionCache {
+
+    /**
+     * The default maximum number of entries of an enabled cache.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final long BASE_PERMISSIONS = 0;
+    private static final PermissionCache DISABLED = new PermissionCache(false, 0);
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> entries;
+    // incremented before removing entries, so computations racing with an invalidation can detect it
+    private final AtomicLong version = new AtomicLong();
+
+    private PermissionCache(boolean enabled, long maximumSize) {
+        this.enabled = enabled;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                // evict on the calling thread, invalidations already run there
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Create a new enabled {@link PermissionCache} holding up to {@link #DEFAULT_MAXIMUM_SIZE} entries.
+     *
+     * @return a new permission cache
+     */
+    public static PermissionCache create() {
+        return create(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a new enabled {@link PermissionCache} holding up to the given number of entries, one entry being the
+     * permissions of a member in a channel, or their base permissions in a guild.
+     *
+     * @param maximumSize the maximum number of entries
+     * @return a new permission cache
+     */
+    public static PermissionCache create(long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        return new PermissionCache(true, maximumSize);
+    }
+
+    /**
+     * Return a {@link PermissionCache} that never caches, always running the given computations.
+     *
+     * @return a disabled permission cache
+     */
+    public static PermissionCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Return whether this cache stores computed permissions.
+     *
+     * @return {@code true} if this cache is enabled, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Return the base permissions of a member, granted by their roles in the guild, computing and caching them if
+     * they are not present.
+     *
+     * @param guildId the guild ID
+     * @param memberId the member ID
+     * @param roleIds the IDs of the roles of the member
+     * @param computation a {@link Mono} computing the permissions on cache miss
+     * @return a {@link Mono} emitting the cached or computed permissions
+     */
+    public Mono<PermissionSet> getBasePermissions(Snowflake guildId, Snowflake memberId, Set<Snowflake> roleIds,
+                                                  Mono<PermissionSet> computation) {
+        return get(new Key(guildId.asLong(), BASE_PERMISSIONS, memberId.asLong()), roleIds, computation);
+    }
+
+    /**
+     * Return the effective permissions of a member in a guild channel, computing and caching them if they are not
+     * present.
+     *
+     * @param guildId the guild ID
+     * @param channelId the channel ID
+     * @param memberId the member ID
+     * @param roleIds the IDs of the roles of the member
+     * @param computation a {@link Mono} computing the permissions on cache miss
+     * @return a {@link Mono} emitting the cached or computed permissions
+     */
+    public Mono<PermissionSet> getEffectivePermissions(Snowflake guildId, Snowflake channelId, Snowflake memberId,
+                                                       Set<Snowflake> roleIds, Mono<PermissionSet> computation) {
+        return get(new Key(guildId.asLong(), channelId.asLong(), memberId.asLong()), roleIds, computation);
+    }
+
+    /**
+     * Invalidate the entries affected by the given gateway dispatch. This method is meant to be called after the
+     * dispatch has been applied to the store.
+     *
+     * @param dispatch the gateway dispatch
+     */
+    public void invalidate(Dispatch dispatch) {
+        if (!enabled || entries.estimatedSize() == 0) {
+            return;
+        }
+        if (dispatch instanceof GuildRoleUpdate) {
+            GuildRoleUpdate update = (GuildRoleUpdate) dispatch;
+            invalidateRole(update.guildId().asLong(), update.role().id().asLong());
+        } else if (dispatch instanceof GuildRoleDelete) {
+            GuildRoleDelete delete = (GuildRoleDelete) dispatch;
+            invalidateRole(delete.guildId().asLong(), delete.roleId().asLong());
+        } else if (dispatch instanceof GuildMemberUpdate) {
+            GuildMemberUpdate update = (GuildMemberUpdate) dispatch;
+            invalidateMember(update.guildId().asLong(), update.user().id().asLong());
+        } else if (dispatch instanceof GuildMemberRemove) {
+            GuildMemberRemove remove = (GuildMemberRemove) dispatch;
+            invalidateMember(remove.guildId().asLong(), remove.user().id().asLong());
+        } else if (dispatch instanceof ChannelUpdate) {
+            ChannelUpdate update = (ChannelUpdate) dispatch;
+            update.channel().guildId().toOptional()
+                    .ifPresent(guildId -> invalidateChannel(guildId.asLong(), update.channel().id().asLong()));
+        } else if (dispatch instanceof ChannelDelete) {
+            ChannelDelete delete = (ChannelDelete) dispatch;
+            delete.channel().guildId().toOptional()
+                    .ifPresent(guildId -> invalidateChannel(guildId.asLong(), delete.channel().id().asLong()));
+        } else if (dispatch instanceof GuildUpdate) {
+            invalidateGuild(((GuildUpdate) dispatch).guild().id().asLong());
+        } else if (dispatch instanceof GuildCreate) {
+            invalidateGuild(((GuildCreate) dispatch).guild().id().asLong());
+        } else if (dispatch instanceof GuildDelete) {
+            invalidateGuild(((GuildDelete) dispatch).guild().id().asLong());
+        }
+    }
+
+    /**
+     * Invalidate every entry of this cache.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    private Mono<PermissionSet> get(Key key, Set<Snowflake> roleIds, Mono<PermissionSet> computation) {
+        if (!enabled) {
+            return computation;
+        }
+        return Mono.defer(() -> {
+            Entry cached = entries.getIfPresent(key);
+            if (cached != null && cached.roleIds.equals(roleIds)) {
+                return Mono.just(cached.permissions);
+            }
+            long expectedVersion = version.get();
+            return computation.doOnNext(permissions -> put(expectedVersion, key, new Entry(roleIds, permissions)));
+        });
+    }
+
+    private void put(long expectedVersion, Key key, Entry entry) {
+        if (version.get() != expectedVersion) {
+            return;
+        }
+        // a different role set means one of the callers held a stale member, drop both as we can't tell which
+        entries.asMap().compute(key, (k, old) -> old == null || old.roleIds.equals(entry.roleIds) ? entry : null);
+        if (version.get() != expectedVersion) {
+            entries.asMap().remove(key, entry);
+        }
+    }
+
+    private void invalidateGuild(long guildId) {
+        invalidateIf((key, entry) -> key.guildId == guildId);
+    }
+
+    private void invalidateRole(long guildId, long roleId) {
+        if (roleId == guildId) {
+            // the everyone role affects every member
+            invalidateGuild(guildId);
+            return;
+        }
+        Snowflake role = Snowflake.of(roleId);
+        invalidateIf((key, entry) -> key.guildId == guildId && entry.roleIds.contains(role));
+    }
+
+    private void invalidateMember(long guildId, long memberId) {
+        invalidateIf((key, entry) -> key.guildId == guildId && key.memberId == memberId);
+    }
+
+    private void invalidateChannel(long guildId, long channelId) {
+        invalidateIf((key, entry) -> key.guildId == guildId && key.channelId == channelId);
+    }
+
+    private void invalidateIf(BiPredicate<Key, Entry> predicate) {
+        version.incrementAndGet();
+        entries.asMap().entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue()));
+    }
+
+    private static class Key {
+
+        private final long guildId;
+        private final long channelId;
+        private final long memberId;
+
+        private Key(long guildId, long channelId, long memberId) {
+            this.guildId = guildId;
+            this.channelId = channelId;
+            this.memberId = memberId;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return guildId == key.guildId && channelId == key.channelId && memberId == key.memberId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(guildId, channelId, memberId);
+        }
+    }
+
+    private static class Entry {
+
+        private final Set<Snowflake> roleIds;
+        private final PermissionSet permissions;
+
+        private Entry(Set<Snowflake> roleIds, PermissionSet permissions) {
+            this.roleIds = roleIds;
+            this.permissions = permissions;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import discord4j.common.JacksonResources;
+import discord4j.common.close.CloseStatus;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.GuildMembersChunk;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.GatewayConnection;
+import discord4j.gateway.json.GatewayPayload;
+import io.netty.buffer.ByteBuf;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+public class MemberChunkRouterTest {
+
+    private final Sinks.Many<Dispatch> dispatches = Sinks.many().multicast().directBestEffort();
+    private MemberChunkRouter router;
+
+    @BeforeEach
+    public void setUp() {
+        router = new MemberChunkRouter(new DispatchGatewayClient(dispatches.asFlux()), Mono.never(),
+                Schedulers.parallel());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        router.dispose();
+    }
+
+    @Test
+    public void routesChunksByNonce() {
+        Flux<GuildMembersChunk> first = router.register("a", null);
+        Flux<GuildMembersChunk> second = router.register("b", null);
+
+        StepVerifier.create(second)
+                .then(() -> {
+                    emit(chunk(null, 0, 1));
+                    emit(chunk("b", 0, 1));
+                })
+                .expectNextMatches(chunk -> chunk.nonce().get().equals("b"))
+                .verifyComplete();
+
+        StepVerifier.create(first)
+                .then(() -> emit(chunk("a", 0, 1)))
+                .expectNextMatches(chunk -> chunk.nonce().get().equals("a"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void completesAfterChunkCount() {
+        StepVerifier.create(router.register("a", null))
+                .then(() -> emit(chunk("a", 0, 2)))
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> emit(chunk("a", 1, 2)))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void timesOutWithoutChunks() {
+        StepVerifier.create(router.register("a", Duration.ofMillis(10)))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void chunksKeepRequestAlive() {
+        // the timeout is checked every second, each chunk arrives before the request is idle for too long
+        StepVerifier.create(router.register("a", Duration.ofMillis(1500)))
+                .expectNoEvent(Duration.ofMillis(1000))
+                .then(() -> emit(chunk("a", 0, 2)))
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(1200))
+                .then(() -> emit(chunk("a", 1, 2)))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void disposeCompletesPendingRequests() {
+        Flux<GuildMembersChunk> pending = router.register("a", Duration.ofSeconds(10));
+        router.dispose();
+
+        StepVerifier.create(pending).verifyComplete();
+        StepVerifier.create(router.register("b", null)).verifyComplete();
+    }
+
+    private void emit(GuildMembersChunk chunk) {
+        dispatches.tryEmitNext(chunk);
+    }
+
+    private static GuildMembersChunk chunk(@Nullable String nonce, int index, int count) {
+        String json = "{\"guild_id\":\"1\",\"members\":[],\"chunk_index\":" + index + ",\"chunk_count\":" + count +
+                ",\"not_found\":[]" + (nonce == null ? "" : ",\"nonce\":\"" + nonce + "\"") + "}";
+        try {
+            return JacksonResources.create()
+                    .withMapperFunction(JacksonResources.HANDLE_UNKNOWN_PROPERTIES)
+                    .getObjectMapper()
+                    .readValue(json, GuildMembersChunk.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A {@link GatewayClient} only providing dispatches, for components that listen to a shard.
+     */
+    private static class DispatchGatewayClient implements GatewayClient {
+
+        private final Flux<Dispatch> dispatch;
+
+        private DispatchGatewayClient(Flux<Dispatch> dispatch) {
+            this.dispatch = dispatch;
+        }
+
+        @Override
+        public Mono<Void> execute(String gatewayUrl) {
+            return Mono.never();
+        }
+
+        @Override
+        public Mono<CloseStatus> close(boolean allowResume) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<Dispatch> dispatch() {
+            return dispatch;
+        }
+
+        @Override
+        public Flux<GatewayPayload<?>> receiver() {
+            return Flux.never();
+        }
+
+        @Override
+        public <T> Flux<T> receiver(Function<ByteBuf, Publisher<? extends T>> mapper) {
+            return Flux.never();
+        }
+
+        @Override
+        public Sinks.Many<GatewayPayload<?>> sender() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
+            return Flux.from(publisher).doOnNext(ByteBuf::release).then();
+        }
+
+        @Override
+        public int getShardCount() {
+            return 1;
+        }
+
+        @Override
+        public String getSessionId() {
+            return "";
+        }
+
+        @Override
+        public int getSequence() {
+            return 0;
+        }
+
+        @Override
+        public Flux<GatewayConnection.State> stateEvents() {
+            return Flux.never();
+        }
+
+        @Override
+        public Mono<Boolean> isConnected() {
+            return Mono.just(true);
+        }
+
+        @Override
+        public Duration getResponseTime() {
+            return Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import discord4j.common.JacksonResources;
+import discord4j.common.util.Snowflake;
+import discord4j.core.shard.MemberRequestCoalescing;
+import discord4j.discordjson.json.gateway.GuildMembersChunk;
+import discord4j.discordjson.json.gateway.RequestGuildMembers;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberRequestCoalescerTest {
+
+    private static final Snowflake GUILD_ID = Snowflake.of(1);
+    private static final Duration WINDOW = Duration.ofMillis(50);
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final List<List<String>> requests = new ArrayList<>();
+    // users the stubbed gateway knows about, every other requested user is not found
+    private final Set<Long> members = new HashSet<>(Arrays.asList(10L, 11L, 12L));
+
+    @Test
+    public void batchesRequestsWithinWindow() throws Exception {
+        MemberRequestCoalescer coalescer = coalescer(MemberRequestCoalescing.create(WINDOW, 100));
+        CompletableFuture<List<Long>> first = request(coalescer, 10L);
+        CompletableFuture<List<Long>> second = request(coalescer, 11L);
+        assertTrue(requests.isEmpty());
+
+        scheduler.advanceTimeBy(WINDOW);
+
+        assertEquals(1, requests.size());
+        assertEquals(new HashSet<>(Arrays.asList("10", "11")), new HashSet<>(requests.get(0)));
+        assertEquals(Collections.singletonList(10L), first.get());
+        assertEquals(Collections.singletonList(11L), second.get());
+    }
+
+    @Test
+    public void sendsFullBatchesImmediately() throws Exception {
+        MemberRequestCoalescer coalescer = coalescer(MemberRequestCoalescing.create(WINDOW, 2));
+        CompletableFuture<List<Long>> result = request(coalescer, 10L, 11L, 12L);
+
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).size());
+        assertFalse(result.isDone());
+
+        scheduler.advanceTimeBy(WINDOW);
+
+        assertEquals(2, requests.size());
+        assertEquals(1, requests.get(1).size());
+        assertEquals(Arrays.asList(10L, 11L, 12L), sorted(result.get()));
+    }
+
+    @Test
+    public void deliversMembersToEveryWaiter() throws Exception {
+        MemberRequestCoalescer coalescer = coalescer(MemberRequestCoalescing.create(WINDOW, 100));
+        CompletableFuture<List<Long>> first = request(coalescer, 10L);
+        CompletableFuture<List<Long>> second = request(coalescer, 10L, 11L);
+
+        scheduler.advanceTimeBy(WINDOW);
+
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).size());
+        assertEquals(Collections.singletonList(10L), first.get());
+        assertEquals(Arrays.asList(10L, 11L), sorted(second.get()));
+    }
+
+    @Test
+    public void completesEmptyForUsersNotFound() throws Exception {
+        MemberRequestCoalescer coalescer = coalescer(MemberRequestCoalescing.create(WINDOW, 100));
+        CompletableFuture<List<Long>> missing = request(coalescer, 99L);
+        CompletableFuture<List<Long>> mixed = request(coalescer, 10L, 98L);
+
+        scheduler.advanceTimeBy(WINDOW);
+
+        assertEquals(Collections.emptyList(), missing.get());
+        assertEquals(Collections.singletonList(10L), mixed.get());
+    }
+
+    @Test
+    public void propagatesRequestErrors() {
+        IllegalStateException error = new IllegalStateException("disconnected");
+        MemberRequestCoalescer coalescer = new MemberRequestCoalescer(request -> Flux.error(error),
+                MemberRequestCoalescing.create(WINDOW, 100), scheduler);
+        CompletableFuture<List<Long>> first = request(coalescer, 10L);
+        CompletableFuture<List<Long>> second = request(coalescer, 11L);
+
+        scheduler.advanceTimeBy(WINDOW);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, first::get);
+        assertSame(error, thrown.getCause());
+        assertThrows(ExecutionException.class, second::get);
+    }
+
+    private MemberRequestCoalescer coalescer(MemberRequestCoalescing policy) {
+        return new MemberRequestCoalescer(this::requestMemberChunks, policy, scheduler);
+    }
+
+    private Flux<GuildMembersChunk> requestMemberChunks(RequestGuildMembers request) {
+        List<String> userIds = request.userIds().toOptional().orElse(Collections.emptyList());
+        requests.add(userIds);
+        String found = userIds.stream()
+                .map(Long::parseLong)
+                .filter(members::contains)
+                .map(MemberRequestCoalescerTest::memberJson)
+                .collect(Collectors.joining(","));
+        return Flux.just(chunk("{\"guild_id\":\"" + GUILD_ID.asString() + "\",\"members\":[" + found + "]," +
+                "\"chunk_index\":0,\"chunk_count\":1,\"not_found\":[]}"));
+    }
+
+    private static CompletableFuture<List<Long>> request(MemberRequestCoalescer coalescer, Long... userIds) {
+        Set<Snowflake> ids = Arrays.stream(userIds).map(Snowflake::of).collect(Collectors.toSet());
+        return coalescer.request(GUILD_ID, ids)
+                .map(member -> Snowflake.asLong(member.user().id()))
+                .collectList()
+                .toFuture();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static String memberJson(long userId) {
+        return "{\"user\":{\"id\":\"" + userId + "\",\"username\":\"user" + userId + "\",\"discriminator\":\"0\"," +
+                "\"global_name\":null,\"avatar\":null},\"roles\":[],\"nick\":null,\"avatar\":null," +
+                "\"joined_at\":\"2020-01-01T00:00:00.000000+00:00\",\"premium_since\":null,\"deaf\":false," +
+                "\"mute\":false,\"pending\":false,\"flags\":0,\"communication_disabled_until\":null}";
+    }
+
+    private static GuildMembersChunk chunk(String json) {
+        try {
+            return JacksonResources.create()
+                    .withMapperFunction(JacksonResources.HANDLE_UNKNOWN_PROPERTIES)
+                    .getObjectMapper()
+                    .readValue(json, GuildMembersChunk.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.event;
+
+import discord4j.common.ReactorResources;
+import discord4j.common.VirtualThreadSchedulers;
+import discord4j.core.event.domain.lifecycle.ReconnectStartEvent;
+import discord4j.gateway.ShardInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares event handling throughput when handlers block, between the default schedulers and the virtual thread
+ * ones. Set {@code D4J_BLOCKING_BENCHMARK} to {@code true} to run it. Virtual threads are only used when the
+ * multi-release jar of the common module runs on JDK 21 or later.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_BLOCKING_BENCHMARK", matches = "true")
+public class BlockingHandlerBenchmarkTest {
+
+    private static final Logger log = Loggers.getLogger(BlockingHandlerBenchmarkTest.class);
+
+    private static final ShardInfo SHARD = ShardInfo.create(0, 1);
+    private static final Duration BLOCK = Duration.ofMillis(10);
+
+    @Test
+    public void blockingSubscribers() {
+        log.info("Virtual threads supported: {}", VirtualThreadSchedulers.isSupported());
+        int subscribers = 64;
+        int events = 50;
+        runSubscribers("default event scheduler", EventDispatcher.builder().build(), subscribers, events);
+        runSubscribers("virtual thread event scheduler",
+                EventDispatcher.builder().virtualThreadEventScheduler().build(), subscribers, events);
+    }
+
+    @Test
+    public void offloadedBlockingHandlers() {
+        log.info("Virtual threads supported: {}", VirtualThreadSchedulers.isSupported());
+        int events = 5000;
+        int concurrency = 1024;
+        runOffloaded("default blocking scheduler", ReactorResources.DEFAULT_BLOCKING_TASK_SCHEDULER, events,
+                concurrency);
+        runOffloaded("virtual thread blocking scheduler", ReactorResources.VIRTUAL_THREAD_BLOCKING_TASK_SCHEDULER,
+                events, concurrency);
+    }
+
+    private static void runSubscribers(String name, EventDispatcher dispatcher, int subscribers, int events) {
+        List<Mono<Void>> handlers = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            handlers.add(dispatcher.on(ReconnectStartEvent.class)
+                    .take(events)
+                    .doOnNext(event -> block())
+                    .then());
+        }
+        Mono<Void> done = Mono.when(handlers).cache();
+        done.subscribe();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            dispatcher.publish(newEvent());
+        }
+        done.block();
+        report(name, subscribers * events, System.nanoTime() - start);
+        dispatcher.shutdown();
+    }
+
+    private static void runOffloaded(String name, Supplier<Scheduler> schedulerFactory, int events,
+                                     int concurrency) {
+        Scheduler scheduler = schedulerFactory.get();
+        EventDispatcher dispatcher = EventDispatcher.builder().build();
+        Mono<Void> done = dispatcher.on(ReconnectStartEvent.class)
+                .take(events)
+                .flatMap(event -> Mono.fromRunnable(BlockingHandlerBenchmarkTest::block).subscribeOn(scheduler),
+                        concurrency)
+                .then()
+                .cache();
+        done.subscribe();
+
+        long start = System.nanoTime();
+        Flux.range(0, events).subscribe(i -> dispatcher.publish(newEvent()));
+        done.block();
+        report(name, events, System.nanoTime() - start);
+        dispatcher.shutdown();
+        scheduler.dispose();
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private static ReconnectStartEvent newEvent() {
+        // handlers never access the client
+        return new ReconnectStartEvent(null, SHARD);
+    }
+
+    private static void block() {
+        try {
+            Thread.sleep(BLOCK.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String name, int handled, long elapsedNanos) {
+        log.info("{}: {} blocking handlers of {} ms in {} ms ({} handlers/s)", name, handled, BLOCK.toMillis(),
+                elapsedNanos / 1_000_000, handled * 1_000_000_000L / Math.max(1, elapsedNanos));
+    }
+}
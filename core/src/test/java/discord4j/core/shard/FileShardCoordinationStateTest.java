@@ -0,0 +1,95 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.gateway.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileShardCoordinationStateTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(5);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void identifySlotsAreSpacedPerBucketAcrossInstances() {
+        // two instances over the same directory behave like two processes
+        FileShardCoordinationState first = FileShardCoordinationState.create(directory, Schedulers.immediate());
+        FileShardCoordinationState second = FileShardCoordinationState.create(directory, Schedulers.immediate());
+
+        assertEquals(Duration.ZERO, first.reserveIdentify(0, INTERVAL).block());
+        assertEquals(Duration.ZERO, second.reserveIdentify(1, INTERVAL).block());
+        Duration next = second.reserveIdentify(0, INTERVAL).block();
+        assertNotNull(next);
+        assertTrue(next.compareTo(INTERVAL.minusSeconds(1)) > 0 && next.compareTo(INTERVAL) <= 0, next::toString);
+        Duration last = first.reserveIdentify(0, INTERVAL).block();
+        assertNotNull(last);
+        assertTrue(last.compareTo(next.plus(INTERVAL).minusSeconds(1)) > 0, last::toString);
+    }
+
+    @Test
+    public void connectedShardsAreCounted() {
+        FileShardCoordinationState state = FileShardCoordinationState.create(directory, Schedulers.immediate());
+        assertEquals(0, state.getConnectedCount().block());
+        state.setConnected(3, true).block();
+        state.setConnected(17, true).block();
+        state.setConnected(17, true).block();
+        assertEquals(2, state.getConnectedCount().block());
+        state.setConnected(3, false).block();
+        assertEquals(1, state.getConnectedCount().block());
+    }
+
+    @Test
+    public void concurrentInstancesDoNotLoseUpdates() {
+        // operations run on separate threads, so both instances contend for the same files at once
+        FileShardCoordinationState first = FileShardCoordinationState.create(directory, Schedulers.boundedElastic());
+        FileShardCoordinationState second = FileShardCoordinationState.create(directory, Schedulers.boundedElastic());
+        int shards = 64;
+
+        Flux.range(0, shards)
+                .flatMap(index -> (index % 2 == 0 ? first : second).setConnected(index, true)
+                        .then((index % 2 == 0 ? second : first).reserveIdentify(0, INTERVAL)))
+                .blockLast(Duration.ofSeconds(30));
+
+        assertEquals(shards, first.getConnectedCount().block());
+        // every reservation took its own slot, the next one comes after all of them
+        Duration next = first.reserveIdentify(0, INTERVAL).block();
+        assertNotNull(next);
+        assertTrue(next.compareTo(INTERVAL.multipliedBy(shards - 1)) > 0, next::toString);
+    }
+
+    @Test
+    public void sessionsAreHandedOff() {
+        FileShardCoordinationState state = FileShardCoordinationState.create(directory, Schedulers.immediate());
+        assertNull(state.getSession(2).block());
+        SessionInfo session = SessionInfo.create("abc", 42);
+        state.putSession(2, session).block();
+        assertEquals(session, FileShardCoordinationState.create(directory).getSession(2).block());
+        state.putSession(2, null).block();
+        assertNull(state.getSession(2).block());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.core.DiscordClient;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.Event;
+import discord4j.gateway.replay.ReplayGatewayClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Replays a recording made with {@link discord4j.gateway.replay.FileGatewayRecorder} through the full inbound
+ * pipeline and reports the throughput. Set {@code D4J_REPLAY_FILE} to the recording path and optionally
+ * {@code D4J_REPLAY_SPEED} to {@code RECORDED}.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_REPLAY_FILE", matches = ".+")
+public class GatewayReplayBenchmarkTest {
+
+    private static final Logger log = Loggers.getLogger(GatewayReplayBenchmarkTest.class);
+
+    @Test
+    public void replayRecording() {
+        Path recording = Paths.get(System.getenv("D4J_REPLAY_FILE"));
+        String speedValue = System.getenv("D4J_REPLAY_SPEED");
+        ReplayGatewayClient.Speed speed = speedValue == null ? ReplayGatewayClient.Speed.MAX :
+                ReplayGatewayClient.Speed.valueOf(speedValue);
+        AtomicLong events = new AtomicLong();
+
+        long start = System.nanoTime();
+        GatewayDiscordClient client = DiscordClient.create("replay")
+                .gateway()
+                .setSharding(ShardingStrategy.fixed(1))
+                .setGatewayUrl("wss://replay.invalid")
+                .withEventDispatcher(dispatcher -> dispatcher.on(Event.class).doOnNext(e -> events.incrementAndGet()))
+                .login(options -> new ReplayGatewayClient(options, recording, speed))
+                .block();
+        assertNotNull(client);
+        client.onDisconnect().block();
+        long elapsed = System.nanoTime() - start;
+
+        log.info("Replayed {} events from {} in {} ms ({} events/s)", events.get(), recording, elapsed / 1_000_000,
+                events.get() * 1_000_000_000L / Math.max(1, elapsed));
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import discord4j.common.JacksonResources;
+import discord4j.common.close.CloseStatus;
+import discord4j.common.store.Store;
+import discord4j.common.store.action.gateway.GatewayActions;
+import discord4j.common.store.api.StoreAction;
+import discord4j.common.store.api.object.InvalidationCause;
+import discord4j.common.store.impl.LocalStoreLayout;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.GuildCreate;
+import discord4j.discordjson.json.gateway.GuildMemberAdd;
+import discord4j.discordjson.json.gateway.Ready;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.GatewayConnection;
+import discord4j.gateway.ShardInfo;
+import discord4j.gateway.json.GatewayPayload;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveReshardingTest {
+
+    private static final long SELF_ID = 1;
+    // owned by shard 0 with 1 or 2 shards
+    private static final long GUILD_A = 2L << 22;
+    // owned by shard 0 with 1 shard, shard 1 with 2 shards
+    private static final long GUILD_B = 3L << 22;
+    private static final ShardInfo OLD_SHARD = ShardInfo.create(0, 1);
+
+    private final ShardingGatewayClientGroup group = new ShardingGatewayClientGroup(1);
+    private final LocalStoreLayout layout = LocalStoreLayout.create();
+    private final Store store = Store.fromLayout(layout);
+    private final LiveResharding resharding = new LiveResharding(group, store);
+    private final StubGatewayClient oldClient = new StubGatewayClient();
+    private final List<StubGatewayClient> newClients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        group.add(OLD_SHARD, oldClient);
+        execute(GatewayActions.ready(ready(0, 1)));
+        execute(GatewayActions.guildMemberAdd(0, memberAdd(GUILD_A, 100)));
+        execute(GatewayActions.guildMemberAdd(0, memberAdd(GUILD_B, 101)));
+        resharding.setConnector(shardCount -> Flux.range(0, shardCount).map(index -> {
+            ShardInfo shard = ShardInfo.create(index, shardCount);
+            StubGatewayClient client = new StubGatewayClient();
+            newClients.add(client);
+            group.add(shard, client);
+            return shard;
+        }));
+    }
+
+    @Test
+    public void deduplicatesDispatchesDuringOverlap() {
+        CompletableFuture<Void> result = resharding.reshard(2).toFuture();
+        ShardInfo newShard = ShardInfo.create(1, 2);
+        GuildMemberAdd first = memberAdd(GUILD_B, 102);
+        GuildMemberAdd second = memberAdd(GUILD_B, 103);
+
+        assertTrue(resharding.accept(OLD_SHARD, first));
+        assertFalse(resharding.accept(newShard, first));
+        assertTrue(resharding.accept(newShard, second));
+        assertFalse(resharding.accept(OLD_SHARD, second));
+
+        Ready ready = ready(1, 2);
+        assertTrue(resharding.accept(newShard, ready));
+        assertFalse(resharding.shouldPublish(newShard, ready));
+        assertTrue(resharding.shouldPublish(OLD_SHARD, first));
+
+        // the new shards do not own guilds before cutover
+        execute(GatewayActions.ready(ready));
+        invalidate(1, 2);
+        assertTrue(hasMember(GUILD_B, 101));
+        assertFalse(result.isDone());
+        assertEquals(1, group.getShardCount());
+    }
+
+    @Test
+    public void keepsRepeatedIdenticalDispatches() {
+        CompletableFuture<Void> result = resharding.reshard(2).toFuture();
+        ShardInfo newShard = ShardInfo.create(1, 2);
+
+        // identical events received twice by each shard set, like a repeated typing start
+        assertTrue(resharding.accept(OLD_SHARD, memberAdd(GUILD_B, 102)));
+        assertTrue(resharding.accept(OLD_SHARD, memberAdd(GUILD_B, 102)));
+        assertFalse(resharding.accept(newShard, memberAdd(GUILD_B, 102)));
+        assertFalse(resharding.accept(newShard, memberAdd(GUILD_B, 102)));
+        assertTrue(resharding.accept(newShard, memberAdd(GUILD_B, 102)));
+        assertFalse(result.isDone());
+    }
+
+    @Test
+    public void deduplicatesGuildCreateByGuild() {
+        CompletableFuture<Void> result = resharding.reshard(2).toFuture();
+        ShardInfo newShard = ShardInfo.create(0, 2);
+        assertTrue(resharding.accept(newShard, ready(0, 2, GUILD_A)));
+
+        // the initial guilds of the new shards refresh the store without being published
+        GuildCreate initial = guildCreate(GUILD_A, "initial");
+        assertTrue(resharding.accept(newShard, initial));
+        assertFalse(resharding.shouldPublish(newShard, initial));
+
+        // a guild joined during the resharding is received by both shard sets, with possibly different content
+        assertTrue(resharding.accept(OLD_SHARD, guildCreate(GUILD_B, "joined")));
+        assertFalse(resharding.accept(ShardInfo.create(1, 2), guildCreate(GUILD_B, "renamed")));
+        assertFalse(result.isDone());
+    }
+
+    @Test
+    public void switchesShardsAndStoreOnCutover() throws Exception {
+        CompletableFuture<Void> result = resharding.reshard(2).toFuture();
+        for (int index = 0; index < 2; index++) {
+            ShardInfo shard = ShardInfo.create(index, 2);
+            Ready ready = ready(index, 2);
+            assertTrue(resharding.accept(shard, ready));
+            execute(GatewayActions.ready(ready));
+        }
+
+        result.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, group.getShardCount());
+        assertSame(newClients.get(1), group.find(1).orElse(null));
+        assertEquals(1, oldClient.closed);
+        assertTrue(resharding.isRetired(OLD_SHARD));
+        assertFalse(resharding.accept(OLD_SHARD, memberAdd(GUILD_A, 104)));
+
+        invalidate(1, 2);
+        assertTrue(hasMember(GUILD_A, 100));
+        assertFalse(hasMember(GUILD_B, 101));
+    }
+
+    @Test
+    public void keepsCurrentShardsOnAbort() {
+        IllegalStateException error = new IllegalStateException("identify failed");
+        resharding.setConnector(shardCount -> Flux.defer(() -> {
+            ShardInfo shard = ShardInfo.create(0, shardCount);
+            StubGatewayClient client = new StubGatewayClient();
+            newClients.add(client);
+            group.add(shard, client);
+            execute(GatewayActions.ready(ready(0, shardCount)));
+            return Flux.<ShardInfo>error(error);
+        }));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> resharding.reshard(2).toFuture().get(5, TimeUnit.SECONDS));
+
+        assertSame(error, thrown.getCause());
+        assertEquals(1, group.getShardCount());
+        assertSame(oldClient, group.find(0).orElse(null));
+        assertEquals(1, newClients.get(0).closed);
+        assertEquals(0, oldClient.closed);
+        assertTrue(resharding.isRetired(ShardInfo.create(0, 2)));
+        assertFalse(resharding.isRetired(OLD_SHARD));
+
+        invalidate(0, 1);
+        assertFalse(hasMember(GUILD_A, 100));
+        assertFalse(hasMember(GUILD_B, 101));
+    }
+
+    private void invalidate(int shardIndex, int shardCount) {
+        execute(GatewayActions.invalidateShard(shardIndex, shardCount, InvalidationCause.LOGOUT));
+    }
+
+    private boolean hasMember(long guildId, long userId) {
+        return layout.getMemberById(guildId, userId).blockOptional().isPresent();
+    }
+
+    private <R> void execute(StoreAction<R> action) {
+        Mono.from(store.execute(action)).block();
+    }
+
+    private static Ready ready(int shardIndex, int shardCount, long... guildIds) {
+        String guilds = Arrays.stream(guildIds)
+                .mapToObj(id -> "{\"id\":\"" + id + "\",\"unavailable\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+        return read(Ready.class, "{\"v\":10,\"user\":" + user(SELF_ID) + ",\"guilds\":" + guilds + "," +
+                "\"session_id\":\"s" + shardIndex + "\",\"resume_gateway_url\":\"wss://localhost\"," +
+                "\"shard\":[" + shardIndex + "," + shardCount + "],\"application\":{\"id\":\"" + SELF_ID + "\"," +
+                "\"flags\":0}}");
+    }
+
+    private static GuildMemberAdd memberAdd(long guildId, long userId) {
+        return read(GuildMemberAdd.class, "{\"guild_id\":\"" + guildId + "\",\"user\":" + user(userId) +
+                ",\"roles\":[],\"nick\":null,\"avatar\":null,\"joined_at\":\"2020-01-01T00:00:00.000000+00:00\"," +
+                "\"premium_since\":null,\"deaf\":false,\"mute\":false,\"pending\":false,\"flags\":0," +
+                "\"communication_disabled_until\":null}");
+    }
+
+    private static GuildCreate guildCreate(long guildId, String name) {
+        return read(GuildCreate.class, "{\"id\":\"" + guildId + "\",\"name\":\"" + name + "\",\"icon\":null," +
+                "\"splash\":null,\"discovery_splash\":null,\"owner_id\":\"" + SELF_ID + "\"," +
+                "\"afk_channel_id\":null,\"afk_timeout\":300,\"verification_level\":0," +
+                "\"default_message_notifications\":0,\"explicit_content_filter\":0,\"roles\":[],\"emojis\":[]," +
+                "\"features\":[],\"mfa_level\":0,\"application_id\":null,\"system_channel_id\":null," +
+                "\"system_channel_flags\":0,\"rules_channel_id\":null,\"vanity_url_code\":null," +
+                "\"description\":null,\"banner\":null,\"premium_tier\":0,\"preferred_locale\":\"en-US\"," +
+                "\"public_updates_channel_id\":null,\"nsfw_level\":0,\"premium_progress_bar_enabled\":false," +
+                "\"safety_alerts_channel_id\":null,\"joined_at\":\"2020-01-01T00:00:00.000000+00:00\"," +
+                "\"large\":false,\"unavailable\":false,\"member_count\":1,\"voice_states\":[],\"members\":[]," +
+                "\"channels\":[],\"threads\":[],\"presences\":[],\"stage_instances\":[],\"stickers\":[]," +
+                "\"guild_scheduled_events\":[],\"soundboard_sounds\":[]}");
+    }
+
+    private static String user(long id) {
+        return "{\"id\":\"" + id + "\",\"username\":\"user" + id + "\",\"discriminator\":\"0\"," +
+                "\"global_name\":null,\"avatar\":null}";
+    }
+
+    private static <T extends Dispatch> T read(Class<T> type, String json) {
+        try {
+            return JacksonResources.create()
+                    .withMapperFunction(JacksonResources.HANDLE_UNKNOWN_PROPERTIES)
+                    .getObjectMapper()
+                    .readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class StubGatewayClient implements GatewayClient {
+
+        private volatile int closed;
+
+        @Override
+        public Mono<Void> execute(String gatewayUrl) {
+            return Mono.never();
+        }
+
+        @Override
+        public Mono<CloseStatus> close(boolean allowResume) {
+            return Mono.fromRunnable(() -> closed++);
+        }
+
+        @Override
+        public Flux<Dispatch> dispatch() {
+            return Flux.never();
+        }
+
+        @Override
+        public Flux<GatewayPayload<?>> receiver() {
+            return Flux.never();
+        }
+
+        @Override
+        public <T> Flux<T> receiver(Function<ByteBuf, Publisher<? extends T>> mapper) {
+            return Flux.never();
+        }
+
+        @Override
+        public Sinks.Many<GatewayPayload<?>> sender() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
+            return Flux.from(publisher).doOnNext(ByteBuf::release).then();
+        }
+
+        @Override
+        public int getShardCount() {
+            return 1;
+        }
+
+        @Override
+        public String getSessionId() {
+            return "";
+        }
+
+        @Override
+        public int getSequence() {
+            return 0;
+        }
+
+        @Override
+        public Flux<GatewayConnection.State> stateEvents() {
+            return Flux.never();
+        }
+
+        @Override
+        public Mono<Boolean> isConnected() {
+            return Mono.just(true);
+        }
+
+        @Override
+        public Duration getResponseTime() {
+            return Duration.ZERO;
+        }
+    }
+}
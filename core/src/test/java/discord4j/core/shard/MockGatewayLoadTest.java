@@ -0,0 +1,70 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.core.DiscordClient;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.guild.GuildCreateEvent;
+import discord4j.gateway.mock.MockGatewayServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Connects a {@link GatewayBootstrap} with many shards to a local {@link MockGatewayServer} and reports how long it
+ * takes to process the initial guild storm. Set {@code D4J_MOCK_GATEWAY_SHARDS} to the shard count to run it.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_MOCK_GATEWAY_SHARDS", matches = "\\d+")
+public class MockGatewayLoadTest {
+
+    private static final Logger log = Loggers.getLogger(MockGatewayLoadTest.class);
+
+    @Test
+    public void connectShardsToMockGateway() {
+        int shards = Integer.parseInt(System.getenv("D4J_MOCK_GATEWAY_SHARDS"));
+        int guilds = shards * 10;
+        MockGatewayServer server = MockGatewayServer.builder()
+                .guilds(guilds, 100)
+                .eventsPerSecond(10)
+                .start();
+        AtomicLong guildCreates = new AtomicLong();
+        try {
+            long start = System.nanoTime();
+            GatewayDiscordClient client = DiscordClient.create("mock-token")
+                    .gateway()
+                    .setSharding(ShardingStrategy.builder().count(shards).maxConcurrency(16).build())
+                    .setGatewayUrl(server.getUrl())
+                    .withEventDispatcher(d -> d.on(GuildCreateEvent.class)
+                            .doOnNext(e -> guildCreates.incrementAndGet()))
+                    .login()
+                    .block();
+            assertNotNull(client);
+            long connected = System.nanoTime() - start;
+            log.info("Connected {} shards in {} ms, {} of {} guilds received, {} identifies", shards,
+                    connected / 1_000_000, guildCreates.get(), guilds, server.getIdentifyCount());
+            client.logout().block();
+        } finally {
+            server.dispose();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.shard;
+
+import discord4j.gateway.SessionInfo;
+import discord4j.gateway.ShardInfo;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedShardCoordinatorTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(5);
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final List<Integer> reservedBuckets = new ArrayList<>();
+    private final List<ByteBuf> sent = new ArrayList<>();
+
+    @Test
+    public void identifyWaitsForReservedSlot() {
+        SharedShardCoordinator coordinator = coordinator(Mono.just(Duration.ofSeconds(3)));
+        identify(coordinator, ShardInfo.create(5, 8), 4);
+        assertEquals(1, reservedBuckets.size());
+        assertEquals(1, reservedBuckets.get(0));
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(2));
+        assertTrue(sent.isEmpty());
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void identifyIsSentAtOnceWhenSlotIsFree() {
+        SharedShardCoordinator coordinator = coordinator(Mono.just(Duration.ZERO));
+        identify(coordinator, ShardInfo.create(0, 1), 1);
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void identifyWaitsWholeIntervalWhenStateFails() {
+        SharedShardCoordinator coordinator = coordinator(Mono.error(new IOException("unavailable")));
+        identify(coordinator, ShardInfo.create(0, 1), 1);
+
+        scheduler.advanceTimeBy(INTERVAL.minusMillis(1));
+        assertTrue(sent.isEmpty());
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertEquals(1, sent.size());
+    }
+
+    private SharedShardCoordinator coordinator(Mono<Duration> reservation) {
+        return SharedShardCoordinator.create(new ReservingState(reservation), INTERVAL, scheduler);
+    }
+
+    private void identify(SharedShardCoordinator coordinator, ShardInfo shardInfo, int maxConcurrency) {
+        ByteBuf payload = Unpooled.copiedBuffer(new byte[]{1});
+        Flux.from(coordinator.getIdentifyLimiter(shardInfo, maxConcurrency).apply(Flux.just(payload)))
+                .subscribe(buf -> {
+                    sent.add(buf);
+                    buf.release();
+                });
+    }
+
+    private class ReservingState implements ShardCoordinationState {
+
+        private final Mono<Duration> reservation;
+
+        private ReservingState(Mono<Duration> reservation) {
+            this.reservation = reservation;
+        }
+
+        @Override
+        public Mono<Duration> reserveIdentify(int bucket, Duration interval) {
+            return Mono.defer(() -> {
+                reservedBuckets.add(bucket);
+                return reservation;
+            });
+        }
+
+        @Override
+        public Mono<Void> setConnected(int shardIndex, boolean connected) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Integer> getConnectedCount() {
+            return Mono.just(0);
+        }
+
+        @Override
+        public Mono<Void> putSession(int shardIndex, @Nullable SessionInfo sessionInfo) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<SessionInfo> getSession(int shardIndex) {
+            return Mono.empty();
+        }
+    }
+}
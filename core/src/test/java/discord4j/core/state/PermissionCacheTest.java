@@ -0,0 +1,136 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.core.state;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import discord4j.common.JacksonResources;
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.json.gateway.GuildMemberUpdate;
+import discord4j.rest.util.Permission;
+import discord4j.rest.util.PermissionSet;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PermissionCacheTest {
+
+    private static final Snowflake GUILD_ID = Snowflake.of(1);
+    private static final Snowflake MEMBER_ID = Snowflake.of(2);
+    private static final Set<Snowflake> OLD_ROLES = Collections.singleton(Snowflake.of(10));
+    private static final Set<Snowflake> NEW_ROLES = Collections.singleton(Snowflake.of(11));
+    private static final PermissionSet OLD_PERMISSIONS = PermissionSet.of(Permission.VIEW_CHANNEL);
+    private static final PermissionSet NEW_PERMISSIONS = PermissionSet.of(Permission.ADMINISTRATOR);
+
+    @Test
+    public void cachesComputedPermissions() {
+        PermissionCache cache = PermissionCache.create();
+        AtomicInteger computations = new AtomicInteger();
+        Mono<PermissionSet> computation = Mono.fromCallable(() -> {
+            computations.incrementAndGet();
+            return OLD_PERMISSIONS;
+        });
+
+        assertEquals(OLD_PERMISSIONS, cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, computation).block());
+        assertEquals(OLD_PERMISSIONS, cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, computation).block());
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void memberUpdateInvalidatesEntries() throws JsonProcessingException {
+        PermissionCache cache = PermissionCache.create();
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, Mono.just(OLD_PERMISSIONS)).block();
+        cache.invalidate(memberUpdate());
+
+        assertEquals(NEW_PERMISSIONS,
+                cache.getBasePermissions(GUILD_ID, MEMBER_ID, NEW_ROLES, Mono.just(NEW_PERMISSIONS)).block());
+    }
+
+    @Test
+    public void staleMemberAfterInvalidationIsNotServedToFreshMember() throws JsonProcessingException {
+        PermissionCache cache = PermissionCache.create();
+        AtomicInteger computations = new AtomicInteger();
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, Mono.just(OLD_PERMISSIONS)).block();
+        cache.invalidate(memberUpdate());
+
+        // a caller still holding the member snapshot from before the update computes and caches after invalidation
+        assertEquals(OLD_PERMISSIONS,
+                cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, Mono.just(OLD_PERMISSIONS)).block());
+
+        assertEquals(NEW_PERMISSIONS, cache.getBasePermissions(GUILD_ID, MEMBER_ID, NEW_ROLES,
+                counting(computations, NEW_PERMISSIONS)).block());
+        // conflicting role sets leave nothing cached, the next lookup computes again and caches the fresh result
+        assertEquals(NEW_PERMISSIONS, cache.getBasePermissions(GUILD_ID, MEMBER_ID, NEW_ROLES,
+                counting(computations, NEW_PERMISSIONS)).block());
+        assertEquals(NEW_PERMISSIONS, cache.getBasePermissions(GUILD_ID, MEMBER_ID, NEW_ROLES,
+                counting(computations, NEW_PERMISSIONS)).block());
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void evictsEntriesBeyondMaximumSize() {
+        PermissionCache cache = PermissionCache.create(1);
+        AtomicInteger computations = new AtomicInteger();
+        Snowflake otherMemberId = Snowflake.of(3);
+
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, counting(computations, OLD_PERMISSIONS)).block();
+        cache.getBasePermissions(GUILD_ID, otherMemberId, OLD_ROLES, counting(computations, OLD_PERMISSIONS)).block();
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, counting(computations, OLD_PERMISSIONS)).block();
+        cache.getBasePermissions(GUILD_ID, otherMemberId, OLD_ROLES, counting(computations, OLD_PERMISSIONS)).block();
+
+        // a single entry fits, so at least one of the repeated lookups had to compute again
+        assertTrue(computations.get() >= 3);
+    }
+
+    @Test
+    public void disabledCacheAlwaysComputes() {
+        PermissionCache cache = PermissionCache.disabled();
+        AtomicInteger computations = new AtomicInteger();
+        Mono<PermissionSet> computation = Mono.fromCallable(() -> {
+            computations.incrementAndGet();
+            return OLD_PERMISSIONS;
+        });
+
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, computation).block();
+        cache.getBasePermissions(GUILD_ID, MEMBER_ID, OLD_ROLES, computation).block();
+        assertEquals(2, computations.get());
+    }
+
+    private static Mono<PermissionSet> counting(AtomicInteger computations, PermissionSet permissions) {
+        return Mono.fromCallable(() -> {
+            computations.incrementAndGet();
+            return permissions;
+        });
+    }
+
+    private static GuildMemberUpdate memberUpdate() throws JsonProcessingException {
+        String json = "{\"guild_id\":\"" + GUILD_ID.asString() + "\",\"user\":{\"id\":\"" + MEMBER_ID.asString() +
+                "\",\"username\":\"member\",\"discriminator\":\"0\",\"global_name\":null,\"avatar\":null}," +
+                "\"roles\":[\"11\"],\"nick\":null,\"avatar\":null,\"joined_at\":\"2020-01-01T00:00:00.000000+00:00\"," +
+                "\"premium_since\":null,\"deaf\":false,\"mute\":false,\"pending\":false,\"flags\":0," +
+                "\"communication_disabled_until\":null}";
+        return JacksonResources.create()
+                .withMapperFunction(JacksonResources.HANDLE_UNKNOWN_PROPERTIES)
+                .getObjectMapper()
+                .readValue(json, GuildMemberUpdate.class);
+    }
+}
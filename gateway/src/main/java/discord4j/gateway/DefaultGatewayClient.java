@@ -30,8 +30,10 @@ import discord4j.discordjson.json.gateway.*;
 import discord4j.discordjson.possible.Possible;
 import discord4j.gateway.json.GatewayPayload;
 import discord4j.gateway.limiter.PayloadTransformer;
+import discord4j.gateway.metrics.GatewayMetrics;
 import discord4j.gateway.payload.PayloadReader;
 import discord4j.gateway.payload.PayloadWriter;
+import discord4j.gateway.replay.GatewayRecorder;
 import discord4j.gateway.retry.*;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.QueryStringDecoder;
@@ -98,6 +100,8 @@ public class DefaultGatewayClient implements GatewayClient {
     private final int maxMissedHeartbeatAck;
     private final boolean unpooled;
     private final EmissionStrategy emissionStrategy;
+    private final GatewayRecorder recorder;
+    private final GatewayMetrics metrics;
 
     private final Map<Opcode<?>, PayloadHandler<?>> handlerMap = new HashMap<>();
 
@@ -166,6 +170,8 @@ public class DefaultGatewayClient implements GatewayClient {
         this.maxMissedHeartbeatAck = Math.max(0, options.getMaxMissedHeartbeatAck());
         this.unpooled = options.isUnpooled();
         this.emissionStrategy = options.getEmissionStrategy();
+        this.recorder = options.getRecorder();
+        this.metrics = options.getMetrics();
 
         addHandler(Opcode.DISPATCH, this::handleDispatch);
         addHandler(Opcode.HEARTBEAT, this::handleHeartbeat);
@@ -201,6 +207,20 @@ public class DefaultGatewayClient implements GatewayClient {
         return Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
     }
 
+    private <T> void emit(Sinks.Many<T> sink, T element, GatewayMetrics.SinkType type) {
+        if (!emissionStrategy.emitNext(sink, element)) {
+            metrics.onEmissionFailure(type);
+        }
+    }
+
+    private void emitDispatch(Dispatch element) {
+        emit(dispatch, element, GatewayMetrics.SinkType.DISPATCH);
+    }
+
+    private void emitOutbound(GatewayPayload<?> element) {
+        emit(outbound, element, GatewayMetrics.SinkType.OUTBOUND);
+    }
+
     @Override
     public Mono<Void> execute(String gatewayUrl) {
         return Mono.deferContextual(
@@ -230,14 +250,13 @@ public class DefaultGatewayClient implements GatewayClient {
                             .delayUntil(__ -> onConnected)
                             .flatMap(payload -> Flux.from(payloadWriter.write(payload)))
                             .transform(buf -> Flux.merge(buf, sender.asFlux()))
-                            .transform(new RateLimitOperator<>(outboundLimiterCapacity(), Duration.ofSeconds(60),
-                                    reactorResources.getTimerTaskScheduler(),
-                                    reactorResources.getPayloadSenderScheduler()));
+                            .transform(this::limitOutbound);
                     Flux<ByteBuf> outFlux = Flux.merge(heartbeatFlux, identifyFlux, resumeFlux, payloadFlux)
                             .doOnNext(buf -> logPayload(senderLog, context, buf))
                             .doOnDiscard(ByteBuf.class, DefaultGatewayClient::safeRelease);
 
-                    sessionHandler = new GatewayWebsocketHandler(receiver, outFlux, context);
+                    sessionHandler = new GatewayWebsocketHandler(receiver, outFlux, context, false, recorder,
+                            metrics);
 
                     Mono<Void> readyHandler = dispatch.asFlux()
                             .filter(DefaultGatewayClient::isReadyOrResumed)
@@ -247,12 +266,11 @@ public class DefaultGatewayClient implements GatewayClient {
                                 if (currentState == GatewayConnection.State.START_IDENTIFYING
                                         || currentState == GatewayConnection.State.START_RESUMING) {
                                     log.info(format(context, "Connected to Gateway"));
-                                    emissionStrategy.emitNext(dispatch, GatewayStateChange.connected());
+                                    emitDispatch(GatewayStateChange.connected());
                                     observerState = GatewayObserver.CONNECTED;
                                 } else {
                                     log.info(format(context, "Reconnected to Gateway"));
-                                    emissionStrategy.emitNext(dispatch,
-                                            GatewayStateChange.retrySucceeded(reconnectContext.getAttempts()));
+                                    emitDispatch(GatewayStateChange.retrySucceeded(reconnectContext.getAttempts()));
                                     observerState = GatewayObserver.RETRY_SUCCEEDED;
                                 }
 
@@ -266,7 +284,7 @@ public class DefaultGatewayClient implements GatewayClient {
                     Mono<Void> receiverFuture = receiver.asFlux()
                             .map(buf -> unpooled ? buf : buf.retain())
                             .doOnNext(buf -> logPayload(receiverLog, context, buf))
-                            .flatMap(payloadReader::read)
+                            .flatMap(this::readPayload)
                             .doOnDiscard(ByteBuf.class, DefaultGatewayClient::safeRelease)
                             .doOnNext(payload -> {
                                 if (Opcode.HEARTBEAT_ACK.equals(payload.getOp())) {
@@ -281,6 +299,7 @@ public class DefaultGatewayClient implements GatewayClient {
                     // routing completion signals to close the gateway
                     Mono<Void> senderFuture = outbound.asFlux()
                             .doOnComplete(Objects.requireNonNull(sessionHandler)::close)
+                            .doOnNext(payload -> metrics.onPayloadSent(payload.getOp().getRawOp()))
                             .doOnNext(payload -> {
                                 if (Opcode.RECONNECT.equals(payload.getOp())) {
                                     Objects.requireNonNull(sessionHandler).error(
@@ -309,7 +328,10 @@ public class DefaultGatewayClient implements GatewayClient {
                                 lastSent.set(now);
                                 return Mono.just(GatewayPayload.heartbeat(ImmutableHeartbeat.of(sequence.get())));
                             })
-                            .doOnNext(tick -> emissionStrategy.emitNext(heartbeats, tick))
+                            .doOnNext(tick -> {
+                                metrics.onPayloadSent(tick.getOp().getRawOp());
+                                emit(heartbeats, tick, GatewayMetrics.SinkType.HEARTBEAT);
+                            })
                             .then();
 
                     Mono<Void> httpFuture = httpClient
@@ -346,6 +368,35 @@ public class DefaultGatewayClient implements GatewayClient {
                 });
     }
 
+    private Flux<ByteBuf> limitOutbound(Flux<ByteBuf> payloads) {
+        RateLimitOperator<ByteBuf> limiter = new RateLimitOperator<>(outboundLimiterCapacity(),
+                Duration.ofSeconds(60), reactorResources.getTimerTaskScheduler(),
+                reactorResources.getPayloadSenderScheduler());
+        if (metrics == GatewayMetrics.NOOP) {
+            return payloads.transform(limiter);
+        }
+        // the limiter keeps payloads in order, so entry times can be matched in the same order
+        Queue<Long> entryTimes = Queues.<Long>unboundedMultiproducer().get();
+        return payloads.doOnNext(buf -> entryTimes.offer(System.nanoTime()))
+                .transform(limiter)
+                .doOnNext(buf -> {
+                    Long entryTime = entryTimes.poll();
+                    if (entryTime != null) {
+                        metrics.onLimiterWait(System.nanoTime() - entryTime);
+                    }
+                });
+    }
+
+    private Publisher<GatewayPayload<?>> readPayload(ByteBuf buf) {
+        if (metrics == GatewayMetrics.NOOP) {
+            return payloadReader.read(buf);
+        }
+        long start = System.nanoTime();
+        return Flux.from(payloadReader.read(buf))
+                .doOnNext(payload -> metrics.onPayloadReceived(payload.getOp().getRawOp(), payload.getType(),
+                        System.nanoTime() - start));
+    }
+
     private String buildGatewayUrl(String identifyGatewayUrl) {
         QueryStringDecoder query = new QueryStringDecoder(identifyGatewayUrl);
         return Optional.ofNullable(resumeUrl.get())
@@ -417,14 +468,14 @@ public class DefaultGatewayClient implements GatewayClient {
             resumeUrl.set(ready.resumeGatewayUrl());
         }
         if (payload.getData() != null) {
-            emissionStrategy.emitNext(dispatch, payload.getData());
+            emitDispatch(payload.getData());
         }
         return Mono.empty();
     }
 
     private Mono<Void> handleHeartbeat(GatewayPayload<Heartbeat> payload) {
         log.debug(format(Objects.requireNonNull(currentContext), "Received heartbeat"));
-        emissionStrategy.emitNext(outbound, GatewayPayload.heartbeat(ImmutableHeartbeat.of(sequence.get())));
+        emitOutbound(GatewayPayload.heartbeat(ImmutableHeartbeat.of(sequence.get())));
         return Mono.empty();
     }
 
@@ -436,8 +487,7 @@ public class DefaultGatewayClient implements GatewayClient {
     private Mono<Void> handleInvalidSession(GatewayPayload<InvalidSession> payload) {
         //noinspection ConstantConditions
         if (payload.getData().resumable()) {
-            emissionStrategy.emitNext(outbound,
-                    GatewayPayload.resume(ImmutableResume.of(token, sessionId.get(), sequence.get())));
+            emitOutbound(GatewayPayload.resume(ImmutableResume.of(token, sessionId.get(), sequence.get())));
         } else {
             resumeUrl.set(null);
             Objects.requireNonNull(sessionHandler).error(new InvalidSessionException(Objects.requireNonNull(currentContext),
@@ -464,8 +514,7 @@ public class DefaultGatewayClient implements GatewayClient {
 
     private void doResume(GatewayPayload<Hello> payload) {
         log.debug(format(Objects.requireNonNull(currentContext), "Resuming Gateway session from {}"), sequence.get());
-        emissionStrategy.emitNext(outbound,
-                GatewayPayload.resume(ImmutableResume.of(token, sessionId.get(), sequence.get())));
+        emitOutbound(GatewayPayload.resume(ImmutableResume.of(token, sessionId.get(), sequence.get())));
     }
 
     private void doIdentify(GatewayPayload<Hello> payload) {
@@ -482,11 +531,12 @@ public class DefaultGatewayClient implements GatewayClient {
                 .presence(identifyOptions.getInitialStatus().map(Possible::of).orElse(Possible.absent()))
                 .build();
         log.debug(format(Objects.requireNonNull(currentContext), "Identifying to Gateway"), sequence.get());
-        emissionStrategy.emitNext(outbound, GatewayPayload.identify(identify));
+        emitOutbound(GatewayPayload.identify(identify));
     }
 
     private Mono<Void> handleHeartbeatAck(GatewayPayload<?> context) {
         responseTime = lastAck.updateAndGet(x -> System.nanoTime()) - lastSent.get();
+        metrics.onHeartbeatAck(responseTime);
         missedAck.set(0);
         log.debug(format(Objects.requireNonNull(currentContext), "Heartbeat acknowledged after {}"), getResponseTime());
         return Mono.empty();
@@ -502,18 +552,18 @@ public class DefaultGatewayClient implements GatewayClient {
                             "{} in {} (attempts: {})"), retry.nextState(), backoff, attempt);
                     if (retry.iteration() == 1) {
                         if (retry.nextState() == GatewayConnection.State.RESUMING) {
-                            emissionStrategy.emitNext(dispatch, GatewayStateChange.retryStarted(backoff));
+                            emitDispatch(GatewayStateChange.retryStarted(backoff));
                             notifyObserver(GatewayObserver.RETRY_STARTED);
                         } else {
-                            emissionStrategy.emitNext(dispatch, GatewayStateChange.retryStartedResume(backoff));
+                            emitDispatch(GatewayStateChange.retryStartedResume(backoff));
                             notifyObserver(GatewayObserver.RETRY_RESUME_STARTED);
                         }
                     } else {
-                        emissionStrategy.emitNext(dispatch, GatewayStateChange.retryFailed(attempt - 1, backoff));
+                        emitDispatch(GatewayStateChange.retryFailed(attempt - 1, backoff));
                         notifyObserver(GatewayObserver.RETRY_FAILED);
                     }
                     if (retry.nextState() == GatewayConnection.State.RECONNECTING) {
-                        emissionStrategy.emitNext(dispatch, GatewayStateChange.sessionInvalidated());
+                        emitDispatch(GatewayStateChange.sessionInvalidated());
                     }
                 });
     }
@@ -542,10 +592,10 @@ public class DefaultGatewayClient implements GatewayClient {
             heartbeatEmitter.stop();
 
             if (behavior.getAction() == DisconnectBehavior.Action.STOP_ABRUPTLY) {
-                emissionStrategy.emitNext(dispatch, GatewayStateChange.disconnectedResume());
+                emitDispatch(GatewayStateChange.disconnectedResume());
                 notifyObserver(GatewayObserver.DISCONNECTED_RESUME);
             } else if (behavior.getAction() == DisconnectBehavior.Action.STOP) {
-                emissionStrategy.emitNext(dispatch, GatewayStateChange.disconnected(sourceBehavior, closeStatus));
+                emitDispatch(GatewayStateChange.disconnected(sourceBehavior, closeStatus));
                 sequence.set(0);
                 sessionId.set("");
                 notifyObserver(GatewayObserver.DISCONNECTED);
@@ -628,7 +678,7 @@ public class DefaultGatewayClient implements GatewayClient {
 
     @Override
     public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
-        return Flux.from(publisher).doOnNext(buf -> emissionStrategy.emitNext(sender, buf)).then();
+        return Flux.from(publisher).doOnNext(buf -> emit(sender, buf, GatewayMetrics.SinkType.OUTBOUND)).then();
     }
 
     @Override
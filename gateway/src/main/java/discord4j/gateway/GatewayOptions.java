@@ -20,8 +20,10 @@ package discord4j.gateway;
 import discord4j.common.retry.ReconnectOptions;
 import discord4j.common.sinks.EmissionStrategy;
 import discord4j.gateway.limiter.PayloadTransformer;
+import discord4j.gateway.metrics.GatewayMetrics;
 import discord4j.gateway.payload.PayloadReader;
 import discord4j.gateway.payload.PayloadWriter;
+import discord4j.gateway.replay.GatewayRecorder;
 
 import java.time.Duration;
 import java.util.Objects;
@@ -42,6 +44,8 @@ public class GatewayOptions {
     private final int maxMissedHeartbeatAck;
     private final boolean unpooled;
     private final EmissionStrategy emissionStrategy;
+    private final GatewayRecorder recorder;
+    private final GatewayMetrics metrics;
 
     public GatewayOptions(String token, GatewayReactorResources reactorResources, PayloadReader payloadReader,
                           PayloadWriter payloadWriter, ReconnectOptions reconnectOptions,
@@ -56,6 +60,24 @@ public class GatewayOptions {
                           IdentifyOptions identifyOptions, GatewayObserver initialObserver,
                           PayloadTransformer identifyLimiter, int maxMissedHeartbeatAck, boolean unpooled,
                           EmissionStrategy emissionStrategy) {
+        this(token, reactorResources, payloadReader, payloadWriter, reconnectOptions, identifyOptions, initialObserver,
+                identifyLimiter, maxMissedHeartbeatAck, unpooled, emissionStrategy, GatewayRecorder.NOOP);
+    }
+
+    public GatewayOptions(String token, GatewayReactorResources reactorResources, PayloadReader payloadReader,
+                          PayloadWriter payloadWriter, ReconnectOptions reconnectOptions,
+                          IdentifyOptions identifyOptions, GatewayObserver initialObserver,
+                          PayloadTransformer identifyLimiter, int maxMissedHeartbeatAck, boolean unpooled,
+                          EmissionStrategy emissionStrategy, GatewayRecorder recorder) {
+        this(token, reactorResources, payloadReader, payloadWriter, reconnectOptions, identifyOptions, initialObserver,
+                identifyLimiter, maxMissedHeartbeatAck, unpooled, emissionStrategy, recorder, GatewayMetrics.NOOP);
+    }
+
+    public GatewayOptions(String token, GatewayReactorResources reactorResources, PayloadReader payloadReader,
+                          PayloadWriter payloadWriter, ReconnectOptions reconnectOptions,
+                          IdentifyOptions identifyOptions, GatewayObserver initialObserver,
+                          PayloadTransformer identifyLimiter, int maxMissedHeartbeatAck, boolean unpooled,
+                          EmissionStrategy emissionStrategy, GatewayRecorder recorder, GatewayMetrics metrics) {
         this.token = Objects.requireNonNull(token, "token");
         this.reactorResources = Objects.requireNonNull(reactorResources, "reactorResources");
         this.payloadReader = Objects.requireNonNull(payloadReader, "payloadReader");
@@ -67,6 +89,8 @@ public class GatewayOptions {
         this.maxMissedHeartbeatAck = maxMissedHeartbeatAck;
         this.unpooled = unpooled;
         this.emissionStrategy = Objects.requireNonNull(emissionStrategy, "emissionStrategy");
+        this.recorder = Objects.requireNonNull(recorder, "recorder");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
     }
 
     public String getToken() {
@@ -112,4 +136,12 @@ public class GatewayOptions {
     public EmissionStrategy getEmissionStrategy() {
         return emissionStrategy;
     }
+
+    public GatewayRecorder getRecorder() {
+        return recorder;
+    }
+
+    public GatewayMetrics getMetrics() {
+        return metrics;
+    }
 }
@@ -18,6 +18,7 @@
 package discord4j.gateway;
 
 import discord4j.common.ReactorResources;
+import discord4j.common.annotations.Experimental;
 import org.jspecify.annotations.Nullable;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
@@ -180,6 +181,13 @@ public class GatewayReactorResources extends ReactorResources {
             return this;
         }
 
+        @Experimental
+        @Override
+        public Builder virtualThreadBlockingTaskScheduler() {
+            super.virtualThreadBlockingTaskScheduler();
+            return this;
+        }
+
         /**
          * Creates a new instance of {@link GatewayReactorResources}.
          *
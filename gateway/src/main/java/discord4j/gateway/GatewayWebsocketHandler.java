@@ -19,6 +19,8 @@ package discord4j.gateway;
 import discord4j.common.close.CloseStatus;
 import discord4j.common.close.DisconnectBehavior;
 import discord4j.common.sinks.EmissionStrategy;
+import discord4j.gateway.metrics.GatewayMetrics;
+import discord4j.gateway.replay.GatewayRecorder;
 import discord4j.gateway.retry.GatewayException;
 import discord4j.gateway.retry.PartialDisconnectException;
 import discord4j.gateway.retry.ReconnectException;
@@ -65,6 +67,8 @@ public class GatewayWebsocketHandler {
     private final ContextView context;
     private final boolean unpooled;
     private final EmissionStrategy emissionStrategy;
+    private final GatewayRecorder recorder;
+    private final GatewayMetrics metrics;
 
     /**
      * Create a new handler with the given data pipelines.
@@ -79,12 +83,44 @@ public class GatewayWebsocketHandler {
 
     public GatewayWebsocketHandler(Sinks.Many<ByteBuf> inbound, Flux<ByteBuf> outbound, ContextView context,
                                    boolean unpooled) {
+        this(inbound, outbound, context, unpooled, GatewayRecorder.NOOP);
+    }
+
+    /**
+     * Create a new handler with the given data pipelines, tapping the raw inbound frames into a recorder.
+     *
+     * @param inbound the {@link reactor.core.publisher.Sinks.Many} of {@link ByteBuf} to process inbound payloads
+     * @param outbound the {@link Flux} of {@link ByteBuf} to process outbound payloads
+     * @param context the Reactor {@link ContextView} that owns this handler, to enrich logging
+     * @param unpooled whether inbound buffers are unpooled and must not be released by this handler
+     * @param recorder the {@link GatewayRecorder} receiving each compressed frame before decompression
+     */
+    public GatewayWebsocketHandler(Sinks.Many<ByteBuf> inbound, Flux<ByteBuf> outbound, ContextView context,
+                                   boolean unpooled, GatewayRecorder recorder) {
+        this(inbound, outbound, context, unpooled, recorder, GatewayMetrics.NOOP);
+    }
+
+    /**
+     * Create a new handler with the given data pipelines, tapping the raw inbound frames into a recorder and
+     * reporting frame sizes and decompression times.
+     *
+     * @param inbound the {@link reactor.core.publisher.Sinks.Many} of {@link ByteBuf} to process inbound payloads
+     * @param outbound the {@link Flux} of {@link ByteBuf} to process outbound payloads
+     * @param context the Reactor {@link ContextView} that owns this handler, to enrich logging
+     * @param unpooled whether inbound buffers are unpooled and must not be released by this handler
+     * @param recorder the {@link GatewayRecorder} receiving each compressed frame before decompression
+     * @param metrics the {@link GatewayMetrics} notified of each frame
+     */
+    public GatewayWebsocketHandler(Sinks.Many<ByteBuf> inbound, Flux<ByteBuf> outbound, ContextView context,
+                                   boolean unpooled, GatewayRecorder recorder, GatewayMetrics metrics) {
         this.inbound = inbound;
         this.outbound = outbound;
         this.sessionClose = Sinks.one();
         this.context = context;
         this.unpooled = unpooled;
         this.emissionStrategy = EmissionStrategy.park(Duration.ofNanos(10));
+        this.recorder = recorder;
+        this.metrics = metrics;
     }
 
     /**
@@ -100,7 +136,8 @@ public class GatewayWebsocketHandler {
      * {@link CloseStatus}.
      */
     public Mono<Tuple2<DisconnectBehavior, CloseStatus>> handle(WebsocketInbound in, WebsocketOutbound out) {
-        ZlibDecompressor decompressor = new ZlibDecompressor(out.alloc());
+        ZlibDecompressor decompressor = new ZlibDecompressor(out.alloc(), false, metrics);
+        recorder.onSessionStart();
 
         Mono<CloseWebSocketFrame> outboundClose = sessionClose.asMono()
                 .doOnNext(behavior -> log.debug(format(context, "Closing session with behavior: {}"), behavior))
@@ -124,7 +161,9 @@ public class GatewayWebsocketHandler {
                 .doOnNext(status -> close(DisconnectBehavior.retryAbruptly(
                         new GatewayException(context, "Inbound close status"))));
 
-        Mono<Void> outboundEvents = out.sendObject(Flux.merge(outboundClose, outbound.map(TextWebSocketFrame::new)))
+        Mono<Void> outboundEvents = out.sendObject(Flux.merge(outboundClose, outbound
+                .doOnNext(buf -> metrics.onFrameSent(buf.readableBytes()))
+                .map(TextWebSocketFrame::new)))
                 .then();
 
         in.withConnection(c -> c.onDispose(() -> log.debug(format(context, "Connection disposed"))));
@@ -132,6 +171,8 @@ public class GatewayWebsocketHandler {
         Mono<Void> inboundEvents = in.aggregateFrames()
                 .receiveFrames()
                 .map(WebSocketFrame::content)
+                .doOnNext(recorder::onFrame)
+                .doOnNext(buf -> metrics.onFrameReceived(buf.readableBytes()))
                 .transformDeferred(decompressor::completeMessages)
                 .doOnNext(this::emitInbound)
                 .doOnNext(this::safeRelease)
@@ -145,6 +186,7 @@ public class GatewayWebsocketHandler {
 
     private void emitInbound(ByteBuf value) {
         if (!emissionStrategy.emitNext(inbound, value)) {
+            metrics.onEmissionFailure(GatewayMetrics.SinkType.RECEIVER);
             safeRelease(value);
         }
     }
@@ -16,6 +16,7 @@
  */
 package discord4j.gateway;
 
+import discord4j.gateway.metrics.GatewayMetrics;
 import io.netty.buffer.*;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
@@ -38,14 +39,27 @@ public class ZlibDecompressor {
     private final ByteBufAllocator allocator;
     private final Inflater context = new Inflater();
     private final boolean unpooled;
+    private final GatewayMetrics metrics;
 
     public ZlibDecompressor(ByteBufAllocator allocator) {
         this(allocator, false);
     }
 
     public ZlibDecompressor(ByteBufAllocator allocator, boolean unpooled) {
+        this(allocator, unpooled, GatewayMetrics.NOOP);
+    }
+
+    /**
+     * Create a decompressor reporting the size and decompression time of each message.
+     *
+     * @param allocator the allocator for decompressed buffers
+     * @param unpooled whether decompressed buffers should be unpooled
+     * @param metrics the {@link GatewayMetrics} notified of each decompressed message
+     */
+    public ZlibDecompressor(ByteBufAllocator allocator, boolean unpooled, GatewayMetrics metrics) {
         this.allocator = allocator;
         this.unpooled = unpooled;
+        this.metrics = metrics;
     }
 
     public Flux<ByteBuf> completeMessages(Flux<ByteBuf> payloads) {
@@ -62,10 +76,14 @@ public class ZlibDecompressor {
                         }
                         buf = composite;
                     }
+                    long start = metrics == GatewayMetrics.NOOP ? 0 : System.nanoTime();
                     ByteArrayOutputStream out = new ByteArrayOutputStream();
                     try (InflaterOutputStream inflater = new InflaterOutputStream(out, context)) {
                         inflater.write(ByteBufUtil.getBytes(buf, buf.readerIndex(), buf.readableBytes(), false));
                         ByteBuf outBuffer = unpooled ? Unpooled.buffer() : allocator.buffer();
+                        if (metrics != GatewayMetrics.NOOP) {
+                            metrics.onMessageDecompressed(buf.readableBytes(), out.size(), System.nanoTime() - start);
+                        }
                         return outBuffer.writeBytes(out.toByteArray()).asReadOnly();
                     } catch (IOException e) {
                         throw Exceptions.propagate(e);
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PayloadDeserializer extends StdDeserializer<GatewayPayload<?>> {
 
@@ -38,6 +39,7 @@ public class PayloadDeserializer extends StdDeserializer<GatewayPayload<?>> {
     private static final String S_FIELD = "s";
 
     private static final Map<String, @Nullable Class<? extends Dispatch>> dispatchTypes = new HashMap<>();
+    private static final Map<Class<?>, String> eventNames = new ConcurrentHashMap<>();
 
     static {
         dispatchTypes.put(EventNames.READY, Ready.class);
@@ -143,6 +145,24 @@ public class PayloadDeserializer extends StdDeserializer<GatewayPayload<?>> {
         return new GatewayPayload(Objects.requireNonNull(Opcode.forRaw(op)), data, s, t);
     }
 
+    /**
+     * Return the event name of a dispatch, as found in the "t" field of the Gateway payloads it is read from.
+     *
+     * @param dispatch a dispatch of a type this deserializer reads
+     * @return the event name, or {@code null} if dispatches of this type are not read from Gateway payloads
+     */
+    public static @Nullable String getEventName(Dispatch dispatch) {
+        if (dispatch instanceof UnavailableGuildCreate) {
+            return EventNames.GUILD_CREATE;
+        }
+        String name = eventNames.computeIfAbsent(dispatch.getClass(), type -> dispatchTypes.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue().isAssignableFrom(type))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(""));
+        return name.isEmpty() ? null : name;
+    }
+
     private static @Nullable Class<? extends PayloadData> getPayloadType(int op, String t) {
         if (op == Opcode.DISPATCH.getRawOp()) {
             if (!dispatchTypes.containsKey(t)) {
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.metrics;
+
+import discord4j.common.annotations.Experimental;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Receives measurements from a gateway connection, complementing the state transitions reported by
+ * {@link discord4j.gateway.GatewayObserver}.
+ * <p>
+ * Methods are called from the connection threads, once per frame or payload, and must be cheap and non-blocking.
+ * Every method does nothing by default so implementations only override what they record. When {@link #NOOP} is
+ * used, the client skips timing measurements entirely and calls allocate nothing.
+ *
+ * @see InMemoryGatewayMetrics
+ */
+@Experimental
+public interface GatewayMetrics {
+
+    /**
+     * A {@link GatewayMetrics} that records nothing.
+     */
+    GatewayMetrics NOOP = new GatewayMetrics() {
+    };
+
+    /**
+     * The sinks a gateway client emits to, as reported by {@link #onEmissionFailure(SinkType)}.
+     */
+    enum SinkType {
+        /**
+         * Decompressed inbound payloads, before they are decoded.
+         */
+        RECEIVER,
+        /**
+         * Decoded dispatches, delivered to {@link discord4j.gateway.GatewayClient#dispatch()} subscribers.
+         */
+        DISPATCH,
+        /**
+         * Outbound payloads.
+         */
+        OUTBOUND,
+        /**
+         * Outbound heartbeats.
+         */
+        HEARTBEAT
+    }
+
+    /**
+     * Called for each inbound websocket frame, as received from the network.
+     *
+     * @param bytes the size of the frame
+     */
+    default void onFrameReceived(int bytes) {
+    }
+
+    /**
+     * Called for each outbound websocket frame, before it is written to the network.
+     *
+     * @param bytes the size of the frame
+     */
+    default void onFrameSent(int bytes) {
+    }
+
+    /**
+     * Called for each complete inbound message once decompressed.
+     *
+     * @param compressedBytes the size of the message as received
+     * @param decompressedBytes the size of the message after decompression
+     * @param nanos the time taken to decompress the message
+     */
+    default void onMessageDecompressed(int compressedBytes, int decompressedBytes, long nanos) {
+    }
+
+    /**
+     * Called for each inbound payload once decoded.
+     *
+     * @param op the raw opcode of the payload
+     * @param type the dispatch event name, or {@code null} if the payload is not a dispatch
+     * @param nanos the time taken to decode the payload
+     */
+    default void onPayloadReceived(int op, @Nullable String type, long nanos) {
+    }
+
+    /**
+     * Called for each outbound payload as it is handed to the sending pipeline.
+     *
+     * @param op the raw opcode of the payload
+     */
+    default void onPayloadSent(int op) {
+    }
+
+    /**
+     * Called when a heartbeat is acknowledged.
+     *
+     * @param nanos the round-trip time between the heartbeat and its acknowledgement
+     */
+    default void onHeartbeatAck(long nanos) {
+    }
+
+    /**
+     * Called for each outbound payload leaving the outbound rate limiter.
+     *
+     * @param nanos the time the payload waited for a permit
+     */
+    default void onLimiterWait(long nanos) {
+    }
+
+    /**
+     * Called when an element could not be emitted to one of the client sinks and was dropped, according to the
+     * configured {@link discord4j.common.sinks.EmissionStrategy}.
+     *
+     * @param sink the sink that rejected the element
+     */
+    default void onEmissionFailure(SinkType sink) {
+    }
+}
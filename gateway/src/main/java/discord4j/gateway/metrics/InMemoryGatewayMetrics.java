@@ -0,0 +1,262 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.metrics;
+
+import discord4j.common.annotations.Experimental;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link GatewayMetrics} keeping counters and {@link LatencyHistogram latency histograms} in memory, to be read
+ * periodically or exported to a monitoring system. Instances are thread-safe: use one per shard to get per-shard
+ * figures, or share one across shards to aggregate them.
+ */
+@Experimental
+public class InMemoryGatewayMetrics implements GatewayMetrics {
+
+    private static final SinkType[] SINK_TYPES = SinkType.values();
+
+    private final LongAdder framesReceived = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+    private final LatencyHistogram decompressionTime = new LatencyHistogram();
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+    private final LatencyHistogram heartbeatRoundTrip = new LatencyHistogram();
+    private final LatencyHistogram limiterWait = new LatencyHistogram();
+    private final Map<Integer, LongAdder> payloadsReceived = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> payloadsSent = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> dispatchesReceived = new ConcurrentHashMap<>();
+    private final AtomicLongArray emissionFailures = new AtomicLongArray(SINK_TYPES.length);
+
+    @Override
+    public void onFrameReceived(int bytes) {
+        framesReceived.increment();
+        bytesReceived.add(bytes);
+    }
+
+    @Override
+    public void onFrameSent(int bytes) {
+        framesSent.increment();
+        bytesSent.add(bytes);
+    }
+
+    @Override
+    public void onMessageDecompressed(int compressedBytes, int decompressedBytes, long nanos) {
+        this.compressedBytes.add(compressedBytes);
+        this.decompressedBytes.add(decompressedBytes);
+        decompressionTime.record(nanos);
+    }
+
+    @Override
+    public void onPayloadReceived(int op, @Nullable String type, long nanos) {
+        counter(payloadsReceived, op).increment();
+        if (type != null) {
+            counter(dispatchesReceived, type).increment();
+        }
+        decodeTime.record(nanos);
+    }
+
+    @Override
+    public void onPayloadSent(int op) {
+        counter(payloadsSent, op).increment();
+    }
+
+    @Override
+    public void onHeartbeatAck(long nanos) {
+        heartbeatRoundTrip.record(nanos);
+    }
+
+    @Override
+    public void onLimiterWait(long nanos) {
+        limiterWait.record(nanos);
+    }
+
+    @Override
+    public void onEmissionFailure(SinkType sink) {
+        emissionFailures.incrementAndGet(sink.ordinal());
+    }
+
+    private static <K> LongAdder counter(Map<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return counter;
+    }
+
+    private static <K> Map<K, Long> snapshot(Map<K, LongAdder> counters) {
+        Map<K, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> result.put(key, counter.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Return the number of inbound websocket frames.
+     *
+     * @return the inbound frame count
+     */
+    public long getFramesReceived() {
+        return framesReceived.sum();
+    }
+
+    /**
+     * Return the number of bytes received, as compressed on the network.
+     *
+     * @return the inbound byte count
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Return the number of outbound websocket frames.
+     *
+     * @return the outbound frame count
+     */
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    /**
+     * Return the number of bytes sent.
+     *
+     * @return the outbound byte count
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Return the total size of inbound messages before decompression.
+     *
+     * @return the compressed byte count
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * Return the total size of inbound messages after decompression.
+     *
+     * @return the decompressed byte count
+     */
+    public long getDecompressedBytes() {
+        return decompressedBytes.sum();
+    }
+
+    /**
+     * Return the time taken to decompress each inbound message.
+     *
+     * @return the decompression time histogram
+     */
+    public LatencyHistogram getDecompressionTime() {
+        return decompressionTime;
+    }
+
+    /**
+     * Return the time taken to decode each inbound payload.
+     *
+     * @return the decode time histogram
+     */
+    public LatencyHistogram getDecodeTime() {
+        return decodeTime;
+    }
+
+    /**
+     * Return the heartbeat round-trip times.
+     *
+     * @return the heartbeat round-trip histogram
+     */
+    public LatencyHistogram getHeartbeatRoundTrip() {
+        return heartbeatRoundTrip;
+    }
+
+    /**
+     * Return the time outbound payloads waited in the outbound rate limiter.
+     *
+     * @return the limiter wait histogram
+     */
+    public LatencyHistogram getLimiterWait() {
+        return limiterWait;
+    }
+
+    /**
+     * Return the number of inbound payloads by raw opcode.
+     *
+     * @return a snapshot of inbound payload counts
+     */
+    public Map<Integer, Long> getPayloadsReceived() {
+        return snapshot(payloadsReceived);
+    }
+
+    /**
+     * Return the number of outbound payloads by raw opcode.
+     *
+     * @return a snapshot of outbound payload counts
+     */
+    public Map<Integer, Long> getPayloadsSent() {
+        return snapshot(payloadsSent);
+    }
+
+    /**
+     * Return the number of inbound dispatches by event name.
+     *
+     * @return a snapshot of dispatch counts
+     */
+    public Map<String, Long> getDispatchesReceived() {
+        return snapshot(dispatchesReceived);
+    }
+
+    /**
+     * Return the number of elements dropped by each sink.
+     *
+     * @return a snapshot of emission failure counts
+     */
+    public Map<SinkType, Long> getEmissionFailures() {
+        Map<SinkType, Long> result = new EnumMap<>(SinkType.class);
+        for (SinkType type : SINK_TYPES) {
+            result.put(type, emissionFailures.get(type.ordinal()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryGatewayMetrics{" +
+                "bytesReceived=" + getBytesReceived() +
+                ", bytesSent=" + getBytesSent() +
+                ", decompressedBytes=" + getDecompressedBytes() +
+                ", payloadsReceived=" + getPayloadsReceived() +
+                ", payloadsSent=" + getPayloadsSent() +
+                ", decodeTime=" + decodeTime +
+                ", heartbeatRoundTrip=" + heartbeatRoundTrip +
+                ", limiterWait=" + limiterWait +
+                ", emissionFailures=" + getEmissionFailures() +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A single connection established by a {@link DispatchTransport}, exchanging whole frames.
+ */
+@Experimental
+public interface DispatchChannel extends Disposable {
+
+    /**
+     * Return the frames received from the peer. Each frame is retained and must be released by the consumer.
+     *
+     * @return a {@link Flux} of received frames, completing when the connection is closed
+     */
+    Flux<ByteBuf> receive();
+
+    /**
+     * Send the given frames to the peer, releasing them once written.
+     *
+     * @param frames the frames to send
+     * @return a {@link Mono} completing once all frames are written
+     */
+    Mono<Void> send(Publisher<? extends ByteBuf> frames);
+
+    /**
+     * Return a {@link Mono} completing when this connection is closed.
+     *
+     * @return a {@link Mono} completing on close
+     */
+    Mono<Void> onClose();
+}
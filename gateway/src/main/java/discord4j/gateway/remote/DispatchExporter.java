@@ -0,0 +1,271 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.Opcode;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.GatewayOptions;
+import discord4j.gateway.ShardInfo;
+import discord4j.gateway.json.GatewayPayload;
+import discord4j.gateway.json.ShardAwareDispatch;
+import discord4j.gateway.json.jackson.PayloadDeserializer;
+import discord4j.gateway.payload.PayloadWriter;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
+
+/**
+ * The gateway side of a gateway/worker split. Forwards the dispatches of registered {@link GatewayClient} instances
+ * to the {@link RemoteGatewayClient} workers connected through a {@link DispatchTransport}, and sends the payloads
+ * these workers produce through the matching client.
+ * <p>
+ * Each worker subscribes to a single shard and only receives what happens after it connects, plus a
+ * {@link GatewayStateChange#connected()} if the shard is already connected. Frames are written as the transport
+ * allows it, from a bounded buffer of each worker. A worker never applies backpressure to the gateway connection or
+ * to other workers: once a slow worker fills its buffer, its connection is closed instead of skipping dispatches, so
+ * the worker observes a disconnection and can invalidate what it cached before subscribing again.
+ */
+@Experimental
+public class DispatchExporter {
+
+    private static final Logger log = Loggers.getLogger(DispatchExporter.class);
+
+    /**
+     * The default number of dispatches buffered for each worker before closing its connection.
+     */
+    public static final int DEFAULT_WORKER_BUFFER_SIZE = 1024;
+
+    /**
+     * How dispatches are written to workers.
+     */
+    public enum Encoding {
+        /**
+         * Forward the payloads exactly as received from Discord, without decoding them in the gateway process.
+         * Non-dispatch payloads are forwarded too and ignored by workers.
+         */
+        RAW,
+        /**
+         * Encode the {@link GatewayClient#dispatch()} events again, including dispatches produced by the client
+         * itself instead of read from Discord.
+         */
+        ENCODED
+    }
+
+    private final PayloadWriter payloadWriter;
+    private final Encoding encoding;
+    private final ByteBufAllocator allocator;
+    private final int workerBufferSize;
+    private final Map<Integer, Sinks.Many<GatewayClient>> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Create an exporter.
+     *
+     * @param payloadWriter the {@link PayloadWriter} used to encode dispatches in {@link Encoding#ENCODED} mode
+     * @param encoding how dispatches are written to workers
+     */
+    public DispatchExporter(PayloadWriter payloadWriter, Encoding encoding) {
+        this(payloadWriter, encoding, DEFAULT_WORKER_BUFFER_SIZE);
+    }
+
+    /**
+     * Create an exporter buffering up to the given number of dispatches for each worker.
+     *
+     * @param payloadWriter the {@link PayloadWriter} used to encode dispatches in {@link Encoding#ENCODED} mode
+     * @param encoding how dispatches are written to workers
+     * @param workerBufferSize the number of dispatches buffered for each worker, the connection of a worker falling
+     * further behind being closed
+     */
+    public DispatchExporter(PayloadWriter payloadWriter, Encoding encoding, int workerBufferSize) {
+        if (workerBufferSize <= 0) {
+            throw new IllegalArgumentException("workerBufferSize must be positive");
+        }
+        this.payloadWriter = Objects.requireNonNull(payloadWriter, "payloadWriter");
+        this.encoding = Objects.requireNonNull(encoding, "encoding");
+        this.allocator = ByteBufAllocator.DEFAULT;
+        this.workerBufferSize = workerBufferSize;
+    }
+
+    /**
+     * Make the given client available to workers subscribing to its shard, replacing a previously registered one.
+     *
+     * @param shard the shard the client is connected as
+     * @param client the client to export
+     */
+    public void register(ShardInfo shard, GatewayClient client) {
+        clientSink(shard.getIndex()).emitNext(client, FAIL_FAST);
+    }
+
+    /**
+     * Stop exporting the client of the given shard. Connected workers stop receiving its dispatches.
+     *
+     * @param shard the shard to stop exporting
+     */
+    public void unregister(ShardInfo shard) {
+        Sinks.Many<GatewayClient> sink = clients.remove(shard.getIndex());
+        if (sink != null) {
+            sink.emitComplete(FAIL_FAST);
+        }
+    }
+
+    /**
+     * Wrap a {@link GatewayClient} factory so each client it creates is registered in this exporter, for instance
+     * {@code GatewayBootstrap.login(exporter.exporting(DefaultGatewayClient::new))}.
+     *
+     * @param clientFactory the factory creating the clients
+     * @return a factory registering the created clients
+     */
+    public Function<GatewayOptions, GatewayClient> exporting(Function<GatewayOptions, GatewayClient> clientFactory) {
+        return options -> {
+            GatewayClient client = clientFactory.apply(options);
+            register(options.getIdentifyOptions().getShardInfo(), client);
+            return client;
+        };
+    }
+
+    /**
+     * Accept workers through the given transport.
+     *
+     * @param transport the {@link DispatchTransport} workers connect through
+     * @return a {@link Mono} emitting a {@link Disposable} that stops accepting workers when disposed
+     */
+    public Mono<? extends Disposable> serve(DispatchTransport transport) {
+        return transport.listen(this::handle);
+    }
+
+    private Sinks.Many<GatewayClient> clientSink(int shardIndex) {
+        return clients.computeIfAbsent(shardIndex, k -> Sinks.many().replay().latest());
+    }
+
+    private Mono<Void> handle(DispatchChannel channel) {
+        return channel.receive()
+                .switchOnFirst((signal, frames) -> {
+                    ByteBuf first = signal.get();
+                    if (first == null) {
+                        return frames.then();
+                    }
+                    if (first.getByte(first.readerIndex()) != DispatchFrames.SUBSCRIBE) {
+                        log.warn("Closing worker connection: expected a subscribe frame, found {}",
+                                DispatchFrames.toString(first));
+                        return frames.doOnNext(ReferenceCountUtil::release).take(1).then();
+                    }
+                    int shardIndex = first.getInt(first.readerIndex() + 1);
+                    log.info("Worker subscribed to shard {}", shardIndex);
+                    Sinks.Many<GatewayClient> sink = clientSink(shardIndex);
+                    Mono<Void> inbound = frames.concatMap(frame -> onFrame(sink, frame)).then();
+                    // switchMap keeps the current client after completion, stop forwarding once unregistered
+                    Mono<Boolean> unregistered = sink.asFlux().then(Mono.just(true));
+                    Mono<Void> outbound = channel.send(sink.asFlux()
+                            .switchMap(client -> export(shardIndex, client).takeUntilOther(unregistered))
+                            .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease));
+                    return Mono.when(inbound, outbound)
+                            .onErrorResume(Exceptions::isOverflow, t -> {
+                                // closing the connection makes the worker resynchronize instead of missing updates
+                                log.warn("Closing worker connection of shard {}: more than {} dispatches behind",
+                                        shardIndex, workerBufferSize);
+                                return Mono.empty();
+                            })
+                            .doFinally(s -> log.info("Worker of shard {} disconnected", shardIndex));
+                })
+                .then();
+    }
+
+    private Mono<Void> onFrame(Sinks.Many<GatewayClient> sink, ByteBuf frame) {
+        if (frame.readByte() != DispatchFrames.OUTBOUND) {
+            ReferenceCountUtil.release(frame);
+            return Mono.empty();
+        }
+        return sink.asFlux()
+                .next()
+                .flatMap(client -> client.sendBuffer(Mono.just(frame)))
+                .switchIfEmpty(Mono.fromRunnable(() -> ReferenceCountUtil.release(frame)));
+    }
+
+    private Flux<ByteBuf> export(int shardIndex, GatewayClient client) {
+        int shardCount = client.getShardCount();
+        Flux<ByteBuf> initialState = client.isConnected()
+                .filter(connected -> connected)
+                .map(connected -> DispatchFrames.state(allocator, shardIndex, shardCount,
+                        GatewayStateChange.connected()))
+                .flux();
+        // state changes are rare and never overflow
+        Flux<ByteBuf> states = client.dispatch()
+                .map(DispatchExporter::unwrap)
+                .ofType(GatewayStateChange.class)
+                .onBackpressureBuffer()
+                .map(change -> DispatchFrames.state(allocator, shardIndex, shardCount, change));
+        Flux<ByteBuf> dispatches;
+        if (encoding == Encoding.RAW) {
+            // buffered frames are released by the discard hook of the worker connection on overflow
+            dispatches = client.receiver(buf -> Mono.just(
+                            DispatchFrames.dispatch(allocator, shardIndex, shardCount, buf)))
+                    .onBackpressureBuffer(workerBufferSize, BufferOverflowStrategy.ERROR);
+        } else {
+            // the sequence is read as the dispatch is emitted, right after the client updated it for that dispatch
+            dispatches = client.dispatch()
+                    .map(DispatchExporter::unwrap)
+                    .filter(dispatch -> !(dispatch instanceof GatewayStateChange))
+                    .map(dispatch -> new SequencedDispatch(dispatch, client.getSequence()))
+                    .onBackpressureBuffer(workerBufferSize, BufferOverflowStrategy.ERROR)
+                    .concatMap(this::encode)
+                    .map(buf -> DispatchFrames.dispatch(allocator, shardIndex, shardCount, buf));
+        }
+        return Flux.concat(initialState, Flux.merge(states, dispatches));
+    }
+
+    private static Dispatch unwrap(Dispatch dispatch) {
+        return dispatch instanceof ShardAwareDispatch ? ((ShardAwareDispatch) dispatch).getDispatch() : dispatch;
+    }
+
+    private Flux<ByteBuf> encode(SequencedDispatch sequenced) {
+        String eventName = PayloadDeserializer.getEventName(sequenced.dispatch);
+        if (eventName == null) {
+            return Flux.empty();
+        }
+        return Flux.from(payloadWriter.write(
+                new GatewayPayload<>(Opcode.DISPATCH, sequenced.dispatch, sequenced.sequence, eventName)));
+    }
+
+    private static class SequencedDispatch {
+
+        private final Dispatch dispatch;
+        private final int sequence;
+
+        SequencedDispatch(Dispatch dispatch, int sequence) {
+            this.dispatch = dispatch;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.close.CloseStatus;
+import discord4j.common.close.DisconnectBehavior;
+import discord4j.gateway.retry.ClosingStateChange;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Binary frames exchanged between a {@link DispatchExporter} and a {@link RemoteGatewayClient}. Every frame starts
+ * with a type byte:
+ * <ul>
+ *     <li>{@link #SUBSCRIBE}: {@code [int shardIndex]}, sent once by a worker after connecting</li>
+ *     <li>{@link #OUTBOUND}: {@code [gateway payload]}, a payload a worker asks the gateway to send</li>
+ *     <li>{@link #DISPATCH}: {@code [int shardIndex][int shardCount][gateway payload]}</li>
+ *     <li>{@link #STATE}: {@code [int shardIndex][int shardCount][byte state][long attempt][long backoffMillis]
+ *     [byte action][int closeCode][reason]}, a {@link GatewayStateChange} of the exported shard</li>
+ * </ul>
+ * Gateway payloads are kept in the JSON form they are read from and written to Discord.
+ */
+final class DispatchFrames {
+
+    static final byte SUBSCRIBE = 0x01;
+    static final byte OUTBOUND = 0x02;
+    static final byte DISPATCH = 0x10;
+    static final byte STATE = 0x11;
+
+    private static final GatewayStateChange.State[] STATES = GatewayStateChange.State.values();
+    private static final DisconnectBehavior.Action[] ACTIONS = DisconnectBehavior.Action.values();
+
+    private DispatchFrames() {
+    }
+
+    static ByteBuf subscribe(ByteBufAllocator allocator, int shardIndex) {
+        return allocator.buffer(5).writeByte(SUBSCRIBE).writeInt(shardIndex);
+    }
+
+    static ByteBuf outbound(ByteBufAllocator allocator, ByteBuf payload) {
+        ByteBuf header = allocator.buffer(1).writeByte(OUTBOUND);
+        return allocator.compositeBuffer(2).addComponents(true, header, payload);
+    }
+
+    static ByteBuf dispatch(ByteBufAllocator allocator, int shardIndex, int shardCount, ByteBuf payload) {
+        ByteBuf header = allocator.buffer(9).writeByte(DISPATCH).writeInt(shardIndex).writeInt(shardCount);
+        return allocator.compositeBuffer(2).addComponents(true, header, payload);
+    }
+
+    static ByteBuf state(ByteBufAllocator allocator, int shardIndex, int shardCount, GatewayStateChange change) {
+        Duration backoff = change.getBackoff();
+        ByteBuf buf = allocator.buffer(32)
+                .writeByte(STATE)
+                .writeInt(shardIndex)
+                .writeInt(shardCount)
+                .writeByte(change.getState().ordinal())
+                .writeLong(change.getCurrentAttempt())
+                .writeLong(backoff == null ? -1 : backoff.toMillis());
+        if (change instanceof ClosingStateChange) {
+            ClosingStateChange closing = (ClosingStateChange) change;
+            buf.writeByte(closing.getBehavior().getAction().ordinal())
+                    .writeInt(closing.getStatus().getCode());
+            closing.getStatus().getReason().ifPresent(reason -> buf.writeCharSequence(reason, StandardCharsets.UTF_8));
+        }
+        return buf;
+    }
+
+    /**
+     * Read a {@link #STATE} frame whose type, shard index and shard count were already consumed.
+     */
+    static GatewayStateChange readState(ByteBuf buf) {
+        GatewayStateChange.State state = STATES[buf.readUnsignedByte()];
+        long attempt = buf.readLong();
+        long backoffMillis = buf.readLong();
+        @Nullable Duration backoff = backoffMillis < 0 ? null : Duration.ofMillis(backoffMillis);
+        switch (state) {
+            case CONNECTED:
+                return GatewayStateChange.connected();
+            case DISCONNECTED:
+                DisconnectBehavior.Action action = ACTIONS[buf.readUnsignedByte()];
+                int code = buf.readInt();
+                String reason = buf.isReadable() ? buf.toString(StandardCharsets.UTF_8) : null;
+                return GatewayStateChange.disconnected(behavior(action), new CloseStatus(code, reason));
+            case DISCONNECTED_RESUME:
+                return GatewayStateChange.disconnectedResume();
+            case RETRY_STARTED:
+                return GatewayStateChange.retryStarted(orZero(backoff));
+            case RETRY_RESUME_STARTED:
+                return GatewayStateChange.retryStartedResume(orZero(backoff));
+            case RETRY_SUCCEEDED:
+                return GatewayStateChange.retrySucceeded(attempt);
+            case RETRY_FAILED:
+                return GatewayStateChange.retryFailed(attempt, orZero(backoff));
+            case SESSION_INVALIDATED:
+                return GatewayStateChange.sessionInvalidated();
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+
+    private static DisconnectBehavior behavior(DisconnectBehavior.Action action) {
+        // the cause does not cross process boundaries
+        switch (action) {
+            case RETRY:
+                return DisconnectBehavior.retry(null);
+            case RETRY_ABRUPTLY:
+                return DisconnectBehavior.retryAbruptly(null);
+            case STOP_ABRUPTLY:
+                return DisconnectBehavior.stopAbruptly(null);
+            default:
+                return DisconnectBehavior.stop(null);
+        }
+    }
+
+    private static Duration orZero(@Nullable Duration duration) {
+        return duration == null ? Duration.ZERO : duration;
+    }
+
+    static String toString(ByteBuf frame) {
+        return ByteBufUtil.hexDump(frame, frame.readerIndex(), Math.min(frame.readableBytes(), 64));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.annotations.Experimental;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * A bidirectional, message-oriented link between a {@link DispatchExporter} and its {@link RemoteGatewayClient}
+ * workers. Implementations must preserve frame boundaries and order, and should only request more frames from the
+ * peer as they are consumed so a slow side applies backpressure to the other.
+ */
+@Experimental
+public interface DispatchTransport {
+
+    /**
+     * Accept connections from workers, invoking the given handler for each of them. The connection is closed once
+     * the {@link Mono} returned by the handler terminates.
+     *
+     * @param handler the function handling each accepted {@link DispatchChannel}
+     * @return a {@link Mono} emitting a {@link Disposable} that stops accepting connections when disposed
+     */
+    Mono<? extends Disposable> listen(Function<DispatchChannel, Mono<Void>> handler);
+
+    /**
+     * Connect to a listening exporter.
+     *
+     * @return a {@link Mono} emitting the connected {@link DispatchChannel}
+     */
+    Mono<DispatchChannel> connect();
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+class NettyDispatchChannel implements DispatchChannel {
+
+    private final Connection connection;
+
+    NettyDispatchChannel(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public Flux<ByteBuf> receive() {
+        return connection.inbound().receive().retain();
+    }
+
+    @Override
+    public Mono<Void> send(Publisher<? extends ByteBuf> frames) {
+        return connection.outbound().send(frames).then();
+    }
+
+    @Override
+    public Mono<Void> onClose() {
+        return connection.onDispose();
+    }
+
+    @Override
+    public void dispose() {
+        connection.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return connection.isDisposed();
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.LogUtil;
+import discord4j.common.annotations.Experimental;
+import discord4j.common.close.CloseStatus;
+import discord4j.common.close.DisconnectBehavior;
+import discord4j.common.sinks.EmissionStrategy;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.Opcode;
+import discord4j.discordjson.json.gateway.Ready;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.GatewayConnection;
+import discord4j.gateway.GatewayOptions;
+import discord4j.gateway.json.GatewayPayload;
+import discord4j.gateway.payload.PayloadReader;
+import discord4j.gateway.payload.PayloadWriter;
+import discord4j.gateway.retry.ClosingStateChange;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static discord4j.common.LogUtil.format;
+import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
+
+/**
+ * The worker side of a gateway/worker split. A {@link GatewayClient} that, instead of connecting to Discord, receives
+ * the dispatches of one shard from a {@link DispatchExporter} through a {@link DispatchTransport}, and sends its
+ * outbound payloads back to be written by the gateway process. It can replace the default client in a bootstrap,
+ * for instance {@code GatewayBootstrap.login(options -> new RemoteGatewayClient(options, transport))}.
+ * <p>
+ * {@link #execute(String)} ignores the given URL and completes when the exported shard stops or the transport is
+ * closed, reconnections of the gateway process only being relayed as {@link GatewayStateChange} dispatches. Frames
+ * are only read from the transport as fast as dispatches are consumed, subject to the {@link EmissionStrategy} of
+ * the given options. Closing this client only closes the transport connection: the Discord connection is owned by
+ * the gateway process. Workers connecting late miss earlier dispatches like READY and GUILD_CREATE, so they are
+ * best paired with a store shared with the gateway process.
+ */
+@Experimental
+public class RemoteGatewayClient implements GatewayClient {
+
+    private static final Logger log = Loggers.getLogger(RemoteGatewayClient.class);
+
+    private final GatewayOptions options;
+    private final DispatchTransport transport;
+    private final PayloadReader payloadReader;
+    private final PayloadWriter payloadWriter;
+    private final EmissionStrategy emissionStrategy;
+    private final ByteBufAllocator allocator;
+
+    private final Sinks.Many<ByteBuf> receiver;
+    private final Sinks.Many<Dispatch> dispatch;
+    private final Sinks.Many<GatewayPayload<?>> outbound;
+    private final Sinks.Many<ByteBuf> outboundBuffers;
+    private final Sinks.Many<GatewayConnection.State> state;
+    private final Sinks.One<CloseStatus> closeNotifier;
+
+    private final AtomicReference<DispatchChannel> channel = new AtomicReference<>();
+    private final AtomicInteger sequence = new AtomicInteger(0);
+    private final AtomicReference<String> sessionId = new AtomicReference<>("");
+
+    /**
+     * Create a client consuming the shard given by {@link GatewayOptions#getIdentifyOptions()}.
+     *
+     * @param options the {@link GatewayOptions} supplying the shard, payload reader and writer
+     * @param transport the {@link DispatchTransport} to connect through
+     */
+    public RemoteGatewayClient(GatewayOptions options, DispatchTransport transport) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.transport = Objects.requireNonNull(transport, "transport");
+        this.payloadReader = options.getPayloadReader();
+        this.payloadWriter = options.getPayloadWriter();
+        this.emissionStrategy = options.getEmissionStrategy();
+        this.allocator = ByteBufAllocator.DEFAULT;
+        this.receiver = newEmitterSink();
+        this.dispatch = newEmitterSink();
+        this.outbound = newEmitterSink();
+        this.outboundBuffers = newEmitterSink();
+        this.state = Sinks.many().replay().latestOrDefault(GatewayConnection.State.START_IDENTIFYING);
+        this.closeNotifier = Sinks.one();
+    }
+
+    private static <T> Sinks.Many<T> newEmitterSink() {
+        return Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+    }
+
+    @Override
+    public Mono<Void> execute(String gatewayUrl) {
+        int shardIndex = options.getIdentifyOptions().getShardInfo().getIndex();
+        return Mono.deferContextual(context -> transport.connect()
+                        .flatMap(ch -> {
+                            channel.set(ch);
+                            log.info(format(context, "Connected to dispatch exporter through {}"), transport);
+
+                            Flux<ByteBuf> outboundFrames = Flux.merge(
+                                            outbound.asFlux().concatMap(payloadWriter::write),
+                                            outboundBuffers.asFlux())
+                                    .map(buf -> DispatchFrames.outbound(allocator, buf));
+                            Mono<Void> sender = ch.send(Flux.concat(
+                                            Mono.fromCallable(() -> DispatchFrames.subscribe(allocator, shardIndex)),
+                                            outboundFrames)
+                                    .takeUntilOther(closeNotifier.asMono())
+                                    .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease));
+
+                            Mono<Void> inbound = ch.receive()
+                                    .takeUntilOther(closeNotifier.asMono())
+                                    .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease)
+                                    .concatMap(this::onFrame)
+                                    .then(Mono.fromRunnable(() -> finish(CloseStatus.ABNORMAL_CLOSE)));
+
+                            return Mono.when(inbound, sender)
+                                    .doFinally(s -> ch.dispose());
+                        }))
+                .contextWrite(ctx -> ctx.put(LogUtil.KEY_SHARD_ID, shardIndex));
+    }
+
+    private Mono<Void> onFrame(ByteBuf frame) {
+        byte type = frame.readByte();
+        frame.skipBytes(8); // shard index and count, implied by the subscription
+        if (type == DispatchFrames.DISPATCH) {
+            if (receiver.currentSubscriberCount() > 0) {
+                ByteBuf copy = frame.retainedDuplicate();
+                if (!emissionStrategy.emitNext(receiver, copy)) {
+                    ReferenceCountUtil.release(copy);
+                }
+            }
+            return Mono.from(payloadReader.read(frame))
+                    .doOnNext(this::handlePayload)
+                    .then();
+        }
+        try {
+            if (type == DispatchFrames.STATE) {
+                handleState(DispatchFrames.readState(frame));
+            }
+        } finally {
+            ReferenceCountUtil.release(frame);
+        }
+        return Mono.empty();
+    }
+
+    private void handlePayload(GatewayPayload<?> payload) {
+        if (!Opcode.DISPATCH.equals(payload.getOp()) || payload.getData() == null) {
+            return;
+        }
+        if (payload.getSequence() != null) {
+            sequence.set(payload.getSequence());
+        }
+        Dispatch data = (Dispatch) payload.getData();
+        if (data instanceof Ready) {
+            sessionId.set(((Ready) data).sessionId());
+        }
+        emissionStrategy.emitNext(dispatch, data);
+    }
+
+    private void handleState(GatewayStateChange change) {
+        switch (change.getState()) {
+            case CONNECTED:
+            case RETRY_SUCCEEDED:
+                state.emitNext(GatewayConnection.State.CONNECTED, FAIL_FAST);
+                break;
+            case DISCONNECTED_RESUME:
+                state.emitNext(GatewayConnection.State.RESUMING, FAIL_FAST);
+                break;
+            case RETRY_STARTED:
+            case RETRY_RESUME_STARTED:
+            case RETRY_FAILED:
+            case SESSION_INVALIDATED:
+                state.emitNext(GatewayConnection.State.RECONNECTING, FAIL_FAST);
+                break;
+            case DISCONNECTED:
+                ClosingStateChange closing = (ClosingStateChange) change;
+                DisconnectBehavior.Action action = closing.getBehavior().getAction();
+                if (action == DisconnectBehavior.Action.STOP || action == DisconnectBehavior.Action.STOP_ABRUPTLY) {
+                    finish(closing.getStatus());
+                    return;
+                }
+                // the gateway process reconnects on its own, keep consuming
+                state.emitNext(GatewayConnection.State.DISCONNECTING, FAIL_FAST);
+                break;
+        }
+        emissionStrategy.emitNext(dispatch, change);
+    }
+
+    private void finish(CloseStatus status) {
+        if (closeNotifier.tryEmitValue(status).isFailure()) {
+            // already closed
+            return;
+        }
+        state.emitNext(GatewayConnection.State.DISCONNECTED, FAIL_FAST);
+        emissionStrategy.emitNext(dispatch, GatewayStateChange.disconnected(DisconnectBehavior.stop(null), status));
+        sequence.set(0);
+        sessionId.set("");
+    }
+
+    @Override
+    public Mono<CloseStatus> close(boolean allowResume) {
+        return Mono.defer(() -> {
+            finish(CloseStatus.NORMAL_CLOSE);
+            DispatchChannel current = channel.get();
+            if (current != null) {
+                current.dispose();
+            }
+            return closeNotifier.asMono();
+        });
+    }
+
+    @Override
+    public Flux<Dispatch> dispatch() {
+        return dispatch.asFlux();
+    }
+
+    @Override
+    public Flux<GatewayPayload<?>> receiver() {
+        return receiver(payloadReader::read);
+    }
+
+    @Override
+    public <T> Flux<T> receiver(Function<ByteBuf, Publisher<? extends T>> mapper) {
+        return receiver.asFlux()
+                .doOnDiscard(ByteBuf.class, ReferenceCountUtil::release)
+                .flatMap(mapper);
+    }
+
+    @Override
+    public Sinks.Many<GatewayPayload<?>> sender() {
+        return outbound;
+    }
+
+    @Override
+    public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
+        return Flux.from(publisher)
+                .doOnNext(buf -> {
+                    if (!emissionStrategy.emitNext(outboundBuffers, buf)) {
+                        ReferenceCountUtil.release(buf);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public int getShardCount() {
+        return options.getIdentifyOptions().getShardInfo().getCount();
+    }
+
+    @Override
+    public String getSessionId() {
+        return sessionId.get();
+    }
+
+    @Override
+    public int getSequence() {
+        return sequence.get();
+    }
+
+    @Override
+    public Flux<GatewayConnection.State> stateEvents() {
+        return state.asFlux();
+    }
+
+    @Override
+    public Mono<Boolean> isConnected() {
+        return state.asFlux().next()
+                .map(s -> s == GatewayConnection.State.CONNECTED)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Duration getResponseTime() {
+        return Duration.ZERO;
+    }
+}
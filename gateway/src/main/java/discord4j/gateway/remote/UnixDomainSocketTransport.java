@@ -0,0 +1,91 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A {@link DispatchTransport} over a Unix domain socket, framing each message with a 4-byte length prefix. Both
+ * sides must run on the same host with a native Netty transport available (epoll or kqueue).
+ */
+@Experimental
+public class UnixDomainSocketTransport implements DispatchTransport {
+
+    private final Path path;
+
+    private UnixDomainSocketTransport(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Create a transport bound to the given socket file. An existing file at that path is replaced when listening.
+     *
+     * @param path the socket file
+     * @return a new {@link UnixDomainSocketTransport}
+     */
+    public static UnixDomainSocketTransport create(Path path) {
+        return new UnixDomainSocketTransport(Objects.requireNonNull(path, "path"));
+    }
+
+    @Override
+    public Mono<? extends Disposable> listen(Function<DispatchChannel, Mono<Void>> handler) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(path))
+                .then(TcpServer.create()
+                        .bindAddress(() -> new DomainSocketAddress(path.toFile()))
+                        .doOnConnection(UnixDomainSocketTransport::addFraming)
+                        .handle((in, out) -> {
+                            AtomicReference<Connection> connection = new AtomicReference<>();
+                            in.withConnection(connection::set);
+                            return handler.apply(new NettyDispatchChannel(connection.get()));
+                        })
+                        .bind());
+    }
+
+    @Override
+    public Mono<DispatchChannel> connect() {
+        return TcpClient.create()
+                .remoteAddress(() -> new DomainSocketAddress(path.toFile()))
+                .doOnConnected(UnixDomainSocketTransport::addFraming)
+                .connect()
+                .map(NettyDispatchChannel::new);
+    }
+
+    private static void addFraming(Connection connection) {
+        connection.addHandlerLast(new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4))
+                .addHandlerLast(new LengthFieldPrepender(4));
+    }
+
+    @Override
+    public String toString() {
+        return "UnixDomainSocketTransport{path=" + path + '}';
+    }
+}
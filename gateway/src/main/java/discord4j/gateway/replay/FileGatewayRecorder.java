@@ -0,0 +1,113 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A {@link GatewayRecorder} appending every frame to a compact, timestamped file that can be replayed using
+ * {@link ReplayGatewayClient}. See {@link GatewayRecording} for the file format.
+ * <p>
+ * Writes are buffered, {@link #close()} must be called to flush the recording once the connection is done. If writing
+ * fails, the error is logged and recording stops without affecting the connection.
+ */
+@Experimental
+public class FileGatewayRecorder implements GatewayRecorder, Closeable {
+
+    private static final Logger log = Loggers.getLogger(FileGatewayRecorder.class);
+
+    private final Path path;
+    private final DataOutputStream out;
+    private long lastNanos = -1;
+    private boolean failed;
+
+    private FileGatewayRecorder(Path path, DataOutputStream out) {
+        this.path = path;
+        this.out = out;
+    }
+
+    /**
+     * Create a recorder writing to the given path, replacing any existing file.
+     *
+     * @param path the recording file
+     * @return a new {@link FileGatewayRecorder}
+     * @throws IOException if the file could not be created
+     */
+    public static FileGatewayRecorder create(Path path) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 65536));
+        out.writeInt(GatewayRecording.MAGIC);
+        out.write(GatewayRecording.VERSION);
+        return new FileGatewayRecorder(path, out);
+    }
+
+    @Override
+    public synchronized void onSessionStart() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(GatewayRecording.SESSION_START);
+            GatewayRecording.writeVarLong(out, elapsed());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void onFrame(ByteBuf frame) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(GatewayRecording.FRAME);
+            GatewayRecording.writeVarLong(out, elapsed());
+            GatewayRecording.writeVarLong(out, frame.readableBytes());
+            frame.getBytes(frame.readerIndex(), out, frame.readableBytes());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private long elapsed() {
+        long now = System.nanoTime();
+        long delta = lastNanos == -1 ? 0 : now - lastNanos;
+        lastNanos = now;
+        return delta;
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        log.warn("Stopped recording gateway frames to {}: {}", path, e.toString());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        failed = true;
+        out.close();
+    }
+}
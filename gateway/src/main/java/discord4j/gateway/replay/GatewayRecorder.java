@@ -0,0 +1,59 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Receives the raw inbound websocket frames of a gateway connection, before decompression, to record them.
+ * <p>
+ * Methods are called from the connection event loop and must not block for long. Frames are released by the caller
+ * once this method returns, implementations needing them later must copy or retain them.
+ *
+ * @see FileGatewayRecorder
+ * @see ReplayGatewayClient
+ */
+@Experimental
+public interface GatewayRecorder {
+
+    /**
+     * A recorder that ignores every frame.
+     */
+    GatewayRecorder NOOP = new GatewayRecorder() {
+        @Override
+        public void onSessionStart() {
+        }
+
+        @Override
+        public void onFrame(ByteBuf frame) {
+        }
+    };
+
+    /**
+     * Called when a new websocket session starts, resetting the decompression context.
+     */
+    void onSessionStart();
+
+    /**
+     * Called for each complete inbound websocket frame, as received from the network.
+     *
+     * @param frame the frame content, whose readable bytes must not be modified
+     */
+    void onFrame(ByteBuf frame);
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import discord4j.common.annotations.Experimental;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads gateway recordings written by {@link FileGatewayRecorder}.
+ * <p>
+ * A recording starts with a 4-byte magic value and a version byte, followed by entries made of a type byte, the
+ * nanoseconds elapsed since the previous entry as an unsigned varint and, for frames, the frame length as an unsigned
+ * varint followed by the raw compressed frame bytes.
+ */
+@Experimental
+public final class GatewayRecording {
+
+    static final int MAGIC = 0x44344a52; // D4JR
+    static final int VERSION = 1;
+    static final int SESSION_START = 0;
+    static final int FRAME = 1;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private GatewayRecording() {
+    }
+
+    /**
+     * Read all entries from the recording at the given path, lazily opening the file on subscription and closing it
+     * on termination or cancellation.
+     *
+     * @param path the recording file
+     * @return a {@link Flux} of {@link RecordedFrame} entries in recorded order
+     */
+    public static Flux<RecordedFrame> read(Path path) {
+        return Flux.using(() -> open(path),
+                in -> Flux.<RecordedFrame, long[]>generate(() -> new long[1], (elapsed, sink) -> {
+                    try {
+                        int type = in.read();
+                        if (type == -1) {
+                            sink.complete();
+                            return elapsed;
+                        }
+                        elapsed[0] += readVarLong(in);
+                        if (type == SESSION_START) {
+                            sink.next(new RecordedFrame(true, elapsed[0], EMPTY));
+                        } else if (type == FRAME) {
+                            byte[] content = new byte[(int) readVarLong(in)];
+                            in.readFully(content);
+                            sink.next(new RecordedFrame(false, elapsed[0], content));
+                        } else {
+                            sink.error(new IOException("Unknown entry type " + type + " in " + path));
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                    return elapsed;
+                }),
+                in -> {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                    }
+                });
+    }
+
+    private static DataInputStream open(Path path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        try {
+            int magic = in.readInt();
+            int version = in.read();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a supported gateway recording: " + path);
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated gateway recording");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in gateway recording");
+    }
+}
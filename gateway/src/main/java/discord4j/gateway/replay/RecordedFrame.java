@@ -0,0 +1,64 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import discord4j.common.annotations.Experimental;
+
+/**
+ * A single entry of a gateway recording.
+ */
+@Experimental
+public final class RecordedFrame {
+
+    private final boolean sessionStart;
+    private final long nanos;
+    private final byte[] content;
+
+    RecordedFrame(boolean sessionStart, long nanos, byte[] content) {
+        this.sessionStart = sessionStart;
+        this.nanos = nanos;
+        this.content = content;
+    }
+
+    /**
+     * Return whether this entry marks the start of a new websocket session instead of carrying a frame.
+     *
+     * @return {@code true} if a new session starts at this entry
+     */
+    public boolean isSessionStart() {
+        return sessionStart;
+    }
+
+    /**
+     * Return the time this entry was recorded at, relative to the start of the recording.
+     *
+     * @return the recording offset in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Return the raw frame content, compressed as received from the network. Empty for session starts.
+     *
+     * @return the frame content
+     */
+    public byte[] getContent() {
+        return content;
+    }
+}
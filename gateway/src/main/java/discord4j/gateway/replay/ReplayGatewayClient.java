@@ -0,0 +1,278 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import discord4j.common.LogUtil;
+import discord4j.common.annotations.Experimental;
+import discord4j.common.close.CloseStatus;
+import discord4j.common.close.DisconnectBehavior;
+import discord4j.common.sinks.EmissionStrategy;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.Opcode;
+import discord4j.discordjson.json.gateway.Ready;
+import discord4j.discordjson.json.gateway.Resumed;
+import discord4j.gateway.GatewayClient;
+import discord4j.gateway.GatewayConnection;
+import discord4j.gateway.GatewayOptions;
+import discord4j.gateway.ZlibDecompressor;
+import discord4j.gateway.json.GatewayPayload;
+import discord4j.gateway.payload.PayloadReader;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static discord4j.common.LogUtil.format;
+import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
+
+/**
+ * A {@link GatewayClient} that replays a recording made by {@link FileGatewayRecorder} instead of connecting to
+ * Discord. Frames go through the same zlib decompression and {@link PayloadReader} as a live connection, so a client
+ * built on top of it exercises the whole inbound pipeline deterministically and without network access.
+ * <p>
+ * {@link #execute(String)} ignores the given URL, replays the recording once and completes, emitting a
+ * {@link GatewayStateChange#connected()} on the first READY or RESUMED and a
+ * {@link GatewayStateChange#disconnected(DisconnectBehavior, CloseStatus)} at the end. Outbound payloads are discarded.
+ */
+@Experimental
+public class ReplayGatewayClient implements GatewayClient {
+
+    private static final Logger log = Loggers.getLogger(ReplayGatewayClient.class);
+
+    /**
+     * The pace at which recorded frames are fed to the client.
+     */
+    public enum Speed {
+        /**
+         * Replay frames keeping the delays they were recorded with.
+         */
+        RECORDED,
+        /**
+         * Replay frames as fast as they can be consumed.
+         */
+        MAX
+    }
+
+    private final GatewayOptions options;
+    private final Path recording;
+    private final Speed speed;
+    private final PayloadReader payloadReader;
+    private final EmissionStrategy emissionStrategy;
+    private final Scheduler timer;
+
+    private final Sinks.Many<ByteBuf> receiver;
+    private final Sinks.Many<Dispatch> dispatch;
+    private final Sinks.Many<GatewayPayload<?>> outbound;
+    private final Sinks.Many<GatewayConnection.State> state;
+    private final Sinks.One<CloseStatus> closeNotifier;
+
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicInteger sequence = new AtomicInteger(0);
+    private final AtomicReference<String> sessionId = new AtomicReference<>("");
+
+    /**
+     * Create a client replaying the given recording.
+     *
+     * @param options the {@link GatewayOptions} supplying the payload reader and resources
+     * @param recording the path of a recording created by {@link FileGatewayRecorder}
+     * @param speed the replay {@link Speed}
+     */
+    public ReplayGatewayClient(GatewayOptions options, Path recording, Speed speed) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.recording = Objects.requireNonNull(recording, "recording");
+        this.speed = Objects.requireNonNull(speed, "speed");
+        this.payloadReader = options.getPayloadReader();
+        this.emissionStrategy = options.getEmissionStrategy();
+        this.timer = options.getReactorResources().getTimerTaskScheduler();
+        this.receiver = newEmitterSink();
+        this.dispatch = newEmitterSink();
+        this.outbound = newEmitterSink();
+        this.state = Sinks.many().replay().latestOrDefault(GatewayConnection.State.START_IDENTIFYING);
+        this.closeNotifier = Sinks.one();
+    }
+
+    private static <T> Sinks.Many<T> newEmitterSink() {
+        return Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+    }
+
+    @Override
+    public Mono<Void> execute(String gatewayUrl) {
+        return Mono.deferContextual(context -> {
+                    log.info(format(context, "Replaying gateway recording {} at {} speed"), recording, speed);
+                    long start = System.nanoTime();
+                    ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+                    Mono<Void> replay = GatewayRecording.read(recording)
+                            .concatMap(frame -> pace(frame, start))
+                            .windowUntil(RecordedFrame::isSessionStart, true)
+                            .concatMap(session -> {
+                                ZlibDecompressor decompressor = new ZlibDecompressor(allocator, options.isUnpooled());
+                                return session.filter(frame -> !frame.isSessionStart())
+                                        .map(frame -> Unpooled.wrappedBuffer(frame.getContent()))
+                                        .transform(decompressor::completeMessages);
+                            })
+                            .takeUntilOther(closeNotifier.asMono())
+                            .concatMap(this::read)
+                            .doOnNext(this::handlePayload)
+                            .then(Mono.fromRunnable(() -> finish(CloseStatus.NORMAL_CLOSE)));
+
+                    // outbound payloads have nowhere to go, drain them so senders never fill the buffer
+                    Mono<Void> sender = outbound.asFlux()
+                            .takeUntilOther(closeNotifier.asMono())
+                            .then();
+
+                    return Mono.when(replay, sender);
+                })
+                .contextWrite(ctx -> ctx.put(LogUtil.KEY_SHARD_ID,
+                        options.getIdentifyOptions().getShardInfo().getIndex()));
+    }
+
+    private Mono<RecordedFrame> pace(RecordedFrame frame, long start) {
+        if (speed == Speed.MAX) {
+            return Mono.just(frame);
+        }
+        long delay = frame.getNanos() - (System.nanoTime() - start);
+        if (delay <= 0) {
+            return Mono.just(frame);
+        }
+        return Mono.delay(Duration.ofNanos(delay), timer).thenReturn(frame);
+    }
+
+    private Publisher<GatewayPayload<?>> read(ByteBuf buf) {
+        if (receiver.currentSubscriberCount() > 0) {
+            ByteBuf copy = buf.retainedDuplicate();
+            if (!emissionStrategy.emitNext(receiver, copy)) {
+                ReferenceCountUtil.release(copy);
+            }
+        }
+        return payloadReader.read(buf);
+    }
+
+    private void handlePayload(GatewayPayload<?> payload) {
+        if (payload.getSequence() != null) {
+            sequence.set(payload.getSequence());
+        }
+        if (!Opcode.DISPATCH.equals(payload.getOp()) || payload.getData() == null) {
+            return;
+        }
+        Dispatch data = (Dispatch) payload.getData();
+        if (data instanceof Ready) {
+            sessionId.set(((Ready) data).sessionId());
+        }
+        emissionStrategy.emitNext(dispatch, data);
+        if ((data instanceof Ready || data instanceof Resumed) && connected.compareAndSet(false, true)) {
+            state.emitNext(GatewayConnection.State.CONNECTED, FAIL_FAST);
+            emissionStrategy.emitNext(dispatch, GatewayStateChange.connected());
+        }
+    }
+
+    private void finish(CloseStatus status) {
+        if (closeNotifier.tryEmitValue(status).isFailure()) {
+            // already closed through close(boolean)
+            return;
+        }
+        connected.set(false);
+        state.emitNext(GatewayConnection.State.DISCONNECTED, FAIL_FAST);
+        emissionStrategy.emitNext(dispatch, GatewayStateChange.disconnected(DisconnectBehavior.stop(null), status));
+        sequence.set(0);
+        sessionId.set("");
+    }
+
+    @Override
+    public Mono<CloseStatus> close(boolean allowResume) {
+        return Mono.defer(() -> {
+            finish(CloseStatus.NORMAL_CLOSE);
+            return closeNotifier.asMono();
+        });
+    }
+
+    @Override
+    public Flux<Dispatch> dispatch() {
+        return dispatch.asFlux();
+    }
+
+    @Override
+    public Flux<GatewayPayload<?>> receiver() {
+        return receiver(payloadReader::read);
+    }
+
+    @Override
+    public <T> Flux<T> receiver(Function<ByteBuf, Publisher<? extends T>> mapper) {
+        return receiver.asFlux()
+                .doOnDiscard(ByteBuf.class, ReferenceCountUtil::release)
+                .flatMap(mapper);
+    }
+
+    @Override
+    public Sinks.Many<GatewayPayload<?>> sender() {
+        return outbound;
+    }
+
+    @Override
+    public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
+        return Flux.from(publisher).doOnNext(ReferenceCountUtil::release).then();
+    }
+
+    @Override
+    public int getShardCount() {
+        return options.getIdentifyOptions().getShardInfo().getCount();
+    }
+
+    @Override
+    public String getSessionId() {
+        return sessionId.get();
+    }
+
+    @Override
+    public int getSequence() {
+        return sequence.get();
+    }
+
+    @Override
+    public Flux<GatewayConnection.State> stateEvents() {
+        return state.asFlux();
+    }
+
+    @Override
+    public Mono<Boolean> isConnected() {
+        return state.asFlux().next()
+                .map(s -> s == GatewayConnection.State.CONNECTED)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Duration getResponseTime() {
+        return Duration.ZERO;
+    }
+}
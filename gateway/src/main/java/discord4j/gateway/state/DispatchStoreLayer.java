@@ -24,14 +24,14 @@ import discord4j.discordjson.json.gateway.*;
 import discord4j.gateway.ShardInfo;
 import discord4j.gateway.json.ShardAwareDispatch;
 import discord4j.gateway.retry.GatewayStateChange;
-import reactor.core.publisher.Flux;
+import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Mono;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
@@ -40,11 +40,14 @@ import java.util.function.Predicate;
  * {@link StoreAction} on a given {@link Store}. An instance of {@link DispatchStoreLayer} is specific to one shard,
  * in case of sharded connection to the gateway, a separate {@link DispatchStoreLayer} should be created for each of
  * them. It is completely independent to the gateway client itself, its use is completely optional.
+ * <p>
+ * If the {@link Store} declares a synchronous handler for the produced action, it is executed directly on the calling
+ * thread upon subscription, skipping the intermediate {@link org.reactivestreams.Publisher} of the store.
  */
 public class DispatchStoreLayer {
 
     private static final Logger log = Loggers.getLogger(DispatchStoreLayer.class);
-    private static final Set<DispatchToAction> DISPATCH_TO_ACTION = new HashSet<>();
+    private static final List<DispatchToAction> DISPATCH_TO_ACTION = new ArrayList<>();
 
     static {
         add(ChannelCreate.class::isInstance, GatewayActions::channelCreate);
@@ -85,12 +88,14 @@ public class DispatchStoreLayer {
         add(Ready.class::isInstance, (Integer shard, Ready dispatch) -> GatewayActions.ready(dispatch));
         add(UserUpdate.class::isInstance, GatewayActions::userUpdate);
         add(VoiceStateUpdateDispatch.class::isInstance, GatewayActions::voiceStateUpdateDispatch);
-        add(dispatch -> dispatch instanceof GatewayStateChange
+        addForShard(dispatch -> dispatch instanceof GatewayStateChange
                         && ((GatewayStateChange) dispatch).getState() == GatewayStateChange.State.DISCONNECTED,
-                (shard, dispatch) -> GatewayActions.invalidateShard(shard, InvalidationCause.LOGOUT));
-        add(dispatch -> dispatch instanceof GatewayStateChange
+                (shard, dispatch) -> GatewayActions.invalidateShard(shard.getIndex(), shard.getCount(),
+                        InvalidationCause.LOGOUT));
+        addForShard(dispatch -> dispatch instanceof GatewayStateChange
                         && ((GatewayStateChange) dispatch).getState() == GatewayStateChange.State.SESSION_INVALIDATED,
-                (shard, dispatch) -> GatewayActions.invalidateShard(shard, InvalidationCause.HARD_RECONNECT));
+                (shard, dispatch) -> GatewayActions.invalidateShard(shard.getIndex(), shard.getCount(),
+                        InvalidationCause.HARD_RECONNECT));
     }
 
     private final Store store;
@@ -118,7 +123,12 @@ public class DispatchStoreLayer {
     private static <D extends Dispatch> void add(Predicate<? super Dispatch> predicate,
                                                  BiFunction<Integer, D, StoreAction<?>> actionFactory) {
         DISPATCH_TO_ACTION.add(new DispatchToAction(predicate,
-                (shard, dispatch) -> actionFactory.apply(shard, (D) dispatch)));
+                (shard, dispatch) -> actionFactory.apply(shard.getIndex(), (D) dispatch)));
+    }
+
+    private static void addForShard(Predicate<? super Dispatch> predicate,
+                                    BiFunction<ShardInfo, Dispatch, StoreAction<?>> actionFactory) {
+        DISPATCH_TO_ACTION.add(new DispatchToAction(predicate, actionFactory));
     }
 
     /**
@@ -145,25 +155,45 @@ public class DispatchStoreLayer {
             shardInfo = this.shardInfo;
             actualDispatch = dispatch;
         }
-        return Flux.fromStream(DISPATCH_TO_ACTION.stream()
-                .filter(entry -> entry.predicate.test(actualDispatch))
-                .map(entry -> entry.actionFactory))
-                .singleOrEmpty()
-                .map(actionFactory -> actionFactory.apply(shardInfo.getIndex(), actualDispatch))
-                .flatMap(action -> Mono.from(store.execute(action)))
+        StoreAction<?> action = toAction(shardInfo, actualDispatch);
+        if (action == null) {
+            return Mono.just(StatefulDispatch.of(shardInfo, actualDispatch, null));
+        }
+        if (store.canExecuteSync(action)) {
+            return Mono.fromSupplier(() -> {
+                Object oldState = null;
+                try {
+                    oldState = store.executeSync(action);
+                } catch (Throwable t) {
+                    log.error("Error when executing store action on dispatch " + dispatch, t);
+                }
+                return StatefulDispatch.of(shardInfo, actualDispatch, oldState);
+            });
+        }
+        return Mono.from(store.execute(action))
                 .<StatefulDispatch<?, ?>>map(oldState -> StatefulDispatch.of(shardInfo, actualDispatch, oldState))
                 .onErrorResume(t -> Mono.fromRunnable(
                         () -> log.error("Error when executing store action on dispatch " + dispatch, t)))
                 .defaultIfEmpty(StatefulDispatch.of(shardInfo, actualDispatch, null));
     }
 
+    @Nullable
+    private static StoreAction<?> toAction(ShardInfo shardInfo, Dispatch dispatch) {
+        for (DispatchToAction entry : DISPATCH_TO_ACTION) {
+            if (entry.predicate.test(dispatch)) {
+                return entry.actionFactory.apply(shardInfo, dispatch);
+            }
+        }
+        return null;
+    }
+
     private static class DispatchToAction {
 
         private final Predicate<? super Dispatch> predicate;
-        private final BiFunction<Integer, Dispatch, StoreAction<?>> actionFactory;
+        private final BiFunction<ShardInfo, Dispatch, StoreAction<?>> actionFactory;
 
         private DispatchToAction(Predicate<? super Dispatch> predicate,
-                                 BiFunction<Integer, Dispatch, StoreAction<?>> actionFactory) {
+                                 BiFunction<ShardInfo, Dispatch, StoreAction<?>> actionFactory) {
             this.predicate = predicate;
             this.actionFactory = actionFactory;
         }
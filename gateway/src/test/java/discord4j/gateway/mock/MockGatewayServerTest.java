@@ -0,0 +1,117 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.common.JacksonResources;
+import discord4j.common.ReactorResources;
+import discord4j.common.retry.ReconnectOptions;
+import discord4j.discordjson.json.gateway.GuildCreate;
+import discord4j.gateway.*;
+import discord4j.gateway.payload.JacksonPayloadReader;
+import discord4j.gateway.payload.JacksonPayloadWriter;
+import discord4j.gateway.retry.GatewayStateChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class MockGatewayServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private MockGatewayServer server;
+
+    @BeforeEach
+    public void setup() {
+        server = MockGatewayServer.builder()
+                .guilds(4, 10)
+                .start();
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.dispose();
+    }
+
+    @Test
+    public void identifyReceivesGuildStorm() {
+        GatewayClient client = newClient();
+        Disposable session = client.execute(url()).subscribe();
+        try {
+            List<GuildCreate> guilds = client.dispatch()
+                    .ofType(GuildCreate.class)
+                    .take(4)
+                    .collectList()
+                    .block(TIMEOUT);
+            assertNotNull(guilds);
+            assertEquals(4, guilds.size());
+            assertEquals(11, guilds.get(0).guild().members().size());
+            assertEquals(1, server.getIdentifyCount());
+        } finally {
+            session.dispose();
+        }
+    }
+
+    @Test
+    public void resumesAfterResumableClose() {
+        GatewayClient client = newClient();
+        Disposable session = client.execute(url()).subscribe();
+        try {
+            client.dispatch()
+                    .ofType(GatewayStateChange.class)
+                    .filter(event -> event.getState() == GatewayStateChange.State.CONNECTED)
+                    .blockFirst(TIMEOUT);
+
+            server.disconnect(0, 4000);
+
+            client.dispatch()
+                    .ofType(GatewayStateChange.class)
+                    .filter(event -> event.getState() == GatewayStateChange.State.RETRY_SUCCEEDED)
+                    .blockFirst(TIMEOUT);
+            assertEquals(1, server.getIdentifyCount());
+            assertEquals(1, server.getResumeCount());
+        } finally {
+            session.dispose();
+        }
+    }
+
+    private String url() {
+        return server.getUrl() + "?v=10&encoding=json&compress=zlib-stream";
+    }
+
+    private static GatewayClient newClient() {
+        ObjectMapper mapper = JacksonResources.create().getObjectMapper();
+        GatewayOptions options = new GatewayOptions("mock-token",
+                new GatewayReactorResources(ReactorResources.create()),
+                new JacksonPayloadReader(mapper),
+                new JacksonPayloadWriter(mapper),
+                ReconnectOptions.builder().setFirstBackoff(Duration.ofMillis(100)).build(),
+                IdentifyOptions.builder(0, 1).build(),
+                GatewayObserver.NOOP_LISTENER,
+                s -> s,
+                1);
+        return new DefaultGatewayClient(options);
+    }
+}
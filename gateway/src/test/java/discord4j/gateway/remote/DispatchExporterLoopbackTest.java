@@ -0,0 +1,394 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.common.JacksonResources;
+import discord4j.common.ReactorResources;
+import discord4j.common.close.CloseStatus;
+import discord4j.common.retry.ReconnectOptions;
+import discord4j.common.util.Snowflake;
+import discord4j.discordjson.json.gateway.Dispatch;
+import discord4j.discordjson.json.gateway.MessageDelete;
+import discord4j.gateway.*;
+import discord4j.gateway.json.GatewayPayload;
+import discord4j.gateway.payload.JacksonPayloadReader;
+import discord4j.gateway.payload.JacksonPayloadWriter;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchExporterLoopbackTest {
+
+    private static final ShardInfo SHARD = ShardInfo.create(0, 1);
+    private static final String MESSAGE_DELETE = "{\"id\":\"1\",\"channel_id\":\"2\"}";
+
+    private final ObjectMapper mapper = JacksonResources.create().getObjectMapper();
+    private final ExportedClient exported = new ExportedClient();
+    private final BlockingQueue<Dispatch> received = new LinkedBlockingQueue<>();
+    private final List<Disposable> resources = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        resources.forEach(Disposable::dispose);
+    }
+
+    @Test
+    public void forwardsRawDispatchesToSubscribedWorker() throws Exception {
+        RemoteGatewayClient worker = start(DispatchExporter.Encoding.RAW, DispatchExporter.DEFAULT_WORKER_BUFFER_SIZE,
+                new InMemoryTransport(Mono.empty()));
+
+        GatewayStateChange connected = assertInstanceOf(GatewayStateChange.class, next());
+        assertEquals(GatewayStateChange.State.CONNECTED, connected.getState());
+        await(() -> exported.raw.currentSubscriberCount() > 0);
+
+        exported.raw.emitNext(utf8("{\"op\":0,\"t\":\"MESSAGE_DELETE\",\"s\":7,\"d\":" + MESSAGE_DELETE + "}"),
+                Sinks.EmitFailureHandler.FAIL_FAST);
+
+        MessageDelete dispatch = assertInstanceOf(MessageDelete.class, next());
+        assertEquals(1, Snowflake.asLong(dispatch.id()));
+        assertEquals(7, worker.getSequence());
+    }
+
+    @Test
+    public void forwardsEncodedDispatchesToSubscribedWorker() throws Exception {
+        start(DispatchExporter.Encoding.ENCODED, DispatchExporter.DEFAULT_WORKER_BUFFER_SIZE,
+                new InMemoryTransport(Mono.empty()));
+
+        assertInstanceOf(GatewayStateChange.class, next());
+        // one subscriber for state changes, one for dispatches
+        await(() -> exported.dispatches.currentSubscriberCount() == 2);
+
+        exported.dispatches.emitNext(mapper.readValue(MESSAGE_DELETE, MessageDelete.class),
+                Sinks.EmitFailureHandler.FAIL_FAST);
+
+        MessageDelete dispatch = assertInstanceOf(MessageDelete.class, next());
+        assertEquals(2, Snowflake.asLong(dispatch.channelId()));
+    }
+
+    @Test
+    public void sendsWorkerPayloadsThroughExportedClient() throws Exception {
+        RemoteGatewayClient worker = start(DispatchExporter.Encoding.RAW,
+                DispatchExporter.DEFAULT_WORKER_BUFFER_SIZE, new InMemoryTransport(Mono.empty()));
+        String payload = "{\"op\":1,\"d\":null}";
+
+        worker.sendBuffer(Mono.just(utf8(payload))).block();
+
+        assertEquals(payload, exported.sent.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void stopsForwardingOnceUnregistered() throws Exception {
+        DispatchExporter exporter = new DispatchExporter(new JacksonPayloadWriter(mapper),
+                DispatchExporter.Encoding.RAW);
+        startWorker(exporter, new InMemoryTransport(Mono.empty()));
+        assertInstanceOf(GatewayStateChange.class, next());
+        await(() -> exported.raw.currentSubscriberCount() > 0);
+
+        exporter.unregister(SHARD);
+
+        await(() -> exported.raw.currentSubscriberCount() == 0 && exported.dispatches.currentSubscriberCount() == 0);
+    }
+
+    @Test
+    public void disconnectsSlowWorkerInsteadOfDroppingDispatches() throws Exception {
+        int bufferSize = 8;
+        int count = 1000;
+        // the exporter never gets to write to this worker
+        start(DispatchExporter.Encoding.RAW, bufferSize, new InMemoryTransport(Mono.never()));
+        await(() -> exported.raw.currentSubscriberCount() > 0);
+
+        List<ByteBuf> payloads = new ArrayList<>();
+        for (int i = 0; i < count && exported.raw.currentSubscriberCount() > 0; i++) {
+            ByteBuf payload = utf8("{\"op\":0,\"t\":\"MESSAGE_DELETE\",\"s\":" + i + ",\"d\":" + MESSAGE_DELETE + "}");
+            payloads.add(payload);
+            // the exported client is never slowed down by the worker
+            assertEquals(Sinks.EmitResult.OK, exported.raw.tryEmitNext(payload));
+        }
+
+        assertTrue(payloads.size() < count, "The slow worker was not disconnected");
+        GatewayStateChange disconnected = assertInstanceOf(GatewayStateChange.class, next());
+        assertEquals(GatewayStateChange.State.DISCONNECTED, disconnected.getState());
+        // frames buffered for the worker are released with its connection
+        await(() -> payloads.stream().allMatch(payload -> payload.refCnt() == 0));
+    }
+
+    @Test
+    public void encodesDispatchesWithTheirOriginalSequence() throws Exception {
+        RemoteGatewayClient worker = start(DispatchExporter.Encoding.ENCODED,
+                DispatchExporter.DEFAULT_WORKER_BUFFER_SIZE, new InMemoryTransport(Mono.empty()));
+        assertInstanceOf(GatewayStateChange.class, next());
+        await(() -> exported.dispatches.currentSubscriberCount() == 2);
+
+        exported.sequence = 5;
+        exported.dispatches.emitNext(mapper.readValue(MESSAGE_DELETE, MessageDelete.class),
+                Sinks.EmitFailureHandler.FAIL_FAST);
+        exported.sequence = 6;
+
+        assertInstanceOf(MessageDelete.class, next());
+        assertEquals(5, worker.getSequence());
+    }
+
+    private RemoteGatewayClient start(DispatchExporter.Encoding encoding, int bufferSize,
+                                      InMemoryTransport transport) {
+        return startWorker(new DispatchExporter(new JacksonPayloadWriter(mapper), encoding, bufferSize), transport);
+    }
+
+    private RemoteGatewayClient startWorker(DispatchExporter exporter, InMemoryTransport transport) {
+        exporter.register(SHARD, exported);
+        Disposable server = exporter.serve(transport).block();
+        assertNotNull(server);
+        resources.add(server);
+        RemoteGatewayClient worker = new RemoteGatewayClient(options(), transport);
+        resources.add(worker.dispatch().subscribe(received::add));
+        resources.add(worker.execute("ignored").subscribe());
+        resources.add(() -> worker.close(false).subscribe());
+        return worker;
+    }
+
+    private GatewayOptions options() {
+        return new GatewayOptions("token",
+                new GatewayReactorResources(ReactorResources.create()),
+                new JacksonPayloadReader(mapper),
+                new JacksonPayloadWriter(mapper),
+                ReconnectOptions.create(),
+                IdentifyOptions.builder(SHARD.getIndex(), SHARD.getCount()).build(),
+                GatewayObserver.NOOP_LISTENER,
+                s -> s,
+                1);
+    }
+
+    private Dispatch next() throws InterruptedException {
+        Dispatch dispatch = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(dispatch, "No dispatch received");
+        return dispatch;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ByteBuf utf8(String json) {
+        return Unpooled.copiedBuffer(json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Connects workers to the listening exporter through a pair of in-memory channels, copying each frame like a
+     * socket would.
+     */
+    private static class InMemoryTransport implements DispatchTransport {
+
+        private final Mono<Void> exporterWritable;
+        private volatile @Nullable Function<DispatchChannel, Mono<Void>> handler;
+
+        private InMemoryTransport(Mono<Void> exporterWritable) {
+            this.exporterWritable = exporterWritable;
+        }
+
+        @Override
+        public Mono<? extends Disposable> listen(Function<DispatchChannel, Mono<Void>> handler) {
+            return Mono.fromCallable(() -> {
+                this.handler = handler;
+                Disposable stop = () -> this.handler = null;
+                return stop;
+            });
+        }
+
+        @Override
+        public Mono<DispatchChannel> connect() {
+            return Mono.fromCallable(() -> {
+                Function<DispatchChannel, Mono<Void>> current = handler;
+                if (current == null) {
+                    throw new IllegalStateException("Not listening");
+                }
+                Sinks.Many<ByteBuf> toExporter = Sinks.many().unicast().onBackpressureBuffer();
+                Sinks.Many<ByteBuf> toWorker = Sinks.many().unicast().onBackpressureBuffer();
+                Sinks.Empty<Void> closed = Sinks.empty();
+                AtomicBoolean disposed = new AtomicBoolean();
+                InMemoryChannel exporterSide = new InMemoryChannel(toExporter, toWorker, closed, disposed,
+                        exporterWritable);
+                InMemoryChannel workerSide = new InMemoryChannel(toWorker, toExporter, closed, disposed,
+                        Mono.empty());
+                current.apply(exporterSide).doFinally(s -> exporterSide.dispose()).subscribe();
+                return workerSide;
+            });
+        }
+    }
+
+    private static class InMemoryChannel implements DispatchChannel {
+
+        private final Sinks.Many<ByteBuf> inbound;
+        private final Sinks.Many<ByteBuf> outbound;
+        private final Sinks.Empty<Void> closed;
+        private final AtomicBoolean disposed;
+        private final Mono<Void> writable;
+
+        private InMemoryChannel(Sinks.Many<ByteBuf> inbound, Sinks.Many<ByteBuf> outbound, Sinks.Empty<Void> closed,
+                                AtomicBoolean disposed, Mono<Void> writable) {
+            this.inbound = inbound;
+            this.outbound = outbound;
+            this.closed = closed;
+            this.disposed = disposed;
+            this.writable = writable;
+        }
+
+        @Override
+        public Flux<ByteBuf> receive() {
+            return inbound.asFlux();
+        }
+
+        @Override
+        public Mono<Void> send(Publisher<? extends ByteBuf> frames) {
+            return Flux.from(frames)
+                    .concatMap(frame -> writable.then(Mono.fromRunnable(() -> write(frame))))
+                    .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease)
+                    .then();
+        }
+
+        private void write(ByteBuf frame) {
+            ByteBuf copy = Unpooled.copiedBuffer(frame);
+            frame.release();
+            if (outbound.tryEmitNext(copy).isFailure()) {
+                copy.release();
+            }
+        }
+
+        @Override
+        public Mono<Void> onClose() {
+            return closed.asMono();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed.compareAndSet(false, true)) {
+                inbound.tryEmitComplete();
+                outbound.tryEmitComplete();
+                closed.tryEmitEmpty();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed.get();
+        }
+    }
+
+    private static class ExportedClient implements GatewayClient {
+
+        private final Sinks.Many<Dispatch> dispatches = Sinks.many().multicast().onBackpressureBuffer(16, false);
+        private final Sinks.Many<ByteBuf> raw = Sinks.many().multicast().onBackpressureBuffer(16, false);
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private volatile int sequence;
+
+        @Override
+        public Mono<Void> execute(String gatewayUrl) {
+            return Mono.never();
+        }
+
+        @Override
+        public Mono<CloseStatus> close(boolean allowResume) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<Dispatch> dispatch() {
+            return dispatches.asFlux();
+        }
+
+        @Override
+        public Flux<GatewayPayload<?>> receiver() {
+            return Flux.never();
+        }
+
+        @Override
+        public <T> Flux<T> receiver(Function<ByteBuf, Publisher<? extends T>> mapper) {
+            return raw.asFlux().flatMap(mapper);
+        }
+
+        @Override
+        public Sinks.Many<GatewayPayload<?>> sender() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<Void> sendBuffer(Publisher<ByteBuf> publisher) {
+            return Flux.from(publisher)
+                    .doOnNext(buf -> {
+                        sent.add(buf.toString(StandardCharsets.UTF_8));
+                        buf.release();
+                    })
+                    .then();
+        }
+
+        @Override
+        public int getShardCount() {
+            return SHARD.getCount();
+        }
+
+        @Override
+        public String getSessionId() {
+            return "";
+        }
+
+        @Override
+        public int getSequence() {
+            return sequence;
+        }
+
+        @Override
+        public Flux<GatewayConnection.State> stateEvents() {
+            return Flux.never();
+        }
+
+        @Override
+        public Mono<Boolean> isConnected() {
+            return Mono.just(true);
+        }
+
+        @Override
+        public Duration getResponseTime() {
+            return Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.remote;
+
+import discord4j.common.close.CloseStatus;
+import discord4j.common.close.DisconnectBehavior;
+import discord4j.gateway.retry.ClosingStateChange;
+import discord4j.gateway.retry.GatewayStateChange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchFramesTest {
+
+    private final ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+
+    @Test
+    public void retryStateRoundTrip() {
+        GatewayStateChange change = roundTrip(GatewayStateChange.retryFailed(3, Duration.ofSeconds(5)));
+        assertEquals(GatewayStateChange.State.RETRY_FAILED, change.getState());
+        assertEquals(3, change.getCurrentAttempt());
+        assertEquals(Duration.ofSeconds(5), change.getBackoff());
+    }
+
+    @Test
+    public void closingStateRoundTrip() {
+        GatewayStateChange change = roundTrip(GatewayStateChange.disconnected(DisconnectBehavior.retry(null),
+                new CloseStatus(4000, "Unknown error")));
+        assertInstanceOf(ClosingStateChange.class, change);
+        ClosingStateChange closing = (ClosingStateChange) change;
+        assertEquals(DisconnectBehavior.Action.RETRY, closing.getBehavior().getAction());
+        assertEquals(4000, closing.getStatus().getCode());
+        assertEquals("Unknown error", closing.getStatus().getReason().orElse(null));
+    }
+
+    private GatewayStateChange roundTrip(GatewayStateChange change) {
+        ByteBuf frame = DispatchFrames.state(allocator, 2, 4, change);
+        try {
+            assertEquals(DispatchFrames.STATE, frame.readByte());
+            assertEquals(2, frame.readInt());
+            assertEquals(4, frame.readInt());
+            return DispatchFrames.readState(frame);
+        } finally {
+            frame.release();
+        }
+    }
+}
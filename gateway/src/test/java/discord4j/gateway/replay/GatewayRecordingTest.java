@@ -0,0 +1,59 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.replay;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GatewayRecordingTest {
+
+    @Test
+    public void recordingRoundTrips(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("shard-0.d4jr");
+        byte[] small = new byte[]{1, 2, 3};
+        byte[] large = new byte[70_000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        try (FileGatewayRecorder recorder = FileGatewayRecorder.create(file)) {
+            recorder.onSessionStart();
+            recorder.onFrame(Unpooled.wrappedBuffer(small));
+            recorder.onFrame(Unpooled.wrappedBuffer(large, 10, large.length - 10));
+            recorder.onSessionStart();
+        }
+
+        List<RecordedFrame> frames = GatewayRecording.read(file).collectList().block();
+        assertNotNull(frames);
+        assertEquals(4, frames.size());
+        assertTrue(frames.get(0).isSessionStart());
+        assertArrayEquals(small, frames.get(1).getContent());
+        assertEquals(large.length - 10, frames.get(2).getContent().length);
+        assertEquals(large[10], frames.get(2).getContent()[0]);
+        assertTrue(frames.get(3).isSessionStart());
+        for (int i = 1; i < frames.size(); i++) {
+            assertTrue(frames.get(i).getNanos() >= frames.get(i - 1).getNanos());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.mock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Serves a single WebSocket connection of a {@link MockGatewayServer}.
+ */
+class MockGatewayConnection {
+
+    private static final Logger log = Loggers.getLogger(MockGatewayConnection.class);
+
+    private final MockGatewayServer server;
+    private final ObjectMapper mapper;
+    private final MockGatewayPayloads payloads;
+    private final @Nullable Deflater deflater;
+    private final Sinks.Many<WebSocketFrame> frames = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable.Swap events = Disposables.swap();
+
+    // guarded by this
+    private @Nullable MockGatewayServer.Session session;
+    private boolean closed;
+
+    MockGatewayConnection(MockGatewayServer server, boolean compress) {
+        this.server = server;
+        this.mapper = server.getMapper();
+        this.payloads = new MockGatewayPayloads(mapper);
+        this.deflater = compress ? new Deflater() : null;
+    }
+
+    Mono<Void> handle(WebsocketInbound in, WebsocketOutbound out) {
+        send(payloads.hello(server.getHeartbeatInterval().toMillis()));
+
+        Mono<Void> inbound = in.aggregateFrames()
+                .receive()
+                .asString()
+                .doOnNext(this::onMessage)
+                .then(Mono.fromRunnable(this::complete));
+
+        Mono<Void> outbound = out.sendObject(frames.asFlux()
+                        .doOnDiscard(WebSocketFrame.class, ReferenceCountUtil::release))
+                .then();
+
+        return Mono.when(inbound, outbound)
+                .doFinally(signal -> {
+                    complete();
+                    if (deflater != null) {
+                        synchronized (this) {
+                            deflater.end();
+                        }
+                    }
+                });
+    }
+
+    private void onMessage(String text) {
+        JsonNode payload;
+        try {
+            payload = mapper.readTree(text);
+        } catch (IOException e) {
+            log.warn("Invalid payload from client: {}", text);
+            return;
+        }
+        JsonNode d = payload.path("d");
+        switch (payload.path("op").asInt(-1)) {
+            case 1:
+                server.onHeartbeat();
+                if (server.isAcknowledgeHeartbeats()) {
+                    send(payloads.heartbeatAck());
+                }
+                break;
+            case 2:
+                identify(d);
+                break;
+            case 6:
+                resume(d);
+                break;
+            case 8:
+                requestMembers(d);
+                break;
+            default:
+                // presence and voice state updates are accepted and ignored
+                break;
+        }
+    }
+
+    private void identify(JsonNode d) {
+        int shardIndex = d.path("shard").path(0).asInt(0);
+        int shardCount = d.path("shard").path(1).asInt(1);
+        MockGatewayServer.Session newSession = server.identify(this, shardIndex, shardCount);
+        synchronized (this) {
+            session = newSession;
+        }
+        long[] guildIds = server.getGuildIds(shardIndex, shardCount);
+        // building a large guild storm is expensive, keep it off the event loop
+        Mono.fromRunnable(() -> {
+                    dispatch("READY", payloads.ready(newSession.id, server.getUrl(), shardIndex, shardCount,
+                            guildIds));
+                    for (long guildId : guildIds) {
+                        dispatch("GUILD_CREATE", payloads.guildCreate(guildId, server.getMembersPerGuild()));
+                    }
+                    startEvents(guildIds);
+                })
+                .subscribeOn(Schedulers.parallel())
+                .subscribe();
+    }
+
+    private void resume(JsonNode d) {
+        MockGatewayServer.Session resumed = server.resume(this, d.path("session_id").asText());
+        if (resumed == null) {
+            send(payloads.invalidSession(false));
+            return;
+        }
+        synchronized (this) {
+            session = resumed;
+        }
+        dispatch("RESUMED", payloads.resumed());
+        startEvents(server.getGuildIds(resumed.shardIndex, resumed.shardCount));
+    }
+
+    private void requestMembers(JsonNode d) {
+        JsonNode guildIds = d.path("guild_id");
+        String nonce = d.hasNonNull("nonce") ? d.get("nonce").asText() : null;
+        Iterable<JsonNode> ids = guildIds.isArray() ? guildIds : Collections.singletonList(guildIds);
+        for (JsonNode id : ids) {
+            dispatch("GUILD_MEMBERS_CHUNK", payloads.guildMembersChunk(id.asLong(), server.getMembersPerGuild(),
+                    nonce));
+        }
+    }
+
+    private void startEvents(long[] guildIds) {
+        int rate = server.getEventsPerSecond();
+        if (rate <= 0 || guildIds.length == 0) {
+            return;
+        }
+        int members = Math.max(1, server.getMembersPerGuild());
+        events.update(Flux.interval(Duration.ofNanos(1_000_000_000L / rate), Schedulers.parallel())
+                .onBackpressureDrop()
+                .subscribe(tick -> dispatch("TYPING_START",
+                        payloads.typingStart(guildIds[(int) (tick % guildIds.length)], (int) (tick % members)))));
+    }
+
+    void sendReconnect() {
+        send(payloads.reconnect());
+    }
+
+    void invalidateSession(boolean resumable) {
+        MockGatewayServer.Session current;
+        synchronized (this) {
+            current = session;
+        }
+        if (current != null && !resumable) {
+            server.invalidate(current);
+        }
+        send(payloads.invalidSession(resumable));
+    }
+
+    synchronized void close(int closeCode, String reason) {
+        if (closed) {
+            return;
+        }
+        frames.tryEmitNext(new CloseWebSocketFrame(closeCode, reason));
+        complete();
+    }
+
+    private synchronized void dispatch(String type, JsonNode data) {
+        if (session == null) {
+            return;
+        }
+        send(payloads.dispatch(type, session.sequence.incrementAndGet(), data));
+    }
+
+    private synchronized void send(JsonNode payload) {
+        if (closed) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+        WebSocketFrame frame = deflater != null ? new BinaryWebSocketFrame(compress(json)) :
+                new TextWebSocketFrame(Unpooled.wrappedBuffer(json));
+        if (frames.tryEmitNext(frame).isFailure()) {
+            frame.release();
+        }
+    }
+
+    private ByteBuf compress(byte[] input) {
+        // zlib-stream: a single deflate context for the whole connection, every message ends on a sync flush
+        Deflater deflater = Objects.requireNonNull(this.deflater);
+        deflater.setInput(input);
+        ByteBuf out = Unpooled.buffer(Math.max(64, input.length / 4));
+        byte[] chunk = new byte[8192];
+        int length;
+        do {
+            length = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+            out.writeBytes(chunk, 0, length);
+        } while (length == chunk.length);
+        return out;
+    }
+
+    private synchronized void complete() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        events.dispose();
+        frames.tryEmitComplete();
+        server.onClose(this, session);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Builds the raw JSON payloads sent by {@link MockGatewayServer}. Entities are synthetic but carry every field a
+ * real Gateway sends, so they deserialize through the regular payload reader.
+ */
+class MockGatewayPayloads {
+
+    static final long BOT_ID = 1L << 22;
+    private static final String TIMESTAMP = Instant.EPOCH.toString();
+
+    private final ObjectMapper mapper;
+
+    MockGatewayPayloads(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    static long guildId(int guildIndex) {
+        return (guildIndex + 1L) << 22;
+    }
+
+    static int shardOf(long guildId, int shardCount) {
+        return (int) ((guildId >> 22) % shardCount);
+    }
+
+    private static long channelId(long guildId) {
+        return guildId + 1;
+    }
+
+    private static long userId(long guildId, int memberIndex) {
+        return guildId + 2 + memberIndex;
+    }
+
+    ObjectNode hello(long heartbeatInterval) {
+        ObjectNode d = mapper.createObjectNode().put("heartbeat_interval", heartbeatInterval);
+        return payload(10, d);
+    }
+
+    ObjectNode heartbeatAck() {
+        return payload(11, null);
+    }
+
+    ObjectNode reconnect() {
+        return payload(7, null);
+    }
+
+    ObjectNode invalidSession(boolean resumable) {
+        return payload(9, mapper.getNodeFactory().booleanNode(resumable));
+    }
+
+    ObjectNode dispatch(String type, int sequence, JsonNode data) {
+        ObjectNode payload = payload(0, data);
+        payload.put("s", sequence);
+        payload.put("t", type);
+        return payload;
+    }
+
+    private ObjectNode payload(int op, @Nullable JsonNode data) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("op", op);
+        payload.set("d", data == null ? mapper.nullNode() : data);
+        payload.putNull("s");
+        payload.putNull("t");
+        return payload;
+    }
+
+    ObjectNode ready(String sessionId, String resumeUrl, int shardIndex, int shardCount, long[] guildIds) {
+        ObjectNode d = mapper.createObjectNode();
+        d.put("v", 10);
+        d.set("user", user(BOT_ID, "mock-bot", true));
+        ArrayNode guilds = d.putArray("guilds");
+        for (long guildId : guildIds) {
+            guilds.addObject().put("id", Long.toString(guildId)).put("unavailable", true);
+        }
+        d.put("session_id", sessionId);
+        d.put("resume_gateway_url", resumeUrl);
+        d.putArray("shard").add(shardIndex).add(shardCount);
+        d.putObject("application").put("id", Long.toString(BOT_ID)).put("flags", 0);
+        return d;
+    }
+
+    ObjectNode resumed() {
+        return mapper.createObjectNode();
+    }
+
+    ObjectNode guildCreate(long guildId, int memberCount) {
+        String id = Long.toString(guildId);
+        ObjectNode d = mapper.createObjectNode();
+        d.put("id", id);
+        d.put("name", "Mock Guild " + (guildId >> 22));
+        d.putNull("icon");
+        d.putNull("splash");
+        d.putNull("discovery_splash");
+        d.put("owner_id", Long.toString(BOT_ID));
+        d.putNull("afk_channel_id");
+        d.put("afk_timeout", 300);
+        d.put("verification_level", 0);
+        d.put("default_message_notifications", 0);
+        d.put("explicit_content_filter", 0);
+        ObjectNode everyone = d.putArray("roles").addObject();
+        everyone.put("id", id);
+        everyone.put("name", "@everyone");
+        everyone.put("color", 0);
+        everyone.put("hoist", false);
+        everyone.put("position", 0);
+        everyone.put("permissions", "104324673");
+        everyone.put("managed", false);
+        everyone.put("mentionable", false);
+        everyone.put("flags", 0);
+        d.putArray("emojis");
+        d.putArray("features");
+        d.put("mfa_level", 0);
+        d.putNull("application_id");
+        d.putNull("system_channel_id");
+        d.put("system_channel_flags", 0);
+        d.putNull("rules_channel_id");
+        d.putNull("vanity_url_code");
+        d.putNull("description");
+        d.putNull("banner");
+        d.put("premium_tier", 0);
+        d.put("preferred_locale", "en-US");
+        d.putNull("public_updates_channel_id");
+        d.put("nsfw_level", 0);
+        d.put("premium_progress_bar_enabled", false);
+        d.putNull("safety_alerts_channel_id");
+        d.put("joined_at", TIMESTAMP);
+        d.put("large", memberCount > 250);
+        d.put("unavailable", false);
+        d.put("member_count", memberCount + 1);
+        d.putArray("voice_states");
+        ArrayNode members = d.putArray("members");
+        members.add(member(BOT_ID, "mock-bot", true));
+        for (int i = 0; i < memberCount; i++) {
+            members.add(member(userId(guildId, i), "user-" + i, false));
+        }
+        ObjectNode channel = d.putArray("channels").addObject();
+        channel.put("id", Long.toString(channelId(guildId)));
+        channel.put("type", 0);
+        channel.put("guild_id", id);
+        channel.put("position", 0);
+        channel.putArray("permission_overwrites");
+        channel.put("name", "general");
+        channel.putNull("topic");
+        channel.put("nsfw", false);
+        channel.putNull("last_message_id");
+        channel.put("rate_limit_per_user", 0);
+        channel.putNull("parent_id");
+        d.putArray("threads");
+        d.putArray("presences");
+        d.putArray("stage_instances");
+        d.putArray("stickers");
+        d.putArray("guild_scheduled_events");
+        d.putArray("soundboard_sounds");
+        return d;
+    }
+
+    ObjectNode guildMembersChunk(long guildId, int memberCount, @Nullable String nonce) {
+        ObjectNode d = mapper.createObjectNode();
+        d.put("guild_id", Long.toString(guildId));
+        ArrayNode members = d.putArray("members");
+        for (int i = 0; i < memberCount; i++) {
+            members.add(member(userId(guildId, i), "user-" + i, false));
+        }
+        d.put("chunk_index", 0);
+        d.put("chunk_count", 1);
+        if (nonce != null) {
+            d.put("nonce", nonce);
+        }
+        return d;
+    }
+
+    ObjectNode typingStart(long guildId, int memberIndex) {
+        ObjectNode d = mapper.createObjectNode();
+        d.put("channel_id", Long.toString(channelId(guildId)));
+        d.put("guild_id", Long.toString(guildId));
+        d.put("user_id", Long.toString(userId(guildId, memberIndex)));
+        d.put("timestamp", System.currentTimeMillis() / 1000);
+        d.set("member", member(userId(guildId, memberIndex), "user-" + memberIndex, false));
+        return d;
+    }
+
+    private ObjectNode member(long userId, String username, boolean bot) {
+        ObjectNode member = mapper.createObjectNode();
+        member.set("user", user(userId, username, bot));
+        member.putNull("nick");
+        member.putNull("avatar");
+        member.putArray("roles");
+        member.put("joined_at", TIMESTAMP);
+        member.put("deaf", false);
+        member.put("mute", false);
+        member.put("flags", 0);
+        return member;
+    }
+
+    private ObjectNode user(long userId, String username, boolean bot) {
+        ObjectNode user = mapper.createObjectNode();
+        user.put("id", Long.toString(userId));
+        user.put("username", username);
+        user.put("discriminator", "0");
+        user.putNull("global_name");
+        user.putNull("avatar");
+        user.put("bot", bot);
+        return user;
+    }
+}
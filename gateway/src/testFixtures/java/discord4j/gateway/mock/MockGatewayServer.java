@@ -0,0 +1,414 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.gateway.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.common.JacksonResources;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.WebsocketServerSpec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * A local server speaking the Discord Gateway protocol over WebSocket, to load and resilience test gateway clients
+ * without connecting to Discord.
+ * <p>
+ * The server sends HELLO on connect, answers IDENTIFY with READY followed by a GUILD_CREATE for every configured
+ * guild belonging to the shard, accepts RESUME for sessions it issued, acknowledges heartbeats and answers member
+ * requests. Payloads are compressed using zlib-stream when the client asks for it through the {@code compress} query
+ * parameter. Once connected, shards can receive synthetic events at a fixed rate, and disconnects with arbitrary
+ * close codes can be triggered on demand or periodically.
+ * <pre>
+ * MockGatewayServer server = MockGatewayServer.builder()
+ *         .guilds(100, 1000)
+ *         .eventsPerSecond(50)
+ *         .start();
+ * client.execute(server.getUrl() + "?v=10&amp;encoding=json&amp;compress=zlib-stream").subscribe();
+ * </pre>
+ */
+public class MockGatewayServer implements Disposable {
+
+    private final ObjectMapper mapper;
+    private final Duration heartbeatInterval;
+    private final int guildCount;
+    private final int membersPerGuild;
+    private final int eventsPerSecond;
+    private final boolean acknowledgeHeartbeats;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Integer, MockGatewayConnection> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectCount = new AtomicInteger();
+    private final AtomicInteger identifyCount = new AtomicInteger();
+    private final AtomicInteger resumeCount = new AtomicInteger();
+    private final AtomicInteger heartbeatCount = new AtomicInteger();
+    private final Disposable.Composite scripts = Disposables.composite();
+    private final DisposableServer server;
+
+    private MockGatewayServer(Builder builder) {
+        this.mapper = builder.mapper != null ? builder.mapper : JacksonResources.create().getObjectMapper();
+        this.heartbeatInterval = builder.heartbeatInterval;
+        this.guildCount = builder.guildCount;
+        this.membersPerGuild = builder.membersPerGuild;
+        this.eventsPerSecond = builder.eventsPerSecond;
+        this.acknowledgeHeartbeats = builder.acknowledgeHeartbeats;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(builder.port)
+                .handle((req, res) -> {
+                    List<String> compress = new QueryStringDecoder(req.uri()).parameters()
+                            .getOrDefault("compress", Collections.emptyList());
+                    MockGatewayConnection connection = new MockGatewayConnection(this,
+                            compress.contains("zlib-stream"));
+                    connectCount.incrementAndGet();
+                    return res.sendWebsocket(connection::handle, WebsocketServerSpec.builder()
+                            .maxFramePayloadLength(Integer.MAX_VALUE)
+                            .build());
+                })
+                .bindNow();
+        if (builder.disconnectPeriod != null) {
+            int closeCode = builder.disconnectCloseCode;
+            scripts.add(Flux.interval(builder.disconnectPeriod, Schedulers.parallel())
+                    .subscribe(tick -> disconnectAll(closeCode)));
+        }
+    }
+
+    /**
+     * Create a builder to configure and start a {@link MockGatewayServer}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Return the base WebSocket URL of this server, without query parameters.
+     *
+     * @return the server URL
+     */
+    public String getUrl() {
+        return "ws://" + server.host() + ":" + server.port();
+    }
+
+    /**
+     * Force the connection of the given shard to close with a close code, as Discord does on errors.
+     *
+     * @param shardIndex the shard index whose connection should close
+     * @param closeCode the WebSocket close code to send, for example 4000 to allow resuming or 4009 for a session
+     * timeout
+     */
+    public void disconnect(int shardIndex, int closeCode) {
+        MockGatewayConnection connection = connections.get(shardIndex);
+        if (connection != null) {
+            connection.close(closeCode, "Disconnected by mock gateway");
+        }
+    }
+
+    /**
+     * Force every identified connection to close with a close code.
+     *
+     * @param closeCode the WebSocket close code to send
+     */
+    public void disconnectAll(int closeCode) {
+        for (MockGatewayConnection connection : new ArrayList<>(connections.values())) {
+            connection.close(closeCode, "Disconnected by mock gateway");
+        }
+    }
+
+    /**
+     * Send a RECONNECT request to the given shard.
+     *
+     * @param shardIndex the shard index to request a reconnect from
+     */
+    public void sendReconnect(int shardIndex) {
+        MockGatewayConnection connection = connections.get(shardIndex);
+        if (connection != null) {
+            connection.sendReconnect();
+        }
+    }
+
+    /**
+     * Send an INVALID_SESSION to the given shard. Non-resumable invalidations also forget the session, so a later
+     * RESUME attempt is rejected.
+     *
+     * @param shardIndex the shard index whose session is invalidated
+     * @param resumable whether the client may resume the session
+     */
+    public void invalidateSession(int shardIndex, boolean resumable) {
+        MockGatewayConnection connection = connections.get(shardIndex);
+        if (connection != null) {
+            connection.invalidateSession(resumable);
+        }
+    }
+
+    /**
+     * Return the number of WebSocket connections accepted since this server started.
+     *
+     * @return the number of connections
+     */
+    public int getConnectCount() {
+        return connectCount.get();
+    }
+
+    /**
+     * Return the number of IDENTIFY payloads received since this server started.
+     *
+     * @return the number of identifies
+     */
+    public int getIdentifyCount() {
+        return identifyCount.get();
+    }
+
+    /**
+     * Return the number of sessions successfully resumed since this server started.
+     *
+     * @return the number of resumes
+     */
+    public int getResumeCount() {
+        return resumeCount.get();
+    }
+
+    /**
+     * Return the number of heartbeats received since this server started.
+     *
+     * @return the number of heartbeats
+     */
+    public int getHeartbeatCount() {
+        return heartbeatCount.get();
+    }
+
+    /**
+     * Return the number of shards currently identified or resumed on an open connection.
+     *
+     * @return the number of connected shards
+     */
+    public int getConnectedShardCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void dispose() {
+        scripts.dispose();
+        disconnectAll(1001);
+        server.disposeNow();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return server.isDisposed();
+    }
+
+    ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    int getMembersPerGuild() {
+        return membersPerGuild;
+    }
+
+    int getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    boolean isAcknowledgeHeartbeats() {
+        return acknowledgeHeartbeats;
+    }
+
+    long[] getGuildIds(int shardIndex, int shardCount) {
+        return IntStream.range(0, guildCount)
+                .mapToLong(MockGatewayPayloads::guildId)
+                .filter(id -> MockGatewayPayloads.shardOf(id, shardCount) == shardIndex)
+                .toArray();
+    }
+
+    Session identify(MockGatewayConnection connection, int shardIndex, int shardCount) {
+        identifyCount.incrementAndGet();
+        Session session = new Session(UUID.randomUUID().toString().replace("-", ""), shardIndex, shardCount);
+        sessions.put(session.id, session);
+        connections.put(shardIndex, connection);
+        return session;
+    }
+
+    @Nullable Session resume(MockGatewayConnection connection, String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        resumeCount.incrementAndGet();
+        connections.put(session.shardIndex, connection);
+        return session;
+    }
+
+    void onHeartbeat() {
+        heartbeatCount.incrementAndGet();
+    }
+
+    void invalidate(Session session) {
+        sessions.remove(session.id);
+    }
+
+    void onClose(MockGatewayConnection connection, @Nullable Session session) {
+        if (session != null) {
+            connections.remove(session.shardIndex, connection);
+        }
+    }
+
+    static class Session {
+
+        final String id;
+        final int shardIndex;
+        final int shardCount;
+        final AtomicInteger sequence = new AtomicInteger();
+
+        Session(String id, int shardIndex, int shardCount) {
+            this.id = id;
+            this.shardIndex = shardIndex;
+            this.shardCount = shardCount;
+        }
+    }
+
+    /**
+     * Configures a {@link MockGatewayServer}.
+     */
+    public static class Builder {
+
+        private @Nullable ObjectMapper mapper;
+        private int port = 0;
+        private Duration heartbeatInterval = Duration.ofMillis(41250);
+        private int guildCount = 0;
+        private int membersPerGuild = 0;
+        private int eventsPerSecond = 0;
+        private boolean acknowledgeHeartbeats = true;
+        private @Nullable Duration disconnectPeriod;
+        private int disconnectCloseCode = 4000;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the {@link ObjectMapper} used to write payloads. Defaults to the one from {@link JacksonResources}.
+         *
+         * @param mapper the mapper to use
+         * @return this builder
+         */
+        public Builder mapper(ObjectMapper mapper) {
+            this.mapper = mapper;
+            return this;
+        }
+
+        /**
+         * Set the local port to bind to. Defaults to 0, picking a free port.
+         *
+         * @param port the port to bind to
+         * @return this builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Set the heartbeat interval announced in HELLO. Defaults to 41.25 seconds like Discord.
+         *
+         * @param heartbeatInterval the interval clients should heartbeat at
+         * @return this builder
+         */
+        public Builder heartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+            return this;
+        }
+
+        /**
+         * Set the number of guilds spread across all shards and the number of members each of them has. Every
+         * identifying shard receives a GUILD_CREATE storm with its share of guilds right after READY.
+         *
+         * @param guildCount the total number of guilds
+         * @param membersPerGuild the number of members included in each GUILD_CREATE, excluding the bot
+         * @return this builder
+         */
+        public Builder guilds(int guildCount, int membersPerGuild) {
+            this.guildCount = guildCount;
+            this.membersPerGuild = membersPerGuild;
+            return this;
+        }
+
+        /**
+         * Set the number of synthetic TYPING_START events each connected shard receives per second, spread over its
+         * guilds. Defaults to 0, sending no events.
+         *
+         * @param eventsPerSecond the event rate per shard
+         * @return this builder
+         */
+        public Builder eventsPerSecond(int eventsPerSecond) {
+            this.eventsPerSecond = eventsPerSecond;
+            return this;
+        }
+
+        /**
+         * Set whether heartbeats are acknowledged. Disable to simulate a zombie connection. Defaults to {@code true}.
+         *
+         * @param acknowledgeHeartbeats whether to reply to heartbeats
+         * @return this builder
+         */
+        public Builder acknowledgeHeartbeats(boolean acknowledgeHeartbeats) {
+            this.acknowledgeHeartbeats = acknowledgeHeartbeats;
+            return this;
+        }
+
+        /**
+         * Periodically close every connection with the given close code.
+         *
+         * @param period the time between forced disconnects
+         * @param closeCode the WebSocket close code to send
+         * @return this builder
+         */
+        public Builder disconnectEvery(Duration period, int closeCode) {
+            this.disconnectPeriod = period;
+            this.disconnectCloseCode = closeCode;
+            return this;
+        }
+
+        /**
+         * Bind and start the server.
+         *
+         * @return a running {@link MockGatewayServer}
+         */
+        public MockGatewayServer start() {
+            return new MockGatewayServer(this);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.rest.mock;
+
+import discord4j.rest.RestClient;
+import discord4j.rest.request.DefaultRouter;
+import discord4j.rest.route.Routes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MockRestServerTest {
+
+    private MockRestServer server;
+
+    @AfterEach
+    public void teardown() {
+        if (server != null) {
+            server.dispose();
+        }
+    }
+
+    @Test
+    public void routerWaitsForBucketReset() {
+        server = MockRestServer.builder()
+                .defaultBucket(2, Duration.ofMillis(500))
+                .start();
+        RestClient client = newClient(server);
+
+        long start = System.nanoTime();
+        Flux.range(0, 6)
+                .flatMap(i -> Routes.MESSAGES_GET.newRequest(1L).exchange(client.getRestResources().getRouter())
+                        .skipBody())
+                .blockLast(Duration.ofSeconds(10));
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(6, server.getRequestCount());
+        assertEquals(0, server.getRateLimitedCount());
+        assertTrue(elapsed >= 900, "three windows of two requests span at least two resets: " + elapsed);
+    }
+
+    @Test
+    public void routerRetriesServerErrors() {
+        server = MockRestServer.builder().start();
+        RestClient client = newClient(server);
+        server.failNext(1, 502);
+
+        Routes.CHANNEL_GET.newRequest(1L)
+                .exchange(client.getRestResources().getRouter())
+                .skipBody()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(1, server.getServerErrorCount());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    static RestClient newClient(MockRestServer server) {
+        return RestClient.restBuilder("mock-token")
+                .build(options -> new DefaultRouter(server.routerOptions(options)));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.rest.mock;
+
+import discord4j.rest.RestClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Drives a {@link RestClient} against a {@link MockRestServer} with Discord-like limits and latency. Set
+ * {@code D4J_REST_LOAD_RPS} to the target request rate to run it.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_REST_LOAD_RPS", matches = "\\d+")
+public class RestLoadTest {
+
+    private static final Logger log = Loggers.getLogger(RestLoadTest.class);
+
+    @Test
+    public void reportLoad() {
+        int rate = Integer.parseInt(System.getenv("D4J_REST_LOAD_RPS"));
+        MockRestServer server = MockRestServer.builder()
+                .latency(MockLatency.logNormal(Duration.ofMillis(40), 0.5))
+                .defaultBucket(5, Duration.ofSeconds(1))
+                .globalLimit(50)
+                .serverErrorRate(0.001)
+                .start();
+        try {
+            RestClient client = MockRestServerTest.newClient(server);
+            RestLoadGenerator.Report report = RestLoadGenerator.builder(client)
+                    .rate(rate)
+                    .duration(Duration.ofSeconds(30))
+                    .request(RestLoadGenerator.Builder.channels(20))
+                    .build()
+                    .run()
+                    .block();
+            assertNotNull(report);
+            log.info("{} rps: {}, server saw {} requests, {} rate limited ({} global), {} errors", rate, report,
+                    server.getRequestCount(), server.getRateLimitedCount(), server.getGlobalRateLimitedCount(),
+                    server.getServerErrorCount());
+        } finally {
+            server.dispose();
+        }
+    }
+}
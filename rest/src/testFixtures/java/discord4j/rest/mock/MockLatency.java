@@ -0,0 +1,82 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.rest.mock;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A distribution of response latencies for {@link MockRestServer}.
+ */
+@FunctionalInterface
+public interface MockLatency {
+
+    /**
+     * Return the latency to apply to the next response.
+     *
+     * @return a non-negative latency
+     */
+    Duration next();
+
+    /**
+     * Respond without added latency.
+     *
+     * @return a latency of zero
+     */
+    static MockLatency none() {
+        return () -> Duration.ZERO;
+    }
+
+    /**
+     * Respond after a constant latency.
+     *
+     * @param latency the latency of every response
+     * @return a fixed latency
+     */
+    static MockLatency fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    /**
+     * Respond after a latency uniformly distributed between two bounds.
+     *
+     * @param min the lowest latency, inclusive
+     * @param max the highest latency, exclusive
+     * @return a uniform latency
+     */
+    static MockLatency uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return () -> Duration.ofNanos(minNanos >= maxNanos ? minNanos :
+                ThreadLocalRandom.current().nextLong(minNanos, maxNanos));
+    }
+
+    /**
+     * Respond after a log-normally distributed latency, a common model of network and server latency with a long
+     * tail.
+     *
+     * @param median the median latency
+     * @param sigma the standard deviation of the underlying normal distribution, 0.5 gives a p99 around 3.2 times
+     * the median
+     * @return a log-normal latency
+     */
+    static MockLatency logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.rest.mock;
+
+import discord4j.rest.request.RouterOptions;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local HTTP server emulating how the Discord REST API rate limits requests, to tune and load test the REST
+ * request pipeline without connecting to Discord.
+ * <p>
+ * Requests are mapped to a route by replacing numeric path segments with {@code {id}}, for example
+ * {@code GET /channels/{id}/messages}. Each route belongs to a bucket identified by a hash, returned in the
+ * {@code X-RateLimit-Bucket} header. Routes share a bucket when they are configured with the same hash, otherwise
+ * each route has its own bucket using the default limits. As in Discord, bucket state is tracked per hash and major
+ * parameter (the channel, guild or webhook ID).
+ * <p>
+ * Requests over a bucket limit are answered with a 429 carrying {@code Retry-After} and the
+ * {@code X-RateLimit-*} headers, and requests over the global limit with a global 429. Server errors can be injected
+ * at a fixed rate or in bursts through {@link #failNext(int, int)}, and responses are delayed according to a
+ * {@link MockLatency}. Successful responses carry a fixed JSON body.
+ */
+public class MockRestServer implements Disposable {
+
+    private static final String RATE_LIMITED_BODY =
+            "{\"message\": \"You are being rate limited.\", \"retry_after\": %.3f, \"global\": %b}";
+
+    private final MockLatency latency;
+    private final Limit defaultLimit;
+    private final Map<String, String> routeBuckets;
+    private final Map<String, Limit> bucketLimits;
+    private final int globalLimit;
+    private final double serverErrorRate;
+    private final String responseBody;
+
+    private final Map<String, BucketState> buckets = new ConcurrentHashMap<>();
+    private final Object globalLock = new Object();
+    private long globalWindowEnd;
+    private int globalCount;
+
+    private final AtomicInteger pendingFailures = new AtomicInteger();
+    private volatile int pendingFailureStatus = 500;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    private final AtomicLong globalRateLimitedCount = new AtomicLong();
+    private final AtomicLong serverErrorCount = new AtomicLong();
+
+    private final DisposableServer server;
+
+    private MockRestServer(Builder builder) {
+        this.latency = builder.latency;
+        this.defaultLimit = builder.defaultLimit;
+        this.routeBuckets = new HashMap<>(builder.routeBuckets);
+        this.bucketLimits = new HashMap<>(builder.bucketLimits);
+        this.globalLimit = builder.globalLimit;
+        this.serverErrorRate = builder.serverErrorRate;
+        this.responseBody = builder.responseBody;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(builder.port)
+                .handle((req, res) -> req.receive().then(Mono.defer(() -> respond(req, res))))
+                .bindNow();
+    }
+
+    /**
+     * Create a builder to configure and start a {@link MockRestServer}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Return the base URL of this server, to be used in place of the Discord API base URL.
+     *
+     * @return the server URL
+     */
+    public String getBaseUrl() {
+        return "http://" + server.host() + ":" + server.port();
+    }
+
+    /**
+     * Derive {@link RouterOptions} targeting this server from the given ones, to be used in a router factory:
+     * <pre>
+     * RestClient.restBuilder(token).build(options -&gt; new DefaultRouter(server.routerOptions(options)));
+     * </pre>
+     *
+     * @param options the options built by a {@link discord4j.rest.RestClientBuilder}
+     * @return a copy of the options with this server as the base URL
+     */
+    public RouterOptions routerOptions(RouterOptions options) {
+        return new RouterOptions(options.getAuthorizationScheme(), options.getToken(), options.getReactorResources(),
+                options.getExchangeStrategies(), options.getResponseTransformers(), options.getGlobalRateLimiter(),
+                options.getRequestQueueFactory(), getBaseUrl());
+    }
+
+    /**
+     * Answer the next requests with a server error, simulating an outage burst.
+     *
+     * @param count the number of requests to fail
+     * @param status the 5xx status to answer with
+     */
+    public void failNext(int count, int status) {
+        this.pendingFailureStatus = status;
+        this.pendingFailures.set(count);
+    }
+
+    /**
+     * Return the number of requests received since this server started.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Return the number of requests answered with a 429, including global ones.
+     *
+     * @return the number of rate limited requests
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    /**
+     * Return the number of requests answered with a global 429.
+     *
+     * @return the number of globally rate limited requests
+     */
+    public long getGlobalRateLimitedCount() {
+        return globalRateLimitedCount.get();
+    }
+
+    /**
+     * Return the number of requests answered with a server error.
+     *
+     * @return the number of failed requests
+     */
+    public long getServerErrorCount() {
+        return serverErrorCount.get();
+    }
+
+    @Override
+    public void dispose() {
+        server.disposeNow();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return server.isDisposed();
+    }
+
+    private Mono<Void> respond(HttpServerRequest req, HttpServerResponse res) {
+        Reply reply = evaluate(req.method().name(), new QueryStringDecoder(req.uri()).path());
+        Mono<Void> send = Mono.defer(() -> {
+            res.status(reply.status);
+            res.header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+            reply.headers.forEach(res::header);
+            return res.sendString(Mono.just(reply.body)).then();
+        });
+        Duration delay = latency.next();
+        return delay.isZero() ? send : Mono.delay(delay).then(send);
+    }
+
+    private Reply evaluate(String method, String path) {
+        requestCount.incrementAndGet();
+        long now = System.nanoTime();
+
+        boolean burst = pendingFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+        if (burst || (serverErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < serverErrorRate)) {
+            serverErrorCount.incrementAndGet();
+            return new Reply(burst ? pendingFailureStatus : 500, new LinkedHashMap<>(),
+                    "{\"message\": \"Mock server error\", \"code\": 0}");
+        }
+
+        if (globalLimit > 0) {
+            long retryAfterNanos = 0;
+            synchronized (globalLock) {
+                if (now - globalWindowEnd >= 0) {
+                    globalWindowEnd = now + Duration.ofSeconds(1).toNanos();
+                    globalCount = 0;
+                }
+                if (++globalCount > globalLimit) {
+                    retryAfterNanos = globalWindowEnd - now;
+                }
+            }
+            if (retryAfterNanos > 0) {
+                globalRateLimitedCount.incrementAndGet();
+                rateLimitedCount.incrementAndGet();
+                Map<String, String> headers = new LinkedHashMap<>();
+                headers.put("Retry-After", Long.toString(ceilSeconds(retryAfterNanos)));
+                headers.put("X-RateLimit-Global", "true");
+                headers.put("X-RateLimit-Scope", "global");
+                return new Reply(429, headers, rateLimitedBody(retryAfterNanos, true));
+            }
+        }
+
+        String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+        String route = method + " " + toTemplate(segments);
+        String hash = routeBuckets.computeIfAbsent(route, r -> Integer.toHexString(r.hashCode()));
+        Limit limit = bucketLimits.getOrDefault(hash, defaultLimit);
+        BucketState bucket = buckets.computeIfAbsent(hash + ":" + majorParam(segments), k -> new BucketState());
+
+        int remaining;
+        long resetAfterNanos;
+        synchronized (bucket) {
+            if (now - bucket.resetAt >= 0) {
+                bucket.resetAt = now + limit.resetAfter.toNanos();
+                bucket.remaining = limit.count;
+            }
+            resetAfterNanos = bucket.resetAt - now;
+            remaining = bucket.remaining > 0 ? --bucket.remaining : -1;
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-RateLimit-Limit", Integer.toString(limit.count));
+        headers.put("X-RateLimit-Remaining", Integer.toString(Math.max(0, remaining)));
+        headers.put("X-RateLimit-Reset", seconds(System.currentTimeMillis() * 1_000_000L + resetAfterNanos));
+        headers.put("X-RateLimit-Reset-After", seconds(resetAfterNanos));
+        headers.put("X-RateLimit-Bucket", hash);
+        if (remaining < 0) {
+            rateLimitedCount.incrementAndGet();
+            headers.put("Retry-After", Long.toString(ceilSeconds(resetAfterNanos)));
+            headers.put("X-RateLimit-Scope", "user");
+            return new Reply(429, headers, rateLimitedBody(resetAfterNanos, false));
+        }
+        return new Reply(200, headers, responseBody);
+    }
+
+    private static String toTemplate(String[] segments) {
+        StringBuilder template = new StringBuilder();
+        for (String segment : segments) {
+            template.append('/').append(isId(segment) ? "{id}" : segment);
+        }
+        return template.toString();
+    }
+
+    private static String majorParam(String[] segments) {
+        if (segments.length > 1 && Arrays.asList("channels", "guilds", "webhooks").contains(segments[0])) {
+            return segments[1];
+        }
+        return "";
+    }
+
+    private static boolean isId(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e9);
+    }
+
+    private static String rateLimitedBody(long retryAfterNanos, boolean global) {
+        return String.format(Locale.ROOT, RATE_LIMITED_BODY, retryAfterNanos / 1e9, global);
+    }
+
+    private static class Limit {
+
+        private final int count;
+        private final Duration resetAfter;
+
+        private Limit(int count, Duration resetAfter) {
+            this.count = count;
+            this.resetAfter = resetAfter;
+        }
+    }
+
+    private static class BucketState {
+
+        // guarded by this
+        private long resetAt = System.nanoTime();
+        private int remaining;
+    }
+
+    private static class Reply {
+
+        private final int status;
+        private final Map<String, String> headers;
+        private final String body;
+
+        private Reply(int status, Map<String, String> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Configures a {@link MockRestServer}.
+     */
+    public static class Builder {
+
+        private int port = 0;
+        private MockLatency latency = MockLatency.none();
+        private Limit defaultLimit = new Limit(5, Duration.ofSeconds(5));
+        private final Map<String, String> routeBuckets = new HashMap<>();
+        private final Map<String, Limit> bucketLimits = new HashMap<>();
+        private int globalLimit = 50;
+        private double serverErrorRate = 0;
+        private String responseBody = "{}";
+
+        private Builder() {
+        }
+
+        /**
+         * Set the local port to bind to. Defaults to 0, picking a free port.
+         *
+         * @param port the port to bind to
+         * @return this builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Set the distribution of response latencies. Defaults to {@link MockLatency#none()}.
+         *
+         * @param latency the latency distribution
+         * @return this builder
+         */
+        public Builder latency(MockLatency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Set the limit of routes without an explicitly configured bucket. Defaults to 5 requests every 5 seconds.
+         *
+         * @param count the number of requests allowed per window
+         * @param resetAfter the window length
+         * @return this builder
+         */
+        public Builder defaultBucket(int count, Duration resetAfter) {
+            this.defaultLimit = new Limit(count, resetAfter);
+            return this;
+        }
+
+        /**
+         * Configure a bucket shared by the given routes.
+         *
+         * @param hash the bucket hash returned in {@code X-RateLimit-Bucket}
+         * @param count the number of requests allowed per window
+         * @param resetAfter the window length
+         * @param routes the routes in this bucket, as a method and a path template, for example
+         * {@code "GET /channels/{id}/messages"}
+         * @return this builder
+         */
+        public Builder bucket(String hash, int count, Duration resetAfter, String... routes) {
+            this.bucketLimits.put(hash, new Limit(count, resetAfter));
+            for (String route : routes) {
+                this.routeBuckets.put(route, hash);
+            }
+            return this;
+        }
+
+        /**
+         * Set the number of requests allowed per second across all routes. Defaults to 50, use 0 to disable.
+         *
+         * @param globalLimit the global limit per second
+         * @return this builder
+         */
+        public Builder globalLimit(int globalLimit) {
+            this.globalLimit = globalLimit;
+            return this;
+        }
+
+        /**
+         * Set the probability of answering any request with a 500 error. Defaults to 0.
+         *
+         * @param serverErrorRate a probability between 0 and 1
+         * @return this builder
+         */
+        public Builder serverErrorRate(double serverErrorRate) {
+            this.serverErrorRate = serverErrorRate;
+            return this;
+        }
+
+        /**
+         * Set the JSON body of successful responses. Defaults to an empty object.
+         *
+         * @param responseBody the response body
+         * @return this builder
+         */
+        public Builder responseBody(String responseBody) {
+            this.responseBody = responseBody;
+            return this;
+        }
+
+        /**
+         * Bind and start the server.
+         *
+         * @return a running {@link MockRestServer}
+         */
+        public MockRestServer start() {
+            return new MockRestServer(this);
+        }
+    }
+}
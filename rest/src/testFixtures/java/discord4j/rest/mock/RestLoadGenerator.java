@@ -0,0 +1,306 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.rest.mock;
+
+import discord4j.rest.RestClient;
+import discord4j.rest.http.client.ClientException;
+import discord4j.rest.request.DiscordWebRequest;
+import discord4j.rest.request.Router;
+import discord4j.rest.route.Routes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Drives a {@link RestClient} at a target request rate for a fixed duration and reports latency percentiles, errors
+ * and achieved throughput. Load is open-loop: requests are issued on schedule regardless of how fast responses arrive,
+ * up to a maximum number in flight, past which scheduled requests are counted as dropped.
+ * <p>
+ * Latency is measured from submitting a request to the client until its response is read, so it includes time spent
+ * queued behind rate limits.
+ */
+public class RestLoadGenerator {
+
+    private final Router router;
+    private final int rate;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final LongFunction<DiscordWebRequest> requestFactory;
+
+    private RestLoadGenerator(Builder builder) {
+        this.router = builder.client.getRestResources().getRouter();
+        this.rate = builder.rate;
+        this.duration = builder.duration;
+        this.maxInFlight = builder.maxInFlight;
+        this.requestFactory = builder.requestFactory;
+    }
+
+    /**
+     * Create a builder for a load generator targeting the given client.
+     *
+     * @param client the {@link RestClient} to drive
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(RestClient client) {
+        return new Builder(client);
+    }
+
+    /**
+     * Run the load and report the results once every request completed.
+     *
+     * @return a {@link Mono} that upon subscription runs the load, emitting a {@link Report} when done
+     */
+    public Mono<Report> run() {
+        return Mono.defer(() -> {
+            Recorder recorder = new Recorder();
+            long start = System.nanoTime();
+            return Flux.interval(Duration.ofNanos(1_000_000_000L / rate), Schedulers.parallel())
+                    .take(duration)
+                    .onBackpressureDrop(tick -> recorder.dropped.incrementAndGet())
+                    .flatMap(tick -> exchange(tick, recorder), maxInFlight)
+                    .then(Mono.fromCallable(() -> recorder.report(System.nanoTime() - start)));
+        });
+    }
+
+    private Mono<Void> exchange(long tick, Recorder recorder) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            recorder.sent.incrementAndGet();
+            return router.exchange(requestFactory.apply(tick))
+                    .skipBody()
+                    .doOnSuccess(v -> recorder.success(System.nanoTime() - start))
+                    .onErrorResume(t -> {
+                        recorder.error(t instanceof ClientException ?
+                                ((ClientException) t).getStatus().code() : -1);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private static class Recorder {
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final Map<Integer, AtomicLong> errors = new ConcurrentHashMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        synchronized void success(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void error(int status) {
+            errors.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        synchronized Report report(long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<Integer, Long> errorCounts = new ConcurrentHashMap<>();
+            errors.forEach((status, value) -> errorCounts.put(status, value.get()));
+            return new Report(sent.get(), dropped.get(), sorted, errorCounts, elapsedNanos);
+        }
+    }
+
+    /**
+     * The results of a load run.
+     */
+    public static class Report {
+
+        private final long sent;
+        private final long dropped;
+        private final long[] latencies;
+        private final Map<Integer, Long> errors;
+        private final long elapsedNanos;
+
+        private Report(long sent, long dropped, long[] latencies, Map<Integer, Long> errors, long elapsedNanos) {
+            this.sent = sent;
+            this.dropped = dropped;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Return the number of requests submitted to the client.
+         *
+         * @return the number of requests sent
+         */
+        public long getSent() {
+            return sent;
+        }
+
+        /**
+         * Return the number of scheduled requests skipped because too many were in flight.
+         *
+         * @return the number of dropped requests
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Return the number of requests that completed successfully.
+         *
+         * @return the number of successful requests
+         */
+        public long getSucceeded() {
+            return latencies.length;
+        }
+
+        /**
+         * Return the number of failed requests by HTTP status, or {@code -1} for errors without a response.
+         *
+         * @return the error counts by status
+         */
+        public Map<Integer, Long> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Return the number of requests that failed with a 429 after the client exhausted its own handling.
+         *
+         * @return the number of requests failed by rate limits
+         */
+        public long getRateLimited() {
+            return errors.getOrDefault(429, 0L);
+        }
+
+        /**
+         * Return the number of successful requests per second over the whole run.
+         *
+         * @return the achieved throughput
+         */
+        public double getThroughput() {
+            return latencies.length * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Return a latency percentile of successful requests.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the latency at the given percentile, or zero if no request succeeded
+         */
+        public Duration getLatency(double percentile) {
+            if (latencies.length == 0) {
+                return Duration.ZERO;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return Duration.ofNanos(latencies[Math.min(latencies.length - 1, Math.max(0, index))]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent=%d succeeded=%d dropped=%d errors=%s throughput=%.1f/s " +
+                            "p50=%dms p90=%dms p99=%dms max=%dms",
+                    sent, getSucceeded(), dropped, errors, getThroughput(),
+                    getLatency(50).toMillis(), getLatency(90).toMillis(), getLatency(99).toMillis(),
+                    getLatency(100).toMillis());
+        }
+    }
+
+    /**
+     * Configures a {@link RestLoadGenerator}.
+     */
+    public static class Builder {
+
+        private final RestClient client;
+        private int rate = 100;
+        private Duration duration = Duration.ofSeconds(10);
+        private int maxInFlight = 10_000;
+        private LongFunction<DiscordWebRequest> requestFactory = channels(10);
+
+        private Builder(RestClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Set the target number of requests per second. Defaults to 100.
+         *
+         * @param rate the target request rate
+         * @return this builder
+         */
+        public Builder rate(int rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Set how long requests are issued for. Defaults to 10 seconds.
+         *
+         * @param duration the run duration
+         * @return this builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests in flight. Defaults to 10000.
+         *
+         * @param maxInFlight the maximum number of concurrent requests
+         * @return this builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Set the factory of requests to send, given the sequence number of each request. Defaults to fetching
+         * messages from 10 channels in turn, spreading the load over 10 buckets.
+         *
+         * @param requestFactory the request factory
+         * @return this builder
+         */
+        public Builder request(LongFunction<DiscordWebRequest> requestFactory) {
+            this.requestFactory = requestFactory;
+            return this;
+        }
+
+        /**
+         * Fetch messages from the given number of channels in turn, each one being a separate bucket.
+         *
+         * @param channels the number of channels
+         * @return a request factory
+         */
+        public static LongFunction<DiscordWebRequest> channels(int channels) {
+            return tick -> Routes.MESSAGES_GET.newRequest(1 + tick % channels);
+        }
+
+        /**
+         * Create the load generator.
+         *
+         * @return a {@link RestLoadGenerator}
+         */
+        public RestLoadGenerator build() {
+            return new RestLoadGenerator(this);
+        }
+    }
+}
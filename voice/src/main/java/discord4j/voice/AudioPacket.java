@@ -0,0 +1,144 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A received and decrypted RTP audio packet. The Opus payload is a slice of a single pooled buffer owned by this
+ * packet, so it must be released once consumed, or retained to be used after the {@link AudioPacketReceiver}
+ * returns.
+ */
+@Experimental
+public final class AudioPacket extends DefaultByteBufHolder {
+
+    private final int ssrc;
+    private final char sequence;
+    private final int timestamp;
+    private final long userId;
+
+    public AudioPacket(int ssrc, char sequence, int timestamp, long userId, ByteBuf payload) {
+        super(payload);
+        this.ssrc = ssrc;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.userId = userId;
+    }
+
+    /**
+     * Return the synchronization source of the sender.
+     *
+     * @return the SSRC of this packet
+     */
+    public int getSsrc() {
+        return ssrc;
+    }
+
+    /**
+     * Return the RTP sequence number of this packet, which wraps around after {@code 65535}.
+     *
+     * @return the sequence number of this packet
+     */
+    public char getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Return the RTP timestamp of this packet, in samples at 48 kHz.
+     *
+     * @return the timestamp of this packet
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Return the ID of the user that sent this packet.
+     *
+     * @return the raw user ID of the sender
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Return the <a href="https://en.wikipedia.org/wiki/Opus_(audio_format)">Opus</a>-encoded audio of this packet,
+     * without RTP header extensions. Equivalent to {@link #content()}.
+     *
+     * @return the Opus payload of this packet
+     */
+    public ByteBuf getPayload() {
+        return content();
+    }
+
+    @Override
+    public AudioPacket replace(ByteBuf content) {
+        return new AudioPacket(ssrc, sequence, timestamp, userId, content);
+    }
+
+    @Override
+    public AudioPacket copy() {
+        return (AudioPacket) super.copy();
+    }
+
+    @Override
+    public AudioPacket duplicate() {
+        return (AudioPacket) super.duplicate();
+    }
+
+    @Override
+    public AudioPacket retainedDuplicate() {
+        return (AudioPacket) super.retainedDuplicate();
+    }
+
+    @Override
+    public AudioPacket retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public AudioPacket retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public AudioPacket touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public AudioPacket touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "AudioPacket{" +
+                "ssrc=" + Integer.toUnsignedString(ssrc) +
+                ", sequence=" + (int) sequence +
+                ", timestamp=" + Integer.toUnsignedString(timestamp) +
+                ", userId=" + Long.toUnsignedString(userId) +
+                ", payload=" + content().readableBytes() + " bytes" +
+                '}';
+    }
+}
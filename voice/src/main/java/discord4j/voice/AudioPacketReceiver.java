@@ -0,0 +1,59 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+
+/**
+ * Used to receive audio as parsed {@link AudioPacket} instances, avoiding the intermediate copies performed when
+ * using {@link AudioReceiver}.
+ * <p>
+ * Packets are released once {@link #receive(AudioPacket)} returns. Implementations that need a packet, or its
+ * payload, after that point must {@link AudioPacket#retain() retain} it and release it once done.
+ * <p>
+ * Discord does not officially support bots receiving audio. It is not guaranteed that this functionality works
+ * properly. Use at your own risk.
+ */
+@Experimental
+@FunctionalInterface
+public interface AudioPacketReceiver {
+
+    /**
+     * A receiver that ignores every packet.
+     */
+    AudioPacketReceiver NO_OP = packet -> {};
+
+    /**
+     * Called when an audio packet is received, from a single thread at a time for each voice connection.
+     *
+     * @param packet the received packet, only valid until this method returns unless retained
+     */
+    void receive(AudioPacket packet);
+
+    /**
+     * Called when a packet is known to be lost, in place of the packet it stands for. Only signaled by receivers that
+     * order packets, like {@link JitterBufferReceiver}, so decoders can apply forward error correction or packet loss
+     * concealment for the missing frame.
+     *
+     * @param ssrc the SSRC of the sender
+     * @param userId the raw ID of the user that sent the lost packet
+     * @param sequence the sequence number of the lost packet
+     * @param timestamp the estimated timestamp of the lost packet
+     */
+    default void lost(int ssrc, long userId, char sequence, int timestamp) {
+    }
+}
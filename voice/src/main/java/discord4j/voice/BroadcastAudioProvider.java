@@ -0,0 +1,93 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link AudioProvider} sending the audio of a {@link BroadcastAudioSource} on one voice connection. The buffer
+ * returned by {@link #getBuffer()} is a view of the frame shared by every provider of the source, valid until the
+ * next call to {@link #provide()}.
+ */
+@Experimental
+public final class BroadcastAudioProvider extends AudioProvider implements Disposable {
+
+    private final BroadcastAudioSource source;
+    // next frame index to read, guarded by the source monitor
+    long next;
+    private @Nullable ByteBuf current;
+    private ByteBuffer view;
+    private boolean disposed;
+
+    BroadcastAudioProvider(BroadcastAudioSource source, long next) {
+        super(ByteBuffer.allocate(0));
+        this.source = source;
+        this.next = next;
+        this.view = super.getBuffer();
+    }
+
+    @Override
+    public synchronized ByteBuffer getBuffer() {
+        return view;
+    }
+
+    @Override
+    public synchronized boolean provide() {
+        releaseCurrent();
+        if (disposed) {
+            return false;
+        }
+        ByteBuf frame = source.acquire(this);
+        if (frame == null) {
+            return false;
+        }
+        current = frame;
+        view = frame.nioBuffer();
+        return true;
+    }
+
+    /**
+     * Stop reading from the source and release the frame held by this provider.
+     */
+    @Override
+    public synchronized void dispose() {
+        if (!disposed) {
+            disposed = true;
+            releaseCurrent();
+            source.unsubscribe();
+        }
+    }
+
+    @Override
+    public synchronized boolean isDisposed() {
+        return disposed;
+    }
+
+    private void releaseCurrent() {
+        ByteBuf frame = current;
+        if (frame != null) {
+            current = null;
+            view = super.getBuffer();
+            frame.release();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A source of audio shared by many voice connections, for example to play the same announcement in many guilds at
+ * once. Each frame of the upstream {@link AudioProvider} is read once into a pooled, reference counted buffer, and
+ * every {@link BroadcastAudioProvider} created through {@link #newProvider()} reads it through a view of that buffer,
+ * without copying it. Encryption stays per connection, as keys differ for every connection.
+ * <p>
+ * Frames are produced on demand: the first provider asking for a frame that was not read yet reads it from
+ * upstream, and the following ones reuse it. The last {@link #DEFAULT_BUFFERED_FRAMES} frames are kept so providers
+ * sending slightly later in the same 20 milliseconds still get them, while providers lagging further behind skip
+ * ahead. New providers start from the latest frame.
+ */
+@Experimental
+public final class BroadcastAudioSource implements Disposable {
+
+    private static final Logger log = Loggers.getLogger(BroadcastAudioSource.class);
+
+    /**
+     * Default number of recent frames kept for providers to read.
+     */
+    public static final int DEFAULT_BUFFERED_FRAMES = 8;
+
+    private final AudioProvider upstream;
+    private final ByteBufAllocator allocator;
+    // ring of recent frames, a null entry meaning upstream provided no audio for that frame; guarded by this
+    private final @Nullable ByteBuf[] frames;
+    private long produced;
+    private boolean disposed;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private volatile long framesProduced;
+    private volatile long framesWithAudio;
+
+    private BroadcastAudioSource(AudioProvider upstream, ByteBufAllocator allocator, int bufferedFrames) {
+        if (bufferedFrames < 1) {
+            throw new IllegalArgumentException("bufferedFrames must be positive");
+        }
+        this.upstream = upstream;
+        this.allocator = allocator;
+        this.frames = new ByteBuf[bufferedFrames];
+    }
+
+    /**
+     * Create a broadcast source reading frames from the given provider.
+     *
+     * @param upstream the provider of the broadcast audio, only called by this source
+     * @return a new {@link BroadcastAudioSource}
+     */
+    public static BroadcastAudioSource create(AudioProvider upstream) {
+        return create(upstream, ByteBufAllocator.DEFAULT, DEFAULT_BUFFERED_FRAMES);
+    }
+
+    /**
+     * Create a broadcast source reading frames from the given provider.
+     *
+     * @param upstream the provider of the broadcast audio, only called by this source
+     * @param allocator the allocator for shared frame buffers
+     * @param bufferedFrames the number of recent frames kept for providers to read
+     * @return a new {@link BroadcastAudioSource}
+     */
+    public static BroadcastAudioSource create(AudioProvider upstream, ByteBufAllocator allocator,
+                                              int bufferedFrames) {
+        return new BroadcastAudioSource(upstream, allocator, bufferedFrames);
+    }
+
+    /**
+     * Create a provider sending this broadcast on one voice connection. Dispose it once the connection stops
+     * playing the broadcast.
+     *
+     * @return a new {@link BroadcastAudioProvider}
+     */
+    public BroadcastAudioProvider newProvider() {
+        long start;
+        synchronized (this) {
+            start = Math.max(produced - 1, 0);
+        }
+        subscribers.incrementAndGet();
+        return new BroadcastAudioProvider(this, start);
+    }
+
+    /**
+     * Return a snapshot of the fan-out metrics of this source.
+     *
+     * @return the current {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(framesProduced, framesWithAudio, delivered.sum(), skipped.sum(), subscribers.get());
+    }
+
+    /**
+     * Release every buffered frame. Providers of this source stop providing audio.
+     */
+    @Override
+    public synchronized void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        for (int i = 0; i < frames.length; i++) {
+            ByteBuf frame = frames[i];
+            if (frame != null) {
+                frames[i] = null;
+                frame.release();
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Acquire the next frame for the given provider, reading it from upstream if no provider did yet.
+     *
+     * @param provider the provider asking for its next frame
+     * @return the frame, retained for the provider, or {@code null} if there is no audio for it
+     */
+    synchronized @Nullable ByteBuf acquire(BroadcastAudioProvider provider) {
+        if (disposed) {
+            return null;
+        }
+        long index = provider.next;
+        if (index >= produced) {
+            produceNext();
+            index = produced - 1;
+        } else if (index < produced - frames.length) {
+            long oldest = produced - frames.length;
+            skipped.add(oldest - index);
+            index = oldest;
+        }
+        provider.next = index + 1;
+
+        ByteBuf frame = frames[(int) (index % frames.length)];
+        if (frame == null) {
+            return null;
+        }
+        delivered.increment();
+        return frame.retain();
+    }
+
+    void unsubscribe() {
+        subscribers.decrementAndGet();
+    }
+
+    private void produceNext() {
+        ByteBuf frame = null;
+        ByteBuffer buffer = upstream.getBuffer();
+        try {
+            if (upstream.provide()) {
+                frame = allocator.heapBuffer(buffer.remaining());
+                frame.writeBytes(buffer);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error while reading broadcast audio", e);
+        } finally {
+            buffer.clear();
+        }
+
+        int slot = (int) (produced % frames.length);
+        ByteBuf previous = frames[slot];
+        if (previous != null) {
+            previous.release();
+        }
+        frames[slot] = frame;
+        produced++;
+        framesProduced = produced;
+        if (frame != null) {
+            framesWithAudio++;
+        }
+    }
+
+    /**
+     * Fan-out metrics of a {@link BroadcastAudioSource}.
+     */
+    public static class Metrics {
+
+        private final long framesProduced;
+        private final long framesWithAudio;
+        private final long framesDelivered;
+        private final long framesSkipped;
+        private final int subscribers;
+
+        Metrics(long framesProduced, long framesWithAudio, long framesDelivered, long framesSkipped,
+                int subscribers) {
+            this.framesProduced = framesProduced;
+            this.framesWithAudio = framesWithAudio;
+            this.framesDelivered = framesDelivered;
+            this.framesSkipped = framesSkipped;
+            this.subscribers = subscribers;
+        }
+
+        /**
+         * Return the number of frames read from upstream, with or without audio.
+         *
+         * @return the number of produced frames
+         */
+        public long getFramesProduced() {
+            return framesProduced;
+        }
+
+        /**
+         * Return the number of frames read from upstream that contained audio, each read and buffered once.
+         *
+         * @return the number of frames with audio
+         */
+        public long getFramesWithAudio() {
+            return framesWithAudio;
+        }
+
+        /**
+         * Return the number of frames handed to providers, summed over all providers.
+         *
+         * @return the number of delivered frames
+         */
+        public long getFramesDelivered() {
+            return framesDelivered;
+        }
+
+        /**
+         * Return the number of frames providers skipped because they lagged behind the buffered frames.
+         *
+         * @return the number of skipped frames
+         */
+        public long getFramesSkipped() {
+            return framesSkipped;
+        }
+
+        /**
+         * Return the number of providers currently reading from the source.
+         *
+         * @return the number of subscribed providers
+         */
+        public int getSubscribers() {
+            return subscribers;
+        }
+
+        /**
+         * Return the average number of connections each frame with audio was delivered to.
+         *
+         * @return the average fan-out per frame
+         */
+        public double getFanOut() {
+            return framesWithAudio == 0 ? 0 : (double) framesDelivered / framesWithAudio;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "framesProduced=" + framesProduced +
+                    ", framesWithAudio=" + framesWithAudio +
+                    ", framesDelivered=" + framesDelivered +
+                    ", framesSkipped=" + framesSkipped +
+                    ", subscribers=" + subscribers +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.util.Snowflake;
+
+class CompositeVoiceInstrumentation implements VoiceInstrumentation {
+
+    private final VoiceInstrumentation first;
+    private final VoiceInstrumentation second;
+
+    private CompositeVoiceInstrumentation(VoiceInstrumentation first, VoiceInstrumentation second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    static VoiceInstrumentation compose(VoiceInstrumentation first, VoiceInstrumentation second) {
+        if (first == VoiceInstrumentation.NOOP) {
+            return second;
+        }
+        if (second == VoiceInstrumentation.NOOP) {
+            return first;
+        }
+        return new CompositeVoiceInstrumentation(first, second);
+    }
+
+    @Override
+    public void onFrameSent(Snowflake guildId, long latenessNanos) {
+        first.onFrameSent(guildId, latenessNanos);
+        second.onFrameSent(guildId, latenessNanos);
+    }
+
+    @Override
+    public void onFrameDropped(Snowflake guildId, DropReason reason) {
+        first.onFrameDropped(guildId, reason);
+        second.onFrameDropped(guildId, reason);
+    }
+
+    @Override
+    public void onEncrypt(Snowflake guildId, long nanos) {
+        first.onEncrypt(guildId, nanos);
+        second.onEncrypt(guildId, nanos);
+    }
+
+    @Override
+    public void onDecrypt(Snowflake guildId, long nanos, boolean success) {
+        first.onDecrypt(guildId, nanos, success);
+        second.onDecrypt(guildId, nanos, success);
+    }
+
+    @Override
+    public void onPacketReceived(Snowflake guildId, int bytes) {
+        first.onPacketReceived(guildId, bytes);
+        second.onPacketReceived(guildId, bytes);
+    }
+
+    @Override
+    public void onFrameReceived(Snowflake guildId, long nanos) {
+        first.onFrameReceived(guildId, nanos);
+        second.onFrameReceived(guildId, nanos);
+    }
+
+    @Override
+    public void onSendQueueDepth(Snowflake guildId, int depth) {
+        first.onSendQueueDepth(guildId, depth);
+        second.onSendQueueDepth(guildId, depth);
+    }
+}
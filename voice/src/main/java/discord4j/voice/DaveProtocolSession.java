@@ -18,9 +18,12 @@
 package discord4j.voice;
 
 import moe.kyokobot.libdave.NativeDaveFactory;
+import org.jspecify.annotations.Nullable;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 
+import java.nio.ByteBuffer;
+
 interface DaveProtocolSession extends AutoCloseable {
 
     Logger LOGGER = Loggers.getLogger(DaveProtocolSession.class);
@@ -31,8 +34,47 @@ interface DaveProtocolSession extends AutoCloseable {
 
     byte[] encrypt(int ssrc, byte[] audio);
 
+    /**
+     * Encrypt the remaining bytes of the given buffer. The returned buffer may be the given one, or a buffer owned by
+     * this session that is only valid until the next call to this method.
+     *
+     * @param ssrc the SSRC of the sender
+     * @param audio the audio to encrypt
+     * @return the encrypted audio, or {@code null} if it could not be encrypted
+     */
+    default @Nullable ByteBuffer encrypt(int ssrc, ByteBuffer audio) {
+        byte[] input = new byte[audio.remaining()];
+        audio.get(input);
+        byte[] output = encrypt(ssrc, input);
+        return output == null ? null : ByteBuffer.wrap(output);
+    }
+
     byte[] decrypt(long userId, byte[] encryptedAudio);
 
+    /**
+     * Decrypt the remaining bytes of the given buffer, written by the given user. The returned buffer is either
+     * {@code encryptedAudio} itself, when the audio does not need to be decrypted, or {@code output} flipped after
+     * writing the plaintext from its start. {@code output} may share memory with {@code encryptedAudio}, so
+     * implementations must read the whole input before writing any output.
+     *
+     * @param userId the ID of the user that sent the audio
+     * @param encryptedAudio the audio to decrypt
+     * @param output the buffer to write the plaintext into, positioned at zero and with at least as many bytes
+     * remaining as the input
+     * @return the decrypted audio, or {@code null} if it could not be decrypted
+     */
+    default @Nullable ByteBuffer decrypt(long userId, ByteBuffer encryptedAudio, ByteBuffer output) {
+        byte[] input = new byte[encryptedAudio.remaining()];
+        encryptedAudio.get(input);
+        byte[] decrypted = decrypt(userId, input);
+        if (decrypted == null || decrypted.length > output.remaining()) {
+            return null;
+        }
+        output.put(decrypted);
+        output.flip();
+        return output;
+    }
+
     void addUser(long userId);
 
     void removeUser(long userId);
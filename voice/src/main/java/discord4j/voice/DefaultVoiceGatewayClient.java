@@ -29,6 +29,7 @@ import discord4j.common.retry.ReconnectOptions;
 import discord4j.common.sinks.EmissionStrategy;
 import discord4j.common.util.Snowflake;
 import discord4j.voice.crypto.EncryptionMode;
+import discord4j.voice.crypto.EncryptionModeSelector;
 import discord4j.voice.json.ClientsConnect;
 import discord4j.voice.json.DaveProtocolExecuteTransition;
 import discord4j.voice.json.DaveProtocolPrepareEpoch;
@@ -53,6 +54,7 @@ import discord4j.voice.retry.VoiceGatewayReconnectException;
 import discord4j.voice.retry.VoiceGatewayRetrySpec;
 import discord4j.voice.retry.VoiceServerUpdateReconnectException;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import org.jspecify.annotations.Nullable;
@@ -118,6 +120,7 @@ public class DefaultVoiceGatewayClient {
     private final AudioProvider audioProvider;
     @SuppressWarnings("deprecation")
     private final AudioReceiver audioReceiver;
+    private final AudioPacketReceiver audioPacketReceiver;
     private final VoiceSendTaskFactory sendTaskFactory;
     private final VoiceReceiveTaskFactory receiveTaskFactory;
     private final VoiceDisconnectTask disconnectTask;
@@ -176,6 +179,7 @@ public class DefaultVoiceGatewayClient {
                 reconnectOptions.getMaxBackoffInterval());
         this.audioProvider = Objects.requireNonNull(options.getAudioProvider());
         this.audioReceiver = Objects.requireNonNull(options.getAudioReceiver());
+        this.audioPacketReceiver = Objects.requireNonNull(options.getAudioPacketReceiver());
         this.sendTaskFactory = Objects.requireNonNull(options.getSendTaskFactory());
         this.receiveTaskFactory = Objects.requireNonNull(options.getReceiveTaskFactory());
         this.disconnectTask = Objects.requireNonNull(options.getDisconnectTask());
@@ -186,8 +190,13 @@ public class DefaultVoiceGatewayClient {
 
         this.httpClient = reactorResources.getHttpClient()
                 .headers(headers -> headers.add(USER_AGENT, "DiscordBot(https://discord4j.com, 3)"));
-        this.voiceSocket = new VoiceSocket(reactorResources.getUdpClient());
+        this.voiceSocket = new VoiceSocket(reactorResources.getUdpClient(), reactorResources.isBatchedEgress(),
+                reactorResources.getInstrumentation(), guildId);
         this.heartbeat = new ResettableInterval(reactorResources.getTimerTaskScheduler());
+        if (reactorResources.isMeasuredEncryptionMode()) {
+            // cached after the first run, the READY handler only reads the result once available
+            EncryptionModeSelector.measure(reactorResources.getBlockingTaskScheduler()).subscribe();
+        }
         this.cleanup = Disposables.swap();
         this.emissionStrategy = EmissionStrategy.timeoutDrop(Duration.ofSeconds(5));
 
@@ -394,7 +403,7 @@ public class DefaultVoiceGatewayClient {
                                 String hostName = address.getHostName();
                                 int port = address.getPort();
 
-                                this.encryptionMode = EncryptionMode.getBestMode(ready.getData().getModes());
+                                this.encryptionMode = EncryptionModeSelector.select(ready.getData().getModes());
                                 if (this.encryptionMode == null) {
                                     nextState(VoiceConnection.State.DISCONNECTED);
                                     voiceConnectionSink.error(new IllegalStateException(
@@ -426,7 +435,10 @@ public class DefaultVoiceGatewayClient {
                         Objects.requireNonNull(encryptionMode),
                         secretKey,
                         getDaveSession(),
-                        ssrcToUserId::get);
+                        ssrcToUserId::get,
+                        ByteBufAllocator.DEFAULT,
+                        reactorResources.getInstrumentation(),
+                        guildId);
             } catch (GeneralSecurityException e) {
                 log.error("Failed to create packet transformer", e);
                 nextState(VoiceConnection.State.DISCONNECTED);
@@ -441,8 +453,13 @@ public class DefaultVoiceGatewayClient {
             innerCleanup.add(() -> log.debug(format(context, "Disposing voice tasks")));
             innerCleanup.add(sendTaskFactory.create(reactorResources.getSendTaskScheduler(),
                     speakingSender, voiceSocket::send, audioProvider, transformer));
-            innerCleanup.add(receiveTaskFactory.create(reactorResources.getReceiveTaskScheduler(),
-                    voiceSocket.getInbound(), transformer, audioReceiver));
+            if (audioPacketReceiver != AudioPacketReceiver.NO_OP) {
+                innerCleanup.add(receiveTaskFactory.create(reactorResources.getReceiveTaskScheduler(),
+                        voiceSocket.getInbound(), transformer, audioPacketReceiver));
+            } else {
+                innerCleanup.add(receiveTaskFactory.create(reactorResources.getReceiveTaskScheduler(),
+                        voiceSocket.getInbound(), transformer, audioReceiver));
+            }
             voiceConnectionSink.success(acquireConnection());
         } else if (event instanceof Resumed) {
             log.info(format(context, "Resumed"));
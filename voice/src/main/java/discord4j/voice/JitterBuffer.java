@@ -0,0 +1,225 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reorders the audio packets of a single SSRC by sequence number and plays them out one frame per tick, signaling
+ * missing frames as lost. The playout depth adapts to the measured interarrival jitter. Playout starts once that many
+ * frames are buffered, or once the oldest buffered frame has waited as long as they would take to arrive, so spurts
+ * shorter than the playout depth are played out too.
+ * <p>
+ * Not thread-safe: packets must be offered and polled from the same thread, while statistics can be read from any
+ * thread.
+ */
+final class JitterBuffer {
+
+    // must be a power of two, larger than any playout depth
+    static final int CAPACITY = 64;
+
+    // how many times the mean jitter, in frames, the playout depth should cover
+    private static final double JITTER_DEPTH_FACTOR = 3.0;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(Opus.FRAME_TIME);
+
+    private final int ssrc;
+    private final long userId;
+    private final int minDepth;
+    private final int maxDepth;
+    private final AudioPacket[] slots = new AudioPacket[CAPACITY];
+
+    private int size;
+    private char expected;
+    private char highest;
+    private boolean started;
+    private boolean anchored;
+    private boolean playing;
+    private int lastTimestamp;
+    private long bufferingSinceNanos;
+    private long lastOfferNanos;
+
+    private boolean hasArrival;
+    private long lastArrivalUnits;
+    private int lastArrivalTimestamp;
+
+    // statistics, written by the owning thread only
+    private volatile long received;
+    private volatile long lost;
+    private volatile long late;
+    private volatile long duplicates;
+    private volatile long underruns;
+    private volatile double jitter;
+    private volatile int targetDepth;
+
+    JitterBuffer(int ssrc, long userId, int minDepth, int maxDepth) {
+        if (minDepth < 1 || maxDepth < minDepth || maxDepth >= CAPACITY) {
+            throw new IllegalArgumentException("Invalid depth range: " + minDepth + ".." + maxDepth);
+        }
+        this.ssrc = ssrc;
+        this.userId = userId;
+        this.minDepth = minDepth;
+        this.maxDepth = maxDepth;
+        this.targetDepth = minDepth;
+    }
+
+    /**
+     * Buffer a packet, taking ownership of it. Late and duplicate packets are released immediately.
+     *
+     * @param packet the received packet
+     * @param arrivalNanos the {@link System#nanoTime()} at which the packet was received
+     */
+    void offer(AudioPacket packet, long arrivalNanos) {
+        received++;
+        lastOfferNanos = arrivalNanos;
+        updateJitter(packet.getTimestamp(), arrivalNanos);
+
+        char sequence = packet.getSequence();
+        if (!started) {
+            started = true;
+            expected = sequence;
+            highest = sequence;
+        }
+
+        int distance = (short) (sequence - expected);
+        if (distance < 0) {
+            if (anchored || (short) (highest - sequence) >= CAPACITY) {
+                late++;
+                packet.release();
+                return;
+            }
+            // playout has not started yet, begin from this earlier packet instead
+            expected = sequence;
+        } else if (distance >= CAPACITY) {
+            // a jump beyond what can be buffered, restart from this packet
+            clear();
+            started = true;
+            expected = sequence;
+            highest = sequence;
+        }
+
+        int index = sequence & (CAPACITY - 1);
+        if (slots[index] != null) {
+            duplicates++;
+            packet.release();
+            return;
+        }
+        slots[index] = packet;
+        if (size == 0 && !playing) {
+            bufferingSinceNanos = arrivalNanos;
+        }
+        if (size++ == 0 || (short) (sequence - highest) > 0) {
+            highest = sequence;
+        }
+    }
+
+    /**
+     * Play out the next frame, if any, passing it to the given receiver. More than one frame is played out when the
+     * buffer grew past its maximum depth. Packets are released once passed.
+     *
+     * @param receiver the receiver to pass frames and losses to
+     * @param nowNanos the current {@link System#nanoTime()}
+     */
+    void poll(AudioPacketReceiver receiver, long nowNanos) {
+        if (!playing) {
+            if (size == 0) {
+                return;
+            }
+            // the oldest frame waited at least as long as the newest, this also covers the end of a short spurt
+            if (size < targetDepth && nowNanos - bufferingSinceNanos < targetDepth * FRAME_NANOS) {
+                return;
+            }
+            playing = true;
+            anchored = true;
+        }
+        do {
+            if (size == 0) {
+                // nothing left to play, usually the end of a talk spurt: buffer up again before resuming
+                playing = false;
+                underruns++;
+                targetDepth = computeTargetDepth();
+                return;
+            }
+            int index = expected & (CAPACITY - 1);
+            AudioPacket packet = slots[index];
+            slots[index] = null;
+            if (packet != null) {
+                size--;
+                lastTimestamp = packet.getTimestamp();
+                receiver.receive(packet);
+            } else {
+                lost++;
+                lastTimestamp += Opus.FRAME_SIZE;
+                receiver.lost(ssrc, userId, expected, lastTimestamp);
+            }
+            expected++;
+        } while (size > maxDepth);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return whether this buffer is empty and received no packet for the given time, usually because its source left.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param timeoutNanos how long a source may stay silent
+     * @return {@code true} if this buffer can be discarded
+     */
+    boolean isIdle(long nowNanos, long timeoutNanos) {
+        return size == 0 && nowNanos - lastOfferNanos > timeoutNanos;
+    }
+
+    /**
+     * Release every buffered packet and reset the playout state, keeping statistics.
+     */
+    void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            AudioPacket packet = slots[i];
+            if (packet != null) {
+                slots[i] = null;
+                packet.release();
+            }
+        }
+        size = 0;
+        started = false;
+        anchored = false;
+        playing = false;
+    }
+
+    JitterStatistics getStatistics() {
+        return new JitterStatistics(ssrc, userId, received, lost, late, duplicates, underruns,
+                jitter * 1000 / Opus.SAMPLE_RATE, targetDepth);
+    }
+
+    private void updateJitter(int timestamp, long arrivalNanos) {
+        // interarrival jitter estimate from RFC 3550, in timestamp units
+        long arrivalUnits = arrivalNanos / (1_000_000_000L / Opus.SAMPLE_RATE);
+        if (hasArrival) {
+            int difference = (int) (arrivalUnits - lastArrivalUnits) - (timestamp - lastArrivalTimestamp);
+            jitter += (Math.abs(difference) - jitter) / 16;
+        }
+        hasArrival = true;
+        lastArrivalUnits = arrivalUnits;
+        lastArrivalTimestamp = timestamp;
+    }
+
+    private int computeTargetDepth() {
+        int depth = 1 + (int) Math.ceil(JITTER_DEPTH_FACTOR * jitter / Opus.FRAME_SIZE);
+        return Math.max(minDepth, Math.min(maxDepth, depth));
+    }
+}
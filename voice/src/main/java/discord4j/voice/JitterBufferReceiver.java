@@ -0,0 +1,301 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link AudioPacketReceiver} that buffers received packets for each SSRC, reorders them by sequence number and
+ * passes them to a downstream receiver at the Opus frame rate. Frames missing at playout time are signaled through
+ * {@link AudioPacketReceiver#lost(int, long, char, int)}, so decoders can conceal them. The playout depth of each
+ * source adapts to its measured jitter between the configured bounds.
+ * <p>
+ * Use an instance as the packet receiver of a single voice connection. The downstream receiver is called from the
+ * playout task, one frame at a time, and the playout task stops on its own once every source has been idle for a
+ * while. Sources that sent nothing for a minute, usually because they left the channel, are no longer tracked. Call {@link #dispose()} to release buffered packets when the receiver is no longer needed.
+ */
+@Experimental
+public final class JitterBufferReceiver implements AudioPacketReceiver, Disposable {
+
+    private static final Logger log = Loggers.getLogger(JitterBufferReceiver.class);
+
+    /**
+     * Default minimum number of frames buffered before playout starts.
+     */
+    public static final int DEFAULT_MIN_DEPTH = 2;
+
+    /**
+     * Default maximum number of frames buffered before playout starts.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 10;
+
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SOURCE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final AudioPacketReceiver downstream;
+    private final Scheduler scheduler;
+    private final int minDepth;
+    private final int maxDepth;
+    private final AudioPacketReceiver playoutReceiver = new PlayoutReceiver();
+    private final Queue<Arrival> arrivals = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Integer, JitterBuffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicReference<@Nullable Disposable> playout = new AtomicReference<>();
+
+    private volatile long lastArrivalNanos;
+    private volatile boolean disposed;
+
+    private JitterBufferReceiver(Builder builder) {
+        this.downstream = builder.downstream;
+        this.scheduler = builder.scheduler != null ? builder.scheduler : Schedulers.parallel();
+        this.minDepth = builder.minDepth;
+        this.maxDepth = builder.maxDepth;
+    }
+
+    /**
+     * Create a jitter buffer in front of the given receiver, using default settings.
+     *
+     * @param downstream the receiver of ordered packets and losses
+     * @return a new {@link JitterBufferReceiver}
+     */
+    public static JitterBufferReceiver create(AudioPacketReceiver downstream) {
+        return builder(downstream).build();
+    }
+
+    /**
+     * Create a builder to customize a jitter buffer in front of the given receiver.
+     *
+     * @param downstream the receiver of ordered packets and losses
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(AudioPacketReceiver downstream) {
+        return new Builder(downstream);
+    }
+
+    @Override
+    public void receive(AudioPacket packet) {
+        if (disposed) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastArrivalNanos = now;
+        arrivals.offer(new Arrival(packet.retain(), now));
+        startPlayout();
+    }
+
+    /**
+     * Return a snapshot of the receive statistics of every source tracked by this receiver, by user ID.
+     *
+     * @return the statistics of each user
+     */
+    public Map<Long, JitterStatistics> getStatistics() {
+        Map<Long, JitterStatistics> statistics = new HashMap<>();
+        for (JitterBuffer buffer : buffers.values()) {
+            JitterStatistics snapshot = buffer.getStatistics();
+            statistics.put(snapshot.getUserId(), snapshot);
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        // buffered packets are released by the playout task, which owns them
+        startPlayout();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private void startPlayout() {
+        if (playout.get() != null) {
+            return;
+        }
+        Disposable task = scheduler.schedulePeriodically(this::tick, Opus.FRAME_TIME, Opus.FRAME_TIME,
+                TimeUnit.MILLISECONDS);
+        if (!playout.compareAndSet(null, task)) {
+            task.dispose();
+        }
+    }
+
+    private void tick() {
+        if (disposed) {
+            releaseAll();
+            stopPlayout();
+            return;
+        }
+        try {
+            Arrival arrival;
+            while ((arrival = arrivals.poll()) != null) {
+                AudioPacket packet = arrival.packet;
+                buffers.computeIfAbsent(packet.getSsrc(),
+                                ssrc -> new JitterBuffer(ssrc, packet.getUserId(), minDepth, maxDepth))
+                        .offer(packet, arrival.nanos);
+            }
+            long now = System.nanoTime();
+            boolean empty = true;
+            for (Iterator<JitterBuffer> it = buffers.values().iterator(); it.hasNext(); ) {
+                JitterBuffer buffer = it.next();
+                buffer.poll(playoutReceiver, now);
+                if (buffer.isIdle(now, SOURCE_TIMEOUT_NANOS)) {
+                    it.remove();
+                }
+                empty &= buffer.isEmpty();
+            }
+            if (empty && now - lastArrivalNanos > IDLE_NANOS) {
+                stopPlayout();
+            }
+        } catch (RuntimeException e) {
+            log.error("Error during audio playout", e);
+        }
+    }
+
+    private void stopPlayout() {
+        Disposable task = playout.getAndSet(null);
+        if (task != null) {
+            task.dispose();
+        }
+        // a packet may have arrived while the task was still set, make sure it gets played out
+        if (!arrivals.isEmpty() && !disposed) {
+            startPlayout();
+        }
+    }
+
+    private void releaseAll() {
+        Arrival arrival;
+        while ((arrival = arrivals.poll()) != null) {
+            arrival.packet.release();
+        }
+        for (JitterBuffer buffer : buffers.values()) {
+            buffer.clear();
+        }
+    }
+
+    private class PlayoutReceiver implements AudioPacketReceiver {
+
+        @Override
+        public void receive(AudioPacket packet) {
+            try {
+                downstream.receive(packet);
+            } catch (RuntimeException e) {
+                log.error("Error while receiving audio", e);
+            } finally {
+                ReferenceCountUtil.safeRelease(packet);
+            }
+        }
+
+        @Override
+        public void lost(int ssrc, long userId, char sequence, int timestamp) {
+            try {
+                downstream.lost(ssrc, userId, sequence, timestamp);
+            } catch (RuntimeException e) {
+                log.error("Error while signaling audio loss", e);
+            }
+        }
+    }
+
+    private static class Arrival {
+
+        private final AudioPacket packet;
+        private final long nanos;
+
+        private Arrival(AudioPacket packet, long nanos) {
+            this.packet = packet;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Builder for {@link JitterBufferReceiver}.
+     */
+    public static class Builder {
+
+        private final AudioPacketReceiver downstream;
+        private @Nullable Scheduler scheduler;
+        private int minDepth = DEFAULT_MIN_DEPTH;
+        private int maxDepth = DEFAULT_MAX_DEPTH;
+
+        private Builder(AudioPacketReceiver downstream) {
+            this.downstream = downstream;
+        }
+
+        /**
+         * Set the {@link Scheduler} running the playout task. Defaults to {@link Schedulers#parallel()}.
+         *
+         * @param scheduler the scheduler to run playout on
+         * @return this builder
+         */
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Set the minimum number of frames buffered before playout starts. Defaults to {@value JitterBufferReceiver#DEFAULT_MIN_DEPTH}.
+         *
+         * @param minDepth the minimum playout depth, at least 1
+         * @return this builder
+         */
+        public Builder minDepth(int minDepth) {
+            this.minDepth = minDepth;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of frames buffered before playout starts, bounding the added latency. Defaults to
+         * {@value JitterBufferReceiver#DEFAULT_MAX_DEPTH}.
+         *
+         * @param maxDepth the maximum playout depth, lower than 64
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Create the {@link JitterBufferReceiver}.
+         *
+         * @return a new jitter buffer receiver
+         */
+        public JitterBufferReceiver build() {
+            if (minDepth < 1 || maxDepth < minDepth || maxDepth >= JitterBuffer.CAPACITY) {
+                throw new IllegalArgumentException("Invalid depth range: " + minDepth + ".." + maxDepth);
+            }
+            return new JitterBufferReceiver(this);
+        }
+    }
+}
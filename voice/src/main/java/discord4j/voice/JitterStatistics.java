@@ -0,0 +1,156 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+
+/**
+ * A snapshot of the receive statistics of a single audio source, as measured by a {@link JitterBufferReceiver}.
+ */
+@Experimental
+public final class JitterStatistics {
+
+    private final int ssrc;
+    private final long userId;
+    private final long packetsReceived;
+    private final long packetsLost;
+    private final long packetsLate;
+    private final long packetsDuplicated;
+    private final long underruns;
+    private final double jitterMillis;
+    private final int depth;
+
+    public JitterStatistics(int ssrc, long userId, long packetsReceived, long packetsLost, long packetsLate,
+                            long packetsDuplicated, long underruns, double jitterMillis, int depth) {
+        this.ssrc = ssrc;
+        this.userId = userId;
+        this.packetsReceived = packetsReceived;
+        this.packetsLost = packetsLost;
+        this.packetsLate = packetsLate;
+        this.packetsDuplicated = packetsDuplicated;
+        this.underruns = underruns;
+        this.jitterMillis = jitterMillis;
+        this.depth = depth;
+    }
+
+    /**
+     * Return the SSRC of the source.
+     *
+     * @return the SSRC of the source
+     */
+    public int getSsrc() {
+        return ssrc;
+    }
+
+    /**
+     * Return the ID of the user sending audio from the source.
+     *
+     * @return the raw ID of the user
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Return the number of packets received, including late and duplicated ones.
+     *
+     * @return the number of received packets
+     */
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    /**
+     * Return the number of packets that were missing when their frame was played out.
+     *
+     * @return the number of lost packets
+     */
+    public long getPacketsLost() {
+        return packetsLost;
+    }
+
+    /**
+     * Return the number of packets dropped because they arrived after their frame was played out.
+     *
+     * @return the number of late packets
+     */
+    public long getPacketsLate() {
+        return packetsLate;
+    }
+
+    /**
+     * Return the number of packets dropped because a packet with the same sequence number was already buffered.
+     *
+     * @return the number of duplicated packets
+     */
+    public long getPacketsDuplicated() {
+        return packetsDuplicated;
+    }
+
+    /**
+     * Return the number of times the buffer ran empty and had to buffer up again, usually at the end of each talk
+     * spurt.
+     *
+     * @return the number of underruns
+     */
+    public long getUnderruns() {
+        return underruns;
+    }
+
+    /**
+     * Return the fraction of played out frames that were lost, between {@code 0} and {@code 1}.
+     *
+     * @return the packet loss ratio
+     */
+    public double getLossRatio() {
+        long played = packetsReceived - packetsLate - packetsDuplicated + packetsLost;
+        return played <= 0 ? 0 : (double) packetsLost / played;
+    }
+
+    /**
+     * Return the smoothed interarrival jitter, as defined by RFC 3550, in milliseconds.
+     *
+     * @return the jitter in milliseconds
+     */
+    public double getJitterMillis() {
+        return jitterMillis;
+    }
+
+    /**
+     * Return the current playout depth, in frames.
+     *
+     * @return the number of frames buffered before playout starts
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return "JitterStatistics{" +
+                "ssrc=" + Integer.toUnsignedString(ssrc) +
+                ", userId=" + Long.toUnsignedString(userId) +
+                ", packetsReceived=" + packetsReceived +
+                ", packetsLost=" + packetsLost +
+                ", packetsLate=" + packetsLate +
+                ", packetsDuplicated=" + packetsDuplicated +
+                ", underruns=" + underruns +
+                ", jitterMillis=" + jitterMillis +
+                ", depth=" + depth +
+                '}';
+    }
+}
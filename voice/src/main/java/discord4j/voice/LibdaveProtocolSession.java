@@ -28,12 +28,23 @@ import moe.kyokobot.libdave.NativeDaveFactory;
 import moe.kyokobot.libdave.RosterMap;
 import moe.kyokobot.libdave.Session;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link DaveProtocolSession} backed by libdave.
+ * <p>
+ * MLS state transitions are serialized on the session monitor. Audio encryption and decryption never take it: the
+ * decryptor of each user is found through a lock-free lookup and guarded by its own monitor, and the self encryptor
+ * by a dedicated lock, so receiving from many speakers and sending can run concurrently, only waiting on a transition
+ * touching the same native object.
+ */
 final class LibdaveProtocolSession implements DaveProtocolSession {
 
     private static final long MLS_NEW_GROUP_EPOCH = 1L;
@@ -44,16 +55,20 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
     private final DaveGatewayCallbacks callbacks;
     private final long channelId;
     private final String selfUserId;
+    // guards the self encryptor, its key ratchet and the encryption buffers
+    private final Object encryptLock = new Object();
     private final Encryptor selfEncryptor;
-    private final Map<Long, Decryptor> decryptors = new HashMap<Long, Decryptor>();
+    private final ConcurrentMap<Long, UserDecryptor> decryptors = new ConcurrentHashMap<Long, UserDecryptor>();
     private final Set<Long> recognizedUserIds = new HashSet<Long>();
     private final Set<Long> activeE2eeUserIds = new HashSet<Long>();
     private final Map<Integer, Integer> pendingTransitions = new HashMap<Integer, Integer>();
     private final int maxProtocolVersion;
 
+    private byte[] encryptBuffer = new byte[0];
+    private ByteBuffer encryptView = ByteBuffer.wrap(encryptBuffer);
     private KeyRatchet selfKeyRatchet;
     private int currentProtocolVersion;
-    private boolean closed;
+    private volatile boolean closed;
 
     LibdaveProtocolSession(long selfUserId, long channelId, String authSessionId, DaveGatewayCallbacks callbacks) {
         NativeDaveFactory.ensureAvailable();
@@ -74,38 +89,63 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
     }
 
     @Override
-    public synchronized void assignOpusSsrc(int ssrc) {
-        if (closed) {
-            return;
+    public void assignOpusSsrc(int ssrc) {
+        synchronized (encryptLock) {
+            if (closed) {
+                return;
+            }
+            selfEncryptor.assignSsrcToCodec(ssrc, Codec.OPUS);
         }
-        selfEncryptor.assignSsrcToCodec(ssrc, Codec.OPUS);
     }
 
     @Override
-    public synchronized byte[] encrypt(int ssrc, byte[] audio) {
-        if (closed) {
-            return null;
-        }
+    public byte[] encrypt(int ssrc, byte[] audio) {
+        synchronized (encryptLock) {
+            if (closed) {
+                return null;
+            }
 
-        byte[] output = new byte[selfEncryptor.getMaxCiphertextByteSize(MediaType.AUDIO, audio.length)];
-        int result = selfEncryptor.encrypt(MediaType.AUDIO, ssrc, audio, output);
-        return result >= 0 ? Arrays.copyOf(output, result) : null;
+            byte[] output = new byte[selfEncryptor.getMaxCiphertextByteSize(MediaType.AUDIO, audio.length)];
+            int result = selfEncryptor.encrypt(MediaType.AUDIO, ssrc, audio, output);
+            return result >= 0 ? Arrays.copyOf(output, result) : null;
+        }
     }
 
     @Override
-    public synchronized byte[] decrypt(long userId, byte[] encryptedAudio) {
-        if (closed) {
-            return null;
-        }
+    public ByteBuffer encrypt(int ssrc, ByteBuffer audio) {
+        synchronized (encryptLock) {
+            if (closed) {
+                return null;
+            }
 
-        Decryptor decryptor = decryptors.get(Long.valueOf(userId));
-        if (decryptor == null) {
-            return null;
+            // the native encryptor requires an exact-length input array, but the output array can be reused
+            byte[] input = new byte[audio.remaining()];
+            audio.get(input);
+            int maxLength = selfEncryptor.getMaxCiphertextByteSize(MediaType.AUDIO, input.length);
+            if (encryptBuffer.length < maxLength) {
+                encryptBuffer = new byte[maxLength];
+                encryptView = ByteBuffer.wrap(encryptBuffer);
+            }
+            int result = selfEncryptor.encrypt(MediaType.AUDIO, ssrc, input, encryptBuffer);
+            if (result < 0) {
+                return null;
+            }
+            encryptView.clear();
+            encryptView.limit(result);
+            return encryptView;
         }
+    }
+
+    @Override
+    public byte[] decrypt(long userId, byte[] encryptedAudio) {
+        UserDecryptor decryptor = decryptors.get(Long.valueOf(userId));
+        return decryptor != null ? decryptor.decrypt(encryptedAudio) : null;
+    }
 
-        byte[] output = new byte[decryptor.getMaxPlaintextByteSize(MediaType.AUDIO, encryptedAudio.length)];
-        int result = decryptor.decrypt(MediaType.AUDIO, encryptedAudio, output);
-        return result >= 0 ? Arrays.copyOf(output, result) : null;
+    @Override
+    public ByteBuffer decrypt(long userId, ByteBuffer encryptedAudio, ByteBuffer output) {
+        UserDecryptor decryptor = decryptors.get(Long.valueOf(userId));
+        return decryptor != null ? decryptor.decrypt(encryptedAudio, output) : null;
     }
 
     @Override
@@ -127,7 +167,7 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
         recognizedUserIds.remove(Long.valueOf(userId));
         activeE2eeUserIds.remove(Long.valueOf(userId));
 
-        Decryptor decryptor = decryptors.remove(Long.valueOf(userId));
+        UserDecryptor decryptor = decryptors.remove(Long.valueOf(userId));
         if (decryptor != null) {
             decryptor.close();
         }
@@ -232,12 +272,14 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
 
         closed = true;
         session.close();
-        if (selfKeyRatchet != null) {
-            selfKeyRatchet.close();
-            selfKeyRatchet = null;
+        synchronized (encryptLock) {
+            if (selfKeyRatchet != null) {
+                selfKeyRatchet.close();
+                selfKeyRatchet = null;
+            }
+            selfEncryptor.close();
         }
-        selfEncryptor.close();
-        for (Decryptor decryptor : decryptors.values()) {
+        for (UserDecryptor decryptor : decryptors.values()) {
             decryptor.close();
         }
         decryptors.clear();
@@ -336,7 +378,7 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
             return;
         }
 
-        Decryptor decryptor = ensureDecryptor(Long.parseUnsignedLong(userId));
+        UserDecryptor decryptor = ensureDecryptor(Long.parseUnsignedLong(userId));
         if (keyRatchet != null) {
             decryptor.transitionToKeyRatchet(keyRatchet);
         } else {
@@ -345,28 +387,31 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
     }
 
     private void setSelfKeyRatchet(KeyRatchet keyRatchet) {
-        if (selfKeyRatchet != null) {
-            selfKeyRatchet.close();
-        }
+        synchronized (encryptLock) {
+            if (selfKeyRatchet != null) {
+                selfKeyRatchet.close();
+            }
 
-        selfKeyRatchet = keyRatchet;
-        if (selfKeyRatchet == null) {
-            selfEncryptor.setPassthroughMode(true);
-            return;
-        }
+            selfKeyRatchet = keyRatchet;
+            if (selfKeyRatchet == null) {
+                selfEncryptor.setPassthroughMode(true);
+                return;
+            }
 
-        selfEncryptor.setKeyRatchet(selfKeyRatchet);
-        selfEncryptor.setPassthroughMode(false);
+            selfEncryptor.setKeyRatchet(selfKeyRatchet);
+            selfEncryptor.setPassthroughMode(false);
+        }
     }
 
-    private Decryptor ensureDecryptor(long userId) {
+    private UserDecryptor ensureDecryptor(long userId) {
+        // only called with the session monitor held, so a decryptor is never created twice for the same user
         Long key = Long.valueOf(userId);
-        Decryptor decryptor = decryptors.get(key);
+        UserDecryptor decryptor = decryptors.get(key);
         if (decryptor != null) {
             return decryptor;
         }
 
-        decryptor = factory.createDecryptor();
+        decryptor = new UserDecryptor(factory.createDecryptor());
         decryptors.put(key, decryptor);
         return decryptor;
     }
@@ -380,4 +425,69 @@ final class LibdaveProtocolSession implements DaveProtocolSession {
         userIds[index] = selfUserId;
         return userIds;
     }
+
+    /**
+     * A native decryptor guarded by its own monitor, so decrypting audio only waits for transitions of the same user.
+     */
+    private static final class UserDecryptor {
+
+        private final Decryptor decryptor;
+        private byte[] buffer = new byte[0];
+        private boolean closed;
+
+        private UserDecryptor(Decryptor decryptor) {
+            this.decryptor = decryptor;
+        }
+
+        synchronized byte[] decrypt(byte[] encryptedAudio) {
+            if (closed) {
+                return null;
+            }
+
+            byte[] output = new byte[decryptor.getMaxPlaintextByteSize(MediaType.AUDIO, encryptedAudio.length)];
+            int result = decryptor.decrypt(MediaType.AUDIO, encryptedAudio, output);
+            return result >= 0 ? Arrays.copyOf(output, result) : null;
+        }
+
+        synchronized ByteBuffer decrypt(ByteBuffer encryptedAudio, ByteBuffer output) {
+            if (closed) {
+                return null;
+            }
+
+            // the native decryptor requires an exact-length input array, the output is copied once into the given
+            // buffer
+            byte[] input = new byte[encryptedAudio.remaining()];
+            encryptedAudio.get(input);
+            int maxLength = decryptor.getMaxPlaintextByteSize(MediaType.AUDIO, input.length);
+            if (buffer.length < maxLength) {
+                buffer = new byte[maxLength];
+            }
+            int result = decryptor.decrypt(MediaType.AUDIO, input, buffer);
+            if (result < 0 || result > output.remaining()) {
+                return null;
+            }
+            output.put(buffer, 0, result);
+            output.flip();
+            return output;
+        }
+
+        synchronized void transitionToKeyRatchet(KeyRatchet keyRatchet) {
+            if (!closed) {
+                decryptor.transitionToKeyRatchet(keyRatchet);
+            }
+        }
+
+        synchronized void transitionToPassthroughMode(boolean passthroughMode) {
+            if (!closed) {
+                decryptor.transitionToPassthroughMode(passthroughMode);
+            }
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                decryptor.close();
+            }
+        }
+    }
 }
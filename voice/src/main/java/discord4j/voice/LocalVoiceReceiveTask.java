@@ -17,6 +17,7 @@
 package discord4j.voice;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -25,7 +26,8 @@ import reactor.util.Logger;
 import reactor.util.Loggers;
 
 /**
- * A receive task that can locally consume audio packets and pass them to an {@link AudioReceiver}.
+ * A receive task that can locally consume audio packets and pass them to an {@link AudioReceiver} or an
+ * {@link AudioPacketReceiver}.
  */
 @SuppressWarnings("deprecation")
 public class LocalVoiceReceiveTask implements Disposable {
@@ -54,6 +56,35 @@ public class LocalVoiceReceiveTask implements Disposable {
                 .subscribe();
     }
 
+    public LocalVoiceReceiveTask(Scheduler scheduler, Flux<ByteBuf> in, PacketTransformer transformer,
+                                 AudioPacketReceiver receiver) {
+        VoiceInstrumentation instrumentation = transformer.getInstrumentation();
+        boolean instrumented = instrumentation != VoiceInstrumentation.NOOP;
+        this.task = in
+                .doOnNext(buf -> {
+                    long start = instrumented ? System.nanoTime() : 0;
+                    AudioPacket packet = null;
+                    try {
+                        packet = transformer.nextReceivePacket(buf);
+                        if (packet != null) {
+                            receiver.receive(packet);
+                            if (instrumented) {
+                                instrumentation.onFrameReceived(transformer.getGuildId(),
+                                        System.nanoTime() - start);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Error while receiving audio", e);
+                    } finally {
+                        if (packet != null) {
+                            ReferenceCountUtil.safeRelease(packet);
+                        }
+                    }
+                })
+                .subscribeOn(scheduler)
+                .subscribe();
+    }
+
     @Override
     public void dispose() {
         task.dispose();
@@ -32,4 +32,10 @@ public class LocalVoiceReceiveTaskFactory implements VoiceReceiveTaskFactory {
                              AudioReceiver receiver) {
         return new LocalVoiceReceiveTask(scheduler, in, transformer, receiver);
     }
+
+    @Override
+    public Disposable create(Scheduler scheduler, Flux<ByteBuf> in, PacketTransformer transformer,
+                             AudioPacketReceiver receiver) {
+        return new LocalVoiceReceiveTask(scheduler, in, transformer, receiver);
+    }
 }
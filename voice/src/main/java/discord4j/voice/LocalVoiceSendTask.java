@@ -17,13 +17,14 @@
 package discord4j.voice;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import org.jspecify.annotations.Nullable;
 import reactor.core.Disposable;
 import reactor.core.scheduler.Scheduler;
 
-import java.util.Objects;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
@@ -31,6 +32,9 @@ import java.util.function.Consumer;
  */
 public class LocalVoiceSendTask implements Disposable {
 
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(Opus.FRAME_TIME);
+    private static final long MAX_LATENESS_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Consumer<Boolean> speakingSender;
     private final Consumer<ByteBuf> voiceSender;
     private final AudioProvider provider;
@@ -39,6 +43,14 @@ public class LocalVoiceSendTask implements Disposable {
     private final AtomicBoolean speaking = new AtomicBoolean();
     private final AtomicBoolean sentSilence = new AtomicBoolean();
     private final byte[] silence = new byte[]{(byte) 0xF8, (byte) 0xFF, (byte) 0xFE};
+    // the packet produced for the current tick, taken either by flush or by dispose, whichever comes first
+    private final AtomicReference<@Nullable ByteBuf> pending = new AtomicReference<>();
+    private volatile boolean disposed;
+
+    // send schedule tracking, only accessed from the sending thread
+    private final VoiceInstrumentation instrumentation;
+    private long anchorNanos;
+    private long frames;
 
     public LocalVoiceSendTask(Scheduler scheduler, Consumer<Boolean> speakingSender, Consumer<ByteBuf> voiceSender,
                               AudioProvider provider, PacketTransformer transformer) {
@@ -46,15 +58,32 @@ public class LocalVoiceSendTask implements Disposable {
         this.voiceSender = voiceSender;
         this.provider = provider;
         this.transformer = transformer;
-        this.task = scheduler.schedulePeriodically(this::run, 0, Opus.FRAME_TIME, TimeUnit.MILLISECONDS);
+        this.instrumentation = transformer.getInstrumentation();
+        if (scheduler instanceof VoiceSendScheduler) {
+            this.task = ((VoiceSendScheduler) scheduler).register(new VoiceSendScheduler.FrameTask() {
+                @Override
+                public void produce() {
+                    LocalVoiceSendTask.this.produce();
+                }
+
+                @Override
+                public void flush() {
+                    LocalVoiceSendTask.this.flush();
+                }
+            });
+        } else {
+            this.task = scheduler.schedulePeriodically(this::run, 0, Opus.FRAME_TIME, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void dispose() {
+        disposed = true;
         if (speaking.compareAndSet(true, false)) {
             changeSpeaking(false);
         }
         task.dispose();
+        releasePending();
     }
 
     @Override
@@ -63,22 +92,73 @@ public class LocalVoiceSendTask implements Disposable {
     }
 
     private void run() {
+        produce();
+        flush();
+    }
+
+    private void produce() {
+        long lateness = instrumentation != VoiceInstrumentation.NOOP ? nextLateness() : 0;
         if (provider.provide()) {
             if (speaking.compareAndSet(false, true)) {
                 changeSpeaking(true);
             }
 
-            byte[] b = new byte[provider.getBuffer().limit()];
-            provider.getBuffer().get(b);
-            provider.getBuffer().clear();
-            ByteBuf packet = Unpooled.wrappedBuffer(Objects.requireNonNull(transformer.nextSend(b)));
+            ByteBuffer buffer = provider.getBuffer();
+            ByteBuf packet = transformer.nextSend(buffer);
+            buffer.clear();
 
-            voiceSender.accept(packet);
+            if (packet != null) {
+                instrumentation.onFrameSent(transformer.getGuildId(), lateness);
+            } else {
+                instrumentation.onFrameDropped(transformer.getGuildId(),
+                        VoiceInstrumentation.DropReason.ENCRYPTION_FAILED);
+            }
+            setPending(packet);
         } else if (speaking.compareAndSet(true, false)) {
             changeSpeaking(false);
         } else if (sentSilence.compareAndSet(false, true)) {
-            voiceSender.accept(Unpooled.wrappedBuffer(Objects.requireNonNull(transformer.nextSend(silence))));
+            setPending(transformer.nextSend(ByteBuffer.wrap(silence)));
+        }
+    }
+
+    private void flush() {
+        ByteBuf packet = pending.getAndSet(null);
+        if (packet != null) {
+            voiceSender.accept(packet);
+        }
+    }
+
+    private void setPending(@Nullable ByteBuf packet) {
+        ByteBuf previous = pending.getAndSet(packet);
+        if (previous != null) {
+            // never flushed, e.g. the previous tick failed between both phases
+            previous.release();
+        }
+        if (disposed) {
+            // dispose ran while producing, it may have missed this packet
+            releasePending();
+        }
+    }
+
+    private void releasePending() {
+        ByteBuf packet = pending.getAndSet(null);
+        if (packet != null) {
+            packet.release();
+        }
+    }
+
+    private long nextLateness() {
+        long now = System.nanoTime();
+        long expected = anchorNanos + frames * FRAME_NANOS;
+        long lateness = now - expected;
+        if (frames == 0 || lateness < 0 || lateness > MAX_LATENESS_NANOS) {
+            // first frame, or the schedule was shifted or stalled: measure against a new anchor
+            anchorNanos = now;
+            frames = 1;
+            return 0;
         }
+        frames++;
+        return lateness;
     }
 
     private void changeSpeaking(boolean speaking) {
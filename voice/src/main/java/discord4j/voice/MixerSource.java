@@ -0,0 +1,122 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A source of audio mixed by a {@link MixingAudioProvider}, allowing to change its gain or remove it from the mix.
+ */
+@Experimental
+public final class MixerSource implements Disposable {
+
+    private final MixingAudioProvider mixer;
+    private final @Nullable AudioProvider opusSource;
+    private final @Nullable OpusDecoder decoder;
+    private final @Nullable PcmAudioSource pcmSource;
+    private volatile float gain = 1.0f;
+    private volatile boolean disposed;
+
+    MixerSource(MixingAudioProvider mixer, AudioProvider opusSource, OpusDecoder decoder) {
+        this.mixer = mixer;
+        this.opusSource = opusSource;
+        this.decoder = decoder;
+        this.pcmSource = null;
+    }
+
+    MixerSource(MixingAudioProvider mixer, PcmAudioSource pcmSource) {
+        this.mixer = mixer;
+        this.opusSource = null;
+        this.decoder = null;
+        this.pcmSource = pcmSource;
+    }
+
+    /**
+     * Return the linear gain applied to this source.
+     *
+     * @return the gain of this source
+     */
+    public float getGain() {
+        return gain;
+    }
+
+    /**
+     * Set the linear gain applied to this source, taking effect from the next mixed frame. {@code 1.0} keeps the
+     * source unchanged and {@code 0.0} mutes it.
+     *
+     * @param gain the new gain, not negative
+     */
+    public void setGain(float gain) {
+        if (gain < 0 || Float.isNaN(gain)) {
+            throw new IllegalArgumentException("Invalid gain: " + gain);
+        }
+        this.gain = gain;
+    }
+
+    /**
+     * Remove this source from the mix. Its decoder, if any, is closed by the mixing thread once no longer in use.
+     */
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            mixer.remove(this);
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Read the next frame of this source into the given array, replacing its contents.
+     *
+     * @param pcm the array to write {@code Opus.FRAME_SIZE * Opus.CHANNELS} samples into
+     * @return whether the source provided audio
+     */
+    boolean read(short[] pcm) {
+        if (pcmSource != null) {
+            Arrays.fill(pcm, (short) 0);
+            return pcmSource.provide(pcm);
+        }
+        AudioProvider source = opusSource;
+        OpusDecoder opusDecoder = decoder;
+        if (source == null || opusDecoder == null || !source.provide()) {
+            return false;
+        }
+        ByteBuffer buffer = source.getBuffer();
+        int decoded = opusDecoder.decode(buffer, pcm, Opus.FRAME_SIZE);
+        buffer.clear();
+        if (decoded < 0) {
+            return false;
+        }
+        Arrays.fill(pcm, decoded * Opus.CHANNELS, pcm.length, (short) 0);
+        return true;
+    }
+
+    void close() {
+        if (decoder != null) {
+            decoder.close();
+        }
+    }
+}
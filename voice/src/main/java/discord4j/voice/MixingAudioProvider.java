@@ -0,0 +1,233 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An {@link AudioProvider} mixing several sources into one voice connection, like music, speech synthesis and sound
+ * effects. Every 20 milliseconds each source is read, Opus sources are decoded, the PCM of all sources providing
+ * audio is summed with a per-source gain and clipped, and the result is encoded once.
+ * <p>
+ * Opus decoding and encoding are delegated to {@link OpusDecoder} and {@link OpusEncoder} implementations. Mixing
+ * works on preallocated primitive arrays, so providing a frame does not allocate besides what the codecs do. Sources
+ * can be added and removed from any thread, while frames are provided from the sending thread.
+ */
+@Experimental
+public class MixingAudioProvider extends AudioProvider {
+
+    private static final Logger log = Loggers.getLogger(MixingAudioProvider.class);
+
+    private static final int FRAME_SAMPLES = Opus.FRAME_SIZE * Opus.CHANNELS;
+    private static final MixerSource[] EMPTY = new MixerSource[0];
+    private static final long FRAME_NANOS = Opus.FRAME_TIME * 1_000_000L;
+
+    private final OpusEncoder encoder;
+    private final Object sourcesLock = new Object();
+    private final Queue<MixerSource> removed = new ConcurrentLinkedQueue<>();
+    private volatile MixerSource[] sources = EMPTY;
+
+    // mixing state, only accessed from the sending thread
+    private final short[] sourcePcm = new short[FRAME_SAMPLES];
+    private final float[] mix = new float[FRAME_SAMPLES];
+    private final short[] mixedPcm = new short[FRAME_SAMPLES];
+
+    // statistics, written by the sending thread only
+    private volatile long mixedFrames;
+    private volatile long mixNanos;
+
+    /**
+     * Create a mixer encoding into a buffer of {@link AudioProvider#DEFAULT_BUFFER_SIZE} bytes.
+     *
+     * @param encoder the encoder for the mixed audio, to be closed by the caller once the mixer is no longer used
+     */
+    public MixingAudioProvider(OpusEncoder encoder) {
+        this(encoder, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Create a mixer encoding into the given buffer.
+     *
+     * @param encoder the encoder for the mixed audio
+     * @param buffer the buffer holding each encoded frame
+     */
+    public MixingAudioProvider(OpusEncoder encoder, ByteBuffer buffer) {
+        super(buffer);
+        this.encoder = encoder;
+    }
+
+    /**
+     * Add a source of Opus audio to the mix, decoded with the given decoder.
+     *
+     * @param source the source of Opus frames
+     * @param decoder the decoder for the frames of this source, owned by the mixer from now on
+     * @return a handle to control the source
+     */
+    public MixerSource addSource(AudioProvider source, OpusDecoder decoder) {
+        return add(new MixerSource(this, source, decoder));
+    }
+
+    /**
+     * Add a source of PCM audio to the mix.
+     *
+     * @param source the source of PCM frames
+     * @return a handle to control the source
+     */
+    public MixerSource addSource(PcmAudioSource source) {
+        return add(new MixerSource(this, source));
+    }
+
+    /**
+     * Return the number of frames mixed and encoded so far.
+     *
+     * @return the number of mixed frames
+     */
+    public long getMixedFrames() {
+        return mixedFrames;
+    }
+
+    /**
+     * Return the total time spent providing frames, including decoding, mixing and encoding, in nanoseconds.
+     *
+     * @return the time spent providing frames
+     */
+    public long getMixNanos() {
+        return mixNanos;
+    }
+
+    /**
+     * Return the share of one CPU core used by this mixer while mixing, as the time spent per mixed frame relative
+     * to the duration of a frame.
+     *
+     * @return the CPU load of this mixer, {@code 0.01} meaning 1% of a core
+     */
+    public double getLoad() {
+        long frames = mixedFrames;
+        return frames == 0 ? 0 : (double) mixNanos / (frames * FRAME_NANOS);
+    }
+
+    @Override
+    public boolean provide() {
+        long start = System.nanoTime();
+        closeRemoved();
+
+        MixerSource[] current = sources;
+        boolean mixed = false;
+        for (MixerSource source : current) {
+            if (source.isDisposed()) {
+                continue;
+            }
+            boolean provided;
+            try {
+                provided = source.read(sourcePcm);
+            } catch (RuntimeException e) {
+                log.warn("Error while reading mixer source", e);
+                continue;
+            }
+            if (!provided) {
+                continue;
+            }
+            float gain = source.getGain();
+            if (!mixed) {
+                for (int i = 0; i < FRAME_SAMPLES; i++) {
+                    mix[i] = sourcePcm[i] * gain;
+                }
+                mixed = true;
+            } else {
+                for (int i = 0; i < FRAME_SAMPLES; i++) {
+                    mix[i] += sourcePcm[i] * gain;
+                }
+            }
+        }
+        if (!mixed) {
+            return false;
+        }
+
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            float sample = mix[i];
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            mixedPcm[i] = (short) sample;
+        }
+
+        ByteBuffer buffer = getBuffer();
+        buffer.clear();
+        int written = encoder.encode(mixedPcm, Opus.FRAME_SIZE, buffer);
+        if (written < 0) {
+            log.warn("Unable to encode mixed audio: {}", written);
+            buffer.clear();
+            return false;
+        }
+        buffer.flip();
+
+        mixedFrames++;
+        mixNanos += System.nanoTime() - start;
+        return true;
+    }
+
+    private MixerSource add(MixerSource source) {
+        synchronized (sourcesLock) {
+            MixerSource[] current = sources;
+            MixerSource[] next = new MixerSource[current.length + 1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = source;
+            sources = next;
+        }
+        return source;
+    }
+
+    void remove(MixerSource source) {
+        synchronized (sourcesLock) {
+            MixerSource[] current = sources;
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == source) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            MixerSource[] next = new MixerSource[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            sources = next;
+        }
+        removed.offer(source);
+    }
+
+    private void closeRemoved() {
+        MixerSource source;
+        while ((source = removed.poll()) != null) {
+            try {
+                source.close();
+            } catch (RuntimeException e) {
+                log.warn("Error while closing mixer source", e);
+            }
+        }
+    }
+}
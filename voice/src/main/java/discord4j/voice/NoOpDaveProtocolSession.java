@@ -17,6 +17,8 @@
 
 package discord4j.voice;
 
+import java.nio.ByteBuffer;
+
 final class NoOpDaveProtocolSession implements DaveProtocolSession {
 
     @Override
@@ -33,11 +35,21 @@ final class NoOpDaveProtocolSession implements DaveProtocolSession {
         return audio;
     }
 
+    @Override
+    public ByteBuffer encrypt(int ssrc, ByteBuffer audio) {
+        return audio;
+    }
+
     @Override
     public byte[] decrypt(long userId, byte[] encryptedAudio) {
         return encryptedAudio;
     }
 
+    @Override
+    public ByteBuffer decrypt(long userId, ByteBuffer encryptedAudio, ByteBuffer output) {
+        return encryptedAudio;
+    }
+
     @Override
     public void addUser(long userId) {
     }
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes <a href="https://en.wikipedia.org/wiki/Opus_(audio_format)">Opus</a> packets into PCM, used by
+ * {@link MixingAudioProvider} to mix encoded sources. Implementations usually wrap a native or pure Java Opus
+ * library, configured for {@link Opus#SAMPLE_RATE} and {@link Opus#CHANNELS}.
+ * <p>
+ * A decoder holds the state of a single stream and is only called from one thread at a time.
+ */
+@Experimental
+public interface OpusDecoder {
+
+    /**
+     * Decode the remaining bytes of an Opus packet into interleaved 16-bit PCM samples.
+     *
+     * @param packet the packet to decode
+     * @param pcm the array to write samples into, holding {@code frameSize * Opus.CHANNELS} samples
+     * @param frameSize the maximum number of samples per channel to decode
+     * @return the number of samples per channel decoded, or a negative value if the packet could not be decoded
+     */
+    int decode(ByteBuffer packet, short[] pcm, int frameSize);
+
+    /**
+     * Release the resources held by this decoder. Called once it is no longer used.
+     */
+    default void close() {
+    }
+}
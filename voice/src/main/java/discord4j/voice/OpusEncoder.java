@@ -0,0 +1,48 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes PCM into <a href="https://en.wikipedia.org/wiki/Opus_(audio_format)">Opus</a> packets, used by
+ * {@link MixingAudioProvider} to encode the mixed audio. Implementations usually wrap a native or pure Java Opus
+ * library, configured for {@link Opus#SAMPLE_RATE} and {@link Opus#CHANNELS}.
+ * <p>
+ * An encoder holds the state of a single stream and is only called from one thread at a time.
+ */
+@Experimental
+public interface OpusEncoder {
+
+    /**
+     * Encode a frame of interleaved 16-bit PCM samples into the given buffer, starting at its position.
+     *
+     * @param pcm the samples to encode, holding {@code frameSize * Opus.CHANNELS} samples
+     * @param frameSize the number of samples per channel to encode
+     * @param output the buffer to write the packet into, advancing its position
+     * @return the number of bytes written, or a negative value if the frame could not be encoded
+     */
+    int encode(short[] pcm, int frameSize, ByteBuffer output);
+
+    /**
+     * Release the resources held by this encoder. Called once it is no longer used.
+     */
+    default void close() {
+    }
+}
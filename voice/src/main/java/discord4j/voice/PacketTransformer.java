@@ -16,11 +16,11 @@
  */
 package discord4j.voice;
 
-import discord4j.voice.crypto.Aes256GcmEncryptionAdapter;
+import discord4j.common.util.Snowflake;
 import discord4j.voice.crypto.EncryptionAdapter;
 import discord4j.voice.crypto.EncryptionMode;
-import discord4j.voice.crypto.Xchacha20Poly1305EncryptionAdapter;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import org.jspecify.annotations.Nullable;
 import reactor.util.Logger;
 import reactor.util.Loggers;
@@ -45,63 +45,100 @@ final class PacketTransformer {
     private final EncryptionAdapter encryptionAdapter;
     private final DaveProtocolSession daveSession;
     private final Function<Integer, Long> userIdLookup;
-
+    private final ByteBufAllocator allocator;
+    private final VoiceInstrumentation instrumentation;
+    private final Snowflake guildId;
+    private final boolean instrumented;
+
+    // send state, only accessed from the sending thread
+    private final byte[] sendHeader = new byte[RTP_HEADER_LENGTH];
+    private final ByteBuffer sendHeaderBuffer = ByteBuffer.wrap(sendHeader);
+    private final byte[] sendNonce;
     private char seq = 0;
     private int encryptCounter;
 
+    // receive state, only accessed from the receiving thread
+    private final byte[] receiveNonce;
+
     PacketTransformer(int ssrc, EncryptionMode encryptionMode, byte[] secretKey,
                       DaveProtocolSession daveSession, Function<Integer, Long> userIdLookup)
             throws GeneralSecurityException {
+        this(ssrc, encryptionMode, secretKey, daveSession, userIdLookup, ByteBufAllocator.DEFAULT);
+    }
+
+    PacketTransformer(int ssrc, EncryptionMode encryptionMode, byte[] secretKey,
+                      DaveProtocolSession daveSession, Function<Integer, Long> userIdLookup,
+                      ByteBufAllocator allocator) throws GeneralSecurityException {
+        this(ssrc, encryptionMode, secretKey, daveSession, userIdLookup, allocator, VoiceInstrumentation.NOOP,
+                Snowflake.of(0));
+    }
+
+    PacketTransformer(int ssrc, EncryptionMode encryptionMode, byte[] secretKey,
+                      DaveProtocolSession daveSession, Function<Integer, Long> userIdLookup,
+                      ByteBufAllocator allocator, VoiceInstrumentation instrumentation, Snowflake guildId)
+            throws GeneralSecurityException {
         this.ssrc = ssrc;
+        this.instrumentation = instrumentation;
+        this.guildId = guildId;
+        this.instrumented = instrumentation != VoiceInstrumentation.NOOP;
         this.daveSession = daveSession;
         this.userIdLookup = userIdLookup;
+        this.allocator = allocator;
 
-        switch (encryptionMode) {
-            case AEAD_AES256_GCM:
-                this.encryptionAdapter = new Aes256GcmEncryptionAdapter(secretKey);
-                break;
-            case AEAD_XCHACHA20_POLY1305:
-                this.encryptionAdapter = new Xchacha20Poly1305EncryptionAdapter(secretKey);
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown encryption mode: " + encryptionMode);
-        }
+        this.encryptionAdapter = EncryptionAdapter.create(encryptionMode, secretKey);
 
         SecureRandom random = new SecureRandom();
         this.encryptCounter = Math.abs(random.nextInt()) % 513 + 1;
+        this.sendNonce = new byte[this.encryptionAdapter.getNonceLength()];
+        this.receiveNonce = new byte[this.encryptionAdapter.getNonceLength()];
     }
 
-    byte @Nullable [] nextSend(byte[] audio) {
-        byte[] daveEncrypted = daveSession.encrypt(ssrc, audio);
+    /**
+     * Build an encrypted RTP packet from the remaining bytes of the given Opus frame. The header, ciphertext and
+     * transport nonce are written in place into a single pooled buffer, which the caller is responsible for
+     * releasing. Must only be called from one thread at a time.
+     *
+     * @param audio the Opus frame to send
+     * @return the packet to send, or {@code null} if the frame could not be encrypted
+     */
+    @Nullable ByteBuf nextSend(ByteBuffer audio) {
+        long start = instrumented ? System.nanoTime() : 0;
+        ByteBuffer daveEncrypted = daveSession.encrypt(ssrc, audio);
         if (daveEncrypted == null) {
             LOGGER.error("Failed to DAVE encrypt audio");
             return null;
         }
 
-        byte[] header = this.getRtpHeader(this.seq++);
-
-        byte[] nonce = new byte[this.encryptionAdapter.getNonceLength()];
-        writeTransportNonce(nonce, this.encryptCounter);
+        writeRtpHeader(this.sendHeader, this.seq++, this.ssrc);
+        writeTransportNonce(this.sendNonce, this.encryptCounter);
 
-        byte[] encrypted;
+        int encryptedLength = daveEncrypted.remaining() + EncryptionAdapter.TAG_LENGTH;
+        ByteBuf packet = allocator.heapBuffer(RTP_HEADER_LENGTH + encryptedLength + TRANSPORT_NONCE_LENGTH);
         try {
-            encrypted = this.encryptionAdapter.encrypt(header, daveEncrypted, nonce);
+            packet.writeBytes(this.sendHeader);
+            this.sendHeaderBuffer.clear();
+            ByteBuffer output = packet.internalNioBuffer(RTP_HEADER_LENGTH, encryptedLength);
+            int start = output.position();
+            this.encryptionAdapter.encrypt(this.sendHeaderBuffer, daveEncrypted, this.sendNonce, output);
+            packet.writerIndex(RTP_HEADER_LENGTH + output.position() - start);
+            packet.writeBytes(this.sendNonce, 0, TRANSPORT_NONCE_LENGTH);
         } catch (GeneralSecurityException e) {
+            packet.release();
             PacketTransformer.LOGGER.error("Failed to encrypt audio", e);
             return null;
         }
 
-        byte[] finalPacket = new byte[header.length + encrypted.length + TRANSPORT_NONCE_LENGTH];
-        System.arraycopy(header, 0, finalPacket, 0, header.length);
-        System.arraycopy(encrypted, 0, finalPacket, header.length, encrypted.length);
-        System.arraycopy(nonce, 0, finalPacket, header.length + encrypted.length, TRANSPORT_NONCE_LENGTH);
-
         this.encryptCounter++;
+        if (instrumented) {
+            instrumentation.onEncrypt(guildId, System.nanoTime() - start);
+        }
 
-        return finalPacket;
+        return packet;
     }
 
     byte @Nullable [] nextReceive(ByteBuf packet) {
+        long start = instrumented ? System.nanoTime() : 0;
+        boolean success = false;
         try {
             if (packet.readableBytes() < RTP_HEADER_LENGTH) {
                 LOGGER.debug("Dropping truncated voice packet with {} bytes", packet.readableBytes());
@@ -183,15 +220,122 @@ final class PacketTransformer {
             System.arraycopy(header, 0, newPacket, 0, headerLength);
             System.arraycopy(daveDecrypted, 0, newPacket, headerLength, daveDecrypted.length);
 
+            success = true;
             return newPacket;
         } catch (GeneralSecurityException e) {
             LOGGER.error("Failed to decrypt audio", e);
             return null;
         } finally {
             packet.release();
+            if (instrumented) {
+                instrumentation.onDecrypt(guildId, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    /**
+     * Parse and decrypt a received RTP packet. The audio is decrypted once into a single pooled buffer, and DAVE
+     * decryption, if any, writes into that same buffer, so the returned packet payload is a view of it without RTP
+     * header extensions. The given packet is always released, while the returned one must be released by the caller.
+     * Must only be called from one thread at a time.
+     *
+     * @param packet the raw packet received from the voice socket
+     * @return the decrypted packet, or {@code null} if it was dropped
+     */
+    @Nullable AudioPacket nextReceivePacket(ByteBuf packet) {
+        long start = instrumented ? System.nanoTime() : 0;
+        ByteBuf decrypted = null;
+        boolean success = false;
+        try {
+            int readable = packet.readableBytes();
+            if (readable < RTP_HEADER_LENGTH) {
+                LOGGER.debug("Dropping truncated voice packet with {} bytes", readable);
+                return null;
+            }
+
+            int start = packet.readerIndex();
+            byte extensionByte = packet.getByte(start);
+            boolean hasExtension = (extensionByte & 0x10) != 0;
+            int csrcCount = extensionByte & 0x0F;
+
+            int packetType = packet.getUnsignedByte(start + 1);
+            if (isRtcpPacketType(packetType)) {
+                LOGGER.debug("Dropping RTCP packet type {}", packetType);
+                return null;
+            }
+            if ((packetType & RTP_PAYLOAD_TYPE_MASK) != OPUS_PAYLOAD_TYPE) {
+                LOGGER.debug("Dropping unsupported RTP payload type {}", packetType);
+                return null;
+            }
+
+            char sequence = packet.getChar(start + 2);
+            int timestamp = packet.getInt(start + 4);
+            int packetSsrc = packet.getInt(start + 8);
+
+            int headerLength = RTP_HEADER_LENGTH + 4 * csrcCount + (hasExtension ? 4 : 0);
+            if (readable < headerLength + EncryptionAdapter.TAG_LENGTH + TRANSPORT_NONCE_LENGTH) {
+                LOGGER.debug("Dropping truncated voice packet with {} bytes", readable);
+                return null;
+            }
+            int extensionLength = hasExtension ? packet.getUnsignedShort(start + headerLength - 2) : 0;
+
+            Long userId = userIdLookup.apply(packetSsrc);
+            if (userId == null) {
+                LOGGER.debug("Dropping audio for SSRC {} before user mapping was announced", packetSsrc);
+                return null;
+            }
+
+            int encryptedLength = readable - headerLength - TRANSPORT_NONCE_LENGTH;
+            packet.getBytes(start + headerLength + encryptedLength, this.receiveNonce, 0, TRANSPORT_NONCE_LENGTH);
+
+            decrypted = allocator.heapBuffer(encryptedLength);
+            ByteBuffer output = decrypted.nioBuffer(0, encryptedLength);
+            this.encryptionAdapter.decrypt(packet.nioBuffer(start, headerLength),
+                    packet.nioBuffer(start + headerLength, encryptedLength), this.receiveNonce, output);
+            int decryptedLength = output.position();
+
+            int offset = 4 * extensionLength;
+            if (offset > decryptedLength) {
+                LOGGER.error("Failed to decrypt audio: RTP extension length overflow");
+                return null;
+            }
+
+            ByteBuffer payload = decrypted.nioBuffer(offset, decryptedLength - offset);
+            ByteBuffer audio = daveSession.decrypt(userId.longValue(), payload, decrypted.nioBuffer(0, encryptedLength));
+            if (audio == null) {
+                LOGGER.error("Failed to DAVE decrypt audio for user {}", Long.toUnsignedString(userId.longValue()));
+                return null;
+            }
+
+            // passthrough keeps the payload in place, otherwise it was written from the start of the buffer
+            int audioIndex = audio == payload ? offset : 0;
+            decrypted.setIndex(audioIndex, audioIndex + audio.remaining());
+            AudioPacket result = new AudioPacket(packetSsrc, sequence, timestamp, userId.longValue(), decrypted);
+            decrypted = null;
+            success = true;
+            return result;
+        } catch (GeneralSecurityException e) {
+            LOGGER.error("Failed to decrypt audio", e);
+            return null;
+        } finally {
+            if (decrypted != null) {
+                decrypted.release();
+            }
+            packet.release();
+            if (instrumented) {
+                instrumentation.onDecrypt(guildId, System.nanoTime() - start, success);
+            }
         }
     }
 
+    VoiceInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    Snowflake getGuildId() {
+        return guildId;
+    }
+
     private static void writeTransportNonce(byte[] nonce, int counter) {
         nonce[0] = (byte) ((counter >>> 24) & 0xFF);
         nonce[1] = (byte) ((counter >>> 16) & 0xFF);
@@ -203,14 +347,20 @@ final class PacketTransformer {
         return packetType >= RTCP_PACKET_TYPE_MIN && packetType <= RTCP_PACKET_TYPE_MAX;
     }
 
-    private byte[] getRtpHeader(char seq) {
-        return ByteBuffer.allocate(PacketTransformer.RTP_HEADER_LENGTH)
-                .put((byte) 0x80)
-                .put((byte) 0x78)
-                .putChar(seq)
-                .putInt(seq * Opus.FRAME_SIZE)
-                .putInt(this.ssrc)
-                .array();
+    private static void writeRtpHeader(byte[] header, char seq, int ssrc) {
+        int timestamp = seq * Opus.FRAME_SIZE;
+        header[0] = (byte) 0x80;
+        header[1] = (byte) 0x78;
+        header[2] = (byte) (seq >>> 8);
+        header[3] = (byte) seq;
+        header[4] = (byte) (timestamp >>> 24);
+        header[5] = (byte) (timestamp >>> 16);
+        header[6] = (byte) (timestamp >>> 8);
+        header[7] = (byte) timestamp;
+        header[8] = (byte) (ssrc >>> 24);
+        header[9] = (byte) (ssrc >>> 16);
+        header[10] = (byte) (ssrc >>> 8);
+        header[11] = (byte) ssrc;
     }
 
 }
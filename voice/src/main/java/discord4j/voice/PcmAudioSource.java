@@ -0,0 +1,38 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+
+/**
+ * A source of PCM audio for a {@link MixingAudioProvider}, for audio that is produced decoded, like speech synthesis
+ * or generated sound effects, saving a decoding step.
+ */
+@Experimental
+@FunctionalInterface
+public interface PcmAudioSource {
+
+    /**
+     * Called every 20 milliseconds to provide a frame of interleaved 16-bit stereo samples at
+     * {@link Opus#SAMPLE_RATE}.
+     *
+     * @param pcm the array to write samples into, holding {@code Opus.FRAME_SIZE * Opus.CHANNELS} samples, with
+     * unwritten samples left as silence
+     * @return whether audio was provided
+     */
+    boolean provide(short[] pcm);
+}
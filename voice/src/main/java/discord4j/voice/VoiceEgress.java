@@ -0,0 +1,113 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batches outbound voice packets per {@link EventLoop}. Packets queued from any thread are written by a single task
+ * running on the event loop of their channel, and each channel is flushed once per batch, instead of scheduling one
+ * write and flush per packet. Since each voice connection usually sends a single packet per frame, the saving comes
+ * from running one task and one flush pass per event loop and frame, rather than from coalescing datagrams.
+ */
+final class VoiceEgress {
+
+    private static final ConcurrentMap<EventLoop, VoiceEgress> EGRESS_BY_LOOP = new ConcurrentHashMap<>();
+
+    private final EventLoop eventLoop;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    // only accessed from the event loop
+    private final Set<Channel> toFlush = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private VoiceEgress(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+
+    /**
+     * Queue a packet to be written to the given channel on the next batch of its event loop.
+     *
+     * @param channel the channel to write the packet to
+     * @param packet the packet, released by this method or by the channel
+     */
+    static void send(Channel channel, ByteBuf packet) {
+        EventLoop eventLoop = channel.eventLoop();
+        EGRESS_BY_LOOP.computeIfAbsent(eventLoop, loop -> {
+            loop.terminationFuture().addListener(future -> EGRESS_BY_LOOP.remove(loop));
+            return new VoiceEgress(loop);
+        }).enqueue(channel, packet);
+    }
+
+    private void enqueue(Channel channel, ByteBuf packet) {
+        queue.offer(new Entry(channel, packet));
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                eventLoop.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                // event loop is shutting down, nothing queued here can be written anymore
+                Entry entry;
+                while ((entry = queue.poll()) != null) {
+                    entry.packet.release();
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        // reset first, so packets queued while draining schedule another batch
+        scheduled.set(false);
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            Channel channel = entry.channel;
+            if (!channel.isActive()) {
+                entry.packet.release();
+                continue;
+            }
+            channel.write(entry.packet, channel.voidPromise());
+            toFlush.add(channel);
+        }
+        for (Channel channel : toFlush) {
+            channel.flush();
+        }
+        toFlush.clear();
+    }
+
+    private static class Entry {
+
+        private final Channel channel;
+        private final ByteBuf packet;
+
+        private Entry(Channel channel, ByteBuf packet) {
+            this.channel = channel;
+            this.packet = packet;
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class VoiceGatewayOptions {
     private final ReconnectOptions reconnectOptions;
     private final AudioProvider audioProvider;
     private final AudioReceiver audioReceiver;
+    private final AudioPacketReceiver audioPacketReceiver;
     private final VoiceSendTaskFactory sendTaskFactory;
     private final VoiceReceiveTaskFactory receiveTaskFactory;
     private final VoiceDisconnectTask disconnectTask;
@@ -55,6 +56,20 @@ public class VoiceGatewayOptions {
                                VoiceDisconnectTask disconnectTask, VoiceServerUpdateTask serverUpdateTask,
                                VoiceStateUpdateTask stateUpdateTask, VoiceChannelRetrieveTask channelRetrieveTask,
                                Duration ipDiscoveryTimeout, RetrySpec ipDiscoveryRetrySpec) {
+        this(guildId, selfId, session, voiceServerOptions, jacksonResources, reactorResources, reconnectOptions,
+                audioProvider, audioReceiver, AudioPacketReceiver.NO_OP, sendTaskFactory, receiveTaskFactory,
+                disconnectTask, serverUpdateTask, stateUpdateTask, channelRetrieveTask, ipDiscoveryTimeout,
+                ipDiscoveryRetrySpec);
+    }
+
+    public VoiceGatewayOptions(Snowflake guildId, Snowflake selfId, String session, VoiceServerOptions voiceServerOptions,
+                               JacksonResources jacksonResources, VoiceReactorResources reactorResources,
+                               ReconnectOptions reconnectOptions, AudioProvider audioProvider,
+                               AudioReceiver audioReceiver, AudioPacketReceiver audioPacketReceiver,
+                               VoiceSendTaskFactory sendTaskFactory, VoiceReceiveTaskFactory receiveTaskFactory,
+                               VoiceDisconnectTask disconnectTask, VoiceServerUpdateTask serverUpdateTask,
+                               VoiceStateUpdateTask stateUpdateTask, VoiceChannelRetrieveTask channelRetrieveTask,
+                               Duration ipDiscoveryTimeout, RetrySpec ipDiscoveryRetrySpec) {
         this.guildId = guildId;
         this.selfId = selfId;
         this.session = session;
@@ -64,6 +79,7 @@ public class VoiceGatewayOptions {
         this.reconnectOptions = reconnectOptions;
         this.audioProvider = audioProvider;
         this.audioReceiver = audioReceiver;
+        this.audioPacketReceiver = audioPacketReceiver;
         this.sendTaskFactory = sendTaskFactory;
         this.receiveTaskFactory = receiveTaskFactory;
         this.disconnectTask = disconnectTask;
@@ -110,6 +126,16 @@ public class VoiceGatewayOptions {
         return audioReceiver;
     }
 
+    /**
+     * Return the receiver of parsed audio packets. When set to anything other than {@link AudioPacketReceiver#NO_OP}
+     * it is used instead of {@link #getAudioReceiver()}.
+     *
+     * @return the {@link AudioPacketReceiver} for created connections
+     */
+    public AudioPacketReceiver getAudioPacketReceiver() {
+        return audioPacketReceiver;
+    }
+
     public VoiceSendTaskFactory getSendTaskFactory() {
         return sendTaskFactory;
     }
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import discord4j.common.util.Snowflake;
+
+/**
+ * Hooks to measure the performance of voice connections, like send lateness, dropped frames, encryption time or
+ * socket queue depth. Every method has an empty default implementation, so implementations only override what they
+ * record. Use it through {@link VoiceReactorResources.Builder#instrumentation(VoiceInstrumentation)}.
+ * <p>
+ * Hooks are called from the sending and receiving threads of each connection, and implementations must be
+ * thread-safe and fast, as most of them run once per 20 millisecond frame per connection.
+ */
+@Experimental
+public interface VoiceInstrumentation {
+
+    /**
+     * An instrumentation recording nothing.
+     */
+    VoiceInstrumentation NOOP = new VoiceInstrumentation() {};
+
+    /**
+     * Called when a frame was produced and queued for sending.
+     *
+     * @param guildId the guild of the connection
+     * @param latenessNanos how late the frame was produced compared to its ideal schedule, in nanoseconds
+     */
+    default void onFrameSent(Snowflake guildId, long latenessNanos) {
+    }
+
+    /**
+     * Called when a frame provided for sending was dropped, because it could not be encrypted or queued.
+     *
+     * @param guildId the guild of the connection
+     * @param reason why the frame was dropped
+     */
+    default void onFrameDropped(Snowflake guildId, DropReason reason) {
+    }
+
+    /**
+     * Called after encrypting an outgoing frame.
+     *
+     * @param guildId the guild of the connection
+     * @param nanos the time spent on DAVE and transport encryption, in nanoseconds
+     */
+    default void onEncrypt(Snowflake guildId, long nanos) {
+    }
+
+    /**
+     * Called after decrypting an incoming packet.
+     *
+     * @param guildId the guild of the connection
+     * @param nanos the time spent on transport and DAVE decryption, in nanoseconds
+     * @param success whether the packet could be decrypted
+     */
+    default void onDecrypt(Snowflake guildId, long nanos, boolean success) {
+    }
+
+    /**
+     * Called when the socket received a datagram.
+     *
+     * @param guildId the guild of the connection
+     * @param bytes the size of the datagram
+     */
+    default void onPacketReceived(Snowflake guildId, int bytes) {
+    }
+
+    /**
+     * Called after a received frame was handed to the audio receiver.
+     *
+     * @param guildId the guild of the connection
+     * @param nanos the time spent decoding and receiving the frame, in nanoseconds
+     */
+    default void onFrameReceived(Snowflake guildId, long nanos) {
+    }
+
+    /**
+     * Called when a packet is queued on the socket, with the number of packets waiting to be written. Only reported
+     * when batched egress is disabled.
+     *
+     * @param guildId the guild of the connection
+     * @param depth the number of queued packets
+     */
+    default void onSendQueueDepth(Snowflake guildId, int depth) {
+    }
+
+    /**
+     * Chain together another {@link VoiceInstrumentation}.
+     *
+     * @param other the next {@link VoiceInstrumentation}
+     * @return a new composite {@link VoiceInstrumentation}
+     */
+    default VoiceInstrumentation then(VoiceInstrumentation other) {
+        return CompositeVoiceInstrumentation.compose(this, other);
+    }
+
+    /**
+     * The reason a frame was dropped, as given to {@link #onFrameDropped(Snowflake, DropReason)}.
+     */
+    enum DropReason {
+
+        /**
+         * The frame could not be encrypted, usually because the DAVE session is not ready yet.
+         */
+        ENCRYPTION_FAILED,
+
+        /**
+         * The encrypted packet could not be queued on the socket, because its send queue is full.
+         */
+        SEND_QUEUE_FULL
+    }
+}
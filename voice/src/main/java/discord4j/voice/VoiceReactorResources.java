@@ -18,6 +18,7 @@
 package discord4j.voice;
 
 import discord4j.common.ReactorResources;
+import discord4j.common.annotations.Experimental;
 import org.jspecify.annotations.Nullable;
 import reactor.core.scheduler.Scheduler;
 import reactor.netty.http.client.HttpClient;
@@ -34,6 +35,9 @@ public class VoiceReactorResources extends ReactorResources {
     private final UdpClient udpClient;
     private final Scheduler sendTaskScheduler;
     private final Scheduler receiveTaskScheduler;
+    private final boolean batchedEgress;
+    private final boolean measuredEncryptionMode;
+    private final VoiceInstrumentation instrumentation;
 
     /**
      * Create Voice Gateway resources based off {@link ReactorResources} properties, and providing defaults for the
@@ -46,6 +50,9 @@ public class VoiceReactorResources extends ReactorResources {
         this.udpClient = UdpClient.create();
         this.sendTaskScheduler = parent.getTimerTaskScheduler();
         this.receiveTaskScheduler = parent.getTimerTaskScheduler();
+        this.batchedEgress = false;
+        this.measuredEncryptionMode = false;
+        this.instrumentation = VoiceInstrumentation.NOOP;
     }
 
     /**
@@ -63,6 +70,9 @@ public class VoiceReactorResources extends ReactorResources {
         this.udpClient = udpClient;
         this.sendTaskScheduler = sendTaskScheduler;
         this.receiveTaskScheduler = receiveTaskScheduler;
+        this.batchedEgress = false;
+        this.measuredEncryptionMode = false;
+        this.instrumentation = VoiceInstrumentation.NOOP;
     }
 
     /**
@@ -84,6 +94,9 @@ public class VoiceReactorResources extends ReactorResources {
         this.udpClient = udpClient;
         this.sendTaskScheduler = sendTaskScheduler;
         this.receiveTaskScheduler = receiveTaskScheduler;
+        this.batchedEgress = false;
+        this.measuredEncryptionMode = false;
+        this.instrumentation = VoiceInstrumentation.NOOP;
     }
 
     protected VoiceReactorResources(Builder builder) {
@@ -94,6 +107,9 @@ public class VoiceReactorResources extends ReactorResources {
                 builder.sendTaskScheduler;
         this.receiveTaskScheduler = builder.receiveTaskScheduler == null ? DEFAULT_TIMER_TASK_SCHEDULER.get() :
                 builder.receiveTaskScheduler;
+        this.batchedEgress = builder.batchedEgress;
+        this.measuredEncryptionMode = builder.measuredEncryptionMode;
+        this.instrumentation = builder.instrumentation;
     }
 
     /**
@@ -140,7 +156,10 @@ public class VoiceReactorResources extends ReactorResources {
                 .blockingTaskScheduler(getBlockingTaskScheduler())
                 .udpClient(getUdpClient())
                 .sendTaskScheduler(getSendTaskScheduler())
-                .receiveTaskScheduler(getReceiveTaskScheduler());
+                .receiveTaskScheduler(getReceiveTaskScheduler())
+                .batchedEgress(isBatchedEgress())
+                .measuredEncryptionMode(isMeasuredEncryptionMode())
+                .instrumentation(getInstrumentation());
     }
 
     /**
@@ -170,6 +189,33 @@ public class VoiceReactorResources extends ReactorResources {
         return receiveTaskScheduler;
     }
 
+    /**
+     * Returns whether outbound voice packets are written in batches per event loop.
+     *
+     * @return {@code true} if batched egress is enabled
+     */
+    public boolean isBatchedEgress() {
+        return batchedEgress;
+    }
+
+    /**
+     * Returns whether the voice encryption mode is chosen by measured throughput instead of a fixed preference order.
+     *
+     * @return {@code true} if encryption modes are measured
+     */
+    public boolean isMeasuredEncryptionMode() {
+        return measuredEncryptionMode;
+    }
+
+    /**
+     * Returns the instrumentation notified of voice connection performance events.
+     *
+     * @return the {@link VoiceInstrumentation} for voice connections
+     */
+    public VoiceInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
     /**
      * Builder for {@link VoiceReactorResources}.
      */
@@ -178,6 +224,9 @@ public class VoiceReactorResources extends ReactorResources {
         private @Nullable UdpClient udpClient;
         private @Nullable Scheduler sendTaskScheduler;
         private @Nullable Scheduler receiveTaskScheduler;
+        private boolean batchedEgress;
+        private boolean measuredEncryptionMode;
+        private VoiceInstrumentation instrumentation = VoiceInstrumentation.NOOP;
 
         protected Builder() {
         }
@@ -194,7 +243,8 @@ public class VoiceReactorResources extends ReactorResources {
         }
 
         /**
-         * Set the {@link Scheduler} used for voice send loop.
+         * Set the {@link Scheduler} used for voice send loop. Use a {@link VoiceSendScheduler} to drive all voice
+         * connections from a single shared frame clock.
          *
          * @param sendTaskScheduler the voice send scheduler
          * @return this builder
@@ -215,6 +265,47 @@ public class VoiceReactorResources extends ReactorResources {
             return this;
         }
 
+        /**
+         * Set whether outbound voice packets should be collected and written in batches per event loop, flushing each
+         * connection once per batch instead of scheduling a write and flush per packet. Works best combined with a
+         * {@link VoiceSendScheduler}, which produces the packets of all connections at the same time. Defaults to
+         * {@code false}.
+         *
+         * @param batchedEgress {@code true} to enable batched egress
+         * @return this builder
+         */
+        public Builder batchedEgress(boolean batchedEgress) {
+            this.batchedEgress = batchedEgress;
+            return this;
+        }
+
+        /**
+         * Set whether to measure the throughput of each voice encryption mode, and prefer a mode that is clearly
+         * faster on this host over the default preference order. The measurement runs once per JVM on the blocking
+         * task scheduler when the first voice client is created, and connections established before it completes
+         * use the default order. Defaults to {@code false}.
+         *
+         * @param measuredEncryptionMode {@code true} to choose encryption modes by measured throughput
+         * @return this builder
+         * @see discord4j.voice.crypto.EncryptionModeSelector
+         */
+        public Builder measuredEncryptionMode(boolean measuredEncryptionMode) {
+            this.measuredEncryptionMode = measuredEncryptionMode;
+            return this;
+        }
+
+        /**
+         * Set the {@link VoiceInstrumentation} notified of send lateness, dropped frames, encryption time and other
+         * performance events of voice connections. Defaults to {@link VoiceInstrumentation#NOOP}.
+         *
+         * @param instrumentation the instrumentation for voice connections
+         * @return this builder
+         */
+        public Builder instrumentation(VoiceInstrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
         @Override
         public Builder httpClient(HttpClient httpClient) {
             super.httpClient(httpClient);
@@ -233,6 +324,13 @@ public class VoiceReactorResources extends ReactorResources {
             return this;
         }
 
+        @Experimental
+        @Override
+        public Builder virtualThreadBlockingTaskScheduler() {
+            super.virtualThreadBlockingTaskScheduler();
+            return this;
+        }
+
         /**
          * Creates a new instance of {@link VoiceReactorResources}.
          *
@@ -39,4 +39,20 @@ public interface VoiceReceiveTaskFactory {
      */
     Disposable create(Scheduler scheduler, Flux<ByteBuf> in, PacketTransformer transformer, AudioReceiver receiver);
 
+    /**
+     * Create a task that is capable of handling incoming audio packets, passing them to the given receiver as parsed
+     * {@link AudioPacket} instances. The default implementation drops every packet, factories supporting this method
+     * should override it.
+     *
+     * @param scheduler a dedicated {@link Scheduler} that can be used to run the task
+     * @param in a sequence of raw incoming audio {@link ByteBuf} packets
+     * @param transformer a strategy to decode a packet from a raw {@link ByteBuf}
+     * @param receiver a strategy to consume decoded audio packets
+     * @return a task that can receive audio and process it
+     */
+    default Disposable create(Scheduler scheduler, Flux<ByteBuf> in, PacketTransformer transformer,
+                              AudioPacketReceiver receiver) {
+        return in.subscribeOn(scheduler).subscribe(ByteBuf::release);
+    }
+
 }
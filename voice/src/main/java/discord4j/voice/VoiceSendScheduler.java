@@ -0,0 +1,377 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import discord4j.common.annotations.Experimental;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Scheduler} driving every voice send task from a single, drift-compensated {@link Opus#FRAME_TIME} tick,
+ * instead of one independent periodic task per connection.
+ * <p>
+ * Each registered task is assigned to one of a fixed number of workers. On every tick, each worker first produces
+ * the next frame of all its tasks and then sends all produced packets, so UDP writes are batched per tick. A worker
+ * still busy with the previous tick is skipped and counted as an overrun. Per-tick lateness is exposed through
+ * {@link #getMetrics()}.
+ * <p>
+ * Only voice send tasks run on the tick, every task submitted through the {@link Scheduler} methods, periodic or not,
+ * is delegated to a fallback {@link Scheduler}. Use it through
+ * {@link VoiceReactorResources.Builder#sendTaskScheduler(Scheduler)}.
+ */
+@Experimental
+public class VoiceSendScheduler implements Scheduler {
+
+    private static final Logger log = Loggers.getLogger(VoiceSendScheduler.class);
+    private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(Opus.FRAME_TIME);
+
+    private final Scheduler fallback;
+    private final Group[] groups;
+    private final Thread clockThread;
+    private final AtomicInteger nextGroup = new AtomicInteger();
+    private final AtomicBoolean disposed = new AtomicBoolean();
+
+    // written only by the clock thread
+    private volatile long ticks;
+    private volatile long missedTicks;
+    private volatile long overruns;
+    private volatile long lastLatenessNanos;
+    private volatile long maxLatenessNanos;
+    private volatile long totalLatenessNanos;
+
+    private VoiceSendScheduler(int workers, Scheduler fallback) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.fallback = fallback;
+        this.groups = new Group[workers];
+        for (int i = 0; i < workers; i++) {
+            groups[i] = new Group(i);
+        }
+        this.clockThread = new Thread(this::runClock, "d4j-voice-clock");
+        this.clockThread.setDaemon(true);
+        this.clockThread.setPriority(Thread.MAX_PRIORITY);
+        this.clockThread.start();
+    }
+
+    /**
+     * Create a {@link VoiceSendScheduler} with one worker per available processor.
+     *
+     * @return a new voice send scheduler
+     */
+    public static VoiceSendScheduler create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a {@link VoiceSendScheduler} with the given number of workers, delegating unrelated tasks to
+     * {@link Schedulers#parallel()}.
+     *
+     * @param workers the number of threads producing and sending frames
+     * @return a new voice send scheduler
+     */
+    public static VoiceSendScheduler create(int workers) {
+        return create(workers, Schedulers.parallel());
+    }
+
+    /**
+     * Create a {@link VoiceSendScheduler} with the given number of workers, delegating unrelated tasks to the given
+     * {@link Scheduler}.
+     *
+     * @param workers the number of threads producing and sending frames
+     * @param fallback the scheduler used to run tasks that are not frame tasks
+     * @return a new voice send scheduler
+     */
+    public static VoiceSendScheduler create(int workers, Scheduler fallback) {
+        return new VoiceSendScheduler(workers, fallback);
+    }
+
+    /**
+     * Register a task to run on every tick of this scheduler.
+     *
+     * @param task the frame task
+     * @return a {@link Disposable} removing the task
+     */
+    Disposable register(FrameTask task) {
+        Group group = groups[Math.floorMod(nextGroup.getAndIncrement(), groups.length)];
+        group.tasks.add(task);
+        return new Registration(group, task);
+    }
+
+    /**
+     * Return a snapshot of the tick metrics of this scheduler.
+     *
+     * @return the current metrics
+     */
+    public Metrics getMetrics() {
+        long ticks = this.ticks;
+        return new Metrics(ticks, missedTicks, overruns, lastLatenessNanos, maxLatenessNanos,
+                ticks == 0 ? 0 : totalLatenessNanos / ticks);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        return fallback.schedule(task);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        return fallback.schedule(task, delay, unit);
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return fallback.schedulePeriodically(task, initialDelay, period, unit);
+    }
+
+    @Override
+    public Worker createWorker() {
+        return fallback.createWorker();
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed.compareAndSet(false, true)) {
+            LockSupport.unpark(clockThread);
+            for (Group group : groups) {
+                group.executor.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed.get();
+    }
+
+    private void runClock() {
+        long deadline = System.nanoTime();
+        while (!disposed.get()) {
+            deadline += PERIOD_NANOS;
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                LockSupport.parkNanos(deadline - now);
+                if (disposed.get()) {
+                    return;
+                }
+            }
+            long lateness = now - deadline;
+            if (lateness >= PERIOD_NANOS) {
+                // skip the ticks we missed instead of bursting them, keeping the schedule aligned
+                long missed = lateness / PERIOD_NANOS;
+                missedTicks += missed;
+                deadline += missed * PERIOD_NANOS;
+                lateness = now - deadline;
+            }
+            ticks++;
+            lastLatenessNanos = lateness;
+            totalLatenessNanos += lateness;
+            if (lateness > maxLatenessNanos) {
+                maxLatenessNanos = lateness;
+            }
+            for (Group group : groups) {
+                if (group.tasks.isEmpty()) {
+                    continue;
+                }
+                if (group.running.compareAndSet(false, true)) {
+                    group.executor.execute(group);
+                } else {
+                    overruns++;
+                }
+            }
+        }
+    }
+
+    /**
+     * A task run on every tick, in two phases: all tasks of a worker produce their frame before any of them sends it.
+     */
+    interface FrameTask {
+
+        /**
+         * Produce the next frame, keeping it until {@link #flush()} is called.
+         */
+        void produce();
+
+        /**
+         * Send the frame produced by the last call to {@link #produce()}, if any.
+         */
+        void flush();
+    }
+
+    private static class Registration implements Disposable {
+
+        private final Group group;
+        private final FrameTask task;
+        private final AtomicBoolean disposed = new AtomicBoolean();
+
+        private Registration(Group group, FrameTask task) {
+            this.group = group;
+            this.task = task;
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed.compareAndSet(false, true)) {
+                group.tasks.remove(task);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed.get();
+        }
+    }
+
+    private static class Group implements Runnable {
+
+        private final List<FrameTask> tasks = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final ExecutorService executor;
+
+        private Group(int index) {
+            this.executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "d4j-voice-send-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (FrameTask task : tasks) {
+                    try {
+                        task.produce();
+                    } catch (Throwable t) {
+                        log.error("Error while producing a voice frame", t);
+                    }
+                }
+                for (FrameTask task : tasks) {
+                    try {
+                        task.flush();
+                    } catch (Throwable t) {
+                        log.error("Error while sending a voice frame", t);
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the tick metrics of a {@link VoiceSendScheduler}.
+     */
+    public static class Metrics {
+
+        private final long ticks;
+        private final long missedTicks;
+        private final long overruns;
+        private final long lastLatenessNanos;
+        private final long maxLatenessNanos;
+        private final long meanLatenessNanos;
+
+        Metrics(long ticks, long missedTicks, long overruns, long lastLatenessNanos, long maxLatenessNanos,
+                long meanLatenessNanos) {
+            this.ticks = ticks;
+            this.missedTicks = missedTicks;
+            this.overruns = overruns;
+            this.lastLatenessNanos = lastLatenessNanos;
+            this.maxLatenessNanos = maxLatenessNanos;
+            this.meanLatenessNanos = meanLatenessNanos;
+        }
+
+        /**
+         * Return the number of ticks run so far.
+         *
+         * @return the tick count
+         */
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * Return the number of ticks skipped because the clock was late by more than a frame.
+         *
+         * @return the missed tick count
+         */
+        public long getMissedTicks() {
+            return missedTicks;
+        }
+
+        /**
+         * Return the number of times a worker was skipped because it was still busy with a previous tick.
+         *
+         * @return the overrun count
+         */
+        public long getOverruns() {
+            return overruns;
+        }
+
+        /**
+         * Return how late the last tick started compared to its deadline, in nanoseconds.
+         *
+         * @return the last tick lateness
+         */
+        public long getLastLatenessNanos() {
+            return lastLatenessNanos;
+        }
+
+        /**
+         * Return the maximum tick lateness observed, in nanoseconds.
+         *
+         * @return the maximum tick lateness
+         */
+        public long getMaxLatenessNanos() {
+            return maxLatenessNanos;
+        }
+
+        /**
+         * Return the mean tick lateness, in nanoseconds.
+         *
+         * @return the mean tick lateness
+         */
+        public long getMeanLatenessNanos() {
+            return meanLatenessNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "ticks=" + ticks +
+                    ", missedTicks=" + missedTicks +
+                    ", overruns=" + overruns +
+                    ", lastLatenessNanos=" + lastLatenessNanos +
+                    ", maxLatenessNanos=" + maxLatenessNanos +
+                    ", meanLatenessNanos=" + meanLatenessNanos +
+                    '}';
+        }
+    }
+}
@@ -17,11 +17,15 @@
 package discord4j.voice;
 
 import discord4j.common.sinks.EmissionStrategy;
+import discord4j.common.util.Snowflake;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.socket.DatagramChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.Nullable;
+import reactor.core.Scannable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
@@ -38,6 +42,7 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static discord4j.common.LogUtil.format;
 
@@ -59,12 +64,44 @@ public class VoiceSocket {
     private final Sinks.Many<ByteBuf> inbound;
     private final Sinks.Many<ByteBuf> outbound;
     private final EmissionStrategy emissionStrategy;
+    private final boolean batchedEgress;
+    private final VoiceInstrumentation instrumentation;
+    private final Snowflake guildId;
+    private final AtomicReference<@Nullable Channel> channel = new AtomicReference<>();
 
     public VoiceSocket(UdpClient udpClient) {
+        this(udpClient, false);
+    }
+
+    /**
+     * Create a new {@link VoiceSocket}.
+     *
+     * @param udpClient the UDP client template used to connect
+     * @param batchedEgress whether voice packets should be written in batches per event loop, instead of one write
+     * and flush per packet
+     */
+    public VoiceSocket(UdpClient udpClient, boolean batchedEgress) {
+        this(udpClient, batchedEgress, VoiceInstrumentation.NOOP, Snowflake.of(0));
+    }
+
+    /**
+     * Create a new {@link VoiceSocket}.
+     *
+     * @param udpClient the UDP client template used to connect
+     * @param batchedEgress whether voice packets should be written in batches per event loop, instead of one write
+     * and flush per packet
+     * @param instrumentation the instrumentation notified of socket events
+     * @param guildId the guild of the voice connection using this socket, reported to the instrumentation
+     */
+    public VoiceSocket(UdpClient udpClient, boolean batchedEgress, VoiceInstrumentation instrumentation,
+                       Snowflake guildId) {
         this.udpClient = udpClient;
         this.inbound = newEmitterSink();
         this.outbound = newEmitterSink();
         this.emissionStrategy = EmissionStrategy.timeoutDrop(Duration.ofSeconds(5));
+        this.batchedEgress = batchedEgress;
+        this.instrumentation = instrumentation;
+        this.guildId = guildId;
     }
 
     private static <T> Sinks.Many<T> newEmitterSink() {
@@ -75,11 +112,18 @@ public class VoiceSocket {
         return Mono.deferContextual(
                 context -> udpClient.host(address).port(port)
                         .observe(getObserver(context))
-                        .doOnConnected(c -> log.debug(format(context, "Connected to {}"), address(c)))
-                        .doOnDisconnected(c -> log.debug(format(context, "Disconnected from {}"), address(c)))
+                        .doOnConnected(c -> {
+                            log.debug(format(context, "Connected to {}"), address(c));
+                            channel.set(c.channel());
+                        })
+                        .doOnDisconnected(c -> {
+                            log.debug(format(context, "Disconnected from {}"), address(c));
+                            channel.compareAndSet(c.channel(), null);
+                        })
                         .handle((in, out) -> {
                             Mono<Void> inboundThen = in.receive().retain()
                                     .doOnNext(buf -> logPayload(receiverLog, context, buf))
+                                    .doOnNext(buf -> instrumentation.onPacketReceived(guildId, buf.readableBytes()))
                                     .doOnNext(buf -> emissionStrategy.emitNext(inbound, buf))
                                     .then();
 
@@ -145,7 +189,22 @@ public class VoiceSocket {
     }
 
     void send(ByteBuf data) {
-        emissionStrategy.emitNext(outbound, data);
+        Channel current = batchedEgress ? channel.get() : null;
+        if (current != null) {
+            if (senderLog.isTraceEnabled()) {
+                senderLog.trace(ByteBufUtil.hexDump(data));
+            }
+            VoiceEgress.send(current, data);
+            return;
+        }
+        if (!emissionStrategy.emitNext(outbound, data)) {
+            // packets may come from a pooled allocator, release them if they could not be queued
+            ReferenceCountUtil.safeRelease(data);
+            instrumentation.onFrameDropped(guildId, VoiceInstrumentation.DropReason.SEND_QUEUE_FULL);
+        } else if (instrumentation != VoiceInstrumentation.NOOP) {
+            Integer buffered = Scannable.from(outbound).scan(Scannable.Attr.BUFFERED);
+            instrumentation.onSendQueueDepth(guildId, buffered != null ? buffered : 0);
+        }
     }
 
     Flux<ByteBuf> getInbound() {
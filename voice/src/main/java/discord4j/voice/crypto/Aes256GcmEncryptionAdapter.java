@@ -19,15 +19,27 @@ package discord4j.voice.crypto;
 
 import com.google.crypto.tink.aead.internal.InsecureNonceAesGcmJce;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 
 public class Aes256GcmEncryptionAdapter implements EncryptionAdapter {
 
     private static final int NONCE_BYTES = 12;
     private final InsecureNonceAesGcmJce cipher;
+    private final SecretKeySpec key;
+    // only used by the buffer based encryption, which is called from a single sending thread
+    private final Cipher encryptCipher;
+    // only used by the buffer based decryption, which is called from a single receiving thread
+    private final Cipher decryptCipher;
 
     public Aes256GcmEncryptionAdapter(byte[] secretKey) throws GeneralSecurityException {
         this.cipher = new InsecureNonceAesGcmJce(secretKey);
+        this.key = new SecretKeySpec(secretKey, "AES");
+        this.encryptCipher = Cipher.getInstance("AES/GCM/NoPadding");
+        this.decryptCipher = Cipher.getInstance("AES/GCM/NoPadding");
     }
 
     @Override
@@ -40,9 +52,25 @@ public class Aes256GcmEncryptionAdapter implements EncryptionAdapter {
         return this.cipher.encrypt(nonce, audio, header);
     }
 
+    @Override
+    public void encrypt(ByteBuffer header, ByteBuffer audio, byte[] nonce, ByteBuffer output)
+            throws GeneralSecurityException {
+        this.encryptCipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+        this.encryptCipher.updateAAD(header);
+        this.encryptCipher.doFinal(audio, output);
+    }
+
     @Override
     public byte[] decrypt(byte[] header, byte[] audio, byte[] nonce) throws GeneralSecurityException {
         return this.cipher.decrypt(nonce, audio, header);
     }
 
+    @Override
+    public void decrypt(ByteBuffer header, ByteBuffer audio, byte[] nonce, ByteBuffer output)
+            throws GeneralSecurityException {
+        this.decryptCipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+        this.decryptCipher.updateAAD(header);
+        this.decryptCipher.doFinal(audio, output);
+    }
+
 }
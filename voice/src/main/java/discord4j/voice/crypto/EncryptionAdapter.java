@@ -17,12 +17,87 @@
 
 package discord4j.voice.crypto;
 
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 
 public interface EncryptionAdapter {
 
+    /**
+     * Create an adapter for the given mode.
+     * <p>
+     * The buffer based methods of the returned adapter may reuse cipher state: encryption must only be called from
+     * one thread at a time, and decryption from one thread at a time.
+     *
+     * @param mode the encryption mode
+     * @param secretKey the secret key shared with the voice server
+     * @return a new {@link EncryptionAdapter}
+     * @throws GeneralSecurityException if the mode is not available on this JVM
+     */
+    static EncryptionAdapter create(EncryptionMode mode, byte[] secretKey) throws GeneralSecurityException {
+        switch (mode) {
+            case AEAD_AES256_GCM:
+                return new Aes256GcmEncryptionAdapter(secretKey);
+            case AEAD_XCHACHA20_POLY1305:
+                return new Xchacha20Poly1305EncryptionAdapter(secretKey);
+            default:
+                throw new IllegalArgumentException("Unknown encryption mode: " + mode);
+        }
+    }
+
+    /**
+     * The length in bytes of the authentication tag appended to each encrypted payload.
+     */
+    int TAG_LENGTH = 16;
+
     int getNonceLength();
     byte[] encrypt(byte[] header, byte[] audio, byte[] nonce) throws GeneralSecurityException;
     byte[] decrypt(byte[] header, byte[] audio, byte[] nonce) throws GeneralSecurityException;
 
+    /**
+     * Encrypt the remaining bytes of {@code audio} into {@code output}, authenticating the remaining bytes of
+     * {@code header}. The ciphertext, followed by a {@link #TAG_LENGTH} bytes tag, is written at the current position
+     * of {@code output}, which must have enough space remaining. The positions of all three buffers are advanced.
+     * <p>
+     * The default implementation copies the buffers into arrays and delegates to
+     * {@link #encrypt(byte[], byte[], byte[])}, implementations should override it to avoid intermediate allocations.
+     *
+     * @param header the RTP header to authenticate
+     * @param audio the audio to encrypt
+     * @param nonce the nonce to use
+     * @param output the buffer to write the ciphertext and tag into
+     * @throws GeneralSecurityException if the audio could not be encrypted
+     */
+    default void encrypt(ByteBuffer header, ByteBuffer audio, byte[] nonce, ByteBuffer output)
+            throws GeneralSecurityException {
+        byte[] headerBytes = new byte[header.remaining()];
+        header.get(headerBytes);
+        byte[] audioBytes = new byte[audio.remaining()];
+        audio.get(audioBytes);
+        output.put(encrypt(headerBytes, audioBytes, nonce));
+    }
+
+    /**
+     * Decrypt the remaining bytes of {@code audio}, ciphertext followed by its {@link #TAG_LENGTH} bytes tag, into
+     * {@code output}, authenticating the remaining bytes of {@code header}. The plaintext is written at the current
+     * position of {@code output}, which must have at least as many bytes remaining as {@code audio}. The positions of
+     * all three buffers are advanced.
+     * <p>
+     * The default implementation copies the buffers into arrays and delegates to
+     * {@link #decrypt(byte[], byte[], byte[])}, implementations should override it to avoid intermediate allocations.
+     *
+     * @param header the RTP header to authenticate
+     * @param audio the audio to decrypt
+     * @param nonce the nonce to use
+     * @param output the buffer to write the plaintext into
+     * @throws GeneralSecurityException if the audio could not be decrypted or authenticated
+     */
+    default void decrypt(ByteBuffer header, ByteBuffer audio, byte[] nonce, ByteBuffer output)
+            throws GeneralSecurityException {
+        byte[] headerBytes = new byte[header.remaining()];
+        header.get(headerBytes);
+        byte[] audioBytes = new byte[audio.remaining()];
+        audio.get(audioBytes);
+        output.put(decrypt(headerBytes, audioBytes, nonce));
+    }
+
 }
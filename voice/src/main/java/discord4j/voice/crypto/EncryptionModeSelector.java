@@ -0,0 +1,190 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice.crypto;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the voice encryption mode by measured throughput instead of a fixed preference order.
+ * <p>
+ * AES-GCM is several times faster than XChaCha20-Poly1305 when the JVM uses AES-NI/PMULL intrinsics, and slower when
+ * it does not (some ARM boards, containers masking CPU flags, {@code -XX:-UseAESIntrinsics}). Measuring is opt-in:
+ * {@link #measure(Scheduler)} measures each available mode once per JVM on the buffer based {@link EncryptionAdapter}
+ * path used by voice connections, taking roughly {@value #ROUNDS} times {@value #MEASURE_MILLIS} milliseconds per
+ * mode. Until a measurement completes, {@link #select(List)} keeps the {@link EncryptionMode#getBestMode(List)}
+ * preference order, and afterwards only overrides it when another mode is faster by a clear margin.
+ */
+public final class EncryptionModeSelector {
+
+    private static final Logger log = Loggers.getLogger(EncryptionModeSelector.class);
+
+    private static final int ROUNDS = 3;
+    private static final int MEASURE_MILLIS = 50;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int PAYLOAD_BYTES = 160;
+    private static final int HEADER_BYTES = 12;
+    // measurements vary between runs, only override the preference order for a clear and stable difference
+    private static final double MARGIN = 1.5;
+
+    private static volatile @Nullable Map<EncryptionMode, Double> throughput;
+
+    private static final Mono<Map<EncryptionMode, Double>> MEASUREMENT = Mono.fromCallable(
+                    EncryptionModeSelector::measureAll)
+            .doOnNext(result -> throughput = result)
+            .cache();
+
+    private EncryptionModeSelector() {
+    }
+
+    /**
+     * Select the encryption mode to use out of the modes supported by the voice server. This returns
+     * {@link EncryptionMode#getBestMode(List)}, unless {@link #measure(Scheduler)} has completed and measured another
+     * supported mode to be faster by a clear margin. This method never runs the measurement itself.
+     *
+     * @param supportedModes the mode values advertised by the voice server
+     * @return the selected mode, or {@code null} if no supported mode is available
+     */
+    public static @Nullable EncryptionMode select(List<String> supportedModes) {
+        EncryptionMode preferred = EncryptionMode.getBestMode(supportedModes);
+        Map<EncryptionMode, Double> measured = throughput;
+        if (preferred == null || measured == null) {
+            return preferred;
+        }
+        Double preferredThroughput = measured.get(preferred);
+        if (preferredThroughput == null) {
+            return preferred;
+        }
+        EncryptionMode best = preferred;
+        double bestThroughput = preferredThroughput * MARGIN;
+        for (Map.Entry<EncryptionMode, Double> entry : measured.entrySet()) {
+            if (supportedModes.contains(entry.getKey().getValue()) && entry.getValue() > bestThroughput) {
+                best = entry.getKey();
+                bestThroughput = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Measure the encryption throughput of every available mode on the given scheduler, once per JVM. Later calls
+     * return the cached result. Use a scheduler allowing blocking work, like
+     * {@link reactor.core.scheduler.Schedulers#boundedElastic()}, never an event loop.
+     *
+     * @param scheduler the scheduler to run the measurement on
+     * @return a {@link Mono} emitting the measured throughput per mode, in packets per second
+     */
+    public static Mono<Map<EncryptionMode, Double>> measure(Scheduler scheduler) {
+        return MEASUREMENT.subscribeOn(scheduler);
+    }
+
+    /**
+     * Return the measured encryption throughput, in packets per second, of every available mode. Modes that are
+     * unavailable or failed to encrypt are absent, and the map is empty until {@link #measure(Scheduler)} completes.
+     *
+     * @return the measured throughput per mode
+     */
+    public static Map<EncryptionMode, Double> getThroughput() {
+        Map<EncryptionMode, Double> result = throughput;
+        return result == null ? Collections.emptyMap() : result;
+    }
+
+    /**
+     * Return whether the JVM reports AES intrinsics as enabled. This is a hint only: it is not available on every
+     * JVM, in which case {@code null} is returned.
+     *
+     * @return whether AES intrinsics are enabled, or {@code null} if unknown
+     */
+    public static @Nullable Boolean isAesAccelerated() {
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Boolean.valueOf(bean.getVMOption("UseAESIntrinsics").getValue());
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static Map<EncryptionMode, Double> measureAll() {
+        Map<EncryptionMode, Double> result = new EnumMap<>(EncryptionMode.class);
+        for (EncryptionMode mode : EncryptionMode.values()) {
+            if (!mode.isAvailable()) {
+                continue;
+            }
+            try {
+                result.put(mode, measure(mode));
+            } catch (GeneralSecurityException | RuntimeException e) {
+                log.warn("Unable to measure encryption mode {}: {}", mode, e.toString());
+            }
+        }
+        log.info("Voice encryption throughput (packets/s): {}, AES intrinsics: {}", result, isAesAccelerated());
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static double measure(EncryptionMode mode) throws GeneralSecurityException {
+        byte[] key = new byte[32];
+        EncryptionAdapter adapter = EncryptionAdapter.create(mode, key);
+        byte[] nonce = new byte[adapter.getNonceLength()];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        ByteBuffer audio = ByteBuffer.allocate(PAYLOAD_BYTES);
+        ByteBuffer output = ByteBuffer.allocate(PAYLOAD_BYTES + EncryptionAdapter.TAG_LENGTH);
+        int counter = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            encrypt(adapter, header, audio, nonce, output, counter++);
+        }
+        // keep the best round, the others are more likely to include GC pauses or descheduling
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+            long start = System.nanoTime();
+            long iterations = 0;
+            long now;
+            do {
+                encrypt(adapter, header, audio, nonce, output, counter++);
+                iterations++;
+            } while ((now = System.nanoTime()) < deadline);
+            best = Math.max(best, iterations * 1e9 / (now - start));
+        }
+        return best;
+    }
+
+    private static void encrypt(EncryptionAdapter adapter, ByteBuffer header, ByteBuffer audio, byte[] nonce,
+                                ByteBuffer output, int counter) throws GeneralSecurityException {
+        // JCE refuses to reuse a key and IV pair for GCM encryption, vary the nonce like a connection does
+        nonce[0] = (byte) (counter >> 24);
+        nonce[1] = (byte) (counter >> 16);
+        nonce[2] = (byte) (counter >> 8);
+        nonce[3] = (byte) counter;
+        header.clear();
+        audio.clear();
+        output.clear();
+        adapter.encrypt(header, audio, nonce, output);
+    }
+}
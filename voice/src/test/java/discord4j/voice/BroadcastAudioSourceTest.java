@@ -0,0 +1,80 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BroadcastAudioSourceTest {
+
+    @Test
+    public void readsEachFrameOnceForAllProviders() {
+        CountingProvider upstream = new CountingProvider();
+        BroadcastAudioSource source = BroadcastAudioSource.create(upstream);
+        BroadcastAudioProvider first = source.newProvider();
+        BroadcastAudioProvider second = source.newProvider();
+
+        for (int frame = 0; frame < 3; frame++) {
+            assertTrue(first.provide());
+            assertTrue(second.provide());
+            assertEquals(frame, first.getBuffer().get());
+            assertEquals(frame, second.getBuffer().get());
+        }
+
+        assertEquals(3, upstream.calls);
+        BroadcastAudioSource.Metrics metrics = source.getMetrics();
+        assertEquals(3, metrics.getFramesWithAudio());
+        assertEquals(6, metrics.getFramesDelivered());
+        assertEquals(2.0, metrics.getFanOut());
+        assertEquals(2, metrics.getSubscribers());
+
+        first.dispose();
+        second.dispose();
+        source.dispose();
+        assertEquals(0, source.getMetrics().getSubscribers());
+    }
+
+    @Test
+    public void laggingProvidersSkipAhead() {
+        BroadcastAudioSource source = BroadcastAudioSource.create(new CountingProvider(), ByteBufAllocator.DEFAULT, 2);
+        BroadcastAudioProvider leader = source.newProvider();
+        BroadcastAudioProvider follower = source.newProvider();
+
+        for (int frame = 0; frame < 5; frame++) {
+            assertTrue(leader.provide());
+        }
+        assertTrue(follower.provide());
+
+        assertEquals(3, follower.getBuffer().get());
+        assertEquals(3, source.getMetrics().getFramesSkipped());
+        source.dispose();
+        assertFalse(follower.provide());
+    }
+
+    private static class CountingProvider extends AudioProvider {
+
+        private int calls;
+
+        @Override
+        public boolean provide() {
+            getBuffer().put((byte) calls++).flip();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JitterBufferTest {
+
+    private static final int SSRC = 1234;
+    private static final long USER_ID = 5678L;
+
+    @Test
+    public void reordersPacketsBySequence() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 2, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(11), 0);
+        buffer.offer(packet(10), 0);
+        buffer.poll(receiver, 0);
+        buffer.poll(receiver, 0);
+        buffer.poll(receiver, 0);
+
+        assertEquals(list("10", "11"), receiver.events);
+        assertEquals(1, buffer.getStatistics().getUnderruns());
+    }
+
+    @Test
+    public void waitsForDepthBeforePlayout() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 3, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), 0);
+        buffer.offer(packet(1), 0);
+        buffer.poll(receiver, 0);
+        assertTrue(receiver.events.isEmpty());
+
+        buffer.offer(packet(2), 0);
+        buffer.poll(receiver, 0);
+        assertEquals(list("0"), receiver.events);
+    }
+
+    @Test
+    public void playsSpurtShorterThanDepth() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 3, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), 0);
+        buffer.poll(receiver, frames(2));
+        assertTrue(receiver.events.isEmpty());
+
+        // the single frame waited as long as a full playout depth would take to arrive
+        buffer.poll(receiver, frames(3));
+        assertEquals(list("0"), receiver.events);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void becomesIdleOnceSourceIsSilent() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 1, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), frames(1));
+        assertFalse(buffer.isIdle(frames(100), frames(10)));
+        buffer.poll(receiver, frames(2));
+        assertFalse(buffer.isIdle(frames(5), frames(10)));
+        assertTrue(buffer.isIdle(frames(100), frames(10)));
+    }
+
+    @Test
+    public void signalsMissingPacketsAsLost() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 2, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), 0);
+        buffer.offer(packet(2), 0);
+        buffer.poll(receiver, 0);
+        buffer.poll(receiver, 0);
+        buffer.poll(receiver, 0);
+
+        assertEquals(list("0", "lost 1 @960", "2"), receiver.events);
+        JitterStatistics statistics = buffer.getStatistics();
+        assertEquals(1, statistics.getPacketsLost());
+        assertEquals(2, statistics.getPacketsReceived());
+    }
+
+    @Test
+    public void dropsLateAndDuplicatePackets() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 1, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), 0);
+        buffer.poll(receiver, 0);
+        AudioPacket late = packet(0);
+        buffer.offer(late, 0);
+        buffer.offer(packet(1), 0);
+        AudioPacket duplicate = packet(1);
+        buffer.offer(duplicate, 0);
+
+        assertEquals(0, late.refCnt());
+        assertEquals(0, duplicate.refCnt());
+        JitterStatistics statistics = buffer.getStatistics();
+        assertEquals(1, statistics.getPacketsLate());
+        assertEquals(1, statistics.getPacketsDuplicated());
+        buffer.clear();
+    }
+
+    @Test
+    public void wrapsAroundSequenceNumbers() {
+        JitterBuffer buffer = new JitterBuffer(SSRC, USER_ID, 2, 10);
+        RecordingReceiver receiver = new RecordingReceiver();
+
+        buffer.offer(packet(0), 0);
+        buffer.offer(packet(65535), 0);
+        buffer.poll(receiver, 0);
+        buffer.poll(receiver, 0);
+
+        assertEquals(list("65535", "0"), receiver.events);
+    }
+
+    private static long frames(int count) {
+        return TimeUnit.MILLISECONDS.toNanos((long) Opus.FRAME_TIME * count);
+    }
+
+    private static AudioPacket packet(int sequence) {
+        return new AudioPacket(SSRC, (char) sequence, sequence * Opus.FRAME_SIZE, USER_ID,
+                Unpooled.wrappedBuffer(new byte[]{(byte) sequence}));
+    }
+
+    private static List<String> list(String... events) {
+        List<String> list = new ArrayList<>();
+        for (String event : events) {
+            list.add(event);
+        }
+        return list;
+    }
+
+    private static class RecordingReceiver implements AudioPacketReceiver {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void receive(AudioPacket packet) {
+            events.add(String.valueOf((int) packet.getSequence()));
+            packet.release();
+        }
+
+        @Override
+        public void lost(int ssrc, long userId, char sequence, int timestamp) {
+            events.add("lost " + (int) sequence + " @" + timestamp);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+public class LibdaveProtocolSessionContentionTest {
+
+    private static final Logger log = Loggers.getLogger(LibdaveProtocolSessionContentionTest.class);
+
+    private static final int SPEAKERS = 50;
+    private static final long SELF_ID = 1L;
+    private static final long DURATION_MILLIS = 2000;
+
+    @Test
+    public void reportThroughputWithSimulatedSpeakers() throws Exception {
+        // not an assertion on throughput: it depends on the machine, this reports how decrypt and encrypt scale
+        assumeTrue(DaveProtocolSession.getMaxSupportedProtocolVersion() > 0, "libdave is not available");
+        LibdaveProtocolSession session = new LibdaveProtocolSession(SELF_ID, 2L, "", new NoOpCallbacks());
+        ExecutorService executor = Executors.newFixedThreadPool(SPEAKERS + 2);
+        try {
+            session.onSelectProtocolAck(0);
+            for (int i = 0; i < SPEAKERS; i++) {
+                session.addUser(100L + i);
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            CountDownLatch start = new CountDownLatch(1);
+            LongAdder decrypted = new LongAdder();
+            LongAdder encrypted = new LongAdder();
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < SPEAKERS; i++) {
+                long userId = 100L + i;
+                futures.add(executor.submit(() -> {
+                    ByteBuffer input = ByteBuffer.wrap(new byte[120]);
+                    ByteBuffer output = ByteBuffer.allocate(256);
+                    start.await();
+                    while (running.get()) {
+                        input.rewind();
+                        output.clear();
+                        session.decrypt(userId, input, output);
+                        decrypted.increment();
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                ByteBuffer input = ByteBuffer.wrap(new byte[120]);
+                start.await();
+                while (running.get()) {
+                    input.rewind();
+                    session.encrypt(1234, input);
+                    encrypted.increment();
+                }
+                return null;
+            }));
+            // membership churn, taking the session monitor while audio is processed
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    session.addUser(99L);
+                    session.removeUser(99L);
+                    Thread.sleep(1);
+                }
+                return null;
+            }));
+
+            start.countDown();
+            Thread.sleep(DURATION_MILLIS);
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            long seconds = TimeUnit.MILLISECONDS.toSeconds(DURATION_MILLIS);
+            log.info("{} speakers: {} decrypts/s, {} encrypts/s", SPEAKERS, decrypted.sum() / seconds,
+                    encrypted.sum() / seconds);
+            assertTrue(decrypted.sum() > 0);
+            assertTrue(encrypted.sum() > 0);
+        } finally {
+            executor.shutdownNow();
+            session.close();
+        }
+    }
+
+    private static class NoOpCallbacks implements DaveGatewayCallbacks {
+
+        @Override
+        public void sendMlsKeyPackage(byte[] mlsKeyPackage) {
+        }
+
+        @Override
+        public void sendDaveProtocolReadyForTransition(int transitionId) {
+        }
+
+        @Override
+        public void sendMlsCommitWelcome(byte[] commitWelcomeMessage) {
+        }
+
+        @Override
+        public void sendMlsInvalidCommitWelcome(int transitionId) {
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MixingAudioProviderTest {
+
+    private static final Logger log = Loggers.getLogger(MixingAudioProviderTest.class);
+
+    private static final int FRAMES = 10_000;
+
+    @Test
+    public void mixesSourcesWithGain() {
+        MixingAudioProvider mixer = new MixingAudioProvider(new FirstSampleEncoder());
+        mixer.addSource(constant(1000));
+        MixerSource second = mixer.addSource(constant(2000));
+        second.setGain(0.5f);
+
+        assertTrue(mixer.provide());
+        assertEquals(2000, mixer.getBuffer().getShort());
+    }
+
+    @Test
+    public void clipsMixedSamples() {
+        MixingAudioProvider mixer = new MixingAudioProvider(new FirstSampleEncoder());
+        mixer.addSource(constant(30000));
+        mixer.addSource(constant(30000));
+
+        assertTrue(mixer.provide());
+        assertEquals(Short.MAX_VALUE, mixer.getBuffer().getShort());
+    }
+
+    @Test
+    public void decodesOpusSourcesAndClosesRemovedDecoders() {
+        MixingAudioProvider mixer = new MixingAudioProvider(new FirstSampleEncoder());
+        AudioProvider opus = new AudioProvider() {
+            @Override
+            public boolean provide() {
+                getBuffer().put((byte) 42).flip();
+                return true;
+            }
+        };
+        FirstByteDecoder decoder = new FirstByteDecoder();
+        MixerSource source = mixer.addSource(opus, decoder);
+
+        assertTrue(mixer.provide());
+        assertEquals(42, mixer.getBuffer().getShort());
+
+        source.dispose();
+        assertFalse(mixer.provide());
+        assertTrue(decoder.closed);
+    }
+
+    @Test
+    public void providesNothingWithoutActiveSources() {
+        MixingAudioProvider mixer = new MixingAudioProvider(new FirstSampleEncoder());
+        mixer.addSource(pcm -> false);
+
+        assertFalse(mixer.provide());
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+    public void mixesWithoutAllocating() {
+        // excludes real Opus decoding and encoding, JIT compilation and the measurement itself may still allocate
+        MixingAudioProvider mixer = new MixingAudioProvider(new FirstSampleEncoder());
+        mixer.addSource(constant(1000));
+        mixer.addSource(constant(2000)).setGain(0.8f);
+        mixer.addSource(constant(3000)).setGain(0.2f);
+        provideFrames(mixer, FRAMES);
+        long before = allocatedBytes();
+        provideFrames(mixer, FRAMES);
+        long perFrame = (allocatedBytes() - before) / FRAMES;
+        log.info("3 sources: {} bytes allocated per frame, {}% of a core per connection", perFrame,
+                String.format("%.3f", mixer.getLoad() * 100));
+        assertTrue(perFrame < 16, () -> perFrame + " bytes allocated per frame");
+    }
+
+    private static PcmAudioSource constant(int value) {
+        return pcm -> {
+            Arrays.fill(pcm, (short) value);
+            return true;
+        };
+    }
+
+    private static void provideFrames(MixingAudioProvider mixer, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(mixer.provide());
+            mixer.getBuffer().clear();
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class FirstSampleEncoder implements OpusEncoder {
+
+        @Override
+        public int encode(short[] pcm, int frameSize, ByteBuffer output) {
+            output.putShort(pcm[0]);
+            return 2;
+        }
+    }
+
+    private static class FirstByteDecoder implements OpusDecoder {
+
+        private boolean closed;
+
+        @Override
+        public int decode(ByteBuffer packet, short[] pcm, int frameSize) {
+            Arrays.fill(pcm, 0, frameSize * Opus.CHANNELS, packet.get());
+            return frameSize;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
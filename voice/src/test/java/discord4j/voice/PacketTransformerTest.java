@@ -0,0 +1,150 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import discord4j.voice.crypto.EncryptionMode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PacketTransformerTest {
+
+    private static final Logger log = Loggers.getLogger(PacketTransformerTest.class);
+
+    private static final int SSRC = 1234;
+    private static final int FRAMES = 50_000;
+
+    @Test
+    public void aesGcmPacketsRoundTrip() throws GeneralSecurityException {
+        assertRoundTrip(EncryptionMode.AEAD_AES256_GCM);
+    }
+
+    @Test
+    public void xchachaPacketsRoundTrip() throws GeneralSecurityException {
+        assertRoundTrip(EncryptionMode.AEAD_XCHACHA20_POLY1305);
+    }
+
+    @Test
+    public void aesGcmAudioPacketsRoundTrip() throws GeneralSecurityException {
+        assertPacketRoundTrip(EncryptionMode.AEAD_AES256_GCM);
+    }
+
+    @Test
+    public void xchachaAudioPacketsRoundTrip() throws GeneralSecurityException {
+        assertPacketRoundTrip(EncryptionMode.AEAD_XCHACHA20_POLY1305);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+    public void reportSendAllocationRate() throws GeneralSecurityException {
+        // not an assertion: allocation depends on the JVM and crypto provider, this reports the per-connection cost
+        for (EncryptionMode mode : new EncryptionMode[]{EncryptionMode.AEAD_AES256_GCM,
+                EncryptionMode.AEAD_XCHACHA20_POLY1305}) {
+            PacketTransformer transformer = newTransformer(mode);
+            ByteBuffer frame = ByteBuffer.wrap(newFrame(120));
+            sendFrames(transformer, frame, FRAMES);
+            long before = allocatedBytes();
+            sendFrames(transformer, frame, FRAMES);
+            long perFrame = (allocatedBytes() - before) / FRAMES;
+            log.info("{}: {} bytes allocated per frame, {} bytes/s per connection", mode, perFrame,
+                    perFrame * 1000 / Opus.FRAME_TIME);
+        }
+    }
+
+    private static void assertRoundTrip(EncryptionMode mode) throws GeneralSecurityException {
+        PacketTransformer transformer = newTransformer(mode);
+        for (int i = 0; i < 3; i++) {
+            byte[] audio = newFrame(100 + i);
+            ByteBuf packet = transformer.nextSend(ByteBuffer.wrap(audio));
+            assertNotNull(packet);
+            assertEquals(12 + audio.length + 16 + 4, packet.readableBytes());
+            assertEquals(i, packet.getUnsignedShort(2));
+            assertEquals(SSRC, packet.getInt(8));
+
+            byte[] received = transformer.nextReceive(packet);
+            assertNotNull(received);
+            assertEquals(0, packet.refCnt());
+            assertArrayEquals(audio, Arrays.copyOfRange(received, 12, received.length));
+        }
+    }
+
+    private static void assertPacketRoundTrip(EncryptionMode mode) throws GeneralSecurityException {
+        PacketTransformer transformer = newTransformer(mode);
+        for (int i = 0; i < 3; i++) {
+            byte[] audio = newFrame(100 + i);
+            ByteBuf packet = transformer.nextSend(ByteBuffer.wrap(audio));
+            assertNotNull(packet);
+
+            AudioPacket received = transformer.nextReceivePacket(packet);
+            assertNotNull(received);
+            try {
+                assertEquals(0, packet.refCnt());
+                assertEquals(SSRC, received.getSsrc());
+                assertEquals(i, received.getSequence());
+                assertEquals(i * Opus.FRAME_SIZE, received.getTimestamp());
+                assertEquals(1L, received.getUserId());
+                assertArrayEquals(audio, ByteBufUtil.getBytes(received.getPayload()));
+            } finally {
+                received.release();
+            }
+        }
+    }
+
+    private static PacketTransformer newTransformer(EncryptionMode mode) throws GeneralSecurityException {
+        byte[] key = new byte[32];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+        return new PacketTransformer(SSRC, mode, key, new NoOpDaveProtocolSession(), ssrc -> 1L,
+                ByteBufAllocator.DEFAULT);
+    }
+
+    private static byte[] newFrame(int length) {
+        byte[] frame = new byte[length];
+        for (int i = 0; i < length; i++) {
+            frame[i] = (byte) (i * 31);
+        }
+        return frame;
+    }
+
+    private static void sendFrames(PacketTransformer transformer, ByteBuffer frame, int count) {
+        for (int i = 0; i < count; i++) {
+            frame.rewind();
+            ByteBuf packet = transformer.nextSend(frame);
+            assertNotNull(packet);
+            packet.release();
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
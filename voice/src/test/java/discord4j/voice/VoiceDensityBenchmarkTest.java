@@ -0,0 +1,208 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+package discord4j.voice;
+
+import discord4j.common.util.Snowflake;
+import discord4j.voice.crypto.EncryptionMode;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.socket.DatagramPacket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.Connection;
+import reactor.netty.udp.UdpClient;
+import reactor.netty.udp.UdpServer;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how many voice connections a host sustains. Spins up N simulated connections sending Opus-sized frames
+ * to a local UDP echo server, receiving them back, and reports CPU, allocation and send jitter as N grows. Run with
+ * {@code D4J_VOICE_BENCHMARK=true}, optionally setting {@code D4J_VOICE_BENCHMARK_CONNECTIONS} (comma separated
+ * connection counts) and {@code D4J_VOICE_BENCHMARK_SECONDS}.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+public class VoiceDensityBenchmarkTest {
+
+    private static final Logger log = Loggers.getLogger(VoiceDensityBenchmarkTest.class);
+
+    private static final int FRAME_BYTES = 120;
+
+    @Test
+    public void reportDensity() throws Exception {
+        String counts = System.getenv().getOrDefault("D4J_VOICE_BENCHMARK_CONNECTIONS", "10,50,100,250,500");
+        long seconds = Long.parseLong(System.getenv().getOrDefault("D4J_VOICE_BENCHMARK_SECONDS", "10"));
+
+        Connection echo = UdpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((in, out) -> out.sendObject(in.receiveObject()
+                        .cast(DatagramPacket.class)
+                        .map(packet -> new DatagramPacket(packet.content().retain(), packet.sender()))))
+                .bindNow();
+        VoiceSendScheduler sendScheduler = VoiceSendScheduler.create();
+        Scheduler receiveScheduler = Schedulers.newParallel("d4j-voice-bench-receive");
+        try {
+            int port = ((InetSocketAddress) echo.address()).getPort();
+            for (String count : counts.split(",")) {
+                run(Integer.parseInt(count.trim()), seconds, port, sendScheduler, receiveScheduler);
+            }
+        } finally {
+            receiveScheduler.dispose();
+            sendScheduler.dispose();
+            echo.disposeNow();
+        }
+    }
+
+    private static void run(int connections, long seconds, int port, Scheduler sendScheduler,
+                            Scheduler receiveScheduler) throws GeneralSecurityException {
+        Recorder recorder = new Recorder();
+        List<Disposable> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Snowflake guildId = Snowflake.of(i + 1);
+                VoiceSocket socket = new VoiceSocket(UdpClient.create(), false, recorder, guildId);
+                resources.add(Objects.requireNonNull(socket.setup("127.0.0.1", port).block()));
+                PacketTransformer transformer = new PacketTransformer(i + 1, EncryptionMode.AEAD_AES256_GCM,
+                        new byte[32], new NoOpDaveProtocolSession(), ssrc -> (long) ssrc, ByteBufAllocator.DEFAULT,
+                        recorder, guildId);
+                resources.add(new LocalVoiceSendTask(sendScheduler, speaking -> {}, socket::send,
+                        new ConstantProvider(), transformer));
+                resources.add(new LocalVoiceReceiveTask(receiveScheduler, socket.getInbound(), transformer,
+                        packet -> recorder.received.increment()));
+            }
+
+            // warm up, then measure
+            sleep(TimeUnit.SECONDS.toMillis(2));
+            recorder.reset();
+            long cpuBefore = processCpuNanos();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            sleep(TimeUnit.SECONDS.toMillis(seconds));
+            long elapsed = System.nanoTime() - start;
+            double cpu = (double) (processCpuNanos() - cpuBefore) / elapsed;
+            double allocatedPerSecond = (allocatedBytes() - allocatedBefore) * 1e9 / elapsed;
+
+            long sent = recorder.sent.sum();
+            double meanLatenessMillis = sent == 0 ? 0 : recorder.latenessNanos.sum() / 1e6 / sent;
+            double meanSquare = sent == 0 ? 0 : recorder.latenessSquaredMillis.sum() / sent;
+            double jitterMillis = Math.sqrt(Math.max(0, meanSquare - meanLatenessMillis * meanLatenessMillis));
+            log.info("{} connections: cpu {}% of a core ({}% per connection), {} KiB/s allocated, " +
+                            "sent {} received {} dropped {} frames, lateness mean {} ms max {} ms jitter {} ms, " +
+                            "encryption {} us/frame",
+                    connections, format(cpu * 100), format(cpu * 100 / connections),
+                    format(allocatedPerSecond / 1024), sent, recorder.received.sum(), recorder.dropped.sum(),
+                    format(meanLatenessMillis), format(recorder.maxLatenessNanos.get() / 1e6),
+                    format(jitterMillis),
+                    format(sent == 0 ? 0 : recorder.encryptNanos.sum() / 1e3 / sent));
+        } finally {
+            for (Disposable resource : resources) {
+                resource.dispose();
+            }
+        }
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+                bean.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+
+    private static class ConstantProvider extends AudioProvider {
+
+        @Override
+        public boolean provide() {
+            getBuffer().position(FRAME_BYTES).flip();
+            return true;
+        }
+    }
+
+    private static class Recorder implements VoiceInstrumentation {
+
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder latenessNanos = new LongAdder();
+        private final DoubleAdder latenessSquaredMillis = new DoubleAdder();
+        private final AtomicLong maxLatenessNanos = new AtomicLong();
+        private final LongAdder encryptNanos = new LongAdder();
+
+        @Override
+        public void onFrameSent(Snowflake guildId, long latenessNanos) {
+            sent.increment();
+            this.latenessNanos.add(latenessNanos);
+            double millis = latenessNanos / 1e6;
+            latenessSquaredMillis.add(millis * millis);
+            maxLatenessNanos.accumulateAndGet(latenessNanos, Math::max);
+        }
+
+        @Override
+        public void onFrameDropped(Snowflake guildId, DropReason reason) {
+            dropped.increment();
+        }
+
+        @Override
+        public void onEncrypt(Snowflake guildId, long nanos) {
+            encryptNanos.add(nanos);
+        }
+
+        void reset() {
+            sent.reset();
+            received.reset();
+            dropped.reset();
+            latenessNanos.reset();
+            latenessSquaredMillis.reset();
+            maxLatenessNanos.set(0);
+            encryptNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import discord4j.common.util.Snowflake;
+import discord4j.voice.crypto.EncryptionMode;
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.Disposable;
+import reactor.netty.Connection;
+import reactor.netty.udp.UdpClient;
+import reactor.netty.udp.UdpServer;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares batched and per-packet voice egress. Spins up N simulated connections sending Opus-sized frames to a local
+ * UDP sink, once with each egress mode, and reports the packets received per second for each core of CPU used by the
+ * process. Run with {@code D4J_VOICE_BENCHMARK=true}, optionally setting {@code D4J_VOICE_BENCHMARK_CONNECTIONS}
+ * (comma separated connection counts) and {@code D4J_VOICE_BENCHMARK_SECONDS}.
+ */
+@EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+public class VoiceEgressBenchmarkTest {
+
+    private static final Logger log = Loggers.getLogger(VoiceEgressBenchmarkTest.class);
+
+    private static final int FRAME_BYTES = 120;
+
+    @Test
+    public void reportEgressThroughput() throws Exception {
+        String counts = System.getenv().getOrDefault("D4J_VOICE_BENCHMARK_CONNECTIONS", "100,500");
+        long seconds = Long.parseLong(System.getenv().getOrDefault("D4J_VOICE_BENCHMARK_SECONDS", "10"));
+
+        LongAdder received = new LongAdder();
+        Connection sink = UdpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((in, out) -> in.receiveObject().doOnNext(packet -> received.increment()).then())
+                .bindNow();
+        VoiceSendScheduler sendScheduler = VoiceSendScheduler.create();
+        try {
+            int port = ((InetSocketAddress) sink.address()).getPort();
+            for (String count : counts.split(",")) {
+                int connections = Integer.parseInt(count.trim());
+                double perPacket = run(connections, seconds, port, false, sendScheduler, received);
+                double batched = run(connections, seconds, port, true, sendScheduler, received);
+                log.info("{} connections: per-packet {} packets/s/core, batched {} packets/s/core ({}x)",
+                        connections, format(perPacket), format(batched),
+                        format(perPacket == 0 ? 0 : batched / perPacket));
+            }
+        } finally {
+            sendScheduler.dispose();
+            sink.disposeNow();
+        }
+    }
+
+    private static double run(int connections, long seconds, int port, boolean batchedEgress,
+                              VoiceSendScheduler sendScheduler, LongAdder received)
+            throws GeneralSecurityException {
+        List<Disposable> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Snowflake guildId = Snowflake.of(i + 1);
+                VoiceSocket socket = new VoiceSocket(UdpClient.create(), batchedEgress, VoiceInstrumentation.NOOP,
+                        guildId);
+                resources.add(Objects.requireNonNull(socket.setup("127.0.0.1", port).block()));
+                PacketTransformer transformer = new PacketTransformer(i + 1, EncryptionMode.AEAD_AES256_GCM,
+                        new byte[32], new NoOpDaveProtocolSession(), ssrc -> (long) ssrc, ByteBufAllocator.DEFAULT);
+                resources.add(new LocalVoiceSendTask(sendScheduler, speaking -> {}, socket::send,
+                        new ConstantProvider(), transformer));
+            }
+
+            // warm up, then measure
+            sleep(TimeUnit.SECONDS.toMillis(2));
+            received.reset();
+            long cpuBefore = processCpuNanos();
+            long start = System.nanoTime();
+            sleep(TimeUnit.SECONDS.toMillis(seconds));
+            long elapsed = System.nanoTime() - start;
+            double cores = (double) (processCpuNanos() - cpuBefore) / elapsed;
+            double packetsPerSecond = received.sum() * 1e9 / elapsed;
+            log.info("{} connections, {} egress: {} packets/s, cpu {}% of a core", connections,
+                    batchedEgress ? "batched" : "per-packet", format(packetsPerSecond), format(cores * 100));
+            return cores == 0 ? 0 : packetsPerSecond / cores;
+        } finally {
+            for (Disposable resource : resources) {
+                resource.dispose();
+            }
+        }
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private static class ConstantProvider extends AudioProvider {
+
+        @Override
+        public boolean provide() {
+            getBuffer().position(FRAME_BYTES).flip();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoiceEgressTest {
+
+    private final BlockingQueue<ByteBuf> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger flushes = new AtomicInteger();
+    private EventLoopGroup group;
+    private Channel server;
+    private Channel client;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        group = new DefaultEventLoopGroup(1);
+        LocalAddress address = new LocalAddress(VoiceEgressTest.class.getSimpleName());
+        server = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        received.add((ByteBuf) msg);
+                    }
+                })
+                .bind(address).sync().channel();
+        client = new Bootstrap()
+                .group(group)
+                .channel(LocalChannel.class)
+                .handler(new ChannelOutboundHandlerAdapter() {
+                    @Override
+                    public void flush(ChannelHandlerContext ctx) {
+                        flushes.incrementAndGet();
+                        ctx.flush();
+                    }
+                })
+                .connect(address).sync().channel();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        client.close().sync();
+        server.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        received.forEach(ByteBuf::release);
+    }
+
+    @Test
+    public void writesQueuedPacketsWithOneFlush() throws InterruptedException {
+        // hold the event loop so every packet is queued before the batch is drained
+        CountDownLatch gate = new CountDownLatch(1);
+        client.eventLoop().execute(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            VoiceEgress.send(client, Unpooled.buffer(4).writeInt(i));
+        }
+        gate.countDown();
+
+        for (int i = 0; i < 3; i++) {
+            ByteBuf packet = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(packet);
+            assertEquals(i, packet.readInt());
+            packet.release();
+        }
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    public void releasesPacketsForInactiveChannel() throws InterruptedException {
+        client.close().sync();
+        ByteBuf packet = Unpooled.buffer(4).writeInt(1);
+
+        VoiceEgress.send(client, packet);
+        // tasks run in order, the batch has been drained once this one completes
+        client.eventLoop().submit(() -> {}).sync();
+
+        assertEquals(0, packet.refCnt());
+        assertTrue(received.isEmpty());
+    }
+}
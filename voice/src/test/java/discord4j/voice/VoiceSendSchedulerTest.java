@@ -0,0 +1,215 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice;
+
+import discord4j.voice.crypto.EncryptionMode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoiceSendSchedulerTest {
+
+    @Test
+    public void runsRegisteredTasksUntilDisposed() throws InterruptedException {
+        VoiceSendScheduler scheduler = VoiceSendScheduler.create(1, Schedulers.immediate());
+        try {
+            AtomicInteger produced = new AtomicInteger();
+            CountDownLatch ticks = new CountDownLatch(3);
+            Disposable registration = scheduler.register(new RecordingTask(() -> {
+                produced.incrementAndGet();
+                ticks.countDown();
+            }));
+
+            assertTrue(ticks.await(5, TimeUnit.SECONDS));
+            registration.dispose();
+            assertTrue(registration.isDisposed());
+            int afterDispose = produced.get();
+            Thread.sleep(Opus.FRAME_TIME * 5);
+            // a tick already running when the task was removed may still produce once
+            assertTrue(produced.get() <= afterDispose + 1);
+            assertTrue(scheduler.getMetrics().getTicks() >= 3);
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    public void producesEveryFrameBeforeFlushing() throws InterruptedException {
+        VoiceSendScheduler scheduler = VoiceSendScheduler.create(1, Schedulers.immediate());
+        try {
+            List<String> events = new CopyOnWriteArrayList<>();
+            CountDownLatch flushed = new CountDownLatch(1);
+            Disposable first = scheduler.register(new RecordingTask(() -> events.add("produce-a"),
+                    () -> events.add("flush-a")));
+            Disposable second = scheduler.register(new RecordingTask(() -> events.add("produce-b"), () -> {
+                events.add("flush-b");
+                flushed.countDown();
+            }));
+
+            assertTrue(flushed.await(5, TimeUnit.SECONDS));
+            first.dispose();
+            second.dispose();
+            // the first tick running both tasks, an earlier tick may have run the first task alone
+            int start = events.indexOf("produce-b") - 1;
+            assertEquals(Arrays.asList("produce-a", "produce-b", "flush-a", "flush-b"),
+                    events.subList(start, start + 4));
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    public void delegatesNonFrameTasksToFallback() {
+        VoiceSendScheduler scheduler = VoiceSendScheduler.create(1, Schedulers.immediate());
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            scheduler.schedule(runs::incrementAndGet);
+            assertEquals(1, runs.get());
+        } finally {
+            scheduler.dispose();
+        }
+        assertTrue(scheduler.isDisposed());
+    }
+
+    @Test
+    public void delegatesPeriodicTasksAtFrameRateToFallback() throws InterruptedException {
+        Scheduler fallback = Schedulers.newSingle("voice-fallback");
+        VoiceSendScheduler scheduler = VoiceSendScheduler.create(1, fallback);
+        try {
+            CountDownLatch ran = new CountDownLatch(1);
+            AtomicReference<String> thread = new AtomicReference<>();
+            Disposable task = scheduler.schedulePeriodically(() -> {
+                thread.compareAndSet(null, Thread.currentThread().getName());
+                ran.countDown();
+            }, 0, Opus.FRAME_TIME, TimeUnit.MILLISECONDS);
+
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            task.dispose();
+            assertTrue(thread.get().startsWith("voice-fallback"), thread::get);
+        } finally {
+            scheduler.dispose();
+            fallback.dispose();
+        }
+    }
+
+    @Test
+    public void disposeBetweenPhasesReleasesPendingPacket() throws Exception {
+        VoiceSendScheduler scheduler = VoiceSendScheduler.create(1, Schedulers.immediate());
+        RecordingAllocator allocator = new RecordingAllocator();
+        List<ByteBuf> sent = new CopyOnWriteArrayList<>();
+        try {
+            PacketTransformer transformer = new PacketTransformer(1234, EncryptionMode.AEAD_AES256_GCM,
+                    new byte[32], new NoOpDaveProtocolSession(), ssrc -> 1L, allocator);
+            LocalVoiceSendTask sendTask = new LocalVoiceSendTask(scheduler, speaking -> {}, packet -> {
+                sent.add(packet);
+                packet.release();
+            }, new FrameProvider(), transformer);
+
+            // runs after the send task produced its frame and before it flushes it
+            CountDownLatch tickDone = new CountDownLatch(1);
+            AtomicInteger sentBeforeDispose = new AtomicInteger(-1);
+            AtomicReference<Disposable> disposer = new AtomicReference<>();
+            disposer.set(scheduler.register(new RecordingTask(() -> {
+                if (sentBeforeDispose.compareAndSet(-1, sent.size())) {
+                    sendTask.dispose();
+                }
+            }, () -> {
+                disposer.get().dispose();
+                tickDone.countDown();
+            })));
+
+            assertTrue(tickDone.await(5, TimeUnit.SECONDS));
+            assertTrue(sendTask.isDisposed());
+            assertEquals(sentBeforeDispose.get(), sent.size());
+            synchronized (allocator.allocated) {
+                assertFalse(allocator.allocated.isEmpty());
+                for (ByteBuf buffer : allocator.allocated) {
+                    assertEquals(0, buffer.refCnt());
+                }
+            }
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    private static class RecordingTask implements VoiceSendScheduler.FrameTask {
+
+        private final Runnable onProduce;
+        private final Runnable onFlush;
+
+        private RecordingTask(Runnable onProduce) {
+            this(onProduce, () -> {});
+        }
+
+        private RecordingTask(Runnable onProduce, Runnable onFlush) {
+            this.onProduce = onProduce;
+            this.onFlush = onFlush;
+        }
+
+        @Override
+        public void produce() {
+            onProduce.run();
+        }
+
+        @Override
+        public void flush() {
+            onFlush.run();
+        }
+    }
+
+    private static class FrameProvider extends AudioProvider {
+
+        @Override
+        public boolean provide() {
+            getBuffer().put(new byte[]{1, 2, 3}).flip();
+            return true;
+        }
+    }
+
+    private static class RecordingAllocator extends UnpooledByteBufAllocator {
+
+        private final List<ByteBuf> allocated = new ArrayList<>();
+
+        private RecordingAllocator() {
+            super(false);
+        }
+
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+            ByteBuf buffer = super.newHeapBuffer(initialCapacity, maxCapacity);
+            synchronized (allocated) {
+                allocated.add(buffer);
+            }
+            return buffer;
+        }
+    }
+}
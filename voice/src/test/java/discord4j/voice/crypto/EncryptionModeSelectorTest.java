@@ -0,0 +1,125 @@
+/*
+ * This file is part of Discord4J.
+ *
+ * Discord4J is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Discord4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Discord4J. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package discord4j.voice.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncryptionModeSelectorTest {
+
+    private static final Logger log = Loggers.getLogger(EncryptionModeSelectorTest.class);
+
+    private static final int PACKETS = 50_000;
+
+    @Test
+    public void selectsOnlySupportedModes() {
+        Map<EncryptionMode, Double> throughput = EncryptionModeSelector.measure(Schedulers.immediate()).block();
+        assertNotNull(throughput);
+        assertFalse(throughput.isEmpty());
+        assertEquals(throughput, EncryptionModeSelector.getThroughput());
+        for (EncryptionMode mode : throughput.keySet()) {
+            assertEquals(mode, EncryptionModeSelector.select(Collections.singletonList(mode.getValue())));
+        }
+        assertNull(EncryptionModeSelector.select(Collections.singletonList("xsalsa20_poly1305")));
+    }
+
+    @Test
+    public void overridesPreferenceOrderOnlyByMargin() {
+        Map<EncryptionMode, Double> throughput = EncryptionModeSelector.measure(Schedulers.immediate()).block();
+        assertNotNull(throughput);
+        List<String> all = Arrays.asList(EncryptionMode.AEAD_AES256_GCM.getValue(),
+                EncryptionMode.AEAD_XCHACHA20_POLY1305.getValue());
+        EncryptionMode preferred = EncryptionMode.getBestMode(all);
+        EncryptionMode selected = EncryptionModeSelector.select(all);
+        assertNotNull(selected);
+        if (selected != preferred) {
+            assertTrue(throughput.get(selected) >= throughput.get(preferred) * 1.5);
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "D4J_VOICE_BENCHMARK", matches = "true")
+    public void reportEncryptionThroughput() throws GeneralSecurityException {
+        // not an assertion: compares the array path with reused cipher state on heap and direct buffers
+        log.info("AES intrinsics: {}", EncryptionModeSelector.isAesAccelerated());
+        for (EncryptionMode mode : EncryptionModeSelector.measure(Schedulers.immediate()).block().keySet()) {
+            EncryptionAdapter adapter = EncryptionAdapter.create(mode, new byte[32]);
+            byte[] nonce = new byte[adapter.getNonceLength()];
+            byte[] header = new byte[12];
+            byte[] audio = new byte[160];
+            long arrays = time(() -> adapter.encrypt(header, audio, nextNonce(nonce)));
+            long heap = time(bufferEncrypt(adapter, nonce, false));
+            long direct = time(bufferEncrypt(adapter, nonce, true));
+            log.info("{}: byte[] {} ns/packet, heap buffer {} ns/packet, direct buffer {} ns/packet", mode,
+                    arrays, heap, direct);
+
+            ByteBuffer output = ByteBuffer.allocate(audio.length + EncryptionAdapter.TAG_LENGTH);
+            adapter.encrypt(ByteBuffer.wrap(header), ByteBuffer.wrap(audio), nextNonce(nonce), output);
+            assertArrayEquals(adapter.encrypt(header, audio, nonce), Arrays.copyOf(output.array(), output.position()));
+        }
+    }
+
+    private static Encryption bufferEncrypt(EncryptionAdapter adapter, byte[] nonce, boolean direct) {
+        ByteBuffer header = direct ? ByteBuffer.allocateDirect(12) : ByteBuffer.allocate(12);
+        ByteBuffer audio = direct ? ByteBuffer.allocateDirect(160) : ByteBuffer.allocate(160);
+        int outputLength = 160 + EncryptionAdapter.TAG_LENGTH;
+        ByteBuffer output = direct ? ByteBuffer.allocateDirect(outputLength) : ByteBuffer.allocate(outputLength);
+        return () -> {
+            header.clear();
+            audio.clear();
+            output.clear();
+            adapter.encrypt(header, audio, nextNonce(nonce), output);
+        };
+    }
+
+    private static long time(Encryption encryption) throws GeneralSecurityException {
+        for (int i = 0; i < PACKETS; i++) {
+            encryption.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PACKETS; i++) {
+            encryption.run();
+        }
+        return (System.nanoTime() - start) / PACKETS;
+    }
+
+    private static byte[] nextNonce(byte[] nonce) {
+        for (int i = 0; i < nonce.length && ++nonce[i] == 0; i++) {
+            // carry into the next byte
+        }
+        return nonce;
+    }
+
+    @FunctionalInterface
+    private interface Encryption {
+
+        void run() throws GeneralSecurityException;
+    }
+}